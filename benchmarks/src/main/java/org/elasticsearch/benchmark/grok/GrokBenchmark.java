@@ -0,0 +1,96 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+
+package org.elasticsearch.benchmark.grok;
+
+import org.elasticsearch.grok.Grok;
+import org.elasticsearch.grok.GrokBuiltinPatterns;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures extracting captures from typical log lines, both when the line matches the pattern and when it does not, which is when the
+ * literals that the pattern requires let grok skip running the regex.
+ */
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class GrokBenchmark {
+
+    private static final Map<String, String> PATTERNS = Map.of(
+        "apache",
+        "%{IPORHOST:clientip} %{USER:ident} %{USER:auth} \\[%{HTTPDATE:timestamp}\\] \"%{WORD:verb} %{NOTSPACE:request} "
+            + "HTTP/%{NUMBER:httpversion}\" %{NUMBER:response:int} (?:%{NUMBER:bytes:int}|-)",
+        "syslog",
+        "%{SYSLOGTIMESTAMP:timestamp} %{SYSLOGHOST:host} %{DATA:program}(?:\\[%{POSINT:pid}\\])?: %{GREEDYDATA:message}",
+        "multi",
+        "(?:%{TIMESTAMP_ISO8601:timestamp} \\[%{LOGLEVEL:level}\\] %{GREEDYDATA:message})"
+            + "|(?:level=%{LOGLEVEL:level} msg=\"%{DATA:message}\")"
+            + "|(?:%{IP:client} - user=%{USERNAME:user} action=%{WORD:action})"
+    );
+
+    private static final Map<String, List<String>> LINES = Map.of(
+        "apache",
+        List.of(
+            "83.149.9.216 - - [17/May/2015:10:05:03 +0000] \"GET /presentations/logstash-monitorama-2013/images/kibana-search.png "
+                + "HTTP/1.1\" 200 203023",
+            "2015-05-17T10:05:03.000Z INFO [main] starting node"
+        ),
+        "syslog",
+        List.of(
+            "Oct 11 22:14:15 mymachine su[123]: 'su root' failed for lonvick on /dev/pts/8",
+            "{\"@timestamp\":\"2015-05-17T10:05:03.000Z\",\"message\":\"starting node\"}"
+        ),
+        "multi",
+        List.of(
+            "level=info msg=\"starting node\"",
+            "83.149.9.216 GET /presentations/logstash-monitorama-2013/images/kibana-search.png 200 203023"
+        )
+    );
+
+    @Param({ "apache", "syslog", "multi" })
+    private String format;
+
+    @Param({ "true", "false" })
+    private boolean matching;
+
+    private Grok grok;
+    private String line;
+
+    @Setup
+    public void setup() {
+        grok = new Grok(GrokBuiltinPatterns.legacyPatterns(), PATTERNS.get(format), s -> {});
+        line = LINES.get(format).get(matching ? 0 : 1);
+        if ((grok.captures(line) != null) != matching) {
+            throw new IllegalStateException("expected [" + line + "] to " + (matching ? "" : "not ") + "match [" + format + "]");
+        }
+    }
+
+    @Benchmark
+    public void captures(Blackhole bh) {
+        bh.consume(grok.captures(line));
+    }
+}
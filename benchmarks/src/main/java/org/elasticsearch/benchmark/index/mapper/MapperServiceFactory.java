@@ -45,11 +45,16 @@ import java.util.Map;
 public class MapperServiceFactory {
 
     public static MapperService create(String mappings) {
+        return create(Settings.EMPTY, mappings);
+    }
+
+    public static MapperService create(Settings additionalSettings, String mappings) {
         Settings settings = Settings.builder()
             .put("index.number_of_replicas", 0)
             .put("index.number_of_shards", 1)
             .put(IndexMetadata.SETTING_VERSION_CREATED, IndexVersion.current())
             .put("index.mapping.total_fields.limit", 100000)
+            .put(additionalSettings)
             .build();
         IndexMetadata meta = IndexMetadata.builder("index").settings(settings).build();
         IndexSettings indexSettings = new IndexSettings(meta, settings);
@@ -10,6 +10,7 @@ package org.elasticsearch.benchmark.routing.allocation;
 
 import org.elasticsearch.TransportVersion;
 import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.cluster.ClusterInfo;
 import org.elasticsearch.cluster.ClusterName;
 import org.elasticsearch.cluster.ClusterState;
 import org.elasticsearch.cluster.metadata.IndexMetadata;
@@ -18,9 +19,20 @@ import org.elasticsearch.cluster.node.DiscoveryNodes;
 import org.elasticsearch.cluster.routing.RoutingTable;
 import org.elasticsearch.cluster.routing.ShardRouting;
 import org.elasticsearch.cluster.routing.allocation.AllocationService;
+import org.elasticsearch.cluster.routing.allocation.RoutingAllocation;
+import org.elasticsearch.cluster.routing.allocation.allocator.BalancedShardsAllocator;
+import org.elasticsearch.cluster.routing.allocation.allocator.DesiredBalance;
+import org.elasticsearch.cluster.routing.allocation.allocator.DesiredBalanceComputer;
+import org.elasticsearch.cluster.routing.allocation.allocator.DesiredBalanceInput;
+import org.elasticsearch.cluster.routing.allocation.decider.AllocationDeciders;
 import org.elasticsearch.cluster.version.CompatibilityVersions;
+import org.elasticsearch.common.settings.ClusterSettings;
 import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.index.IndexVersion;
+import org.elasticsearch.snapshots.SnapshotShardSizeInfo;
+import org.elasticsearch.telemetry.metric.MeterRegistry;
+import org.elasticsearch.threadpool.DefaultBuiltInExecutorBuilders;
+import org.elasticsearch.threadpool.ThreadPool;
 import org.openjdk.jmh.annotations.Benchmark;
 import org.openjdk.jmh.annotations.BenchmarkMode;
 import org.openjdk.jmh.annotations.Fork;
@@ -31,10 +43,14 @@ import org.openjdk.jmh.annotations.Param;
 import org.openjdk.jmh.annotations.Scope;
 import org.openjdk.jmh.annotations.Setup;
 import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
 import org.openjdk.jmh.annotations.Warmup;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
@@ -113,6 +129,14 @@ public class AllocationBenchmark {
     private AllocationService strategy;
     private ClusterState initialClusterState;
 
+    private ThreadPool threadPool;
+    private AllocationDeciders allocationDeciders;
+    private DesiredBalanceComputer desiredBalanceComputer;
+    private DesiredBalance desiredBalance;
+    private long desiredBalanceInputIndex;
+    private List<ClusterState> shardsStartingClusterStates;
+    private int shardsStartingClusterStateIndex;
+
     @Setup
     public void setUp() throws Exception {
         final String[] params = indicesShardsReplicasNodes.split("\\|");
@@ -122,9 +146,8 @@ public class AllocationBenchmark {
         int numReplicas = toInt(params[2]);
         int numNodes = toInt(params[3]);
 
-        strategy = Allocators.createAllocationService(
-            Settings.builder().put("cluster.routing.allocation.awareness.attributes", "tag").build()
-        );
+        Settings settings = Settings.builder().put("cluster.routing.allocation.awareness.attributes", "tag").build();
+        strategy = Allocators.createAllocationService(settings);
 
         Metadata.Builder mb = Metadata.builder();
         for (int i = 1; i <= numIndices; i++) {
@@ -155,6 +178,27 @@ public class AllocationBenchmark {
             .nodes(nb)
             .nodeIdsToCompatibilityVersions(compatibilityVersions)
             .build();
+
+        ClusterSettings clusterSettings = new ClusterSettings(Settings.EMPTY, ClusterSettings.BUILT_IN_CLUSTER_SETTINGS);
+        threadPool = new ThreadPool(Settings.EMPTY, MeterRegistry.NOOP, new DefaultBuiltInExecutorBuilders());
+        allocationDeciders = Allocators.defaultAllocationDeciders(settings, clusterSettings);
+        desiredBalanceComputer = new DesiredBalanceComputer(clusterSettings, threadPool, new BalancedShardsAllocator(settings));
+        desiredBalance = computeDesiredBalance(initialClusterState, DesiredBalance.INITIAL);
+
+        // the states between which the reconciler starts shards, each of which updates the in-sync allocation IDs of the metadata
+        shardsStartingClusterStates = new ArrayList<>();
+        ClusterState clusterState = initialClusterState;
+        while (clusterState.getRoutingNodes().hasUnassignedShards()) {
+            clusterState = strategy.applyStartedShards(clusterState, initializingShards(clusterState));
+            shardsStartingClusterStates.add(clusterState);
+            clusterState = strategy.reroute(clusterState, "reroute", ActionListener.noop());
+            shardsStartingClusterStates.add(clusterState);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        ThreadPool.terminate(threadPool, 10, TimeUnit.SECONDS);
     }
 
     private int toInt(String v) {
@@ -168,16 +212,53 @@ public class AllocationBenchmark {
     public ClusterState measureAllocation() {
         ClusterState clusterState = initialClusterState;
         while (clusterState.getRoutingNodes().hasUnassignedShards()) {
-            clusterState = strategy.applyStartedShards(
-                clusterState,
-                clusterState.getRoutingNodes()
-                    .stream()
-                    .flatMap(shardRoutings -> StreamSupport.stream(shardRoutings.spliterator(), false))
-                    .filter(ShardRouting::initializing)
-                    .collect(Collectors.toList())
-            );
+            clusterState = strategy.applyStartedShards(clusterState, initializingShards(clusterState));
             clusterState = strategy.reroute(clusterState, "reroute", ActionListener.noop());
         }
         return clusterState;
     }
+
+    private static List<ShardRouting> initializingShards(ClusterState clusterState) {
+        return clusterState.getRoutingNodes()
+            .stream()
+            .flatMap(shardRoutings -> StreamSupport.stream(shardRoutings.spliterator(), false))
+            .filter(ShardRouting::initializing)
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Measures a desired balance computation from scratch
+     */
+    @Benchmark
+    public DesiredBalance measureDesiredBalanceComputation() {
+        return computeDesiredBalance(initialClusterState, DesiredBalance.INITIAL);
+    }
+
+    /**
+     * Measures a desired balance computation for each of the cluster states in which the reconciler starts shards, which have new
+     * metadata and routing tables but leave the balance unchanged since the previous computation converged
+     */
+    @Benchmark
+    public DesiredBalance measureIncrementalDesiredBalanceComputation() {
+        final ClusterState clusterState = shardsStartingClusterStates.get(shardsStartingClusterStateIndex);
+        shardsStartingClusterStateIndex = (shardsStartingClusterStateIndex + 1) % shardsStartingClusterStates.size();
+        desiredBalance = computeDesiredBalance(clusterState, desiredBalance);
+        return desiredBalance;
+    }
+
+    private DesiredBalance computeDesiredBalance(ClusterState clusterState, DesiredBalance previousDesiredBalance) {
+        var routingAllocation = new RoutingAllocation(
+            allocationDeciders,
+            clusterState,
+            ClusterInfo.EMPTY,
+            SnapshotShardSizeInfo.EMPTY,
+            System.nanoTime()
+        );
+        return desiredBalanceComputer.compute(
+            previousDesiredBalance,
+            DesiredBalanceInput.create(desiredBalanceInputIndex++, routingAllocation),
+            new LinkedList<>(),
+            input -> true
+        );
+    }
 }
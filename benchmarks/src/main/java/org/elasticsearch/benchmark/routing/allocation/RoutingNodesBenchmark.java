@@ -0,0 +1,129 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+package org.elasticsearch.benchmark.routing.allocation;
+
+import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.cluster.ClusterName;
+import org.elasticsearch.cluster.ClusterState;
+import org.elasticsearch.cluster.metadata.IndexMetadata;
+import org.elasticsearch.cluster.metadata.Metadata;
+import org.elasticsearch.cluster.node.DiscoveryNodes;
+import org.elasticsearch.cluster.routing.RoutingNodes;
+import org.elasticsearch.cluster.routing.RoutingTable;
+import org.elasticsearch.cluster.routing.ShardRouting;
+import org.elasticsearch.cluster.routing.allocation.AllocationService;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.index.IndexVersion;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+/**
+ * Measures building the {@link RoutingNodes} of an applied cluster state in which the routing of a single index changed, either from
+ * scratch or incrementally from the routing nodes of the previous cluster state.
+ */
+@Fork(3)
+@Warmup(iterations = 10)
+@Measurement(iterations = 10)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@SuppressWarnings("unused") // invoked by benchmarking framework
+public class RoutingNodesBenchmark {
+    // Do NOT make any field final (even if it is not annotated with @Param)! See also
+    // http://hg.openjdk.java.net/code-tools/jmh/file/tip/jmh-samples/src/main/java/org/openjdk/jmh/samples/JMHSample_10_ConstantFold.java
+
+    @Param(
+        {
+            // indices| shards| replicas| nodes
+            "      100|      3|        1|    10",
+            "     1000|      3|        1|    50",
+            "    10000|      1|        1|   100" }
+    )
+    public String indicesShardsReplicasNodes = "100|3|1|10";
+
+    private DiscoveryNodes nodes;
+    private RoutingTable previousRoutingTable;
+    private RoutingNodes previousRoutingNodes;
+    private RoutingTable routingTable;
+
+    @Setup
+    public void setUp() throws Exception {
+        final String[] params = indicesShardsReplicasNodes.split("\\|");
+
+        int numIndices = toInt(params[0]);
+        int numShards = toInt(params[1]);
+        int numReplicas = toInt(params[2]);
+        int numNodes = toInt(params[3]);
+
+        AllocationService strategy = Allocators.createAllocationService(Settings.EMPTY);
+
+        Metadata.Builder mb = Metadata.builder();
+        RoutingTable.Builder rb = RoutingTable.builder(TestShardRoutingRoleStrategies.DEFAULT_ROLE_ONLY);
+        for (int i = 1; i <= numIndices; i++) {
+            IndexMetadata indexMetadata = IndexMetadata.builder("test_" + i)
+                .settings(Settings.builder().put(IndexMetadata.SETTING_VERSION_CREATED, IndexVersion.current()))
+                .numberOfShards(numShards)
+                .numberOfReplicas(numReplicas)
+                .build();
+            mb.put(indexMetadata, false);
+            rb.addAsNew(indexMetadata);
+        }
+        DiscoveryNodes.Builder nb = DiscoveryNodes.builder();
+        for (int i = 1; i <= numNodes; i++) {
+            nb.add(Allocators.newNode("node" + i, Map.of()));
+        }
+        ClusterState clusterState = ClusterState.builder(ClusterName.DEFAULT).metadata(mb).routingTable(rb.build()).nodes(nb).build();
+        clusterState = strategy.reroute(clusterState, "reroute", ActionListener.noop());
+        while (clusterState.getRoutingNodes().hasInactiveShards()) {
+            clusterState = strategy.applyStartedShards(
+                clusterState,
+                clusterState.getRoutingNodes()
+                    .stream()
+                    .flatMap(shardRoutings -> StreamSupport.stream(shardRoutings.spliterator(), false))
+                    .filter(ShardRouting::initializing)
+                    .collect(Collectors.toList())
+            );
+            clusterState = strategy.reroute(clusterState, "reroute", ActionListener.noop());
+        }
+
+        nodes = clusterState.nodes();
+        previousRoutingTable = clusterState.routingTable();
+        previousRoutingNodes = clusterState.getRoutingNodes();
+        // the next cluster state deletes one of the indices
+        routingTable = RoutingTable.builder(previousRoutingTable).remove("test_1").build();
+    }
+
+    private int toInt(String v) {
+        return Integer.valueOf(v.trim());
+    }
+
+    @Benchmark
+    public RoutingNodes measureFullBuild() {
+        return RoutingNodes.immutable(routingTable, nodes);
+    }
+
+    @Benchmark
+    public RoutingNodes measureIncrementalBuild() {
+        return RoutingNodes.immutable(routingTable, nodes, previousRoutingTable, previousRoutingNodes);
+    }
+}
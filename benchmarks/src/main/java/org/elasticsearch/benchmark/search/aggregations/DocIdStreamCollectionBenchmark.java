@@ -0,0 +1,411 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+
+package org.elasticsearch.benchmark.search.aggregations;
+
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.SortedNumericDocValuesField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.search.CheckedIntConsumer;
+import org.apache.lucene.search.DocIdStream;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.MatchAllDocsQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.elasticsearch.cluster.metadata.IndexMetadata;
+import org.elasticsearch.common.breaker.CircuitBreaker;
+import org.elasticsearch.common.breaker.NoopCircuitBreaker;
+import org.elasticsearch.common.settings.ClusterSettings;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.util.BigArrays;
+import org.elasticsearch.core.IOUtils;
+import org.elasticsearch.core.Releasable;
+import org.elasticsearch.core.Releasables;
+import org.elasticsearch.index.IndexSettings;
+import org.elasticsearch.index.IndexVersion;
+import org.elasticsearch.index.analysis.NameOrDefinition;
+import org.elasticsearch.index.analysis.NamedAnalyzer;
+import org.elasticsearch.index.cache.bitset.BitsetFilterCache;
+import org.elasticsearch.index.fielddata.FieldDataContext;
+import org.elasticsearch.index.fielddata.IndexFieldData;
+import org.elasticsearch.index.fielddata.IndexFieldDataCache;
+import org.elasticsearch.index.mapper.DateFieldMapper;
+import org.elasticsearch.index.mapper.MappedFieldType;
+import org.elasticsearch.index.mapper.NestedLookup;
+import org.elasticsearch.index.mapper.NumberFieldMapper;
+import org.elasticsearch.index.mapper.NumberFieldMapper.NumberType;
+import org.elasticsearch.index.query.QueryBuilder;
+import org.elasticsearch.index.query.support.NestedScope;
+import org.elasticsearch.indices.breaker.NoneCircuitBreakerService;
+import org.elasticsearch.script.Script;
+import org.elasticsearch.script.ScriptContext;
+import org.elasticsearch.search.SearchModule;
+import org.elasticsearch.search.aggregations.AggregationBuilder;
+import org.elasticsearch.search.aggregations.AggregationExecutionContext;
+import org.elasticsearch.search.aggregations.Aggregator;
+import org.elasticsearch.search.aggregations.AggregatorFactories;
+import org.elasticsearch.search.aggregations.LeafBucketCollector;
+import org.elasticsearch.search.aggregations.bucket.histogram.DateHistogramAggregationBuilder;
+import org.elasticsearch.search.aggregations.bucket.histogram.DateHistogramInterval;
+import org.elasticsearch.search.aggregations.bucket.terms.TermsAggregationBuilder;
+import org.elasticsearch.search.aggregations.metrics.MaxAggregationBuilder;
+import org.elasticsearch.search.aggregations.metrics.MinAggregationBuilder;
+import org.elasticsearch.search.aggregations.metrics.SumAggregationBuilder;
+import org.elasticsearch.search.aggregations.metrics.ValueCountAggregationBuilder;
+import org.elasticsearch.search.aggregations.support.AggregationContext;
+import org.elasticsearch.search.aggregations.support.ValuesSourceRegistry;
+import org.elasticsearch.search.internal.SubSearchContext;
+import org.elasticsearch.search.lookup.SearchLookup;
+import org.elasticsearch.search.sort.BucketedSort;
+import org.elasticsearch.search.sort.BucketedSort.ExtraData;
+import org.elasticsearch.search.sort.SortAndFormats;
+import org.elasticsearch.search.sort.SortBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Benchmarks collecting every document of a segment into an aggregator one
+ * doc at a time against collecting them as {@link DocIdStream}s, the way
+ * Lucene hands out matches when it doesn't need scores.
+ */
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Thread)
+public class DocIdStreamCollectionBenchmark {
+    private static final int DOC_COUNT = 1_000_000;
+    /**
+     * Lucene's bulk scorers hand out matches in windows of this many docs.
+     */
+    private static final int STREAM_LENGTH = 4096;
+
+    private final SearchModule searchModule = new SearchModule(Settings.EMPTY, List.of());
+    private final BigArrays bigArrays = BigArrays.NON_RECYCLING_INSTANCE;
+
+    @Param({ "sum", "min", "max", "value_count", "date_histogram", "terms" })
+    private String agg;
+
+    @Param({ "per_doc", "doc_id_stream" })
+    private String collection;
+
+    private Directory directory;
+    private IndexReader reader;
+    private IndexSearcher searcher;
+    private IndexSettings indexSettings;
+    private AggregationBuilder builder;
+
+    @Setup
+    public void setup() throws IOException {
+        directory = new ByteBuffersDirectory();
+        Random random = new Random(0);
+        try (IndexWriter iw = new IndexWriter(directory, new IndexWriterConfig())) {
+            long timestamp = 1_700_000_000_000L;
+            for (int i = 0; i < DOC_COUNT; i++) {
+                Document doc = new Document();
+                doc.add(new SortedNumericDocValuesField("long", random.nextInt(1_000_000)));
+                // Logs arrive roughly in time order and with a handful of values repeated in runs
+                timestamp += random.nextInt(2000);
+                doc.add(new SortedNumericDocValuesField("date", timestamp));
+                doc.add(new SortedNumericDocValuesField("term", (i / 64) % 100));
+                iw.addDocument(doc);
+            }
+            iw.forceMerge(1);
+        }
+        reader = DirectoryReader.open(directory);
+        searcher = new IndexSearcher(reader);
+
+        Settings settings = Settings.builder()
+            .put("index.number_of_replicas", 0)
+            .put("index.number_of_shards", 1)
+            .put(IndexMetadata.SETTING_VERSION_CREATED, IndexVersion.current())
+            .build();
+        indexSettings = new IndexSettings(IndexMetadata.builder("index").settings(settings).build(), settings);
+
+        builder = switch (agg) {
+            case "sum" -> new SumAggregationBuilder("a").field("long");
+            case "min" -> new MinAggregationBuilder("a").field("long");
+            case "max" -> new MaxAggregationBuilder("a").field("long");
+            case "value_count" -> new ValueCountAggregationBuilder("a").field("long");
+            case "date_histogram" -> new DateHistogramAggregationBuilder("a").field("date").fixedInterval(DateHistogramInterval.HOUR);
+            case "terms" -> new TermsAggregationBuilder("a").field("term").size(100);
+            default -> throw new UnsupportedOperationException();
+        };
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        IOUtils.close(reader, directory);
+    }
+
+    @Benchmark
+    public void collect(Blackhole bh) throws IOException {
+        try (DummyAggregationContext context = new DummyAggregationContext()) {
+            Aggregator aggregator = new AggregatorFactories.Builder().addAggregator(builder)
+                .build(context, null)
+                .createTopLevelAggregators()[0];
+            aggregator.preCollection();
+            for (LeafReaderContext ctx : reader.leaves()) {
+                LeafBucketCollector leafCollector = aggregator.getLeafCollector(new AggregationExecutionContext(ctx, null, null, null));
+                int maxDoc = ctx.reader().maxDoc();
+                if (collection.equals("per_doc")) {
+                    for (int doc = 0; doc < maxDoc; doc++) {
+                        leafCollector.collect(doc);
+                    }
+                } else {
+                    for (int from = 0; from < maxDoc; from += STREAM_LENGTH) {
+                        leafCollector.collect(docIdStream(from, Math.min(from + STREAM_LENGTH, maxDoc)));
+                    }
+                }
+            }
+            aggregator.postCollection();
+            bh.consume(aggregator.buildTopLevel());
+        }
+    }
+
+    private static DocIdStream docIdStream(int from, int to) {
+        return new DocIdStream() {
+            @Override
+            public void forEach(CheckedIntConsumer<IOException> consumer) throws IOException {
+                for (int doc = from; doc < to; doc++) {
+                    consumer.accept(doc);
+                }
+            }
+        };
+    }
+
+    private class DummyAggregationContext extends AggregationContext {
+        private final Query query = new MatchAllDocsQuery();
+        private final List<Releasable> releaseMe = new ArrayList<>();
+
+        @Override
+        public Query query() {
+            return query;
+        }
+
+        @Override
+        public Aggregator profileIfEnabled(Aggregator agg) throws IOException {
+            return agg;
+        }
+
+        @Override
+        public boolean profiling() {
+            return false;
+        }
+
+        @Override
+        public long nowInMillis() {
+            return 0;
+        }
+
+        @Override
+        public Analyzer getNamedAnalyzer(String analyzer) {
+            return null;
+        }
+
+        @Override
+        public Analyzer buildCustomAnalyzer(
+            IndexSettings indexSettings,
+            boolean normalizer,
+            NameOrDefinition tokenizer,
+            List<NameOrDefinition> charFilters,
+            List<NameOrDefinition> tokenFilters
+        ) {
+            return null;
+        }
+
+        @Override
+        protected IndexFieldData<?> buildFieldData(MappedFieldType ft) {
+            return ft.fielddataBuilder(FieldDataContext.noRuntimeFields("benchmark"))
+                .build(new IndexFieldDataCache.None(), new NoneCircuitBreakerService());
+        }
+
+        @Override
+        public MappedFieldType getFieldType(String path) {
+            // Not indexed so min and max can't short circuit on the points and the date histogram doesn't rewrite itself to ranges
+            return switch (path) {
+                case "long", "term" -> new NumberFieldMapper.NumberFieldType(path, NumberType.LONG, false);
+                case "date" -> new DateFieldMapper.DateFieldType(path, false);
+                default -> throw new UnsupportedOperationException();
+            };
+        }
+
+        @Override
+        public Set<String> getMatchingFieldNames(String pattern) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public <FactoryType> FactoryType compile(Script script, ScriptContext<FactoryType> context) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public SearchLookup lookup() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public ValuesSourceRegistry getValuesSourceRegistry() {
+            return searchModule.getValuesSourceRegistry();
+        }
+
+        @Override
+        public BigArrays bigArrays() {
+            return bigArrays;
+        }
+
+        @Override
+        public IndexSearcher searcher() {
+            return searcher;
+        }
+
+        @Override
+        public Query buildQuery(QueryBuilder builder) throws IOException {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Query filterQuery(Query query) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public IndexSettings getIndexSettings() {
+            return indexSettings;
+        }
+
+        @Override
+        public ClusterSettings getClusterSettings() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Optional<SortAndFormats> buildSort(List<SortBuilder<?>> sortBuilders) throws IOException {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public NestedLookup nestedLookup() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public NestedScope nestedScope() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public SubSearchContext subSearchContext() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void addReleasable(Aggregator aggregator) {
+            releaseMe.add(aggregator);
+        }
+
+        @Override
+        public void removeReleasable(Aggregator aggregator) {
+            releaseMe.remove(aggregator);
+        }
+
+        @Override
+        public int maxBuckets() {
+            return Integer.MAX_VALUE;
+        }
+
+        @Override
+        public BitsetFilterCache bitsetFilterCache() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public BucketedSort buildBucketedSort(SortBuilder<?> sort, int size, ExtraData values) throws IOException {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public int shardRandomSeed() {
+            return 0;
+        }
+
+        @Override
+        public long getRelativeTimeInMillis() {
+            return 0;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return false;
+        }
+
+        @Override
+        public CircuitBreaker breaker() {
+            return new NoopCircuitBreaker(CircuitBreaker.REQUEST);
+        }
+
+        @Override
+        public Analyzer getIndexAnalyzer(Function<String, NamedAnalyzer> unindexedFieldAnalyzer) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean isCacheable() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean enableRewriteToFilterByFilter() {
+            return false;
+        }
+
+        @Override
+        public boolean isInSortOrderExecutionRequired() {
+            return false;
+        }
+
+        @Override
+        public Set<String> sourcePath(String fullName) {
+            return Set.of(fullName);
+        }
+
+        @Override
+        public void close() {
+            Releasables.close(new ArrayList<>(releaseMe));
+        }
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+
+package org.elasticsearch.benchmark.search.fetch.subphase;
+
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.elasticsearch.benchmark.index.mapper.MapperServiceFactory;
+import org.elasticsearch.common.bytes.BytesArray;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.core.IOUtils;
+import org.elasticsearch.index.fieldvisitor.LeafStoredFieldLoader;
+import org.elasticsearch.index.fieldvisitor.StoredFieldLoader;
+import org.elasticsearch.index.mapper.MapperService;
+import org.elasticsearch.index.mapper.SourceFieldMetrics;
+import org.elasticsearch.index.mapper.SourceLoader;
+import org.elasticsearch.index.mapper.SourceToParse;
+import org.elasticsearch.xcontent.XContentType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures rebuilding {@code _source} from doc values for all documents fetched from a
+ * segment, which is what the fetch phase does for indices using synthetic source.
+ */
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class SyntheticSourceLoaderBenchmark {
+    private static final int NUM_DOCS = 10_000;
+
+    @Param({ "10", "100", "1000" })
+    private int docsPerFetch;
+
+    private Directory directory;
+    private DirectoryReader reader;
+    private SourceLoader sourceLoader;
+    private StoredFieldLoader storedFieldLoader;
+    private int[] docIds;
+
+    @Setup
+    public void setup() throws IOException {
+        Settings settings = Settings.builder().put("index.mapping.source.mode", "synthetic").build();
+        MapperService mapperService = MapperServiceFactory.create(settings, """
+            {
+              "_doc": {
+                "properties": {
+                  "@timestamp": { "type": "date" },
+                  "host": { "properties": { "name": { "type": "keyword" } } },
+                  "message": { "type": "keyword" },
+                  "status": { "type": "integer" },
+                  "bytes": { "type": "long" },
+                  "duration": { "type": "double" }
+                }
+              }
+            }
+            """);
+        Random random = new Random(42);
+        directory = new ByteBuffersDirectory();
+        try (IndexWriter iw = new IndexWriter(directory, new IndexWriterConfig())) {
+            for (int i = 0; i < NUM_DOCS; i++) {
+                String source = String.format(
+                    Locale.ROOT,
+                    "{\"@timestamp\": %d, \"host\": {\"name\": \"host-%d\"}, \"message\": \"GET /index/%d\", "
+                        + "\"status\": %d, \"bytes\": %d, \"duration\": %f}",
+                    1_700_000_000_000L + i,
+                    random.nextInt(100),
+                    random.nextInt(10_000),
+                    random.nextBoolean() ? 200 : 404,
+                    random.nextInt(1_000_000),
+                    random.nextDouble()
+                );
+                SourceToParse sourceToParse = new SourceToParse(Integer.toString(i), new BytesArray(source), XContentType.JSON);
+                iw.addDocuments(mapperService.documentMapper().parse(sourceToParse).docs());
+            }
+            iw.forceMerge(1);
+        }
+        reader = DirectoryReader.open(directory);
+        sourceLoader = mapperService.mappingLookup().newSourceLoader(SourceFieldMetrics.NOOP);
+        storedFieldLoader = StoredFieldLoader.create(false, sourceLoader.requiredStoredFields());
+        docIds = random.ints(docsPerFetch, 0, NUM_DOCS).sorted().distinct().toArray();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        IOUtils.close(reader, directory);
+    }
+
+    @Benchmark
+    public long loadSyntheticSource() throws IOException {
+        LeafReaderContext ctx = reader.leaves().get(0);
+        SourceLoader.Leaf leaf = sourceLoader.leaf(ctx.reader(), docIds);
+        LeafStoredFieldLoader storedFields = storedFieldLoader.getLoader(ctx, docIds);
+        long totalBytes = 0;
+        for (int docId : docIds) {
+            storedFields.advanceTo(docId);
+            totalBytes += leaf.source(storedFields, docId).internalSourceRef().length();
+        }
+        return totalBytes;
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+
+package org.elasticsearch.benchmark.vector;
+
+import org.apache.lucene.codecs.KnnVectorsFormat;
+import org.apache.lucene.codecs.lucene100.Lucene100Codec;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.KnnFloatVectorField;
+import org.apache.lucene.index.ConcurrentMergeScheduler;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.NoMergePolicy;
+import org.apache.lucene.index.VectorSimilarityFunction;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.MMapDirectory;
+import org.elasticsearch.common.logging.LogConfigurator;
+import org.elasticsearch.core.IOUtils;
+import org.elasticsearch.index.codec.vectors.ES814HnswScalarQuantizedVectorsFormat;
+import org.elasticsearch.index.codec.vectors.ES816HnswBinaryQuantizedVectorsFormat;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures force merging the segments of a {@code dense_vector} field down to a single segment. The merged graph is seeded from the graph
+ * of the largest segment, the vectors of the other segments are inserted by {@code workers} threads which run on a dedicated executor,
+ * like the {@code hnsw_merge} thread pool of a node.
+ * Run with ./gradlew -p benchmarks run --args 'HnswMergeBenchmark'
+ */
+@Fork(value = 1, jvmArgsPrepend = { "--add-modules=jdk.incubator.vector" })
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class HnswMergeBenchmark {
+
+    static {
+        LogConfigurator.configureESLogging(); // native access requires logging to be initialized
+    }
+
+    private static final String FIELD = "vector";
+
+    @Param({ "int8_hnsw", "bbq_hnsw" })
+    private String type;
+
+    @Param({ "1", "4" })
+    private int workers;
+
+    @Param({ "128" })
+    private int dims;
+
+    @Param({ "50000" })
+    private int numVectors;
+
+    @Param({ "5" })
+    private int numSegments;
+
+    private float[][] vectors;
+    private ExecutorService mergeExec;
+    private Path path;
+    private Directory directory;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        vectors = new float[numVectors][dims];
+        for (float[] vector : vectors) {
+            for (int i = 0; i < dims; i++) {
+                vector[i] = random.nextFloat() * 2 - 1;
+            }
+        }
+        mergeExec = workers > 1 ? Executors.newFixedThreadPool(workers) : null;
+    }
+
+    @TearDown
+    public void shutdown() {
+        if (mergeExec != null) {
+            mergeExec.shutdown();
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void indexSegments() throws IOException {
+        path = Files.createTempDirectory("hnswMergeBench");
+        directory = new MMapDirectory(path);
+        // the first segment holds half of the vectors, like the largest segment of a merge typically does
+        int firstSegment = numVectors / 2;
+        int otherSegments = (numVectors - firstSegment) / (numSegments - 1);
+        try (IndexWriter writer = new IndexWriter(directory, config().setMergePolicy(NoMergePolicy.INSTANCE))) {
+            for (int i = 0; i < numVectors; i++) {
+                Document doc = new Document();
+                doc.add(new KnnFloatVectorField(FIELD, vectors[i], VectorSimilarityFunction.DOT_PRODUCT));
+                writer.addDocument(doc);
+                if (i + 1 == firstSegment || (i + 1 > firstSegment && (i + 1 - firstSegment) % otherSegments == 0)) {
+                    writer.flush();
+                }
+            }
+        }
+    }
+
+    @TearDown(Level.Invocation)
+    public void deleteSegments() throws IOException {
+        IOUtils.close(directory);
+        IOUtils.rm(path);
+    }
+
+    @Benchmark
+    public void forceMerge() throws IOException {
+        try (IndexWriter writer = new IndexWriter(directory, config().setMergeScheduler(new ConcurrentMergeScheduler()))) {
+            writer.forceMerge(1);
+        }
+    }
+
+    private IndexWriterConfig config() {
+        KnnVectorsFormat format = switch (type) {
+            case "int8_hnsw" -> new ES814HnswScalarQuantizedVectorsFormat(16, 100, null, 7, false, workers, mergeExec);
+            case "bbq_hnsw" -> new ES816HnswBinaryQuantizedVectorsFormat(16, 100, workers, mergeExec);
+            default -> throw new IllegalArgumentException("unknown type [" + type + "]");
+        };
+        return new IndexWriterConfig().setRAMBufferSizeMB(1024).setCodec(new Lucene100Codec() {
+            @Override
+            public KnnVectorsFormat getKnnVectorsFormatForField(String field) {
+                return format;
+            }
+        });
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+
+package org.elasticsearch.benchmark.vector;
+
+import org.apache.lucene.codecs.KnnVectorsFormat;
+import org.apache.lucene.codecs.lucene100.Lucene100Codec;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.KnnFloatVectorField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.NoMergePolicy;
+import org.apache.lucene.index.SerialMergeScheduler;
+import org.apache.lucene.index.VectorSimilarityFunction;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.MMapDirectory;
+import org.elasticsearch.common.logging.LogConfigurator;
+import org.elasticsearch.core.IOUtils;
+import org.elasticsearch.index.codec.vectors.ES818IvfVectorsFormat;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures clustering the vectors of a {@code dense_vector} field with the IVF format, either when flushing them in a single segment
+ * or when force merging {@code numSegments} segments down to one, which seeds k-means with the centroids of the merged segments.
+ * Fewer vectors per cluster mean more clusters, which is where the cost of assigning the vectors to the clusters dominates.
+ * Run with ./gradlew -p benchmarks run --args 'IvfIndexingBenchmark'
+ */
+@Fork(value = 1, jvmArgsPrepend = { "--add-modules=jdk.incubator.vector" })
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class IvfIndexingBenchmark {
+
+    static {
+        LogConfigurator.configureESLogging(); // native access requires logging to be initialized
+    }
+
+    private static final String FIELD = "vector";
+
+    @Param({ "flush", "merge" })
+    private String operation;
+
+    @Param({ "64", "1000" })
+    private int vectorsPerCluster;
+
+    @Param({ "128" })
+    private int dims;
+
+    @Param({ "100000" })
+    private int numVectors;
+
+    @Param({ "5" })
+    private int numSegments;
+
+    private float[][] vectors;
+    private Path path;
+    private Directory directory;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        // the vectors are spread around topics, so that they have clusters to be found
+        float[][] topics = new float[1000][dims];
+        for (float[] topic : topics) {
+            for (int i = 0; i < dims; i++) {
+                topic[i] = random.nextFloat() * 2 - 1;
+            }
+        }
+        vectors = new float[numVectors][dims];
+        for (float[] vector : vectors) {
+            float[] topic = topics[random.nextInt(topics.length)];
+            for (int i = 0; i < dims; i++) {
+                vector[i] = topic[i] + 0.1f * (float) random.nextGaussian();
+            }
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void indexSegments() throws IOException {
+        path = Files.createTempDirectory("ivfIndexingBench");
+        directory = new MMapDirectory(path);
+        if (operation.equals("merge")) {
+            try (IndexWriter writer = new IndexWriter(directory, config().setMergePolicy(NoMergePolicy.INSTANCE))) {
+                addVectors(writer, numVectors / numSegments);
+            }
+        }
+    }
+
+    @TearDown(Level.Invocation)
+    public void deleteSegments() throws IOException {
+        IOUtils.close(directory);
+        IOUtils.rm(path);
+    }
+
+    @Benchmark
+    public void index() throws IOException {
+        try (IndexWriter writer = new IndexWriter(directory, config())) {
+            if (operation.equals("merge")) {
+                writer.forceMerge(1);
+            } else {
+                addVectors(writer, numVectors);
+            }
+        }
+    }
+
+    private void addVectors(IndexWriter writer, int vectorsPerSegment) throws IOException {
+        for (int i = 0; i < numVectors; i++) {
+            Document doc = new Document();
+            doc.add(new KnnFloatVectorField(FIELD, vectors[i], VectorSimilarityFunction.EUCLIDEAN));
+            writer.addDocument(doc);
+            if ((i + 1) % vectorsPerSegment == 0) {
+                writer.flush();
+            }
+        }
+    }
+
+    private IndexWriterConfig config() {
+        KnnVectorsFormat format = new ES818IvfVectorsFormat(vectorsPerCluster);
+        return new IndexWriterConfig().setRAMBufferSizeMB(1024)
+            .setMergeScheduler(new SerialMergeScheduler())
+            .setCodec(new Lucene100Codec() {
+                @Override
+                public KnnVectorsFormat getKnnVectorsFormatForField(String field) {
+                    return format;
+                }
+            });
+    }
+}
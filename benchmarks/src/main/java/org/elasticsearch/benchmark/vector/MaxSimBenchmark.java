@@ -0,0 +1,100 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+
+package org.elasticsearch.benchmark.vector;
+
+import org.apache.lucene.util.VectorUtil;
+import org.elasticsearch.common.logging.LogConfigurator;
+import org.elasticsearch.simdvec.ESVectorUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the late interaction (MaxSim) score of a document made of several vectors, either packed one after the other like a
+ * {@code multi_dense_vector} field stores them, or held as separate vectors like one nested {@code dense_vector} per token.
+ * Run with ./gradlew -p benchmarks run --args 'MaxSimBenchmark'
+ */
+@Fork(value = 1, jvmArgsPrepend = { "--add-modules=jdk.incubator.vector" })
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Thread)
+public class MaxSimBenchmark {
+
+    static {
+        LogConfigurator.configureESLogging(); // native access requires logging to be initialized
+    }
+
+    @Param({ "128" })
+    private int dims;
+
+    @Param({ "32" })
+    private int numQueryVectors;
+
+    @Param({ "64", "256" })
+    private int numDocVectors;
+
+    private float[][] queryVectors;
+    private float[] packedDocVectors;
+    private float[][] docVectors;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        queryVectors = new float[numQueryVectors][];
+        for (int i = 0; i < numQueryVectors; i++) {
+            queryVectors[i] = randomVector(random, dims);
+        }
+        packedDocVectors = new float[numDocVectors * dims];
+        docVectors = new float[numDocVectors][];
+        for (int i = 0; i < numDocVectors; i++) {
+            docVectors[i] = randomVector(random, dims);
+            System.arraycopy(docVectors[i], 0, packedDocVectors, i * dims, dims);
+        }
+    }
+
+    @Benchmark
+    public float packed() {
+        return ESVectorUtil.maxSimDotProduct(queryVectors, packedDocVectors, numDocVectors);
+    }
+
+    @Benchmark
+    public float perVector() {
+        float score = 0;
+        for (float[] queryVector : queryVectors) {
+            float max = Float.NEGATIVE_INFINITY;
+            for (float[] docVector : docVectors) {
+                max = Math.max(max, VectorUtil.dotProduct(queryVector, docVector));
+            }
+            score += max;
+        }
+        return score;
+    }
+
+    private static float[] randomVector(Random random, int dims) {
+        float[] vector = new float[dims];
+        for (int i = 0; i < dims; i++) {
+            vector[i] = random.nextFloat() * 2 - 1;
+        }
+        return vector;
+    }
+}
@@ -9,20 +9,25 @@
 
 package org.elasticsearch.benchmark.vector;
 
+import org.apache.lucene.codecs.hnsw.DefaultFlatVectorScorer;
+import org.apache.lucene.codecs.lucene95.OffHeapFloatVectorValues;
 import org.apache.lucene.codecs.lucene99.Lucene99ScalarQuantizedVectorScorer;
 import org.apache.lucene.codecs.lucene99.OffHeapQuantizedByteVectorValues;
+import org.apache.lucene.index.FloatVectorValues;
 import org.apache.lucene.index.VectorSimilarityFunction;
 import org.apache.lucene.store.Directory;
 import org.apache.lucene.store.IOContext;
 import org.apache.lucene.store.IndexInput;
 import org.apache.lucene.store.IndexOutput;
 import org.apache.lucene.store.MMapDirectory;
+import org.apache.lucene.util.VectorUtil;
 import org.apache.lucene.util.hnsw.RandomVectorScorer;
 import org.apache.lucene.util.hnsw.RandomVectorScorerSupplier;
 import org.apache.lucene.util.quantization.QuantizedByteVectorValues;
 import org.apache.lucene.util.quantization.ScalarQuantizer;
 import org.elasticsearch.common.logging.LogConfigurator;
 import org.elasticsearch.core.IOUtils;
+import org.elasticsearch.simdvec.Float32VectorScorer;
 import org.elasticsearch.simdvec.VectorScorerFactory;
 import org.openjdk.jmh.annotations.Benchmark;
 import org.openjdk.jmh.annotations.BenchmarkMode;
@@ -54,6 +59,8 @@ import static org.elasticsearch.simdvec.VectorSimilarityType.EUCLIDEAN;
 /**
  * Benchmark that compares various scalar quantized vector similarity function
  * implementations;: scalar, lucene's panama-ized, and Elasticsearch's native.
+ * Also compares rescoring raw float vectors from an on-heap copy with scoring
+ * them where they are memory-mapped.
  * Run with ./gradlew -p benchmarks run --args 'VectorScorerBenchmark'
  */
 public class VectorScorerBenchmark {
@@ -68,6 +75,7 @@ public class VectorScorerBenchmark {
 
     Directory dir;
     IndexInput in;
+    IndexInput floatIn;
     VectorScorerFactory factory;
 
     byte[] vec1;
@@ -84,6 +92,10 @@ public class VectorScorerBenchmark {
     RandomVectorScorer luceneDotScorerQuery;
     RandomVectorScorer nativeDotScorerQuery;
 
+    float[] floatQueryVec;
+    FloatVectorValues floatValues;
+    Float32VectorScorer offHeapFloat32Scorer;
+
     @Setup
     public void setup() throws IOException {
         var optionalVectorScorerFactory = VectorScorerFactory.instance();
@@ -157,11 +169,37 @@ public class VectorScorerBenchmark {
         if (q1 != q2) {
             throw new AssertionError("query: lucene[" + q1 + "] != " + "native[" + q2 + "]");
         }
+
+        // setup for getFloat32VectorScorer / rescoring of raw float vectors
+        try (IndexOutput out = dir.createOutput("vector.float.data", IOContext.DEFAULT)) {
+            for (int i = 0; i < size * dims; i++) {
+                out.writeInt(Float.floatToIntBits(ThreadLocalRandom.current().nextFloat()));
+            }
+        }
+        floatIn = dir.openInput("vector.float.data", IOContext.DEFAULT);
+        floatValues = new OffHeapFloatVectorValues.DenseOffHeapVectorValues(
+            dims,
+            size,
+            floatIn,
+            dims * Float.BYTES,
+            DefaultFlatVectorScorer.INSTANCE,
+            VectorSimilarityFunction.DOT_PRODUCT
+        );
+        floatQueryVec = queryVec;
+        offHeapFloat32Scorer = factory.getFloat32VectorScorer(floatValues, floatQueryVec)
+            .orElseThrow(() -> new AssertionError("float32 vector scorer not present, is the panama vector module enabled?"));
+
+        // sanity, the summation order differs so the scores may differ in the last bits
+        var r1 = dotProductFloat32Lucene();
+        var r2 = dotProductFloat32OffHeap();
+        if (Math.abs(r1 - r2) > 1e-3f * Math.abs(r1)) {
+            throw new AssertionError("float32: lucene[" + r1 + "] != " + "offheap[" + r2 + "]");
+        }
     }
 
     @TearDown
     public void teardown() throws IOException {
-        IOUtils.close(dir, in);
+        IOUtils.close(dir, in, floatIn);
     }
 
     @Benchmark
@@ -194,6 +232,16 @@ public class VectorScorerBenchmark {
         return nativeDotScorerQuery.score(1);
     }
 
+    @Benchmark
+    public float dotProductFloat32Lucene() throws IOException {
+        return VectorUtil.dotProduct(floatQueryVec, floatValues.vectorValue(1));
+    }
+
+    @Benchmark
+    public float dotProductFloat32OffHeap() throws IOException {
+        return offHeapFloat32Scorer.dotProduct(1);
+    }
+
     // -- square distance
 
     @Benchmark
@@ -206,6 +254,16 @@ public class VectorScorerBenchmark {
         return nativeSqrScorer.score(1);
     }
 
+    @Benchmark
+    public float squareDistanceFloat32Lucene() throws IOException {
+        return VectorUtil.squareDistance(floatQueryVec, floatValues.vectorValue(1));
+    }
+
+    @Benchmark
+    public float squareDistanceFloat32OffHeap() throws IOException {
+        return offHeapFloat32Scorer.squareDistance(1);
+    }
+
     @Benchmark
     public float squareDistanceScalar() {
         int squareDistance = 0;
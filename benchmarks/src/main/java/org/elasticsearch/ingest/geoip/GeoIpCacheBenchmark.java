@@ -0,0 +1,118 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+
+package org.elasticsearch.ingest.geoip;
+
+import com.maxmind.db.DatabaseRecord;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Measures the geoip cache on client addresses that are clustered in few networks, like the ones in the logs of a CDN. The networks
+ * of the records either all have the same prefix length, or a mix of the prefix lengths that are common in the city databases, most
+ * of them being /24 but with a long tail of shorter and longer ones, which makes the cache probe several lengths on a lookup. Looking
+ * up a record in the database is simulated with a fixed amount of work. This lives in the package of the cache, which is not public.
+ */
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class GeoIpCacheBenchmark {
+
+    private static final String DATABASE_PATH = "path/to/GeoLite2-City.mmdb";
+    private static final int LOOKUPS = 100_000;
+    private static final long DATABASE_LOOKUP_TOKENS = 500;
+    /**
+     * The prefix lengths of the networks, each /16 block being split in networks of one of them, picked with these odds. /24 is the
+     * most common length in the city databases, followed by the lengths of the blocks that are allocated to ISPs.
+     */
+    private static final int[] MIXED_PREFIX_LENGTHS = new int[] {
+        24, 24, 24, 24, 24, 24, 24, 24, 24, 22, 22, 22, 23, 23, 20, 20, 21, 18, 16, 19, 28, 32 };
+
+    /**
+     * The number of /24 blocks the addresses are drawn from, the lower ones being more frequent than the higher ones.
+     */
+    @Param({ "100", "10000" })
+    private int networks;
+
+    @Param({ "1000", "10000" })
+    private int cacheSize;
+
+    @Param({ "single", "mixed" })
+    private String prefixLengths;
+
+    private InetAddress[] addresses;
+    private GeoIpCache cache;
+
+    @Setup
+    public void setup() throws UnknownHostException {
+        Random random = new Random(42);
+        cache = new GeoIpCache(cacheSize);
+        addresses = new InetAddress[LOOKUPS];
+        for (int i = 0; i < LOOKUPS; i++) {
+            // skewed towards the first blocks, any host of the block, and the blocks spread over many /16 blocks
+            int network = (int) (networks * Math.pow(random.nextDouble(), 3));
+            byte[] address = new byte[] {
+                (byte) (1 + network % 200),
+                (byte) (network / 200),
+                (byte) (network * 31),
+                (byte) random.nextInt(256) };
+            addresses[i] = InetAddress.getByAddress(address);
+        }
+    }
+
+    @Benchmark
+    public void getRecord(Blackhole bh) {
+        Function<InetAddress, DatabaseRecord<String>> database = prefixLengths.equals("mixed")
+            ? GeoIpCacheBenchmark::lookupMixed
+            : GeoIpCacheBenchmark::lookupSingle;
+        for (int i = 0; i < LOOKUPS; i++) {
+            bh.consume(cache.getRecord(addresses[i], DATABASE_PATH, String.class, database));
+        }
+    }
+
+    private static DatabaseRecord<String> lookupSingle(InetAddress address) {
+        return new DatabaseRecord<>(lookup(address), address, 24);
+    }
+
+    private static DatabaseRecord<String> lookupMixed(InetAddress address) {
+        // all the networks of a /16 block have the same prefix length, so that networks never overlap
+        byte[] bytes = address.getAddress();
+        int block = ((bytes[0] & 0xFF) << 8) | (bytes[1] & 0xFF);
+        int prefixLength = MIXED_PREFIX_LENGTHS[Math.floorMod(block * 0x9E3779B1, MIXED_PREFIX_LENGTHS.length)];
+        return new DatabaseRecord<>(lookup(address), address, prefixLength);
+    }
+
+    /**
+     * Every fourth network has no data, like the addresses that the database does not know about.
+     */
+    private static String lookup(InetAddress address) {
+        Blackhole.consumeCPU(DATABASE_LOOKUP_TOKENS);
+        return (address.getAddress()[2] & 3) == 0 ? null : "data";
+    }
+}
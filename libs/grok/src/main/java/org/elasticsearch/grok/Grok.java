@@ -57,6 +57,8 @@ public final class Grok {
     private final Regex compiledExpression;
     private final MatcherWatchdog matcherWatchdog;
     private final List<GrokCaptureConfig> captureConfig;
+    // null if no literal is required to match
+    private final GrokLiteralPrefilter prefilter;
 
     public Grok(PatternBank patternBank, String grokPattern, Consumer<String> logCallBack) {
         this(patternBank, grokPattern, true, MatcherWatchdog.noop(), logCallBack);
@@ -96,6 +98,7 @@ public final class Grok {
             grokCaptureConfigs.add(new GrokCaptureConfig(entry.next()));
         }
         this.captureConfig = List.copyOf(grokCaptureConfigs);
+        this.prefilter = GrokLiteralPrefilter.build(grokPattern);
     }
 
     private static String groupMatch(String name, Region region, String pattern) {
@@ -226,6 +229,10 @@ public final class Grok {
      * @throws RuntimeException if there was a timeout
      */
     public boolean match(byte[] utf8Bytes, int offset, int length, GrokCaptureExtracter extracter) {
+        if (prefilter != null && prefilter.mayMatch(utf8Bytes, offset, length) == false) {
+            // the text misses literals that any match contains, no need to run the regex
+            return false;
+        }
         Matcher matcher = compiledExpression.matcher(utf8Bytes, offset, offset + length);
         int result;
         try {
@@ -0,0 +1,325 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+
+package org.elasticsearch.grok;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Rejects texts that cannot match a grok expression without running its regex. The literals that every match must contain are extracted
+ * from the grok expression, before its pattern references are expanded. The analysis is conservative: anything it does not understand,
+ * like inline options, makes it give up, in which case there is no prefilter and every text goes through the regex.
+ * <p>
+ * A top level alternation, like the one {@code GrokProcessor} builds when it is configured with several patterns, is analyzed branch by
+ * branch. A text then needs to contain all the literals of at least one of the branches.
+ */
+final class GrokLiteralPrefilter {
+
+    // single literal characters are too frequent to reject anything
+    static final int MIN_LITERAL_LENGTH = 2;
+
+    // escapes of a single letter that stand for a class of characters, an anchor or a control character
+    private static final String SINGLE_CHAR_ESCAPES = "dDwWsShHbBAzZGRXnrtfvae";
+
+    private final byte[][][] branches;
+
+    private GrokLiteralPrefilter(byte[][][] branches) {
+        this.branches = branches;
+    }
+
+    /**
+     * Builds a prefilter for the given grok expression.
+     *
+     * @return the prefilter, or {@code null} if the expression has a branch without literals or could not be analyzed
+     */
+    static GrokLiteralPrefilter build(String grokPattern) {
+        final List<List<String>> requiredLiterals = requiredLiterals(grokPattern);
+        if (requiredLiterals == null) {
+            return null;
+        }
+        final byte[][][] branches = new byte[requiredLiterals.size()][][];
+        for (int i = 0; i < branches.length; i++) {
+            final List<String> literals = requiredLiterals.get(i);
+            branches[i] = new byte[literals.size()][];
+            for (int j = 0; j < literals.size(); j++) {
+                branches[i][j] = literals.get(j).getBytes(StandardCharsets.UTF_8);
+            }
+        }
+        return new GrokLiteralPrefilter(branches);
+    }
+
+    /**
+     * Checks whether the text may match.
+     *
+     * @return {@code false} if the text cannot match, {@code true} if it may match
+     */
+    boolean mayMatch(byte[] utf8Bytes, int offset, int length) {
+        for (byte[][] branch : branches) {
+            if (containsAll(utf8Bytes, offset, offset + length, branch)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean containsAll(byte[] utf8Bytes, int from, int to, byte[][] literals) {
+        for (byte[] literal : literals) {
+            if (indexOf(utf8Bytes, from, to, literal) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static int indexOf(byte[] utf8Bytes, int from, int to, byte[] literal) {
+        final byte first = literal[0];
+        final int last = to - literal.length;
+        outer: for (int i = from; i <= last; i++) {
+            if (utf8Bytes[i] != first) {
+                continue;
+            }
+            for (int j = 1; j < literal.length; j++) {
+                if (utf8Bytes[i + j] != literal[j]) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        return -1;
+    }
+
+    /**
+     * Extracts, for each top level branch of the expression, the literals that a match of that branch must contain.
+     *
+     * @return the literals of each branch, or {@code null} if a branch has no literal or the expression could not be analyzed
+     */
+    static List<List<String>> requiredLiterals(String expression) {
+        final List<String> branches = splitBranches(expression);
+        if (branches == null) {
+            return null;
+        }
+        final List<List<String>> result = new ArrayList<>();
+        for (String branch : branches) {
+            final String groupBody = singleGroupBody(branch);
+            if (groupBody != null) {
+                final List<List<String>> nested = requiredLiterals(groupBody);
+                if (nested == null) {
+                    return null;
+                }
+                result.addAll(nested);
+            } else {
+                final List<String> literals = literals(branch);
+                if (literals == null || literals.isEmpty()) {
+                    return null;
+                }
+                result.add(literals);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Splits the expression on its top level {@code |}, or returns {@code null} if the expression is not well-formed.
+     */
+    private static List<String> splitBranches(String expression) {
+        final List<String> branches = new ArrayList<>();
+        int start = 0;
+        int i = 0;
+        while (i < expression.length()) {
+            final char c = expression.charAt(i);
+            if (c == '|') {
+                branches.add(expression.substring(start, i));
+                start = ++i;
+            } else {
+                i = skipToken(expression, i);
+                if (i < 0) {
+                    return null;
+                }
+            }
+        }
+        branches.add(expression.substring(start));
+        return branches;
+    }
+
+    /**
+     * Returns the body of the branch if it consists of a single non-capturing or named group, like the ones {@code GrokProcessor} wraps
+     * its patterns in, and {@code null} otherwise.
+     */
+    private static String singleGroupBody(String branch) {
+        if (branch.startsWith("(?:") == false && (branch.startsWith("(?<") == false || isLookbehind(branch, 0))) {
+            return null;
+        }
+        if (skipToken(branch, 0) != branch.length()) {
+            return null;
+        }
+        final int bodyStart = branch.startsWith("(?:") ? 3 : branch.indexOf('>') + 1;
+        return bodyStart > 0 ? branch.substring(bodyStart, branch.length() - 1) : null;
+    }
+
+    /**
+     * Returns the literals found at the top level of a branch that has no top level alternation, or {@code null} if the branch could not
+     * be analyzed.
+     */
+    private static List<String> literals(String branch) {
+        final List<String> literals = new ArrayList<>();
+        final StringBuilder run = new StringBuilder();
+        int i = 0;
+        while (i < branch.length()) {
+            final char c = branch.charAt(i);
+            switch (c) {
+                case '\\' -> {
+                    if (i + 1 >= branch.length()) {
+                        return null;
+                    }
+                    final char escaped = branch.charAt(i + 1);
+                    if (Character.isLetterOrDigit(escaped)) {
+                        if (SINGLE_CHAR_ESCAPES.indexOf(escaped) < 0) {
+                            // multi-character escapes like \x41, \p{...} or \Q...\E
+                            return null;
+                        }
+                        endRun(run, literals);
+                    } else {
+                        run.append(escaped);
+                    }
+                    i += 2;
+                }
+                case '?', '*', '+' -> {
+                    // the quantifier makes the previous character optional
+                    dropLastChar(run);
+                    endRun(run, literals);
+                    i++;
+                }
+                case '{' -> {
+                    // either a quantifier or a literal brace, in which case ignoring it is fine
+                    dropLastChar(run);
+                    endRun(run, literals);
+                    final int close = branch.indexOf('}', i);
+                    if (close < 0) {
+                        return null;
+                    }
+                    i = close + 1;
+                }
+                case '(' -> {
+                    if (branch.startsWith("(?", i) && ":<=!>".indexOf(charAt(branch, i + 2)) < 0) {
+                        // inline options, like case insensitivity, change what the literals match
+                        return null;
+                    }
+                    endRun(run, literals);
+                    i = skipToken(branch, i);
+                }
+                case '%', '[' -> {
+                    endRun(run, literals);
+                    i = skipToken(branch, i);
+                }
+                case '.', '^', '$' -> {
+                    endRun(run, literals);
+                    i++;
+                }
+                case ')', ']', '}', '|' -> {
+                    return null;
+                }
+                default -> {
+                    run.append(c);
+                    i++;
+                }
+            }
+            if (i < 0) {
+                return null;
+            }
+        }
+        endRun(run, literals);
+        return literals;
+    }
+
+    /**
+     * Returns the index right after the token starting at {@code start}: an escape, a group, a character class, a grok pattern reference
+     * or a single character. Returns {@code -1} if the token is not well-formed.
+     */
+    private static int skipToken(String expression, int start) {
+        final char c = expression.charAt(start);
+        if (c == '\\') {
+            return start + 2 <= expression.length() ? start + 2 : -1;
+        }
+        if (c == '%' && charAt(expression, start + 1) == '{') {
+            final int close = expression.indexOf('}', start);
+            return close < 0 ? -1 : close + 1;
+        }
+        if (c == '[') {
+            return skipCharacterClass(expression, start);
+        }
+        if (c != '(') {
+            return start + 1;
+        }
+        int i = start + 1;
+        while (i < expression.length()) {
+            final char next = expression.charAt(i);
+            if (next == ')') {
+                return i + 1;
+            }
+            i = skipToken(expression, i);
+            if (i < 0) {
+                return -1;
+            }
+        }
+        return -1;
+    }
+
+    private static int skipCharacterClass(String expression, int start) {
+        int i = start + 1;
+        // a closing bracket right after the opening one (or its negation) is a literal
+        if (charAt(expression, i) == '^') {
+            i++;
+        }
+        if (charAt(expression, i) == ']') {
+            i++;
+        }
+        while (i < expression.length()) {
+            final char c = expression.charAt(i);
+            if (c == '\\') {
+                i += 2;
+            } else if (c == '[') {
+                // nested classes, like [a-z&&[^x]]
+                i = skipCharacterClass(expression, i);
+                if (i < 0) {
+                    return -1;
+                }
+            } else if (c == ']') {
+                return i + 1;
+            } else {
+                i++;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean isLookbehind(String expression, int start) {
+        final char c = charAt(expression, start + 3);
+        return c == '=' || c == '!';
+    }
+
+    private static char charAt(String expression, int i) {
+        return i < expression.length() ? expression.charAt(i) : '\0';
+    }
+
+    private static void dropLastChar(StringBuilder run) {
+        if (run.length() > 0) {
+            final int length = run.length();
+            run.setLength(Character.isLowSurrogate(run.charAt(length - 1)) && length > 1 ? length - 2 : length - 1);
+        }
+    }
+
+    private static void endRun(StringBuilder run, List<String> literals) {
+        if (run.length() >= MIN_LITERAL_LENGTH) {
+            literals.add(run.toString());
+        }
+        run.setLength(0);
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+
+package org.elasticsearch.grok;
+
+import org.elasticsearch.test.ESTestCase;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+
+public class GrokLiteralPrefilterTests extends ESTestCase {
+
+    public void testRequiredLiterals() {
+        assertThat(GrokLiteralPrefilter.requiredLiterals("value"), equalTo(List.of(List.of("value"))));
+        assertThat(
+            GrokLiteralPrefilter.requiredLiterals("%{IP:client} - - \\[%{HTTPDATE:timestamp}\\] \"%{WORD:verb} HTTP/%{NUMBER:version}\""),
+            equalTo(List.of(List.of(" - - [", "] \"", " HTTP/")))
+        );
+        // quantified characters, groups and classes are not required
+        assertThat(GrokLiteralPrefilter.requiredLiterals("abc?de*fgh"), equalTo(List.of(List.of("ab", "fgh"))));
+        assertThat(GrokLiteralPrefilter.requiredLiterals("foo{2,3}bar"), equalTo(List.of(List.of("fo", "bar"))));
+        assertThat(GrokLiteralPrefilter.requiredLiterals("start(?:opt|ional)?[a-z|]+\\d+end"), equalTo(List.of(List.of("start", "end"))));
+        assertThat(GrokLiteralPrefilter.requiredLiterals("^id=%{NUMBER:id}$"), equalTo(List.of(List.of("id="))));
+        // each top level branch requires its own literals, including the ones wrapped in groups by the grok processor
+        assertThat(
+            GrokLiteralPrefilter.requiredLiterals("(?:GET %{URIPATH:path})|(?<_ingest._grok_match_index.1>POST %{URIPATH:path} body)"),
+            equalTo(List.of(List.of("GET "), List.of("POST ", " body")))
+        );
+    }
+
+    public void testNoRequiredLiterals() {
+        // a branch that does not require any literal means any text may match
+        assertThat(GrokLiteralPrefilter.requiredLiterals("%{WORD:a} %{WORD:b}"), nullValue());
+        assertThat(GrokLiteralPrefilter.requiredLiterals("value|%{NUMBER:n}"), nullValue());
+        assertThat(GrokLiteralPrefilter.requiredLiterals("value|"), nullValue());
+        // inline options change what literals match
+        assertThat(GrokLiteralPrefilter.requiredLiterals("(?i)value"), nullValue());
+        assertThat(GrokLiteralPrefilter.requiredLiterals("(?i:value)"), nullValue());
+        // multi-character escapes and malformed expressions are not analyzed
+        assertThat(GrokLiteralPrefilter.requiredLiterals("value\\x41"), nullValue());
+        assertThat(GrokLiteralPrefilter.requiredLiterals("value\\Qa.b\\E"), nullValue());
+        assertThat(GrokLiteralPrefilter.requiredLiterals("value(unclosed"), nullValue());
+        assertThat(GrokLiteralPrefilter.requiredLiterals("value[unclosed"), nullValue());
+        assertThat(GrokLiteralPrefilter.requiredLiterals("value)"), nullValue());
+    }
+
+    public void testMayMatch() {
+        final GrokLiteralPrefilter prefilter = GrokLiteralPrefilter.build("(?:GET %{URIPATH:path})|(?:POST %{URIPATH:path} body)");
+        assertTrue(mayMatch(prefilter, "GET /index"));
+        assertTrue(mayMatch(prefilter, "POST /index body"));
+        assertFalse(mayMatch(prefilter, "POST /index"));
+        assertFalse(mayMatch(prefilter, "PUT /index body"));
+
+        final byte[] utf8 = "GET /a PUT /b".getBytes(StandardCharsets.UTF_8);
+        assertTrue(prefilter.mayMatch(utf8, 0, 6));
+        assertFalse(prefilter.mayMatch(utf8, 4, utf8.length - 4));
+        // the literal has to be fully within the text
+        assertFalse(prefilter.mayMatch(utf8, 0, 3));
+    }
+
+    public void testMultiByteLiterals() {
+        final GrokLiteralPrefilter prefilter = GrokLiteralPrefilter.build("héllo wörld😀?");
+        assertTrue(mayMatch(prefilter, "say héllo wörld"));
+        assertFalse(mayMatch(prefilter, "say hello world"));
+    }
+
+    public void testSameResultsAsRegex() {
+        final String[] patterns = {
+            "%{IP:client} %{WORD:verb} %{URIPATHPARAM:request} %{NUMBER:bytes:int} %{NUMBER:duration:float}",
+            "\\[%{LOGLEVEL:level}\\] %{GREEDYDATA:message}",
+            "(?:user=%{USERNAME:user})|(?:uid=%{NUMBER:uid:int} action=%{WORD:action})",
+            "%{SYSLOGTIMESTAMP:ts} %{SYSLOGHOST:host} %{DATA:program}(?:\\[%{POSINT:pid}\\])?: %{GREEDYDATA:msg}" };
+        final String[] texts = {
+            "55.3.244.1 GET /index.html 15824 0.043",
+            "[ERROR] something went wrong",
+            "[ERROR something went wrong",
+            "user=alice",
+            "uid=1000 action=login",
+            "uid=1000 login",
+            "Oct 11 22:14:15 mymachine su[123]: 'su root' failed",
+            "Oct 11 22:14:15 mymachine su: 'su root' failed",
+            "",
+            randomAlphaOfLengthBetween(1, 100) };
+        for (String pattern : patterns) {
+            final Grok grok = new Grok(GrokBuiltinPatterns.legacyPatterns(), pattern, logger::warn);
+            for (String text : texts) {
+                // match(String) always runs the regex, captures() goes through the prefilter
+                assertThat(pattern + " on " + text, grok.captures(text) != null, equalTo(grok.match(text)));
+            }
+        }
+    }
+
+    private static boolean mayMatch(GrokLiteralPrefilter prefilter, String text) {
+        final byte[] utf8 = text.getBytes(StandardCharsets.UTF_8);
+        return prefilter.mayMatch(utf8, 0, utf8.length);
+    }
+}
@@ -16,6 +16,7 @@ import org.elasticsearch.nativeaccess.lib.NativeLibraryProvider;
 import org.elasticsearch.nativeaccess.lib.PosixCLibrary;
 
 import java.util.Map;
+import java.util.Optional;
 
 class LinuxNativeAccess extends PosixNativeAccess {
 
@@ -89,10 +90,12 @@ class LinuxNativeAccess extends PosixNativeAccess {
 
     private final LinuxCLibrary linuxLibc;
     private final Systemd systemd;
+    private final ReadAhead readAhead;
 
     LinuxNativeAccess(NativeLibraryProvider libraryProvider) {
         super("Linux", libraryProvider, new PosixConstants(-1L, 9, 1, 8, 64, 144, 48, 64));
         this.linuxLibc = libraryProvider.getLibrary(LinuxCLibrary.class);
+        this.readAhead = new ReadAhead(libc, linuxLibc);
         String socketPath = System.getenv("NOTIFY_SOCKET");
         if (socketPath == null) {
             this.systemd = null; // not running under systemd
@@ -118,6 +121,11 @@ class LinuxNativeAccess extends PosixNativeAccess {
         return systemd;
     }
 
+    @Override
+    public Optional<ReadAhead> getReadAhead() {
+        return Optional.of(readAhead);
+    }
+
     @Override
     protected void logMemoryLimitInstructions() {
         // give specific instructions for the linux case to make it easy
@@ -82,6 +82,14 @@ public interface NativeAccess {
         return null;
     }
 
+    /**
+     * Returns an accessor to asynchronously read ranges of files ahead into the page cache, or an empty optional if the platform does
+     * not support it.
+     */
+    default Optional<ReadAhead> getReadAhead() {
+        return Optional.empty();
+    }
+
     /*
      * Returns the vector similarity functions, or an empty optional.
      */
@@ -0,0 +1,121 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+
+package org.elasticsearch.nativeaccess;
+
+import org.elasticsearch.logging.LogManager;
+import org.elasticsearch.logging.Logger;
+import org.elasticsearch.nativeaccess.lib.LinuxCLibrary;
+import org.elasticsearch.nativeaccess.lib.PosixCLibrary;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.file.Path;
+
+import static org.elasticsearch.nativeaccess.PosixNativeAccess.O_RDONLY;
+
+/**
+ * Asks the operating system to asynchronously read ranges of files into its page cache, so that later reads of these ranges do
+ * not block on the disk. The reads are issued by the kernel in the background using {@code posix_fadvise(2)}, which lets a caller
+ * that knows which ranges it is about to read submit all of them at once rather than waiting for each read in turn. The files are
+ * read through the same file descriptor as they are read ahead, see {@link File#read}.
+ */
+public class ReadAhead {
+    private static final Logger logger = LogManager.getLogger(ReadAhead.class);
+
+    private static final int POSIX_FADV_WILLNEED = 3;
+
+    private final PosixCLibrary libc;
+    private final LinuxCLibrary linuxLibc;
+
+    ReadAhead(PosixCLibrary libc, LinuxCLibrary linuxLibc) {
+        this.libc = libc;
+        this.linuxLibc = linuxLibc;
+    }
+
+    /**
+     * Opens the given file for reading, and reading ahead. The returned handle holds a file descriptor and must be closed once it is no
+     * longer needed.
+     *
+     * @param path the file to read
+     * @return a handle to read the file and read ahead ranges of it
+     * @throws IOException if the file could not be opened
+     */
+    public File open(Path path) throws IOException {
+        final int fd = libc.open(path.toAbsolutePath().toString(), O_RDONLY);
+        if (fd == -1) {
+            throw new IOException("Could not open file [" + path + "] for read-ahead: " + libc.strerror(libc.errno()));
+        }
+        return new File(path, fd);
+    }
+
+    /**
+     * A file opened for reading, whose reads and read-ahead hints go through the same file descriptor.
+     */
+    public class File implements Closeable {
+        private final Path path;
+        private final int fd;
+        private volatile boolean closed;
+
+        private File(Path path, int fd) {
+            this.path = path;
+            this.fd = fd;
+        }
+
+        /**
+         * Hints that the given range of the file will be read soon. This returns without waiting for the range to be read, and failures
+         * are ignored since the hint is only an optimization.
+         */
+        public void willNeed(long offset, long length) {
+            if (closed) {
+                return;
+            }
+            final int rc = linuxLibc.posix_fadvise(fd, offset, length, POSIX_FADV_WILLNEED);
+            if (rc != 0) {
+                logger.debug("posix_fadvise on file [{}] failed: {}", path, libc.strerror(rc));
+            }
+        }
+
+        /**
+         * Reads the bytes of the file from the given position into the remaining bytes of the given buffer, and advances the position
+         * of the buffer by the number of bytes read. This may read fewer bytes than remain in the buffer, like
+         * {@link java.nio.channels.FileChannel#read(ByteBuffer, long)}.
+         *
+         * @return the number of bytes read, or -1 if the position is at or past the end of the file
+         * @throws IOException if the file could not be read
+         */
+        public int read(ByteBuffer dst, long position) throws IOException {
+            if (closed) {
+                // the descriptor may have been reused for another file since
+                throw new ClosedChannelException();
+            }
+            final long read = libc.pread(fd, dst, position);
+            if (read == -1) {
+                throw new IOException("Could not read file [" + path + "]: " + libc.strerror(libc.errno()));
+            } else if (read == 0 && dst.hasRemaining()) {
+                return -1;
+            }
+            dst.position(dst.position() + (int) read);
+            return (int) read;
+        }
+
+        @Override
+        public synchronized void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            if (libc.close(fd) != 0) {
+                logger.warn("Could not close file [" + path + "]: " + libc.strerror(libc.errno()));
+            }
+        }
+    }
+}
@@ -54,6 +54,10 @@ class JdkLinuxCLibrary implements LinuxCLibrary {
         "fallocate",
         FunctionDescriptor.of(JAVA_INT, JAVA_INT, JAVA_INT, JAVA_LONG, JAVA_LONG)
     );
+    private static final MethodHandle posix_fadvise$mh = downcallHandle(
+        "posix_fadvise",
+        FunctionDescriptor.of(JAVA_INT, JAVA_INT, JAVA_LONG, JAVA_LONG, JAVA_INT)
+    );
 
     private static class JdkSockFProg implements SockFProg {
         private static final MemoryLayout layout = MemoryLayout.structLayout(JAVA_SHORT, paddingLayout(6), ADDRESS);
@@ -114,4 +118,13 @@ class JdkLinuxCLibrary implements LinuxCLibrary {
             throw new AssertionError(t);
         }
     }
+
+    @Override
+    public int posix_fadvise(int fd, long offset, long length, int advice) {
+        try {
+            return (int) posix_fadvise$mh.invokeExact(fd, offset, length, advice);
+        } catch (Throwable t) {
+            throw new AssertionError(t);
+        }
+    }
 }
@@ -23,6 +23,7 @@ import java.lang.foreign.StructLayout;
 import java.lang.invoke.MethodHandle;
 import java.lang.invoke.MethodHandles;
 import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
 
 import static java.lang.foreign.MemoryLayout.PathElement.groupElement;
 import static java.lang.foreign.ValueLayout.ADDRESS;
@@ -105,6 +106,16 @@ class JdkPosixCLibrary implements PosixCLibrary {
         "send",
         FunctionDescriptor.of(JAVA_LONG, JAVA_INT, ADDRESS, JAVA_LONG, JAVA_INT)
     );
+    private static final MethodHandle pread$mh = downcallHandleWithErrno(
+        "pread",
+        FunctionDescriptor.of(JAVA_LONG, JAVA_INT, ADDRESS, JAVA_LONG, JAVA_LONG)
+    );
+
+    // heap buffers can't be passed to native code, so pread reads into this buffer of the thread first and copies to them
+    private static final int PREAD_SCRATCH_SIZE = 16384;
+    private static final ThreadLocal<MemorySegment> preadScratch = ThreadLocal.withInitial(
+        () -> Arena.ofAuto().allocate(PREAD_SCRATCH_SIZE)
+    );
 
     static final MemorySegment errnoState = Arena.ofAuto().allocate(CAPTURE_ERRNO_LAYOUT);
 
@@ -280,6 +291,25 @@ class JdkPosixCLibrary implements PosixCLibrary {
         }
     }
 
+    @Override
+    public long pread(int fd, ByteBuffer buffer, long offset) {
+        try {
+            if (buffer.isDirect()) {
+                var segment = MemorySegment.ofBuffer(buffer);
+                return (long) pread$mh.invokeExact(errnoState, fd, segment, segment.byteSize(), offset);
+            }
+            var scratch = preadScratch.get();
+            long count = Math.min(buffer.remaining(), scratch.byteSize());
+            long read = (long) pread$mh.invokeExact(errnoState, fd, scratch, count, offset);
+            if (read > 0) {
+                MemorySegment.copy(scratch, 0, MemorySegment.ofBuffer(buffer), 0, read);
+            }
+            return read;
+        } catch (Throwable t) {
+            throw new AssertionError(t);
+        }
+    }
+
     static class JdkRLimit implements RLimit {
         private static final MemoryLayout layout = MemoryLayout.structLayout(JAVA_LONG, JAVA_LONG);
         private static final VarHandle rlim_cur$vh = varHandleWithoutOffset(layout, groupElement(0));
@@ -38,4 +38,10 @@ public non-sealed interface LinuxCLibrary extends NativeLibrary {
     long syscall(long number, int operation, int flags, long address);
 
     int fallocate(int fd, int mode, long offset, long length);
+
+    /**
+     * maps to posix_fadvise(2)
+     * @return zero on success, or an error number on failure; note that errno is not set
+     */
+    int posix_fadvise(int fd, long offset, long length, int advice);
 }
@@ -11,6 +11,8 @@ package org.elasticsearch.nativeaccess.lib;
 
 import org.elasticsearch.nativeaccess.CloseableByteBuffer;
 
+import java.nio.ByteBuffer;
+
 /**
  * Provides access to methods in libc.so available on POSIX systems.
  */
@@ -138,6 +140,17 @@ public non-sealed interface PosixCLibrary extends NativeLibrary {
      */
     long send(int sockfd, CloseableByteBuffer buffer, int flags);
 
+    /**
+     * Read from a file at a given offset, without changing the offset of the file descriptor.
+     *
+     * @param fd The open file descriptor
+     * @param buffer The buffer to read into, from its position and up to its limit; its position is left unmodified
+     * @param offset The offset in the file to read from
+     * @return The number of bytes read, 0 at the end of the file, or -1 on failure with errno set
+     * @see <a href="https://man7.org/linux/man-pages/man2/pread.2.html">pread manpage</a>
+     */
+    long pread(int fd, ByteBuffer buffer, long offset);
+
     /**
      * Close a file descriptor
      * @param fd The file descriptor to close
@@ -0,0 +1,88 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+
+package org.elasticsearch.nativeaccess;
+
+import org.elasticsearch.test.ESTestCase;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.greaterThan;
+
+public class ReadAheadTests extends ESTestCase {
+
+    public void testReadAhead() throws IOException {
+        final ReadAhead readAhead = readAhead();
+        final Path file = createTempFile();
+        final byte[] bytes = randomByteArrayOfLength(between(1, 1 << 20));
+        Files.write(file, bytes);
+        try (ReadAhead.File readAheadFile = readAhead.open(file)) {
+            readAheadFile.willNeed(0, bytes.length);
+            final long offset = randomLongBetween(0, bytes.length - 1);
+            readAheadFile.willNeed(offset, randomLongBetween(1, bytes.length - offset));
+            // ranges beyond the end of the file are ignored by the kernel
+            readAheadFile.willNeed(bytes.length, randomLongBetween(1, Long.MAX_VALUE - bytes.length));
+        }
+        assertArrayEquals(bytes, Files.readAllBytes(file));
+    }
+
+    public void testRead() throws IOException {
+        final ReadAhead readAhead = readAhead();
+        final Path file = createTempFile();
+        final byte[] bytes = randomByteArrayOfLength(between(1, 1 << 20));
+        Files.write(file, bytes);
+        try (ReadAhead.File readAheadFile = readAhead.open(file)) {
+            for (int i = 0; i < 10; i++) {
+                final int position = between(0, bytes.length - 1);
+                final int length = between(1, bytes.length - position);
+                final ByteBuffer buffer = randomBoolean() ? ByteBuffer.allocate(length) : ByteBuffer.allocateDirect(length);
+                readAheadFile.willNeed(position, length);
+                while (buffer.hasRemaining()) {
+                    final int read = readAheadFile.read(buffer, position + buffer.position());
+                    assertThat(read, greaterThan(0));
+                }
+                final byte[] read = new byte[length];
+                buffer.flip().get(read);
+                assertArrayEquals(Arrays.copyOfRange(bytes, position, position + length), read);
+            }
+            assertEquals(-1, readAheadFile.read(ByteBuffer.allocate(1), bytes.length));
+        }
+    }
+
+    public void testReadClosedFile() throws IOException {
+        final ReadAhead readAhead = readAhead();
+        final Path file = createTempFile();
+        Files.write(file, randomByteArrayOfLength(between(1, 1024)));
+        final ReadAhead.File readAheadFile = readAhead.open(file);
+        readAheadFile.close();
+        expectThrows(ClosedChannelException.class, () -> readAheadFile.read(ByteBuffer.allocate(1), 0));
+        // closing again and read-ahead hints on closed files are no-ops
+        readAheadFile.close();
+        readAheadFile.willNeed(0, 1);
+    }
+
+    public void testOpenMissingFile() {
+        final ReadAhead readAhead = readAhead();
+        final Path file = createTempDir().resolve("missing");
+        final IOException e = expectThrows(IOException.class, () -> readAhead.open(file));
+        assertThat(e.getMessage(), containsString("Could not open file [" + file + "] for read-ahead"));
+    }
+
+    private static ReadAhead readAhead() {
+        final var readAhead = NativeAccess.instance().getReadAhead();
+        assumeTrue("read-ahead is only supported on Linux", readAhead.isPresent());
+        return readAhead.get();
+    }
+}
@@ -24,4 +24,28 @@ public class ESVectorUtil {
         }
         return IMPL.ipByteBinByte(q, d);
     }
+
+    /**
+     * Computes the late interaction (MaxSim) score of a document made of several vectors: the sum, over the query vectors, of the
+     * highest dot product between the query vector and any of the document vectors.
+     *
+     * @param queryVectors the query vectors, which all have the same number of dimensions
+     * @param docVectors the document vectors, one after the other
+     * @param numDocVectors the number of document vectors, which may be less than what {@code docVectors} can hold
+     */
+    public static float maxSimDotProduct(float[][] queryVectors, float[] docVectors, int numDocVectors) {
+        if (queryVectors.length == 0 || numDocVectors == 0) {
+            throw new IllegalArgumentException("query and document must have at least one vector");
+        }
+        final int dims = queryVectors[0].length;
+        for (float[] queryVector : queryVectors) {
+            if (queryVector.length != dims) {
+                throw new IllegalArgumentException("vector dimensions differ: " + dims + "!=" + queryVector.length);
+            }
+        }
+        if (docVectors.length < (long) numDocVectors * dims) {
+            throw new IllegalArgumentException("document vectors too short: " + docVectors.length + " < " + numDocVectors + " x " + dims);
+        }
+        return IMPL.maxSimDotProduct(queryVectors, docVectors, numDocVectors);
+    }
 }
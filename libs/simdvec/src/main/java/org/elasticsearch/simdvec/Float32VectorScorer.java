@@ -0,0 +1,25 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+
+package org.elasticsearch.simdvec;
+
+import java.io.IOException;
+
+/**
+ * Compares a query vector to the float32 vectors of a memory-mapped vector file. The vectors are read directly from the mapped
+ * memory, without first being copied to the heap.
+ */
+public interface Float32VectorScorer {
+
+    /** Returns the dot product of the query vector and the vector at the given ordinal. */
+    float dotProduct(int ord) throws IOException;
+
+    /** Returns the squared euclidean distance between the query vector and the vector at the given ordinal. */
+    float squareDistance(int ord) throws IOException;
+}
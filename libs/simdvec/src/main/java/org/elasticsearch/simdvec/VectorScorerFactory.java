@@ -9,6 +9,7 @@
 
 package org.elasticsearch.simdvec;
 
+import org.apache.lucene.index.FloatVectorValues;
 import org.apache.lucene.index.VectorSimilarityFunction;
 import org.apache.lucene.store.IndexInput;
 import org.apache.lucene.util.hnsw.RandomVectorScorer;
@@ -53,4 +54,15 @@ public interface VectorScorerFactory {
      * @return an optional containing the vector scorer, or empty
      */
     Optional<RandomVectorScorer> getInt7SQVectorScorer(VectorSimilarityFunction sim, QuantizedByteVectorValues values, float[] queryVector);
+
+    /**
+     * Returns an optional containing a float32 vector scorer that reads the
+     * vectors of the given values directly from their memory-mapped file, or
+     * an empty optional if a scorer is not supported for the given values.
+     *
+     * @param values the random access vector values
+     * @param queryVector the query vector
+     * @return an optional containing the vector scorer, or empty
+     */
+    Optional<Float32VectorScorer> getFloat32VectorScorer(FloatVectorValues values, float[] queryVector);
 }
@@ -9,6 +9,7 @@
 
 package org.elasticsearch.simdvec;
 
+import org.apache.lucene.index.FloatVectorValues;
 import org.apache.lucene.index.VectorSimilarityFunction;
 import org.apache.lucene.store.IndexInput;
 import org.apache.lucene.util.hnsw.RandomVectorScorer;
@@ -39,4 +40,9 @@ final class VectorScorerFactoryImpl implements VectorScorerFactory {
     ) {
         throw new UnsupportedOperationException("should not reach here");
     }
+
+    @Override
+    public Optional<Float32VectorScorer> getFloat32VectorScorer(FloatVectorValues values, float[] queryVector) {
+        throw new UnsupportedOperationException("should not reach here");
+    }
 }
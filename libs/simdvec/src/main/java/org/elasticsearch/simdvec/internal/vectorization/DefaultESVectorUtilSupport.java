@@ -36,4 +36,25 @@ final class DefaultESVectorUtilSupport implements ESVectorUtilSupport {
         }
         return ret;
     }
+
+    @Override
+    public float maxSimDotProduct(float[][] queryVectors, float[] docVectors, int numDocVectors) {
+        return maxSimDotProductImpl(queryVectors, docVectors, numDocVectors);
+    }
+
+    public static float maxSimDotProductImpl(float[][] queryVectors, float[] docVectors, int numDocVectors) {
+        float sum = 0;
+        for (float[] queryVector : queryVectors) {
+            float max = Float.NEGATIVE_INFINITY;
+            for (int offset = 0, i = 0; i < numDocVectors; i++, offset += queryVector.length) {
+                float dot = 0;
+                for (int d = 0; d < queryVector.length; d++) {
+                    dot = Math.fma(queryVector[d], docVectors[offset + d], dot);
+                }
+                max = Math.max(max, dot);
+            }
+            sum += max;
+        }
+        return sum;
+    }
 }
@@ -14,4 +14,6 @@ public interface ESVectorUtilSupport {
     short B_QUERY = 4;
 
     long ipByteBinByte(byte[] q, byte[] d);
+
+    float maxSimDotProduct(float[][] queryVectors, float[] docVectors, int numDocVectors);
 }
@@ -9,6 +9,7 @@
 
 package org.elasticsearch.simdvec;
 
+import org.apache.lucene.index.FloatVectorValues;
 import org.apache.lucene.index.VectorSimilarityFunction;
 import org.apache.lucene.store.FilterIndexInput;
 import org.apache.lucene.store.IndexInput;
@@ -17,6 +18,7 @@ import org.apache.lucene.util.hnsw.RandomVectorScorer;
 import org.apache.lucene.util.hnsw.RandomVectorScorerSupplier;
 import org.apache.lucene.util.quantization.QuantizedByteVectorValues;
 import org.elasticsearch.nativeaccess.NativeAccess;
+import org.elasticsearch.simdvec.internal.Float32VectorScorerImpl;
 import org.elasticsearch.simdvec.internal.Int7SQVectorScorer;
 import org.elasticsearch.simdvec.internal.Int7SQVectorScorerSupplier.DotProductSupplier;
 import org.elasticsearch.simdvec.internal.Int7SQVectorScorerSupplier.EuclideanSupplier;
@@ -63,6 +65,11 @@ final class VectorScorerFactoryImpl implements VectorScorerFactory {
         return Int7SQVectorScorer.create(sim, values, queryVector);
     }
 
+    @Override
+    public Optional<Float32VectorScorer> getFloat32VectorScorer(FloatVectorValues values, float[] queryVector) {
+        return Float32VectorScorerImpl.create(values, queryVector);
+    }
+
     static void checkInvariants(int maxOrd, int vectorByteLength, IndexInput input) {
         if (input.length() < (long) vectorByteLength * maxOrd) {
             throw new IllegalArgumentException("input length is less than expected vector data");
@@ -0,0 +1,143 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+
+package org.elasticsearch.simdvec.internal;
+
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+import org.apache.lucene.codecs.lucene95.HasIndexSlice;
+import org.apache.lucene.index.FloatVectorValues;
+import org.apache.lucene.store.FilterIndexInput;
+import org.apache.lucene.store.IndexInput;
+import org.apache.lucene.store.MemorySegmentAccessInput;
+import org.elasticsearch.simdvec.Float32VectorScorer;
+import org.elasticsearch.simdvec.internal.vectorization.ESVectorizationProvider;
+import org.elasticsearch.simdvec.internal.vectorization.PanamaESVectorUtilSupport;
+
+import java.io.IOException;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteOrder;
+import java.util.Optional;
+
+public final class Float32VectorScorerImpl implements Float32VectorScorer {
+
+    private static final VectorSpecies<Float> SPECIES = FloatVector.SPECIES_PREFERRED;
+    private static final ValueLayout.OfFloat LAYOUT_LE_FLOAT = ValueLayout.JAVA_FLOAT_UNALIGNED.withOrder(ByteOrder.LITTLE_ENDIAN);
+
+    private final MemorySegmentAccessInput input;
+    private final float[] query;
+    private final int dims;
+    private final int vectorByteSize;
+    private final int maxOrd;
+    private byte[] scratch;
+
+    /** Return an optional whose value, if present, is the scorer. Otherwise, an empty optional is returned. */
+    public static Optional<Float32VectorScorer> create(FloatVectorValues values, float[] queryVector) {
+        if (ESVectorizationProvider.getInstance().getVectorUtilSupport() instanceof PanamaESVectorUtilSupport == false) {
+            return Optional.empty();
+        }
+        if (values instanceof HasIndexSlice == false) {
+            return Optional.empty();
+        }
+        IndexInput input = ((HasIndexSlice) values).getSlice();
+        if (input == null) {
+            return Optional.empty();
+        }
+        input = FilterIndexInput.unwrapOnlyTest(input);
+        if (input instanceof MemorySegmentAccessInput == false) {
+            return Optional.empty();
+        }
+        // the slice must hold exactly the raw vectors, one after the other, rather than quantized ones
+        if (input.length() != (long) values.size() * values.dimension() * Float.BYTES) {
+            return Optional.empty();
+        }
+        if (queryVector.length != values.dimension()) {
+            throw new IllegalArgumentException(
+                "vector query dimension: " + queryVector.length + " differs from field dimension: " + values.dimension()
+            );
+        }
+        return Optional.of(new Float32VectorScorerImpl((MemorySegmentAccessInput) input, queryVector, values.size()));
+    }
+
+    private Float32VectorScorerImpl(MemorySegmentAccessInput input, float[] query, int maxOrd) {
+        this.input = input;
+        this.query = query;
+        this.dims = query.length;
+        this.vectorByteSize = dims * Float.BYTES;
+        this.maxOrd = maxOrd;
+    }
+
+    @Override
+    public float dotProduct(int ord) throws IOException {
+        MemorySegment vector = getSegment(ord);
+        int i = 0;
+        float res = 0;
+        if (dims >= SPECIES.length()) {
+            FloatVector acc = FloatVector.zero(SPECIES);
+            int limit = SPECIES.loopBound(dims);
+            for (; i < limit; i += SPECIES.length()) {
+                FloatVector q = FloatVector.fromArray(SPECIES, query, i);
+                FloatVector v = FloatVector.fromMemorySegment(SPECIES, vector, (long) i * Float.BYTES, ByteOrder.LITTLE_ENDIAN);
+                acc = q.mul(v).add(acc);
+            }
+            res = acc.reduceLanes(VectorOperators.ADD);
+        }
+        for (; i < dims; i++) {
+            res += query[i] * floatAt(vector, i);
+        }
+        return res;
+    }
+
+    @Override
+    public float squareDistance(int ord) throws IOException {
+        MemorySegment vector = getSegment(ord);
+        int i = 0;
+        float res = 0;
+        if (dims >= SPECIES.length()) {
+            FloatVector acc = FloatVector.zero(SPECIES);
+            int limit = SPECIES.loopBound(dims);
+            for (; i < limit; i += SPECIES.length()) {
+                FloatVector q = FloatVector.fromArray(SPECIES, query, i);
+                FloatVector v = FloatVector.fromMemorySegment(SPECIES, vector, (long) i * Float.BYTES, ByteOrder.LITTLE_ENDIAN);
+                FloatVector diff = q.sub(v);
+                acc = diff.mul(diff).add(acc);
+            }
+            res = acc.reduceLanes(VectorOperators.ADD);
+        }
+        for (; i < dims; i++) {
+            float diff = query[i] - floatAt(vector, i);
+            res += diff * diff;
+        }
+        return res;
+    }
+
+    private MemorySegment getSegment(int ord) throws IOException {
+        if (ord < 0 || ord >= maxOrd) {
+            throw new IllegalArgumentException("illegal ordinal: " + ord);
+        }
+        long byteOffset = (long) ord * vectorByteSize;
+        MemorySegment seg = input.segmentSliceOrNull(byteOffset, vectorByteSize);
+        if (seg == null) {
+            // the vector spans two mapped chunks
+            if (scratch == null) {
+                scratch = new byte[vectorByteSize];
+            }
+            input.readBytes(byteOffset, scratch, 0, vectorByteSize);
+            seg = MemorySegment.ofArray(scratch);
+        }
+        return seg;
+    }
+
+    private static float floatAt(MemorySegment vector, int i) {
+        return vector.get(LAYOUT_LE_FLOAT, (long) i * Float.BYTES);
+    }
+}
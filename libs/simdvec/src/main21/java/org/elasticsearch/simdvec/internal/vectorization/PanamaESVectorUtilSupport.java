@@ -10,6 +10,7 @@
 package org.elasticsearch.simdvec.internal.vectorization;
 
 import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.FloatVector;
 import jdk.incubator.vector.IntVector;
 import jdk.incubator.vector.LongVector;
 import jdk.incubator.vector.VectorOperators;
@@ -150,4 +151,85 @@ public final class PanamaESVectorUtilSupport implements ESVectorUtilSupport {
         }
         return subRet0 + (subRet1 << 1) + (subRet2 << 2) + (subRet3 << 3);
     }
+
+    private static final VectorSpecies<Float> FLOAT_SPECIES = FloatVector.SPECIES_PREFERRED;
+
+    @Override
+    public float maxSimDotProduct(float[][] queryVectors, float[] docVectors, int numDocVectors) {
+        if (queryVectors[0].length >= FLOAT_SPECIES.length() * 2) {
+            return maxSimDotProductVectorized(queryVectors, docVectors, numDocVectors);
+        }
+        return DefaultESVectorUtilSupport.maxSimDotProductImpl(queryVectors, docVectors, numDocVectors);
+    }
+
+    /**
+     * Computes the dot products of four query vectors at a time with each document vector, so that every chunk of a document vector
+     * that is loaded is used four times.
+     */
+    static float maxSimDotProductVectorized(float[][] queryVectors, float[] docVectors, int numDocVectors) {
+        final int dims = queryVectors[0].length;
+        final int limit = FLOAT_SPECIES.loopBound(dims);
+        float sum = 0;
+        int q = 0;
+        for (; q + 4 <= queryVectors.length; q += 4) {
+            final float[] q0 = queryVectors[q];
+            final float[] q1 = queryVectors[q + 1];
+            final float[] q2 = queryVectors[q + 2];
+            final float[] q3 = queryVectors[q + 3];
+            float max0 = Float.NEGATIVE_INFINITY;
+            float max1 = Float.NEGATIVE_INFINITY;
+            float max2 = Float.NEGATIVE_INFINITY;
+            float max3 = Float.NEGATIVE_INFINITY;
+            for (int offset = 0, i = 0; i < numDocVectors; i++, offset += dims) {
+                var acc0 = FloatVector.zero(FLOAT_SPECIES);
+                var acc1 = FloatVector.zero(FLOAT_SPECIES);
+                var acc2 = FloatVector.zero(FLOAT_SPECIES);
+                var acc3 = FloatVector.zero(FLOAT_SPECIES);
+                int d = 0;
+                for (; d < limit; d += FLOAT_SPECIES.length()) {
+                    var vd = FloatVector.fromArray(FLOAT_SPECIES, docVectors, offset + d);
+                    acc0 = FloatVector.fromArray(FLOAT_SPECIES, q0, d).fma(vd, acc0);
+                    acc1 = FloatVector.fromArray(FLOAT_SPECIES, q1, d).fma(vd, acc1);
+                    acc2 = FloatVector.fromArray(FLOAT_SPECIES, q2, d).fma(vd, acc2);
+                    acc3 = FloatVector.fromArray(FLOAT_SPECIES, q3, d).fma(vd, acc3);
+                }
+                float dot0 = acc0.reduceLanes(VectorOperators.ADD);
+                float dot1 = acc1.reduceLanes(VectorOperators.ADD);
+                float dot2 = acc2.reduceLanes(VectorOperators.ADD);
+                float dot3 = acc3.reduceLanes(VectorOperators.ADD);
+                // tail
+                for (; d < dims; d++) {
+                    final float value = docVectors[offset + d];
+                    dot0 = Math.fma(q0[d], value, dot0);
+                    dot1 = Math.fma(q1[d], value, dot1);
+                    dot2 = Math.fma(q2[d], value, dot2);
+                    dot3 = Math.fma(q3[d], value, dot3);
+                }
+                max0 = Math.max(max0, dot0);
+                max1 = Math.max(max1, dot1);
+                max2 = Math.max(max2, dot2);
+                max3 = Math.max(max3, dot3);
+            }
+            sum += max0 + max1 + max2 + max3;
+        }
+        for (; q < queryVectors.length; q++) {
+            final float[] queryVector = queryVectors[q];
+            float max = Float.NEGATIVE_INFINITY;
+            for (int offset = 0, i = 0; i < numDocVectors; i++, offset += dims) {
+                var acc = FloatVector.zero(FLOAT_SPECIES);
+                int d = 0;
+                for (; d < limit; d += FLOAT_SPECIES.length()) {
+                    var vd = FloatVector.fromArray(FLOAT_SPECIES, docVectors, offset + d);
+                    acc = FloatVector.fromArray(FLOAT_SPECIES, queryVector, d).fma(vd, acc);
+                }
+                float dot = acc.reduceLanes(VectorOperators.ADD);
+                for (; d < dims; d++) {
+                    dot = Math.fma(queryVector[d], docVectors[offset + d], dot);
+                }
+                max = Math.max(max, dot);
+            }
+            sum += max;
+        }
+        return sum;
+    }
 }
@@ -127,4 +127,65 @@ public class ESVectorUtilTests extends BaseVectorizationTests {
         }
         return res;
     }
+
+    public void testMaxSimDotProductInvariants() {
+        expectThrows(IllegalArgumentException.class, () -> ESVectorUtil.maxSimDotProduct(new float[0][], new float[4], 1));
+        expectThrows(IllegalArgumentException.class, () -> ESVectorUtil.maxSimDotProduct(new float[][] { new float[4] }, new float[4], 0));
+        expectThrows(
+            IllegalArgumentException.class,
+            () -> ESVectorUtil.maxSimDotProduct(new float[][] { new float[4], new float[3] }, new float[4], 1)
+        );
+        expectThrows(IllegalArgumentException.class, () -> ESVectorUtil.maxSimDotProduct(new float[][] { new float[4] }, new float[7], 2));
+    }
+
+    public void testBasicMaxSimDotProduct() {
+        float[][] query = new float[][] { { 1, 0 }, { 0, 1 } };
+        float[] doc = new float[] { 2, 1, -1, 3 };
+        // max(2, -1) + max(1, 3)
+        assertEquals(5f, ESVectorUtil.maxSimDotProduct(query, doc, 2), 0f);
+        // only the first document vector is read
+        assertEquals(3f, ESVectorUtil.maxSimDotProduct(query, doc, 1), 0f);
+    }
+
+    public void testMaxSimDotProduct() {
+        int iterations = atLeast(50);
+        for (int i = 0; i < iterations; i++) {
+            int dims = randomIntBetween(1, 300);
+            float[][] query = new float[randomIntBetween(1, 40)][];
+            for (int q = 0; q < query.length; q++) {
+                query[q] = randomFloatVector(dims);
+            }
+            int numDocVectors = randomIntBetween(1, 200);
+            float[] doc = randomFloatVector(numDocVectors * dims + randomIntBetween(0, dims));
+            float expected = scalarMaxSimDotProduct(query, doc, numDocVectors);
+            float delta = 1e-5f * query.length * dims;
+            assertEquals(expected, ESVectorUtil.maxSimDotProduct(query, doc, numDocVectors), delta);
+            assertEquals(expected, defaultedProvider.getVectorUtilSupport().maxSimDotProduct(query, doc, numDocVectors), delta);
+            assertEquals(expected, defOrPanamaProvider.getVectorUtilSupport().maxSimDotProduct(query, doc, numDocVectors), delta);
+        }
+    }
+
+    static float scalarMaxSimDotProduct(float[][] query, float[] doc, int numDocVectors) {
+        double sum = 0;
+        for (float[] queryVector : query) {
+            double max = Double.NEGATIVE_INFINITY;
+            for (int i = 0; i < numDocVectors; i++) {
+                double dot = 0;
+                for (int d = 0; d < queryVector.length; d++) {
+                    dot += queryVector[d] * doc[i * queryVector.length + d];
+                }
+                max = Math.max(max, dot);
+            }
+            sum += max;
+        }
+        return (float) sum;
+    }
+
+    static float[] randomFloatVector(int length) {
+        float[] vector = new float[length];
+        for (int i = 0; i < length; i++) {
+            vector[i] = randomFloat() * 2 - 1;
+        }
+        return vector;
+    }
 }
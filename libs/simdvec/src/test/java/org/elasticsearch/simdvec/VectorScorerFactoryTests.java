@@ -11,6 +11,8 @@ package org.elasticsearch.simdvec;
 
 import com.carrotsearch.randomizedtesting.generators.RandomNumbers;
 
+import org.apache.lucene.codecs.hnsw.DefaultFlatVectorScorer;
+import org.apache.lucene.codecs.lucene95.OffHeapFloatVectorValues;
 import org.apache.lucene.codecs.lucene99.Lucene99ScalarQuantizedVectorScorer;
 import org.apache.lucene.codecs.lucene99.OffHeapQuantizedByteVectorValues;
 import org.apache.lucene.index.VectorSimilarityFunction;
@@ -19,10 +21,12 @@ import org.apache.lucene.store.IOContext;
 import org.apache.lucene.store.IndexInput;
 import org.apache.lucene.store.IndexOutput;
 import org.apache.lucene.store.MMapDirectory;
+import org.apache.lucene.util.VectorUtil;
 import org.apache.lucene.util.hnsw.RandomVectorScorer;
 import org.apache.lucene.util.hnsw.RandomVectorScorerSupplier;
 import org.apache.lucene.util.quantization.QuantizedByteVectorValues;
 import org.apache.lucene.util.quantization.ScalarQuantizer;
+import org.elasticsearch.simdvec.internal.vectorization.ESVectorizationProvider;
 
 import java.io.IOException;
 import java.util.Arrays;
@@ -44,6 +48,7 @@ import static org.elasticsearch.simdvec.VectorSimilarityType.DOT_PRODUCT;
 import static org.elasticsearch.simdvec.VectorSimilarityType.EUCLIDEAN;
 import static org.elasticsearch.simdvec.VectorSimilarityType.MAXIMUM_INNER_PRODUCT;
 import static org.elasticsearch.test.hamcrest.OptionalMatchers.isEmpty;
+import static org.elasticsearch.test.hamcrest.OptionalMatchers.isPresent;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.greaterThanOrEqualTo;
 
@@ -321,6 +326,64 @@ public class VectorScorerFactoryTests extends AbstractVectorTestCase {
         }
     }
 
+    public void testFloat32Scorer() throws IOException {
+        testFloat32ScorerImpl(MMapDirectory.DEFAULT_MAX_CHUNK_SIZE);
+    }
+
+    public void testFloat32ScorerMaxChunkSizeSmall() throws IOException {
+        long maxChunkSize = randomLongBetween(4, 16);
+        logger.info("maxChunkSize=" + maxChunkSize);
+        testFloat32ScorerImpl(maxChunkSize);
+    }
+
+    void testFloat32ScorerImpl(long maxChunkSize) throws IOException {
+        assumeTrue(notSupportedMsg(), supported());
+        // unlike the int7 scorers, the float32 one uses the Panama vector API rather than the native library
+        assumeTrue("Panama vectorization is not enabled", panamaVectorization());
+        var factory = AbstractVectorTestCase.factory.get();
+
+        try (Directory dir = new MMapDirectory(createTempDir("testFloat32ScorerImpl"), maxChunkSize)) {
+            for (int dims : List.of(1, 15, 16, 17, 127, 128, 129)) {
+                final int size = randomIntBetween(2, 100);
+                final float[][] vectors = new float[size][];
+
+                String fileName = "testFloat32ScorerImpl-" + dims;
+                logger.info("Testing " + fileName);
+                try (IndexOutput out = dir.createOutput(fileName, IOContext.DEFAULT)) {
+                    for (int i = 0; i < size; i++) {
+                        vectors[i] = FLOAT_ARRAY_RANDOM_FUNC.apply(dims);
+                        for (float v : vectors[i]) {
+                            out.writeInt(Float.floatToIntBits(v));
+                        }
+                    }
+                }
+                try (IndexInput in = dir.openInput(fileName, IOContext.DEFAULT)) {
+                    var values = new OffHeapFloatVectorValues.DenseOffHeapVectorValues(
+                        dims,
+                        size,
+                        in,
+                        dims * Float.BYTES,
+                        DefaultFlatVectorScorer.INSTANCE,
+                        VectorSimilarityFunction.DOT_PRODUCT
+                    );
+                    float[] query = FLOAT_ARRAY_RANDOM_FUNC.apply(dims);
+                    var scorer = factory.getFloat32VectorScorer(values, query);
+                    assertThat(scorer, isPresent());
+                    for (int ord = 0; ord < size; ord++) {
+                        float delta = 1e-5f * dims;
+                        assertEquals(VectorUtil.dotProduct(query, vectors[ord]), scorer.get().dotProduct(ord), delta);
+                        assertEquals(VectorUtil.squareDistance(query, vectors[ord]), scorer.get().squareDistance(ord), delta);
+                    }
+                    expectThrows(IllegalArgumentException.class, () -> factory.getFloat32VectorScorer(values, new float[dims + 1]));
+                }
+            }
+        }
+    }
+
+    static boolean panamaVectorization() {
+        return ESVectorizationProvider.getInstance().getVectorUtilSupport().getClass().getSimpleName().equals("PanamaESVectorUtilSupport");
+    }
+
     // Tests with a large amount of data (> 2GB), which ensures that data offsets do not overflow
     @Nightly
     public void testLarge() throws IOException {
@@ -10,6 +10,7 @@
 package org.elasticsearch.ingest.common;
 
 import org.elasticsearch.ExceptionsHelper;
+import org.elasticsearch.common.TriConsumer;
 import org.elasticsearch.common.settings.SettingsException;
 import org.elasticsearch.common.time.DateFormatter;
 import org.elasticsearch.common.util.LocaleUtils;
@@ -103,6 +104,41 @@ public final class DateProcessor extends AbstractProcessor {
 
     @Override
     public IngestDocument execute(IngestDocument ingestDocument) {
+        return execute(ingestDocument, null);
+    }
+
+    @Override
+    public boolean supportsBatchExecution() {
+        // without templates, the timezone and the locale and thus the date parsers are the same for all documents
+        return timezone == null && locale == null;
+    }
+
+    @Override
+    public void executeBatch(List<IngestDocument> ingestDocuments, TriConsumer<Integer, IngestDocument, Exception> handler) {
+        if (supportsBatchExecution() == false) {
+            super.executeBatch(ingestDocuments, handler);
+            return;
+        }
+        // each parser is resolved once for the whole batch, the first time a document needs it
+        @SuppressWarnings({ "unchecked", "rawtypes" })
+        final Function<String, ZonedDateTime>[] resolvedParsers = new Function[dateParsers.size()];
+        for (int i = 0; i < ingestDocuments.size(); i++) {
+            final IngestDocument result;
+            try {
+                result = execute(ingestDocuments.get(i), resolvedParsers);
+            } catch (Exception e) {
+                handler.apply(i, null, e);
+                continue;
+            }
+            handler.apply(i, result, null);
+        }
+    }
+
+    /**
+     * @param resolvedParsers the parsers already resolved for the timezone and locale of the document, filled as parsers get resolved,
+     *                        or {@code null} to resolve them for this document only
+     */
+    private IngestDocument execute(IngestDocument ingestDocument, @Nullable Function<String, ZonedDateTime>[] resolvedParsers) {
         Object obj = ingestDocument.getFieldValue(field, Object.class);
         String value = null;
         if (obj != null) {
@@ -124,9 +160,16 @@ public final class DateProcessor extends AbstractProcessor {
 
         ZonedDateTime dateTime = null;
         Exception lastException = null;
-        for (BiFunction<ZoneId, Locale, Function<String, ZonedDateTime>> dateParser : dateParsers) {
+        for (int i = 0; i < dateParsers.size(); i++) {
             try {
-                dateTime = dateParser.apply(documentTimezone, documentLocale).apply(value);
+                Function<String, ZonedDateTime> parser = resolvedParsers == null ? null : resolvedParsers[i];
+                if (parser == null) {
+                    parser = dateParsers.get(i).apply(documentTimezone, documentLocale);
+                    if (resolvedParsers != null) {
+                        resolvedParsers[i] = parser;
+                    }
+                }
+                dateTime = parser.apply(value);
                 break;
             } catch (Exception e) {
                 // try the next parser and keep track of the exceptions
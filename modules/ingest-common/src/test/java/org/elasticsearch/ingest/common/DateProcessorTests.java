@@ -426,4 +426,82 @@ public class DateProcessorTests extends ESTestCase {
         dateProcessor.execute(ingestDocument);
         verify(compiledScript, atMost(2)).execute();
     }
+
+    public void testExecuteBatch() {
+        DateProcessor dateProcessor = new DateProcessor(
+            randomAlphaOfLength(10),
+            null,
+            null,
+            null,
+            "date_as_string",
+            List.of("yyyy dd MM HH:mm:ss XXX", "dd/MM/yyyy"),
+            "date_as_date"
+        );
+        assertTrue(dateProcessor.supportsBatchExecution());
+
+        final Map<String, String> expectedDates = Map.of(
+            "2010 12 06 00:00:00 -02:00",
+            "2010-06-12T02:00:00.000Z",
+            "12/06/2010",
+            "2010-06-12T00:00:00.000Z",
+            "2010",
+            "unable to parse date [2010]"
+        );
+        final List<IngestDocument> ingestDocuments = new ArrayList<>();
+        final List<String> dates = new ArrayList<>();
+        for (int i = between(1, 20); i > 0; i--) {
+            final String date = randomFrom(expectedDates.keySet());
+            dates.add(date);
+            Map<String, Object> document = new HashMap<>();
+            document.put("date_as_string", date);
+            ingestDocuments.add(RandomDocumentPicks.randomIngestDocument(random(), document));
+        }
+
+        final int[] completions = new int[ingestDocuments.size()];
+        dateProcessor.executeBatch(ingestDocuments, (slot, result, e) -> {
+            completions[slot]++;
+            final String expected = expectedDates.get(dates.get(slot));
+            if (dates.get(slot).equals("2010")) {
+                assertNull(result);
+                assertThat(e.getMessage(), containsString(expected));
+            } else {
+                assertNull(e);
+                assertSame(ingestDocuments.get(slot), result);
+                assertThat(result.getFieldValue("date_as_date", String.class), equalTo(expected));
+            }
+        });
+        for (int completion : completions) {
+            assertThat(completion, equalTo(1));
+        }
+    }
+
+    public void testExecuteBatchWithTimezoneTemplate() {
+        DateProcessor dateProcessor = new DateProcessor(
+            randomAlphaOfLength(10),
+            null,
+            templatize(ZoneId.of("Europe/Amsterdam")),
+            null,
+            "date_as_string",
+            List.of("yyyy dd MM"),
+            "date_as_date"
+        );
+        // the timezone may differ between documents, so they are executed one at a time
+        assertFalse(dateProcessor.supportsBatchExecution());
+
+        final List<IngestDocument> ingestDocuments = new ArrayList<>();
+        for (int i = between(1, 5); i > 0; i--) {
+            Map<String, Object> document = new HashMap<>();
+            document.put("date_as_string", "2010 12 06");
+            ingestDocuments.add(RandomDocumentPicks.randomIngestDocument(random(), document));
+        }
+        final int[] completions = new int[ingestDocuments.size()];
+        dateProcessor.executeBatch(ingestDocuments, (slot, result, e) -> {
+            completions[slot]++;
+            assertNull(e);
+            assertThat(result.getFieldValue("date_as_date", String.class), equalTo("2010-06-12T00:00:00.000+02:00"));
+        });
+        for (int completion : completions) {
+            assertThat(completion, equalTo(1));
+        }
+    }
 }
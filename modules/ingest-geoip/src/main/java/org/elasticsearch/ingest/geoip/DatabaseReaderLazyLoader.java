@@ -9,6 +9,7 @@
 
 package org.elasticsearch.ingest.geoip;
 
+import com.maxmind.db.DatabaseRecord;
 import com.maxmind.db.NoCache;
 import com.maxmind.db.Reader;
 
@@ -16,15 +17,14 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.apache.lucene.util.SetOnce;
 import org.elasticsearch.ExceptionsHelper;
-import org.elasticsearch.common.CheckedBiFunction;
 import org.elasticsearch.common.CheckedSupplier;
 import org.elasticsearch.core.Booleans;
 import org.elasticsearch.core.IOUtils;
-import org.elasticsearch.core.Nullable;
 import org.elasticsearch.core.SuppressForbidden;
 
 import java.io.File;
 import java.io.IOException;
+import java.net.InetAddress;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Objects;
@@ -97,11 +97,10 @@ public class DatabaseReaderLazyLoader implements IpDatabase {
     }
 
     @Override
-    @Nullable
-    public <RESPONSE> RESPONSE getResponse(String ipAddress, CheckedBiFunction<Reader, String, RESPONSE, Exception> responseProvider) {
-        return cache.putIfAbsent(ipAddress, databasePath.toString(), ip -> {
+    public <DATA> DatabaseRecord<DATA> getRecord(InetAddress ipAddress, Class<DATA> clazz) {
+        return cache.getRecord(ipAddress, databasePath.toString(), clazz, ip -> {
             try {
-                return responseProvider.apply(get(), ipAddress);
+                return get().getRecord(ip, clazz);
             } catch (Exception e) {
                 throw ExceptionsHelper.convertToRuntime(e);
             }
@@ -8,15 +8,20 @@
  */
 package org.elasticsearch.ingest.geoip;
 
+import com.maxmind.db.DatabaseRecord;
 import com.maxmind.db.NodeCache;
 
 import org.elasticsearch.common.cache.Cache;
 import org.elasticsearch.common.cache.CacheBuilder;
+import org.elasticsearch.common.util.concurrent.ConcurrentCollections;
 import org.elasticsearch.core.TimeValue;
 import org.elasticsearch.ingest.geoip.stats.CacheStats;
 
+import java.net.InetAddress;
 import java.nio.file.Path;
+import java.util.Map;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
 import java.util.function.Function;
 import java.util.function.LongSupplier;
 
@@ -25,24 +30,20 @@ import java.util.function.LongSupplier;
  * This cache differs from the maxmind's {@link NodeCache} such that this cache stores the deserialized Json objects to avoid the
  * cost of deserialization for each lookup (cached or not). This comes at slight expense of higher memory usage, but significant
  * reduction of CPU usage.
+ * <p>
+ * Database records are cached per network rather than per IP address, see {@link #getRecord}, so that the many addresses of a network
+ * only cost a single database lookup, including for the networks that the database has no data for.
  */
 public final class GeoIpCache {
 
-    /**
-     * Internal-only sentinel object for recording that a result from the geoip database was null (i.e. there was no result). By caching
-     * this no-result we can distinguish between something not being in the cache because we haven't searched for that data yet, versus
-     * something not being in the cache because the data doesn't exist in the database.
-     */
-    // visible for testing
-    static final Object NO_RESULT = new Object() {
-        @Override
-        public String toString() {
-            return "NO_RESULT";
-        }
-    };
-
     private final LongSupplier relativeNanoTimeProvider;
-    private final Cache<CacheKey, Object> cache;
+    private final Cache<NetworkKey, DatabaseRecord<?>> cache;
+    // the prefix lengths of the networks in the cache, of IPv4 and IPv6 addresses, per database path
+    private final Map<String, PrefixLengths> ipv4PrefixLengths = ConcurrentCollections.newConcurrentMap();
+    private final Map<String, PrefixLengths> ipv6PrefixLengths = ConcurrentCollections.newConcurrentMap();
+    // counted here rather than by the cache, which also counts the lookups of the prefix lengths a network isn't cached with
+    private final AtomicLong hits = new AtomicLong(0);
+    private final AtomicLong misses = new AtomicLong(0);
     private final AtomicLong hitsTimeInNanos = new AtomicLong(0);
     private final AtomicLong missesTimeInNanos = new AtomicLong(0);
 
@@ -52,55 +53,76 @@ public final class GeoIpCache {
             throw new IllegalArgumentException("geoip max cache size must be 0 or greater");
         }
         this.relativeNanoTimeProvider = relativeNanoTimeProvider;
-        this.cache = CacheBuilder.<CacheKey, Object>builder().setMaximumWeight(maxSize).build();
+        this.cache = CacheBuilder.<NetworkKey, DatabaseRecord<?>>builder().setMaximumWeight(maxSize).build();
     }
 
     GeoIpCache(long maxSize) {
         this(maxSize, System::nanoTime);
     }
 
+    /**
+     * Returns the database record of the network that contains the given IP address. The record is cached for the whole network that the
+     * database returned it for, whether the database has data for that network or not, so that any address of the network can be served
+     * from the cache. The network of the record is the same for all these addresses, but the data must not depend on the address.
+     *
+     * @param ip the address to lookup
+     * @param databasePath the path of the database
+     * @param recordType the type of the data of the record
+     * @param retrieveFunction the function that looks up the record of the address in the database
+     * @return the record of the network of the address
+     */
     @SuppressWarnings("unchecked")
-    <RESPONSE> RESPONSE putIfAbsent(String ip, String databasePath, Function<String, RESPONSE> retrieveFunction) {
-        // can't use cache.computeIfAbsent due to the elevated permissions for the jackson (run via the cache loader)
-        CacheKey cacheKey = new CacheKey(ip, databasePath);
+    <DATA> DatabaseRecord<DATA> getRecord(
+        InetAddress ip,
+        String databasePath,
+        Class<DATA> recordType,
+        Function<InetAddress, DatabaseRecord<DATA>> retrieveFunction
+    ) {
+        final byte[] address = ip.getAddress();
+        final Map<String, PrefixLengths> prefixLengthsByDatabase = address.length == 4 ? ipv4PrefixLengths : ipv6PrefixLengths;
+        // a single key is reused for all the probes, and handed over to the cache on a miss
+        final NetworkKey key = new NetworkKey(recordType, databasePath);
         long cacheStart = relativeNanoTimeProvider.getAsLong();
-        // intentionally non-locking for simplicity...it's OK if we re-put the same key/value in the cache during a race condition.
-        Object response = cache.get(cacheKey);
+        // networks don't overlap, so the address is in the cache with at most one of the prefix lengths
+        DatabaseRecord<?> record = null;
+        PrefixLengths lengths = prefixLengthsByDatabase.get(databasePath);
+        if (lengths != null) {
+            for (int prefixLength : lengths.mostFrequentFirst()) {
+                record = cache.get(key.mask(address, prefixLength));
+                if (record != null) {
+                    lengths.recordLookup(prefixLength);
+                    break;
+                }
+            }
+        }
         long cacheRequestTime = relativeNanoTimeProvider.getAsLong() - cacheStart;
 
-        // populate the cache for this key, if necessary
-        if (response == null) {
+        if (record == null) {
             long retrieveStart = relativeNanoTimeProvider.getAsLong();
-            response = retrieveFunction.apply(ip);
-            // if the response from the database was null, then use the no-result sentinel value
-            if (response == null) {
-                response = NO_RESULT;
+            DatabaseRecord<DATA> retrieved = retrieveFunction.apply(ip);
+            int prefixLength = retrieved.getNetwork().getPrefixLength();
+            if (prefixLength >= 0 && prefixLength <= address.length * Byte.SIZE) {
+                cache.put(key.mask(address, prefixLength), retrieved);
+                prefixLengthsByDatabase.computeIfAbsent(databasePath, k -> new PrefixLengths(address.length * Byte.SIZE))
+                    .recordLookup(prefixLength);
             }
-            // store the result or no-result in the cache
-            cache.put(cacheKey, response);
             long databaseRequestAndCachePutTime = relativeNanoTimeProvider.getAsLong() - retrieveStart;
+            misses.incrementAndGet();
             missesTimeInNanos.addAndGet(cacheRequestTime + databaseRequestAndCachePutTime);
+            return retrieved;
         } else {
+            hits.incrementAndGet();
             hitsTimeInNanos.addAndGet(cacheRequestTime);
+            return (DatabaseRecord<DATA>) record;
         }
-
-        if (response == NO_RESULT) {
-            return null; // the no-result sentinel is an internal detail, don't expose it
-        } else {
-            return (RESPONSE) response;
-        }
-    }
-
-    // only useful for testing
-    Object get(String ip, String databasePath) {
-        CacheKey cacheKey = new CacheKey(ip, databasePath);
-        return cache.get(cacheKey);
     }
 
     public int purgeCacheEntriesForDatabase(Path databaseFile) {
         String databasePath = databaseFile.toString();
+        ipv4PrefixLengths.remove(databasePath);
+        ipv6PrefixLengths.remove(databasePath);
         int counter = 0;
-        for (CacheKey key : cache.keys()) {
+        for (NetworkKey key : cache.keys()) {
             if (key.databasePath.equals(databasePath)) {
                 cache.invalidate(key);
                 counter++;
@@ -122,8 +144,8 @@ public final class GeoIpCache {
         Cache.CacheStats stats = cache.stats();
         return new CacheStats(
             cache.count(),
-            stats.getHits(),
-            stats.getMisses(),
+            hits.get(),
+            misses.get(),
             stats.getEvictions(),
             TimeValue.nsecToMSec(hitsTimeInNanos.get()),
             TimeValue.nsecToMSec(missesTimeInNanos.get())
@@ -131,9 +153,117 @@ public final class GeoIpCache {
     }
 
     /**
-     * The key to use for the cache. Since this cache can span multiple geoip processors that all use different databases, the database
-     * path is needed to be included in the cache key. For example, if we only used the IP address as the key the City and ASN the same
-     * IP may be in both with different values and we need to cache both.
+     * The key to use for the record of a network. Since this cache can span multiple geoip processors that all use different databases,
+     * the database path is included in the key. The address is masked to the prefix length of the network, and split in two longs (only
+     * the low one being used for IPv4 addresses) to keep the key cheap to build and compare. A lookup reuses the same key for each prefix
+     * length it probes, so keys are mutable, but a key that is put in the cache is never modified again.
+     */
+    private static final class NetworkKey {
+        private final Class<?> recordType;
+        private final String databasePath;
+        private long high;
+        private long low;
+        private int addressLength;
+        private int prefixLength;
+
+        NetworkKey(Class<?> recordType, String databasePath) {
+            this.recordType = recordType;
+            this.databasePath = databasePath;
+        }
+
+        NetworkKey mask(byte[] address, int prefixLength) {
+            long high = 0;
+            long low = 0;
+            for (int i = 0; i < address.length; i++) {
+                int keptBits = Math.min(Byte.SIZE, Math.max(0, prefixLength - i * Byte.SIZE));
+                long maskedByte = address[i] & (0xFF00 >>> keptBits) & 0xFF;
+                if (i < address.length - Long.BYTES) {
+                    high = (high << Byte.SIZE) | maskedByte;
+                } else {
+                    low = (low << Byte.SIZE) | maskedByte;
+                }
+            }
+            this.high = high;
+            this.low = low;
+            this.addressLength = address.length;
+            this.prefixLength = prefixLength;
+            return this;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            return o instanceof NetworkKey other
+                && high == other.high
+                && low == other.low
+                && addressLength == other.addressLength
+                && prefixLength == other.prefixLength
+                && recordType == other.recordType
+                && databasePath.equals(other.databasePath);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = Long.hashCode(high);
+            result = 31 * result + Long.hashCode(low);
+            result = 31 * result + addressLength;
+            result = 31 * result + prefixLength;
+            result = 31 * result + recordType.hashCode();
+            return 31 * result + databasePath.hashCode();
+        }
+    }
+
+    /**
+     * The prefix lengths that the networks of a database were cached with, for either IPv4 or IPv6 addresses, ordered by how many
+     * lookups the networks of each length served. Databases tend to use a handful of prefix lengths but not evenly, so probing the most
+     * frequent ones first finds most addresses with the first probe. The order is only recomputed when a length is first seen or its
+     * count doubles, which keeps it current without sorting on every lookup.
      */
-    private record CacheKey(String ip, String databasePath) {}
+    private static final class PrefixLengths {
+        private final AtomicLongArray lookups;
+        private volatile int[] mostFrequentFirst = new int[0];
+
+        PrefixLengths(int maxPrefixLength) {
+            this.lookups = new AtomicLongArray(maxPrefixLength + 1);
+        }
+
+        int[] mostFrequentFirst() {
+            return mostFrequentFirst;
+        }
+
+        void recordLookup(int prefixLength) {
+            long count = lookups.incrementAndGet(prefixLength);
+            if ((count & (count - 1)) == 0) {
+                reorder();
+            }
+        }
+
+        private synchronized void reorder() {
+            // snapshot the counts, they keep changing while sorting
+            long[] counts = new long[lookups.length()];
+            int size = 0;
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] = lookups.get(i);
+                if (counts[i] > 0) {
+                    size++;
+                }
+            }
+            int[] ordered = new int[size];
+            int filled = 0;
+            for (int prefixLength = 0; prefixLength < counts.length; prefixLength++) {
+                if (counts[prefixLength] > 0) {
+                    // insertion sort, there are only a few lengths
+                    int i = filled++;
+                    while (i > 0 && counts[ordered[i - 1]] < counts[prefixLength]) {
+                        ordered[i] = ordered[i - 1];
+                        i--;
+                    }
+                    ordered[i] = prefixLength;
+                }
+            }
+            mostFrequentFirst = ordered;
+        }
+    }
 }
@@ -10,9 +10,11 @@
 package org.elasticsearch.ingest.geoip;
 
 import org.elasticsearch.common.CheckedSupplier;
+import org.elasticsearch.common.TriConsumer;
 import org.elasticsearch.common.logging.DeprecationCategory;
 import org.elasticsearch.common.logging.DeprecationLogger;
 import org.elasticsearch.core.Assertions;
+import org.elasticsearch.core.IOUtils;
 import org.elasticsearch.core.Strings;
 import org.elasticsearch.ingest.AbstractProcessor;
 import org.elasticsearch.ingest.IngestDocument;
@@ -110,43 +112,96 @@ public final class GeoIpProcessor extends AbstractProcessor {
         }
 
         try (IpDatabase ipDatabase = this.supplier.get()) {
-            if (ipDatabase == null) {
-                if (ignoreMissing == false) {
-                    tag(document, type, databaseFile);
+            return lookup(document, ip, ipDatabase);
+        }
+    }
+
+    @Override
+    public boolean supportsBatchExecution() {
+        return true;
+    }
+
+    /**
+     * Checks the validity of the databases and acquires the database once for the whole batch rather than once per document. The
+     * database is released before the handler is called for the documents, since it may run the rest of their pipeline.
+     */
+    @Override
+    public void executeBatch(List<IngestDocument> documents, TriConsumer<Integer, IngestDocument, Exception> handler) {
+        final boolean valid = isValid.get();
+        final Exception[] failures = new Exception[documents.size()];
+        IpDatabase ipDatabase = null;
+        boolean databaseAcquired = false;
+        try {
+            for (int i = 0; i < documents.size(); i++) {
+                final IngestDocument document = documents.get(i);
+                try {
+                    Object ip = document.getFieldValue(field, Object.class, ignoreMissing);
+                    if (valid == false) {
+                        document.appendFieldValue("tags", "_" + type + "_expired_database", false);
+                    } else if (ip == null && ignoreMissing == false) {
+                        throw new IllegalArgumentException("field [" + field + "] is null, cannot extract geoip information.");
+                    } else if (ip != null) {
+                        if (databaseAcquired == false) {
+                            ipDatabase = supplier.get();
+                            databaseAcquired = true;
+                        }
+                        lookup(document, ip, ipDatabase);
+                    }
+                } catch (Exception e) {
+                    failures[i] = e;
                 }
-                return document;
             }
+        } finally {
+            if (ipDatabase != null) {
+                IOUtils.closeWhileHandlingException(ipDatabase::close);
+            }
+        }
+        for (int i = 0; i < documents.size(); i++) {
+            if (failures[i] != null) {
+                handler.apply(i, null, failures[i]);
+            } else {
+                handler.apply(i, documents.get(i), null);
+            }
+        }
+    }
 
-            if (ip instanceof String ipString) {
-                Map<String, Object> data = ipDataLookup.getData(ipDatabase, ipString);
-                if (data.isEmpty() == false) {
-                    document.setFieldValue(targetField, data);
+    private IngestDocument lookup(IngestDocument document, Object ip, IpDatabase ipDatabase) throws IOException {
+        if (ipDatabase == null) {
+            if (ignoreMissing == false) {
+                tag(document, type, databaseFile);
+            }
+            return document;
+        }
+
+        if (ip instanceof String ipString) {
+            Map<String, Object> data = ipDataLookup.getData(ipDatabase, ipString);
+            if (data.isEmpty() == false) {
+                document.setFieldValue(targetField, data);
+            }
+        } else if (ip instanceof List<?> ipList) {
+            boolean match = false;
+            List<Map<String, Object>> dataList = new ArrayList<>(ipList.size());
+            for (Object ipAddr : ipList) {
+                if (ipAddr instanceof String == false) {
+                    throw new IllegalArgumentException("array in field [" + field + "] should only contain strings");
                 }
-            } else if (ip instanceof List<?> ipList) {
-                boolean match = false;
-                List<Map<String, Object>> dataList = new ArrayList<>(ipList.size());
-                for (Object ipAddr : ipList) {
-                    if (ipAddr instanceof String == false) {
-                        throw new IllegalArgumentException("array in field [" + field + "] should only contain strings");
-                    }
-                    Map<String, Object> data = ipDataLookup.getData(ipDatabase, (String) ipAddr);
-                    if (data.isEmpty()) {
-                        dataList.add(null);
-                        continue;
-                    }
-                    if (firstOnly) {
-                        document.setFieldValue(targetField, data);
-                        return document;
-                    }
-                    match = true;
-                    dataList.add(data);
+                Map<String, Object> data = ipDataLookup.getData(ipDatabase, (String) ipAddr);
+                if (data.isEmpty()) {
+                    dataList.add(null);
+                    continue;
                 }
-                if (match) {
-                    document.setFieldValue(targetField, dataList);
+                if (firstOnly) {
+                    document.setFieldValue(targetField, data);
+                    return document;
                 }
-            } else {
-                throw new IllegalArgumentException("field [" + field + "] should contain only string or array of strings");
+                match = true;
+                dataList.add(data);
+            }
+            if (match) {
+                document.setFieldValue(targetField, dataList);
             }
+        } else {
+            throw new IllegalArgumentException("field [" + field + "] should contain only string or array of strings");
         }
 
         return document;
@@ -9,12 +9,10 @@
 
 package org.elasticsearch.ingest.geoip;
 
-import com.maxmind.db.Reader;
-
-import org.elasticsearch.common.CheckedBiFunction;
-import org.elasticsearch.core.Nullable;
+import com.maxmind.db.DatabaseRecord;
 
 import java.io.IOException;
+import java.net.InetAddress;
 
 /**
  * Provides a uniform interface for interacting with various ip databases.
@@ -28,15 +26,15 @@ public interface IpDatabase extends AutoCloseable {
     String getDatabaseType() throws IOException;
 
     /**
-     * Returns a response from this database's reader for the given IP address.
+     * Returns the record of the network that contains the given IP address, from this database's reader or from a cache of the records
+     * of the networks that were already looked up.
      *
      * @param ipAddress the address to lookup
-     * @param responseProvider a method for extracting a response from a {@link Reader}, usually this will be a method reference
-     * @return a possibly-null response
-     * @param <RESPONSE> the type of response that will be returned
+     * @param clazz the type of the data of the record
+     * @return the record, whose data is null if the database has no data for the address
+     * @param <DATA> the type of the data of the record
      */
-    @Nullable
-    <RESPONSE> RESPONSE getResponse(String ipAddress, CheckedBiFunction<Reader, String, RESPONSE, Exception> responseProvider);
+    <DATA> DatabaseRecord<DATA> getRecord(InetAddress ipAddress, Class<DATA> clazz);
 
     /**
      * Releases the current database object. Called after processing a single document. Databases should be closed or returned to a
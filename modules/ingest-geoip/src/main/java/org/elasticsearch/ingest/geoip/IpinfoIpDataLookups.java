@@ -12,7 +12,6 @@ package org.elasticsearch.ingest.geoip;
 import com.maxmind.db.DatabaseRecord;
 import com.maxmind.db.MaxMindDbConstructor;
 import com.maxmind.db.MaxMindDbParameter;
-import com.maxmind.db.Reader;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -21,7 +20,6 @@ import org.elasticsearch.common.network.InetAddresses;
 import org.elasticsearch.common.network.NetworkAddress;
 import org.elasticsearch.core.Nullable;
 
-import java.io.IOException;
 import java.net.InetAddress;
 import java.util.Arrays;
 import java.util.HashMap;
@@ -490,16 +488,11 @@ final class IpinfoIpDataLookups {
 
         @Override
         public final Map<String, Object> getData(final IpDatabase ipDatabase, final String ipAddress) {
-            final Result<RESPONSE> response = ipDatabase.getResponse(ipAddress, this::lookup);
-            return (response == null || response.result == null) ? Map.of() : transform(response);
-        }
-
-        @Nullable
-        private Result<RESPONSE> lookup(final Reader reader, final String ipAddress) throws IOException {
             final InetAddress ip = InetAddresses.forString(ipAddress);
-            final DatabaseRecord<RESPONSE> record = reader.getRecord(ip, clazz);
+            // the record may be shared with other addresses of its network, the address is only bound to the result built from it
+            final DatabaseRecord<RESPONSE> record = ipDatabase.getRecord(ip, clazz);
             final RESPONSE data = record.getData();
-            return (data == null) ? null : new Result<>(data, NetworkAddress.format(ip), record.getNetwork().toString());
+            return (data == null) ? Map.of() : transform(new Result<>(data, NetworkAddress.format(ip), record.getNetwork().toString()));
         }
 
         /**
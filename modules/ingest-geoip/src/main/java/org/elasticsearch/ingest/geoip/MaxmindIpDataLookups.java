@@ -32,7 +32,6 @@ import org.elasticsearch.common.network.InetAddresses;
 import org.elasticsearch.common.network.NetworkAddress;
 import org.elasticsearch.core.Nullable;
 
-import java.io.IOException;
 import java.net.InetAddress;
 import java.util.HashMap;
 import java.util.List;
@@ -757,16 +756,14 @@ final class MaxmindIpDataLookups {
 
         @Override
         public final Map<String, Object> getData(final IpDatabase ipDatabase, final String ipAddress) {
-            final RESPONSE response = ipDatabase.getResponse(ipAddress, this::lookup);
-            return (response == null) ? Map.of() : transform(response);
-        }
-
-        @Nullable
-        private RESPONSE lookup(final Reader reader, final String ipAddress) throws IOException {
             final InetAddress ip = InetAddresses.forString(ipAddress);
-            final DatabaseRecord<RESPONSE> record = reader.getRecord(ip, clazz);
+            // the record may be shared with other addresses of its network, the address is only bound to the response built from it
+            final DatabaseRecord<RESPONSE> record = ipDatabase.getRecord(ip, clazz);
             final RESPONSE data = record.getData();
-            return (data == null) ? null : builder.build(data, NetworkAddress.format(ip), record.getNetwork(), List.of("en"));
+            if (data == null) {
+                return Map.of();
+            }
+            return transform(builder.build(data, NetworkAddress.format(ip), record.getNetwork(), List.of("en")));
         }
 
         /**
@@ -9,102 +9,156 @@
 
 package org.elasticsearch.ingest.geoip;
 
-import com.maxmind.geoip2.model.AbstractResponse;
+import com.maxmind.db.DatabaseRecord;
+import com.maxmind.db.Network;
 
+import org.elasticsearch.common.network.InetAddresses;
+import org.elasticsearch.common.network.NetworkAddress;
+import org.elasticsearch.core.PathUtils;
 import org.elasticsearch.core.TimeValue;
 import org.elasticsearch.ingest.geoip.stats.CacheStats;
 import org.elasticsearch.test.ESTestCase;
 
+import java.net.InetAddress;
+import java.util.HashSet;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Function;
 
 import static org.hamcrest.Matchers.equalTo;
-import static org.mockito.Mockito.mock;
 
 public class GeoIpCacheTests extends ESTestCase {
 
     public void testCachesAndEvictsResults() {
         GeoIpCache cache = new GeoIpCache(1);
-        AbstractResponse response1 = mock(AbstractResponse.class);
-        AbstractResponse response2 = mock(AbstractResponse.class);
+        AtomicInteger lookups = new AtomicInteger();
+        Function<InetAddress, DatabaseRecord<String>> database = ip -> {
+            lookups.incrementAndGet();
+            return new DatabaseRecord<>(NetworkAddress.format(ip), ip, 32);
+        };
 
         // add a key
-        AbstractResponse cachedResponse = cache.putIfAbsent("127.0.0.1", "path/to/db", ip -> response1);
-        assertSame(cachedResponse, response1);
-        assertSame(cachedResponse, cache.putIfAbsent("127.0.0.1", "path/to/db", ip -> response1));
-        assertSame(cachedResponse, cache.get("127.0.0.1", "path/to/db"));
+        DatabaseRecord<String> record = cache.getRecord(InetAddresses.forString("127.0.0.1"), "path/to/db", String.class, database);
+        assertEquals("127.0.0.1", record.getData());
+        assertSame(record, cache.getRecord(InetAddresses.forString("127.0.0.1"), "path/to/db", String.class, database));
+        assertEquals(1, lookups.get());
 
         // evict old key by adding another value
-        cachedResponse = cache.putIfAbsent("127.0.0.2", "path/to/db", ip -> response2);
-        assertSame(cachedResponse, response2);
-        assertSame(cachedResponse, cache.putIfAbsent("127.0.0.2", "path/to/db", ip -> response2));
-        assertSame(cachedResponse, cache.get("127.0.0.2", "path/to/db"));
-        assertNotSame(response1, cache.get("127.0.0.1", "path/to/db"));
-    }
-
-    public void testCachesNoResult() {
-        GeoIpCache cache = new GeoIpCache(1);
-        final AtomicInteger count = new AtomicInteger(0);
-        Function<String, AbstractResponse> countAndReturnNull = (ip) -> {
-            count.incrementAndGet();
-            return null;
-        };
-
-        AbstractResponse response = cache.putIfAbsent("127.0.0.1", "path/to/db", countAndReturnNull);
-        assertNull(response);
-        assertNull(cache.putIfAbsent("127.0.0.1", "path/to/db", countAndReturnNull));
-        assertEquals(1, count.get());
-
-        // the cached value is not actually *null*, it's the NO_RESULT sentinel
-        assertSame(GeoIpCache.NO_RESULT, cache.get("127.0.0.1", "path/to/db"));
-    }
-
-    public void testCacheKey() {
-        GeoIpCache cache = new GeoIpCache(2);
-        AbstractResponse response1 = mock(AbstractResponse.class);
-        AbstractResponse response2 = mock(AbstractResponse.class);
-
-        assertSame(response1, cache.putIfAbsent("127.0.0.1", "path/to/db1", ip -> response1));
-        assertSame(response2, cache.putIfAbsent("127.0.0.1", "path/to/db2", ip -> response2));
-        assertSame(response1, cache.get("127.0.0.1", "path/to/db1"));
-        assertSame(response2, cache.get("127.0.0.1", "path/to/db2"));
+        record = cache.getRecord(InetAddresses.forString("127.0.0.2"), "path/to/db", String.class, database);
+        assertEquals("127.0.0.2", record.getData());
+        assertSame(record, cache.getRecord(InetAddresses.forString("127.0.0.2"), "path/to/db", String.class, database));
+        assertEquals(2, lookups.get());
+        assertEquals(1, cache.count());
+        cache.getRecord(InetAddresses.forString("127.0.0.1"), "path/to/db", String.class, database);
+        assertEquals(3, lookups.get());
     }
 
     public void testThrowsFunctionsException() {
         GeoIpCache cache = new GeoIpCache(1);
         IllegalArgumentException ex = expectThrows(
             IllegalArgumentException.class,
-            () -> cache.putIfAbsent("127.0.0.1", "path/to/db", ip -> {
+            () -> cache.getRecord(InetAddresses.forString("127.0.0.1"), "path/to/db", String.class, ip -> {
                 throw new IllegalArgumentException("bad");
             })
         );
         assertEquals("bad", ex.getMessage());
     }
 
+    public void testCachesRecordsPerNetwork() {
+        GeoIpCache cache = new GeoIpCache(10);
+        AtomicInteger lookups = new AtomicInteger();
+        Function<InetAddress, DatabaseRecord<String>> database = ip -> {
+            lookups.incrementAndGet();
+            byte[] address = ip.getAddress();
+            if (address.length == 16) {
+                return new DatabaseRecord<>("v6", ip, 48);
+            }
+            // 10.0.0.0/8 has no data, the rest of the addresses are in /24 networks
+            return address[0] == 10 ? new DatabaseRecord<>(null, ip, 8) : new DatabaseRecord<>("v4", ip, 24);
+        };
+
+        DatabaseRecord<String> record = cache.getRecord(InetAddresses.forString("89.160.20.128"), "path/to/db", String.class, database);
+        assertEquals("v4", record.getData());
+        assertEquals("89.160.20.0/24", record.getNetwork().toString());
+        assertEquals(1, lookups.get());
+        // any address of the network is served from the cache
+        assertSame(record, cache.getRecord(InetAddresses.forString("89.160.20.1"), "path/to/db", String.class, database));
+        assertSame(record, cache.getRecord(InetAddresses.forString("89.160.20.255"), "path/to/db", String.class, database));
+        assertEquals(1, lookups.get());
+        // but not the ones of other networks
+        assertNotSame(record, cache.getRecord(InetAddresses.forString("89.160.21.1"), "path/to/db", String.class, database));
+        assertEquals(2, lookups.get());
+        assertNotSame(record, cache.getRecord(InetAddresses.forString("89.160.20.1"), "path/to/other_db", String.class, database));
+        assertEquals(3, lookups.get());
+
+        // networks without data are cached too
+        assertNull(cache.getRecord(InetAddresses.forString("10.1.2.3"), "path/to/db", String.class, database).getData());
+        assertNull(cache.getRecord(InetAddresses.forString("10.200.0.1"), "path/to/db", String.class, database).getData());
+        assertEquals(4, lookups.get());
+
+        // ipv6 networks don't mix with ipv4 ones
+        record = cache.getRecord(InetAddresses.forString("2602:306:33d3::1"), "path/to/db", String.class, database);
+        assertEquals("v6", record.getData());
+        assertSame(record, cache.getRecord(InetAddresses.forString("2602:306:33d3:8000::3257:9652"), "path/to/db", String.class, database));
+        assertEquals("v4", cache.getRecord(InetAddresses.forString("89.160.20.2"), "path/to/db", String.class, database).getData());
+        assertEquals(5, lookups.get());
+
+        CacheStats cacheStats = cache.getCacheStats();
+        assertThat(cacheStats.hits(), equalTo(5L));
+        assertThat(cacheStats.misses(), equalTo(5L));
+
+        assertThat(cache.purgeCacheEntriesForDatabase(PathUtils.get("path/to/db")), equalTo(4));
+        cache.getRecord(InetAddresses.forString("89.160.20.1"), "path/to/db", String.class, database);
+        assertEquals(6, lookups.get());
+    }
+
     public void testInvalidInit() {
         IllegalArgumentException ex = expectThrows(IllegalArgumentException.class, () -> new GeoIpCache(-1));
         assertEquals("geoip max cache size must be 0 or greater", ex.getMessage());
     }
 
+    public void testCachesNetworksOfMixedPrefixLengths() {
+        GeoIpCache cache = new GeoIpCache(1000);
+        AtomicInteger lookups = new AtomicInteger();
+        // the prefix length of the network of an address depends on its first byte, like databases mix a few lengths unevenly
+        int[] prefixLengths = new int[] { 8, 12, 16, 20, 22, 24, 24, 24, 24, 28, 32 };
+        Function<InetAddress, DatabaseRecord<String>> database = ip -> {
+            lookups.incrementAndGet();
+            int prefixLength = prefixLengths[(ip.getAddress()[0] & 0xFF) % prefixLengths.length];
+            return new DatabaseRecord<>("data", ip, prefixLength);
+        };
+
+        Set<String> networks = new HashSet<>();
+        for (int i = 0; i < 1000; i++) {
+            InetAddress ip = InetAddresses.forString(between(1, 223) + "." + between(0, 3) + "." + between(0, 3) + "." + between(0, 255));
+            DatabaseRecord<String> record = cache.getRecord(ip, "path/to/db", String.class, database);
+            assertEquals(prefixLengths[(ip.getAddress()[0] & 0xFF) % prefixLengths.length], record.getNetwork().getPrefixLength());
+            // the record is the one of the network of the address, whatever the order the prefix lengths are probed in
+            assertEquals(new Network(ip, record.getNetwork().getPrefixLength()).toString(), record.getNetwork().toString());
+            networks.add(record.getNetwork().toString());
+        }
+        assertEquals(networks.size(), lookups.get());
+    }
+
     public void testGetCacheStats() {
         final long maxCacheSize = 2;
         final AtomicLong testNanoTime = new AtomicLong(0);
         // We use a relative time provider that increments 1ms every time it is called. So each operation appears to take 1ms
         GeoIpCache cache = new GeoIpCache(maxCacheSize, () -> testNanoTime.addAndGet(TimeValue.timeValueMillis(1).getNanos()));
-        AbstractResponse response = mock(AbstractResponse.class);
+        Function<InetAddress, DatabaseRecord<String>> database = ip -> new DatabaseRecord<>("data", ip, 32);
         String databasePath = "path/to/db1";
-        String key1 = "127.0.0.1";
-        String key2 = "127.0.0.2";
-        String key3 = "127.0.0.3";
-
-        cache.putIfAbsent(key1, databasePath, ip -> response); // cache miss
-        cache.putIfAbsent(key2, databasePath, ip -> response); // cache miss
-        cache.putIfAbsent(key1, databasePath, ip -> response); // cache hit
-        cache.putIfAbsent(key1, databasePath, ip -> response); // cache hit
-        cache.putIfAbsent(key1, databasePath, ip -> response); // cache hit
-        cache.putIfAbsent(key3, databasePath, ip -> response); // cache miss, key2 will be evicted
-        cache.putIfAbsent(key2, databasePath, ip -> response); // cache miss, key1 will be evicted
+        InetAddress key1 = InetAddresses.forString("127.0.0.1");
+        InetAddress key2 = InetAddresses.forString("127.0.0.2");
+        InetAddress key3 = InetAddresses.forString("127.0.0.3");
+
+        cache.getRecord(key1, databasePath, String.class, database); // cache miss
+        cache.getRecord(key2, databasePath, String.class, database); // cache miss
+        cache.getRecord(key1, databasePath, String.class, database); // cache hit
+        cache.getRecord(key1, databasePath, String.class, database); // cache hit
+        cache.getRecord(key1, databasePath, String.class, database); // cache hit
+        cache.getRecord(key3, databasePath, String.class, database); // cache miss, key2 will be evicted
+        cache.getRecord(key2, databasePath, String.class, database); // cache miss, key1 will be evicted
         CacheStats cacheStats = cache.getCacheStats();
         assertThat(cacheStats.count(), equalTo(maxCacheSize));
         assertThat(cacheStats.hits(), equalTo(3L));
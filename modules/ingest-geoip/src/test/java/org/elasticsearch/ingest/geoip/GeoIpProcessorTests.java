@@ -24,6 +24,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.elasticsearch.ingest.IngestDocumentMatcher.assertIngestDocument;
 import static org.elasticsearch.ingest.geoip.GeoIpProcessor.GEOIP_TYPE;
@@ -469,6 +470,52 @@ public class GeoIpProcessorTests extends ESTestCase {
         assertIngestDocument(originalIngestDocument, ingestDocument);
     }
 
+    public void testExecuteBatch() throws Exception {
+        DatabaseReaderLazyLoader loader = loader("GeoLite2-City.mmdb", null);
+        AtomicInteger acquisitions = new AtomicInteger();
+        GeoIpProcessor processor = new GeoIpProcessor(
+            GEOIP_TYPE,
+            randomAlphaOfLength(10),
+            null,
+            "source_field",
+            () -> {
+                acquisitions.incrementAndGet();
+                assertTrue(loader.preLookup());
+                return loader;
+            },
+            () -> true,
+            "target_field",
+            getMaxmindCityLookup(),
+            false,
+            false,
+            "filename"
+        );
+
+        List<IngestDocument> ingestDocuments = List.of(
+            RandomDocumentPicks.randomIngestDocument(random(), Map.of("source_field", "2602:306:33d3:8000::3257:9652")),
+            RandomDocumentPicks.randomIngestDocument(random(), Map.of("other_field", "127.0.0.1")),
+            RandomDocumentPicks.randomIngestDocument(random(), Map.of("source_field", "127.0.0.1"))
+        );
+        IngestDocument[] results = new IngestDocument[ingestDocuments.size()];
+        Exception[] failures = new Exception[ingestDocuments.size()];
+        processor.executeBatch(ingestDocuments, (slot, result, e) -> {
+            // the database is released before the documents move on to the next processors
+            assertThat(loader.current(), equalTo(0));
+            results[slot] = result;
+            failures[slot] = e;
+        });
+
+        assertThat(acquisitions.get(), equalTo(1));
+        assertThat(failures[0], nullValue());
+        @SuppressWarnings("unchecked")
+        Map<String, Object> data = (Map<String, Object>) results[0].getSourceAndMetadata().get("target_field");
+        assertThat(data.get("city_name"), equalTo("Homestead"));
+        assertThat(results[1], nullValue());
+        assertThat(failures[1].getMessage(), containsString("not present as part of path [source_field]"));
+        assertThat(failures[2], nullValue());
+        assertThat(results[2].getSourceAndMetadata().containsKey("target_field"), is(false));
+    }
+
     private static IpDataLookup getMaxmindCityLookup() {
         final var database = Database.City;
         return MaxmindIpDataLookups.getMaxmindLookup(database).apply(database.properties());
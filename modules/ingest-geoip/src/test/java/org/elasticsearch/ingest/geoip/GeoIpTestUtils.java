@@ -10,11 +10,9 @@
 package org.elasticsearch.ingest.geoip;
 
 import com.maxmind.db.DatabaseRecord;
-import com.maxmind.db.Reader;
 import com.maxmind.geoip2.model.CityResponse;
 import com.maxmind.geoip2.model.CountryResponse;
 
-import org.elasticsearch.common.CheckedBiFunction;
 import org.elasticsearch.common.network.InetAddresses;
 import org.elasticsearch.core.SuppressForbidden;
 
@@ -22,6 +20,7 @@ import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.UncheckedIOException;
+import java.net.InetAddress;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.List;
@@ -68,25 +67,23 @@ public final class GeoIpTestUtils {
     }
 
     /**
-     * A static city-specific responseProvider for use with {@link IpDatabase#getResponse(String, CheckedBiFunction)} in
-     * tests.
+     * Looks up the city response of the given IP address in the database, through {@link IpDatabase#getRecord(InetAddress, Class)}.
      * <p>
-     * Like this: {@code CityResponse city = loader.getResponse("some.ip.address", GeoIpTestUtils::getCity);}
+     * Like this: {@code CityResponse city = GeoIpTestUtils.getCity(loader, "some.ip.address");}
      */
-    public static CityResponse getCity(Reader reader, String ip) throws IOException {
-        DatabaseRecord<CityResponse> record = reader.getRecord(InetAddresses.forString(ip), CityResponse.class);
+    public static CityResponse getCity(IpDatabase database, String ip) {
+        DatabaseRecord<CityResponse> record = database.getRecord(InetAddresses.forString(ip), CityResponse.class);
         CityResponse data = record.getData();
         return data == null ? null : new CityResponse(data, ip, record.getNetwork(), List.of("en"));
     }
 
     /**
-     * A static country-specific responseProvider for use with {@link IpDatabase#getResponse(String, CheckedBiFunction)} in
-     * tests.
+     * Looks up the country response of the given IP address in the database, through {@link IpDatabase#getRecord(InetAddress, Class)}.
      * <p>
-     * Like this: {@code CountryResponse country = loader.getResponse("some.ip.address", GeoIpTestUtils::getCountry);}
+     * Like this: {@code CountryResponse country = GeoIpTestUtils.getCountry(loader, "some.ip.address");}
      */
-    public static CountryResponse getCountry(Reader reader, String ip) throws IOException {
-        DatabaseRecord<CountryResponse> record = reader.getRecord(InetAddresses.forString(ip), CountryResponse.class);
+    public static CountryResponse getCountry(IpDatabase database, String ip) {
+        DatabaseRecord<CountryResponse> record = database.getRecord(InetAddresses.forString(ip), CountryResponse.class);
         CountryResponse data = record.getData();
         return data == null ? null : new CountryResponse(data, ip, record.getNetwork(), List.of("en"));
     }
@@ -9,6 +9,7 @@
 
 package org.elasticsearch.painless;
 
+import org.elasticsearch.index.fielddata.ScriptDocValues;
 import org.elasticsearch.painless.api.ValueIterator;
 import org.objectweb.asm.Handle;
 import org.objectweb.asm.Opcodes;
@@ -77,6 +78,11 @@ public final class WriterConstants {
     public static final Method MATCHER_MATCHES = getAsmMethod(boolean.class, "matches");
     public static final Method MATCHER_FIND = getAsmMethod(boolean.class, "find");
 
+    public static final Type DOC_VALUES_DOUBLES_TYPE = Type.getType(ScriptDocValues.Doubles.class);
+    public static final Method DOC_VALUES_DOUBLES_GET_VALUE = getAsmMethod(double.class, "getValue");
+    public static final Type DOC_VALUES_LONGS_TYPE = Type.getType(ScriptDocValues.Longs.class);
+    public static final Method DOC_VALUES_LONGS_GET_VALUE = getAsmMethod(long.class, "getValue");
+
     public static final Method DEF_BOOTSTRAP_METHOD = getAsmMethod(
         CallSite.class,
         "$bootstrapDef",
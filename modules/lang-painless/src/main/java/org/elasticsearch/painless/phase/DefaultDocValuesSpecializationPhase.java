@@ -0,0 +1,75 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+
+package org.elasticsearch.painless.phase;
+
+import org.elasticsearch.index.fielddata.ScriptDocValues;
+import org.elasticsearch.painless.ir.BinaryImplNode;
+import org.elasticsearch.painless.ir.CastNode;
+import org.elasticsearch.painless.ir.ExpressionNode;
+import org.elasticsearch.painless.ir.LoadDotDefNode;
+import org.elasticsearch.painless.ir.LoadDotDocValuesNode;
+import org.elasticsearch.painless.lookup.PainlessCast;
+import org.elasticsearch.painless.lookup.PainlessLookup;
+import org.elasticsearch.painless.lookup.def;
+import org.elasticsearch.painless.symbol.IRDecorations.IRDCast;
+import org.elasticsearch.painless.symbol.IRDecorations.IRDExpressionType;
+import org.elasticsearch.painless.symbol.IRDecorations.IRDValue;
+import org.elasticsearch.painless.symbol.ScriptScope;
+
+import java.util.function.Consumer;
+
+/**
+ * Phase that changes the dynamic load of {@code .value} that is cast to a {@code double} or a {@code long}, like the
+ * {@code doc['field'].value} of a score script or of a runtime field, into a {@link LoadDotDocValuesNode}. The doc values of numeric
+ * fields are then read with a monomorphic call that returns a primitive instead of a dynamic call site that boxes the value before it
+ * is cast back. Which doc values the script reads depends on the mapping of the index it runs on, which is not known when the script
+ * is compiled, so the receiver is checked inline and anything else falls back to the original dynamic load and cast.
+ */
+public class DefaultDocValuesSpecializationPhase extends IRExpressionModifyingVisitor {
+
+    private final boolean enabled;
+
+    public DefaultDocValuesSpecializationPhase(ScriptScope scriptScope) {
+        // the specialized load must not read doc values that the dynamic load would reject
+        PainlessLookup painlessLookup = scriptScope.getPainlessLookup();
+        this.enabled = painlessLookup.lookupRuntimeGetterMethodHandle(ScriptDocValues.Longs.class, "value") != null
+            && painlessLookup.lookupRuntimeGetterMethodHandle(ScriptDocValues.Doubles.class, "value") != null;
+    }
+
+    @Override
+    public void visitCast(CastNode irCastNode, Consumer<ExpressionNode> scope) {
+        super.visitCast(irCastNode, scope);
+
+        if (enabled == false) {
+            return;
+        }
+
+        PainlessCast cast = irCastNode.getDecorationValue(IRDCast.class);
+        if (cast == null
+            || cast.originalType != def.class
+            || (cast.targetType != double.class && cast.targetType != long.class)
+            || irCastNode.getChildNode() instanceof BinaryImplNode == false) {
+            return;
+        }
+
+        BinaryImplNode irLoadNode = (BinaryImplNode) irCastNode.getChildNode();
+        if (irLoadNode.getRightNode() instanceof LoadDotDefNode irLoadDotDefNode
+            && "value".equals(irLoadDotDefNode.getDecorationValue(IRDValue.class))) {
+            LoadDotDocValuesNode irLoadDotDocValuesNode = new LoadDotDocValuesNode(irCastNode.getLocation());
+            irLoadDotDocValuesNode.attachDecoration(new IRDExpressionType(cast.targetType));
+            irLoadDotDocValuesNode.attachDecoration(new IRDCast(cast));
+            irLoadDotDocValuesNode.setLeftNode(irLoadNode.getLeftNode());
+            irLoadDotDocValuesNode.setRightNode(irLoadDotDefNode);
+
+            // replace the cast and the dynamic load with the specialized load
+            scope.accept(irLoadDotDocValuesNode);
+        }
+    }
+}
@@ -59,6 +59,7 @@ import org.elasticsearch.painless.ir.LoadBraceDefNode;
 import org.elasticsearch.painless.ir.LoadBraceNode;
 import org.elasticsearch.painless.ir.LoadDotArrayLengthNode;
 import org.elasticsearch.painless.ir.LoadDotDefNode;
+import org.elasticsearch.painless.ir.LoadDotDocValuesNode;
 import org.elasticsearch.painless.ir.LoadDotNode;
 import org.elasticsearch.painless.ir.LoadDotShortcutNode;
 import org.elasticsearch.painless.ir.LoadFieldMemberNode;
@@ -171,6 +172,10 @@ import java.util.regex.Matcher;
 
 import static org.elasticsearch.painless.WriterConstants.BASE_INTERFACE_TYPE;
 import static org.elasticsearch.painless.WriterConstants.CLASS_TYPE;
+import static org.elasticsearch.painless.WriterConstants.DOC_VALUES_DOUBLES_GET_VALUE;
+import static org.elasticsearch.painless.WriterConstants.DOC_VALUES_DOUBLES_TYPE;
+import static org.elasticsearch.painless.WriterConstants.DOC_VALUES_LONGS_GET_VALUE;
+import static org.elasticsearch.painless.WriterConstants.DOC_VALUES_LONGS_TYPE;
 import static org.elasticsearch.painless.WriterConstants.EQUALS;
 import static org.elasticsearch.painless.WriterConstants.ITERATOR_HASNEXT;
 import static org.elasticsearch.painless.WriterConstants.ITERATOR_NEXT;
@@ -1439,6 +1444,47 @@ public class DefaultIRTreeToASMBytesPhase implements IRTreeVisitor<WriteScope> {
         methodWriter.invokeDefCall(irLoadDotDefNode.getDecorationValue(IRDValue.class), methodType, DefBootstrap.LOAD);
     }
 
+    @Override
+    public void visitLoadDotDocValues(LoadDotDocValuesNode irLoadDotDocValuesNode, WriteScope writeScope) {
+        MethodWriter methodWriter = writeScope.getMethodWriter();
+
+        Label longs = new Label();
+        Label dynamic = new Label();
+        Label end = new Label();
+
+        Class<?> expressionType = irLoadDotDocValuesNode.getDecorationValue(IRDExpressionType.class);
+
+        visit(irLoadDotDocValuesNode.getLeftNode(), writeScope);
+        methodWriter.writeDebugInfo(irLoadDotDocValuesNode.getLocation());
+
+        // doubles are only read directly into a double, converting them to a long is left to the dynamic load and its cast
+        if (expressionType == double.class) {
+            methodWriter.dup();
+            methodWriter.instanceOf(DOC_VALUES_DOUBLES_TYPE);
+            methodWriter.ifZCmp(Opcodes.IFEQ, longs);
+            methodWriter.checkCast(DOC_VALUES_DOUBLES_TYPE);
+            methodWriter.invokeVirtual(DOC_VALUES_DOUBLES_TYPE, DOC_VALUES_DOUBLES_GET_VALUE);
+            methodWriter.goTo(end);
+        }
+
+        methodWriter.mark(longs);
+        methodWriter.dup();
+        methodWriter.instanceOf(DOC_VALUES_LONGS_TYPE);
+        methodWriter.ifZCmp(Opcodes.IFEQ, dynamic);
+        methodWriter.checkCast(DOC_VALUES_LONGS_TYPE);
+        methodWriter.invokeVirtual(DOC_VALUES_LONGS_TYPE, DOC_VALUES_LONGS_GET_VALUE);
+        if (expressionType == double.class) {
+            methodWriter.cast(Type.LONG_TYPE, Type.DOUBLE_TYPE);
+        }
+        methodWriter.goTo(end);
+
+        // any other receiver keeps the dynamic load and the cast of the unspecialized script
+        methodWriter.mark(dynamic);
+        visit(irLoadDotDocValuesNode.getRightNode(), writeScope);
+        methodWriter.writeCast(irLoadDotDocValuesNode.getDecorationValue(IRDCast.class));
+        methodWriter.mark(end);
+    }
+
     @Override
     public void visitLoadDot(LoadDotNode irLoadDotNode, WriteScope writeScope) {
         MethodWriter methodWriter = writeScope.getMethodWriter();
@@ -33,6 +33,7 @@ import org.elasticsearch.painless.ir.InvokeCallDefNode;
 import org.elasticsearch.painless.ir.InvokeCallMemberNode;
 import org.elasticsearch.painless.ir.InvokeCallNode;
 import org.elasticsearch.painless.ir.ListInitializationNode;
+import org.elasticsearch.painless.ir.LoadDotDocValuesNode;
 import org.elasticsearch.painless.ir.MapInitializationNode;
 import org.elasticsearch.painless.ir.NewArrayNode;
 import org.elasticsearch.painless.ir.NewObjectNode;
@@ -236,6 +237,12 @@ public class IRExpressionModifyingVisitor extends IRTreeBaseVisitor<Consumer<Exp
         irNullSafeSubNode.getChildNode().visit(this, irNullSafeSubNode::setChildNode);
     }
 
+    @Override
+    public void visitLoadDotDocValues(LoadDotDocValuesNode irLoadDotDocValuesNode, Consumer<ExpressionNode> scope) {
+        irLoadDotDocValuesNode.getLeftNode().visit(this, irLoadDotDocValuesNode::setLeftNode);
+        irLoadDotDocValuesNode.getRightNode().visit(this, irLoadDotDocValuesNode::setRightNode);
+    }
+
     @Override
     public void visitStoreVariable(StoreVariableNode irStoreVariableNode, Consumer<ExpressionNode> scope) {
         irStoreVariableNode.getChildNode().visit(this, irStoreVariableNode::setChildNode);
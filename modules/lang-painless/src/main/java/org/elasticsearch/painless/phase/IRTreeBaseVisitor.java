@@ -47,6 +47,7 @@ import org.elasticsearch.painless.ir.LoadBraceDefNode;
 import org.elasticsearch.painless.ir.LoadBraceNode;
 import org.elasticsearch.painless.ir.LoadDotArrayLengthNode;
 import org.elasticsearch.painless.ir.LoadDotDefNode;
+import org.elasticsearch.painless.ir.LoadDotDocValuesNode;
 import org.elasticsearch.painless.ir.LoadDotNode;
 import org.elasticsearch.painless.ir.LoadDotShortcutNode;
 import org.elasticsearch.painless.ir.LoadFieldMemberNode;
@@ -305,6 +306,11 @@ public class IRTreeBaseVisitor<Scope> implements IRTreeVisitor<Scope> {
         irLoadDotDefNode.visitChildren(this, scope);
     }
 
+    @Override
+    public void visitLoadDotDocValues(LoadDotDocValuesNode irLoadDotDocValuesNode, Scope scope) {
+        irLoadDotDocValuesNode.visitChildren(this, scope);
+    }
+
     @Override
     public void visitLoadDot(LoadDotNode irLoadDotNode, Scope scope) {
         irLoadDotNode.visitChildren(this, scope);
@@ -47,6 +47,7 @@ import org.elasticsearch.painless.ir.LoadBraceDefNode;
 import org.elasticsearch.painless.ir.LoadBraceNode;
 import org.elasticsearch.painless.ir.LoadDotArrayLengthNode;
 import org.elasticsearch.painless.ir.LoadDotDefNode;
+import org.elasticsearch.painless.ir.LoadDotDocValuesNode;
 import org.elasticsearch.painless.ir.LoadDotNode;
 import org.elasticsearch.painless.ir.LoadDotShortcutNode;
 import org.elasticsearch.painless.ir.LoadFieldMemberNode;
@@ -170,6 +171,8 @@ public interface IRTreeVisitor<Scope> {
 
     void visitLoadDotDef(LoadDotDefNode irLoadDotDefNode, Scope scope);
 
+    void visitLoadDotDocValues(LoadDotDocValuesNode irLoadDotDocValuesNode, Scope scope);
+
     void visitLoadDot(LoadDotNode irLoadDotNode, Scope scope);
 
     void visitLoadDotShortcut(LoadDotShortcutNode irDotSubShortcutNode, Scope scope);
@@ -0,0 +1,88 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+
+package org.elasticsearch.painless;
+
+import org.elasticsearch.index.fielddata.ScriptDocValues;
+
+import java.util.List;
+import java.util.Map;
+
+public class DocValuesSpecializationTests extends ScriptTestCase {
+
+    public void testDoubleValue() {
+        final String script = "double x = params.v.value; return x;";
+        assertBytecodeExists(script, "INVOKEVIRTUAL org/elasticsearch/index/fielddata/ScriptDocValues$Doubles.getValue ()D");
+        assertBytecodeExists(script, "INVOKEVIRTUAL org/elasticsearch/index/fielddata/ScriptDocValues$Longs.getValue ()J");
+        // the fallback for other receivers keeps the dynamic load
+        assertBytecodeExists(script, "INVOKEDYNAMIC value(Ljava/lang/Object;)Ljava/lang/Object;");
+        assertEquals(2.5, exec(script, Map.of("v", new ScriptDocValues.Doubles(supplier(2.5, 3.5))), true));
+        assertEquals(7.0, exec(script, Map.of("v", new ScriptDocValues.Longs(supplier(7L))), true));
+    }
+
+    public void testLongValue() {
+        final String script = "long x = params.v.value; return x;";
+        assertBytecodeExists(script, "INVOKEVIRTUAL org/elasticsearch/index/fielddata/ScriptDocValues$Longs.getValue ()J");
+        assertBytecodeNotExists(script, "ScriptDocValues$Doubles");
+        assertEquals(7L, exec(script, Map.of("v", new ScriptDocValues.Longs(supplier(7L))), true));
+        // doubles can't be implicitly cast to long, like without the specialization
+        expectScriptThrows(ClassCastException.class, () -> exec(script, Map.of("v", new ScriptDocValues.Doubles(supplier(2.5))), true));
+    }
+
+    public void testExplicitCast() {
+        final String script = "return (long) params.v.value;";
+        assertBytecodeExists(script, "INVOKEVIRTUAL org/elasticsearch/index/fielddata/ScriptDocValues$Longs.getValue ()J");
+        assertEquals(2L, exec(script, Map.of("v", new ScriptDocValues.Doubles(supplier(2.5))), true));
+    }
+
+    public void testMissingValue() {
+        final String script = "double x = params.v.value; return x;";
+        expectScriptThrows(IllegalStateException.class, () -> exec(script, Map.of("v", new ScriptDocValues.Longs(supplier())), true));
+    }
+
+    public void testOtherReceivers() {
+        final String script = "double x = params.v.value; return x;";
+        // receivers that are not numeric doc values go through the dynamic getter
+        assertEquals(5.0, exec(script, Map.of("v", Map.of("value", 5)), true));
+        expectScriptThrows(ClassCastException.class, () -> exec(script, Map.of("v", new ScriptDocValues.Strings(supplier("a"))), true));
+        expectScriptThrows(IllegalArgumentException.class, () -> exec(script, Map.of("v", List.of(1)), true));
+    }
+
+    public void testNotSpecialized() {
+        // the value is not cast to a primitive
+        assertBytecodeNotExists("def x = params.v.value; return x;", "ScriptDocValues");
+        // the value is cast to a type that has no specialized access
+        assertBytecodeNotExists("int x = params.v.value; return x;", "ScriptDocValues");
+        // the load is not of .value
+        assertBytecodeNotExists("double x = params.v.length; return x;", "ScriptDocValues");
+    }
+
+    private static void assertBytecodeNotExists(String script, String bytecode) {
+        final String asm = Debugger.toString(script);
+        assertFalse("bytecode found, got: \n" + asm, asm.contains(bytecode));
+    }
+
+    @SafeVarargs
+    private static <T> ScriptDocValues.Supplier<T> supplier(T... values) {
+        return new ScriptDocValues.Supplier<>() {
+            @Override
+            public void setNextDocId(int docId) {}
+
+            @Override
+            public T getInternal(int index) {
+                return values[index];
+            }
+
+            @Override
+            public int size() {
+                return values.length;
+            }
+        };
+    }
+}
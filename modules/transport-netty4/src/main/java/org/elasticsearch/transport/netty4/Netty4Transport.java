@@ -377,7 +377,12 @@ public class Netty4Transport extends TcpTransport {
         return new InboundPipeline(
             getStatsTracker(),
             threadPool.relativeTimeInMillisSupplier(),
-            new InboundDecoder(recycler),
+            new InboundDecoder(
+                recycler,
+                InboundDecoder.DEFAULT_MAX_HEADER_SIZE,
+                InboundDecoder.ChannelType.MIX,
+                TransportSettings.DEFERRED_DECOMPRESSION_THRESHOLD.get(settings)
+            ),
             new InboundAggregator(getInflightBreaker(), getRequestHandlers()::getHandler, ignoreDeserializationErrors()),
             this::inboundMessage
         );
@@ -385,11 +385,26 @@ public class SearchResponse extends ActionResponse implements ChunkedToXContentO
         return ChunkedToXContent.builder(params).xContentObject(innerToXContentChunked(params));
     }
 
+    /**
+     * Same as {@link #toXContentChunked} but releases each search hit as soon as it has been serialized, see
+     * {@link SearchHits#toXContentChunkedReleasingHits}. Only safe to use if the caller holds the last reference through which this
+     * response is read.
+     */
+    public Iterator<? extends ToXContent> toXContentChunkedReleasingHits(ToXContent.Params params) {
+        assert hasReferences();
+        final var hitsXContent = hits.toXContentChunkedReleasingHits(params);
+        return ChunkedToXContent.builder(params).xContentObject(innerToXContentChunked(params, hitsXContent));
+    }
+
     public Iterator<? extends ToXContent> innerToXContentChunked(ToXContent.Params params) {
+        return innerToXContentChunked(params, hits.toXContentChunked(params));
+    }
+
+    private Iterator<? extends ToXContent> innerToXContentChunked(ToXContent.Params params, Iterator<? extends ToXContent> hitsXContent) {
         return ChunkedToXContent.builder(params)
             .append(SearchResponse.this::headerToXContent)
             .append(clusters)
-            .append(hits)
+            .append(hitsXContent)
             .appendIfPresent(aggregations)
             .appendIfPresent(suggest)
             .appendIfPresent(profileResults);
@@ -22,6 +22,7 @@ import org.elasticsearch.cluster.coordination.CoordinationMetadata.VotingConfigu
 import org.elasticsearch.cluster.coordination.NoMasterBlockService;
 import org.elasticsearch.cluster.metadata.IndexMetadata;
 import org.elasticsearch.cluster.metadata.Metadata;
+import org.elasticsearch.cluster.metadata.SerializedIndexMetadataCache;
 import org.elasticsearch.cluster.node.DiscoveryNode;
 import org.elasticsearch.cluster.node.DiscoveryNodes;
 import org.elasticsearch.cluster.routing.RoutingNodes;
@@ -187,6 +188,13 @@ public class ClusterState implements ChunkedToXContent, Diffable<ClusterState> {
     // built on demand
     private volatile RoutingNodes routingNodes;
 
+    // the routing table and routing nodes of the state this state was built from, if it had the same nodes, so that our routing nodes
+    // can be built incrementally; cleared once our routing nodes are built
+    @Nullable
+    private RoutingTable previousRoutingTable;
+    @Nullable
+    private RoutingNodes previousRoutingNodes;
+
     public ClusterState(long version, String stateUUID, ClusterState state) {
         this(
             state.clusterName,
@@ -413,7 +421,14 @@ public class ClusterState implements ChunkedToXContent, Diffable<ClusterState> {
         if (r != null) {
             return r;
         }
-        r = RoutingNodes.immutable(routingTable, nodes);
+        if (previousRoutingNodes != null) {
+            r = RoutingNodes.immutable(routingTable, nodes, previousRoutingTable, previousRoutingNodes);
+            previousRoutingTable = null;
+            previousRoutingNodes = null;
+            assert assertConsistentRoutingNodes(routingTable, nodes, r);
+        } else {
+            r = RoutingNodes.immutable(routingTable, nodes);
+        }
         routingNodes = r;
         return r;
     }
@@ -973,7 +988,7 @@ public class ClusterState implements ChunkedToXContent, Diffable<ClusterState> {
                 }
             }
 
-            return new ClusterState(
+            final ClusterState clusterState = new ClusterState(
                 clusterName,
                 version,
                 uuid,
@@ -989,6 +1004,12 @@ public class ClusterState implements ChunkedToXContent, Diffable<ClusterState> {
                 fromDiff,
                 routingNodes
             );
+            if (routingNodes == null && previous != null && previous.routingNodes != null && nodes == previous.nodes) {
+                // only some of the routing table changed, so our routing nodes can be built from the previous state's routing nodes
+                clusterState.previousRoutingTable = previous.routingTable;
+                clusterState.previousRoutingNodes = previous.routingNodes;
+            }
+            return clusterState;
         }
 
         public static byte[] toBytes(ClusterState state) throws IOException {
@@ -1073,10 +1094,17 @@ public class ClusterState implements ChunkedToXContent, Diffable<ClusterState> {
 
     @Override
     public void writeTo(StreamOutput out) throws IOException {
+        writeTo(out, null);
+    }
+
+    /**
+     * Writes this cluster state, taking the serialized form of its indices' metadata from the given cache where possible.
+     */
+    public void writeTo(StreamOutput out, @Nullable SerializedIndexMetadataCache indexMetadataCache) throws IOException {
         clusterName.writeTo(out);
         out.writeLong(version);
         out.writeString(stateUUID);
-        metadata.writeTo(out);
+        metadata.writeTo(out, indexMetadataCache);
         routingTable.writeTo(out);
         nodes.writeTo(out);
         if (out.getTransportVersion().onOrAfter(TransportVersions.V_8_8_0)) {
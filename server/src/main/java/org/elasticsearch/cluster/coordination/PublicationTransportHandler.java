@@ -20,6 +20,7 @@ import org.elasticsearch.cluster.ClusterState;
 import org.elasticsearch.cluster.ClusterStatePublicationEvent;
 import org.elasticsearch.cluster.Diff;
 import org.elasticsearch.cluster.IncompatibleClusterStateVersionException;
+import org.elasticsearch.cluster.metadata.SerializedIndexMetadataCache;
 import org.elasticsearch.cluster.node.DiscoveryNode;
 import org.elasticsearch.cluster.node.DiscoveryNodeRole;
 import org.elasticsearch.cluster.node.DiscoveryNodes;
@@ -34,6 +35,9 @@ import org.elasticsearch.common.io.stream.PositionTrackingOutputStreamStreamOutp
 import org.elasticsearch.common.io.stream.RecyclerBytesStreamOutput;
 import org.elasticsearch.common.io.stream.StreamInput;
 import org.elasticsearch.common.io.stream.StreamOutput;
+import org.elasticsearch.common.settings.Setting;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.unit.ByteSizeValue;
 import org.elasticsearch.common.util.LazyInitializable;
 import org.elasticsearch.core.AbstractRefCounted;
 import org.elasticsearch.core.IOUtils;
@@ -96,11 +100,23 @@ public class PublicationTransportHandler {
 
     private final SerializationStatsTracker serializationStatsTracker = new SerializationStatsTracker();
 
+    // the maximum total size of the serialized index metadata kept on the master between full cluster state publications
+    public static final Setting<ByteSizeValue> SERIALIZED_INDEX_METADATA_CACHE_SIZE_SETTING = Setting.memorySizeSetting(
+        "cluster.publish.serialized_index_metadata_cache.size",
+        "1%",
+        Setting.Property.NodeScope
+    );
+
+    // full states are mostly sent to joining nodes, and most of the indices are unchanged from one such publication to the next
+    private final SerializedIndexMetadataCache indexMetadataCache;
+
     public PublicationTransportHandler(
+        Settings settings,
         TransportService transportService,
         NamedWriteableRegistry namedWriteableRegistry,
         Function<PublishRequest, PublishWithJoinResponse> handlePublishRequest
     ) {
+        this.indexMetadataCache = new SerializedIndexMetadataCache(SERIALIZED_INDEX_METADATA_CACHE_SIZE_SETTING.get(settings).getBytes());
         this.transportService = transportService;
         this.clusterCoordinationExecutor = transportService.getThreadPool().executor(ThreadPool.Names.CLUSTER_COORDINATION);
         this.namedWriteableRegistry = namedWriteableRegistry;
@@ -246,6 +262,7 @@ public class PublicationTransportHandler {
 
     public PublicationContext newPublicationContext(ClusterStatePublicationEvent clusterStatePublicationEvent) {
         final PublicationContext publicationContext = new PublicationContext(clusterStatePublicationEvent);
+        indexMetadataCache.retainIndices(clusterStatePublicationEvent.getNewState().metadata());
         boolean success = false;
         try {
             // Build the serializations we expect to need now, early in the process, so that an error during serialization fails the
@@ -273,7 +290,7 @@ public class PublicationTransportHandler {
             ) {
                 stream.setTransportVersion(version);
                 stream.writeBoolean(true);
-                clusterState.writeTo(stream);
+                clusterState.writeTo(stream, indexMetadataCache);
                 uncompressedBytes = stream.position();
             } catch (IOException e) {
                 throw new ElasticsearchException("failed to serialize cluster state for publishing to node {}", e, node);
@@ -1744,6 +1744,13 @@ public class Metadata implements Iterable<IndexMetadata>, Diffable<Metadata>, Ch
 
     @Override
     public void writeTo(StreamOutput out) throws IOException {
+        writeTo(out, null);
+    }
+
+    /**
+     * Writes this metadata, taking the serialized form of its indices from the given cache where possible.
+     */
+    public void writeTo(StreamOutput out, @Nullable SerializedIndexMetadataCache indexMetadataCache) throws IOException {
         out.writeLong(version);
         out.writeString(clusterUUID);
         out.writeBoolean(clusterUUIDCommitted);
@@ -1761,7 +1768,11 @@ public class Metadata implements Iterable<IndexMetadata>, Diffable<Metadata>, Ch
         out.writeVInt(indices.size());
         final boolean writeMappingsHash = out.getTransportVersion().onOrAfter(MAPPINGS_AS_HASH_VERSION);
         for (IndexMetadata indexMetadata : this) {
-            indexMetadata.writeTo(out, writeMappingsHash);
+            if (indexMetadataCache == null) {
+                indexMetadata.writeTo(out, writeMappingsHash);
+            } else {
+                indexMetadataCache.writeIndexMetadata(indexMetadata, out, writeMappingsHash);
+            }
         }
         out.writeCollection(templates.values());
         VersionedNamedWriteable.writeVersionedWritables(out, customs);
@@ -0,0 +1,98 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+
+package org.elasticsearch.cluster.metadata;
+
+import org.elasticsearch.TransportVersion;
+import org.elasticsearch.common.bytes.BytesArray;
+import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.common.io.stream.BytesStreamOutput;
+import org.elasticsearch.common.io.stream.StreamOutput;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Caches the serialized form of {@link IndexMetadata} so that writing a full cluster state does not need to serialize the indices which
+ * have not changed since it was last written. Unchanged indices keep the same {@link IndexMetadata} instance from one cluster state to
+ * the next, so a cached entry is only reused if it was serialized from the very same instance with the same transport version. The
+ * total size of the cached entries is bounded: once it is reached, further indices are serialized without being cached until some
+ * entries are dropped by {@link #retainIndices}.
+ */
+public class SerializedIndexMetadataCache {
+
+    private record Key(String indexUUID, TransportVersion transportVersion) {}
+
+    private record Entry(IndexMetadata indexMetadata, BytesReference bytes) {}
+
+    private final long maxSizeInBytes;
+
+    // guarded by this
+    private final Map<Key, Entry> entries = new HashMap<>();
+    // guarded by this
+    private long sizeInBytes;
+
+    public SerializedIndexMetadataCache(long maxSizeInBytes) {
+        this.maxSizeInBytes = maxSizeInBytes;
+    }
+
+    void writeIndexMetadata(IndexMetadata indexMetadata, StreamOutput out, boolean mappingsAsHash) throws IOException {
+        final Key key = new Key(indexMetadata.getIndexUUID(), out.getTransportVersion());
+        Entry entry = get(key);
+        if (entry == null || entry.indexMetadata() != indexMetadata) {
+            // serialize outside the lock, full states for different transport versions may be written concurrently
+            try (BytesStreamOutput bytesStream = new BytesStreamOutput()) {
+                bytesStream.setTransportVersion(out.getTransportVersion());
+                indexMetadata.writeTo(bytesStream, mappingsAsHash);
+                entry = new Entry(indexMetadata, new BytesArray(BytesReference.toBytes(bytesStream.bytes())));
+            }
+            put(key, entry);
+        }
+        entry.bytes().writeTo(out);
+    }
+
+    private synchronized Entry get(Key key) {
+        return entries.get(key);
+    }
+
+    private synchronized void put(Key key, Entry entry) {
+        final Entry previous = entries.remove(key);
+        if (previous != null) {
+            sizeInBytes -= previous.bytes().length();
+        }
+        if (sizeInBytes + entry.bytes().length() <= maxSizeInBytes) {
+            entries.put(key, entry);
+            sizeInBytes += entry.bytes().length();
+        }
+    }
+
+    /**
+     * Drops the entries for any indices which are not in the given metadata or whose metadata has changed.
+     */
+    public synchronized void retainIndices(Metadata metadata) {
+        entries.values().removeIf(entry -> {
+            if (metadata.index(entry.indexMetadata().getIndex()) != entry.indexMetadata()) {
+                sizeInBytes -= entry.bytes().length();
+                return true;
+            }
+            return false;
+        });
+    }
+
+    // visible for testing
+    synchronized int size() {
+        return entries.size();
+    }
+
+    // visible for testing
+    synchronized long sizeInBytes() {
+        return sizeInBytes;
+    }
+}
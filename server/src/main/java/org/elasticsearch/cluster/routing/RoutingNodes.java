@@ -85,6 +85,38 @@ public class RoutingNodes implements Iterable<RoutingNode> {
         return new RoutingNodes(routingTable, discoveryNodes, true);
     }
 
+    /**
+     * Creates an immutable instance like {@link #immutable(RoutingTable, DiscoveryNodes)} from the routing nodes of a previous cluster
+     * state with the same {@link DiscoveryNodes}. Only the parts affected by the indices whose routing changed are rebuilt, the routing
+     * nodes which hold no shards of these indices are shared with the previous instance since immutable instances are never mutated.
+     */
+    public static RoutingNodes immutable(
+        RoutingTable routingTable,
+        DiscoveryNodes discoveryNodes,
+        RoutingTable previousRoutingTable,
+        RoutingNodes previousRoutingNodes
+    ) {
+        assert previousRoutingNodes.readOnly : "can only build incrementally from an immutable instance";
+        final var indicesRouting = routingTable.indicesRouting();
+        final var previousIndicesRouting = previousRoutingTable.indicesRouting();
+        int changedIndices = 0;
+        for (var entry : indicesRouting.entrySet()) {
+            if (previousIndicesRouting.get(entry.getKey()) != entry.getValue()) {
+                changedIndices++;
+            }
+        }
+        for (var index : previousIndicesRouting.keySet()) {
+            if (indicesRouting.containsKey(index) == false) {
+                changedIndices++;
+            }
+        }
+        if (changedIndices * 2 > indicesRouting.size()) {
+            // most of the routing changed, it is cheaper to build from scratch
+            return immutable(routingTable, discoveryNodes);
+        }
+        return new RoutingNodes(routingTable, discoveryNodes, previousRoutingTable, previousRoutingNodes);
+    }
+
     public static RoutingNodes mutable(RoutingTable routingTable, DiscoveryNodes discoveryNodes) {
         return new RoutingNodes(routingTable, discoveryNodes, false);
     }
@@ -148,6 +180,122 @@ public class RoutingNodes implements Iterable<RoutingNode> {
         assert invariant();
     }
 
+    private RoutingNodes(
+        RoutingTable routingTable,
+        DiscoveryNodes discoveryNodes,
+        RoutingTable previousRoutingTable,
+        RoutingNodes previousRoutingNodes
+    ) {
+        this.readOnly = true;
+        this.nodesToShards = new HashMap<>(previousRoutingNodes.nodesToShards);
+        this.assignedShards = new HashMap<>(previousRoutingNodes.assignedShards);
+        this.unassignedShards = new UnassignedShards(this);
+        this.attributeValuesByAttribute = Collections.synchronizedMap(new HashMap<>());
+        this.recoveriesPerNode = Maps.copyOf(previousRoutingNodes.recoveriesPerNode, Recoveries::copy);
+        this.inactivePrimaryCount = previousRoutingNodes.inactivePrimaryCount;
+        this.inactiveShardCount = previousRoutingNodes.inactiveShardCount;
+        this.relocatingShards = previousRoutingNodes.relocatingShards;
+
+        // routing nodes are shared with the previous instance until we first need to update them
+        final Set<String> copiedNodes = new HashSet<>();
+        final Function<String, RoutingNode> routingNodeForUpdate = nodeId -> {
+            if (copiedNodes.add(nodeId)) {
+                final RoutingNode existing = nodesToShards.get(nodeId);
+                nodesToShards.put(nodeId, existing == null ? new RoutingNode(nodeId, discoveryNodes.get(nodeId), 0) : existing.copy());
+            }
+            return nodesToShards.get(nodeId);
+        };
+
+        final var indicesRouting = routingTable.indicesRouting();
+        final var previousIndicesRouting = previousRoutingTable.indicesRouting();
+        for (IndexRoutingTable previousIndexRoutingTable : previousIndicesRouting.values()) {
+            if (indicesRouting.get(previousIndexRoutingTable.getIndex().getName()) != previousIndexRoutingTable) {
+                updateIndexRouting(previousIndexRoutingTable, false, routingNodeForUpdate);
+            }
+        }
+        for (IndexRoutingTable indexRoutingTable : indicesRouting.values()) {
+            if (previousIndicesRouting.get(indexRoutingTable.getIndex().getName()) != indexRoutingTable) {
+                updateIndexRouting(indexRoutingTable, true, routingNodeForUpdate);
+            }
+            // keep the unassigned shards in routing table order, just like when building from scratch
+            for (int shardId = 0; shardId < indexRoutingTable.size(); shardId++) {
+                final IndexShardRoutingTable indexShard = indexRoutingTable.shard(shardId);
+                for (int copy = 0; copy < indexShard.size(); copy++) {
+                    final ShardRouting shard = indexShard.shard(copy);
+                    if (shard.assignedToNode() == false) {
+                        unassignedShards.add(shard);
+                    }
+                }
+            }
+        }
+
+        // when building from scratch only data nodes and nodes holding shards have a routing node, and only nodes with recoveries have
+        // recovery stats
+        for (String nodeId : copiedNodes) {
+            if (nodesToShards.get(nodeId).size() == 0 && discoveryNodes.getDataNodes().containsKey(nodeId) == false) {
+                nodesToShards.remove(nodeId);
+            }
+        }
+        recoveriesPerNode.values().removeIf(recoveries -> recoveries.getIncoming() == 0 && recoveries.getOutgoing() == 0);
+        assert invariant();
+    }
+
+    /**
+     * Adds the shards of the given index routing table to, or removes them from, this instance while it is being built incrementally.
+     */
+    private void updateIndexRouting(IndexRoutingTable indexRoutingTable, boolean add, Function<String, RoutingNode> routingNodeForUpdate) {
+        final int howMany = add ? 1 : -1;
+        for (int shardId = 0; shardId < indexRoutingTable.size(); shardId++) {
+            final IndexShardRoutingTable indexShard = indexRoutingTable.shard(shardId);
+            if (add == false) {
+                assignedShards.remove(indexShard.shardId());
+            }
+            for (int copy = 0; copy < indexShard.size(); copy++) {
+                final ShardRouting shard = indexShard.shard(copy);
+                if (shard.assignedToNode() == false) {
+                    continue;
+                }
+                updateRoutingNode(routingNodeForUpdate.apply(shard.currentNodeId()), shard, add);
+                if (add) {
+                    assignedShardsAdd(shard);
+                }
+                if (shard.relocating()) {
+                    relocatingShards += howMany;
+                    final ShardRouting targetShardRouting = shard.getTargetRelocatingShard();
+                    updateInitialRecoveryCounts(targetShardRouting, indexShard.primary, howMany);
+                    updateRoutingNode(routingNodeForUpdate.apply(shard.relocatingNodeId()), targetShardRouting, add);
+                    if (add) {
+                        assignedShardsAdd(targetShardRouting);
+                    }
+                } else if (shard.initializing()) {
+                    if (shard.primary()) {
+                        inactivePrimaryCount += howMany;
+                    }
+                    inactiveShardCount += howMany;
+                    updateInitialRecoveryCounts(shard, indexShard.primary, howMany);
+                }
+            }
+        }
+    }
+
+    private static void updateRoutingNode(RoutingNode routingNode, ShardRouting shard, boolean add) {
+        if (add) {
+            routingNode.addWithoutValidation(shard);
+        } else {
+            routingNode.remove(shard);
+        }
+    }
+
+    private void updateInitialRecoveryCounts(ShardRouting routing, ShardRouting initialPrimaryShard, int howMany) {
+        Recoveries.getOrAdd(recoveriesPerNode, routing.currentNodeId()).addIncoming(howMany);
+        if (routing.recoverySource().getType() == RecoverySource.Type.PEER) {
+            if (initialPrimaryShard == null) {
+                throw new IllegalStateException("shard [" + routing + "] is peer recovering but primary is unassigned");
+            }
+            Recoveries.getOrAdd(recoveriesPerNode, initialPrimaryShard.currentNodeId()).addOutgoing(howMany);
+        }
+    }
+
     private boolean invariant() {
         nodesToShards.values().forEach(RoutingNode::invariant);
         return true;
@@ -12,7 +12,13 @@ package org.elasticsearch.cluster.routing.allocation.allocator;
 import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.elasticsearch.cluster.ClusterInfo;
 import org.elasticsearch.cluster.ClusterInfoSimulator;
+import org.elasticsearch.cluster.ClusterState;
+import org.elasticsearch.cluster.block.ClusterBlocks;
+import org.elasticsearch.cluster.metadata.IndexMetadata;
+import org.elasticsearch.cluster.metadata.Metadata;
+import org.elasticsearch.cluster.node.DiscoveryNodes;
 import org.elasticsearch.cluster.routing.RoutingNodes;
 import org.elasticsearch.cluster.routing.ShardRouting;
 import org.elasticsearch.cluster.routing.UnassignedInfo;
@@ -26,6 +32,7 @@ import org.elasticsearch.common.util.Maps;
 import org.elasticsearch.core.Strings;
 import org.elasticsearch.core.TimeValue;
 import org.elasticsearch.index.shard.ShardId;
+import org.elasticsearch.snapshots.SnapshotShardSizeInfo;
 import org.elasticsearch.threadpool.ThreadPool;
 
 import java.util.ArrayList;
@@ -34,6 +41,7 @@ import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Queue;
 import java.util.Set;
 import java.util.TreeMap;
@@ -63,12 +71,25 @@ public class DesiredBalanceComputer {
         Setting.Property.NodeScope
     );
 
+    public static final Setting<Boolean> INCREMENTAL_COMPUTATION_SETTING = Setting.boolSetting(
+        "cluster.routing.allocation.desired_balance.incremental_computation",
+        true,
+        Setting.Property.Dynamic,
+        Setting.Property.NodeScope
+    );
+
     private TimeValue progressLogInterval;
+    private boolean incrementalComputation;
+
+    // the last computation which converged, and the inputs it converged on
+    private ConvergedComputation lastConvergedComputation;
+    private boolean lastComputationReused;
 
     public DesiredBalanceComputer(ClusterSettings clusterSettings, ThreadPool threadPool, ShardsAllocator delegateAllocator) {
         this.threadPool = threadPool;
         this.delegateAllocator = delegateAllocator;
         clusterSettings.initializeAndWatch(PROGRESS_LOG_INTERVAL_SETTING, value -> this.progressLogInterval = value);
+        clusterSettings.initializeAndWatch(INCREMENTAL_COMPUTATION_SETTING, value -> this.incrementalComputation = value);
     }
 
     public DesiredBalance compute(
@@ -97,6 +118,8 @@ public class DesiredBalanceComputer {
         final var changes = routingAllocation.changes();
         final var ignoredShards = getIgnoredShardsWithDiscardedAllocationStatus(desiredBalanceInput.ignoredShards());
         final var clusterInfoSimulator = new ClusterInfoSimulator(routingAllocation);
+        final var computationInputs = ComputationInputs.of(routingAllocation);
+        lastComputationReused = false;
 
         if (routingNodes.size() == 0) {
             return new DesiredBalance(desiredBalanceInput.index(), Map.of());
@@ -243,8 +266,10 @@ public class DesiredBalanceComputer {
             }
         }
 
+        boolean hasPendingMoves = false;
         List<MoveAllocationCommand> commands;
         while ((commands = pendingDesiredBalanceMoves.poll()) != null) {
+            hasPendingMoves = true;
             for (MoveAllocationCommand command : commands) {
                 try {
                     command.execute(routingAllocation, false);
@@ -261,6 +286,18 @@ public class DesiredBalanceComputer {
             }
         }
 
+        if (hasPendingMoves == false && canReuseLastConvergedComputation(previousDesiredBalance, computationInputs, routingNodes)) {
+            logger.debug(
+                "Desired balance computation for [{}] reused the balance which converged at [{}] as its inputs are unchanged",
+                desiredBalanceInput.index(),
+                previousDesiredBalance.lastConvergedIndex()
+            );
+            lastComputationReused = true;
+            final var desiredBalance = new DesiredBalance(desiredBalanceInput.index(), previousDesiredBalance.assignments());
+            lastConvergedComputation = new ConvergedComputation(desiredBalance, computationInputs);
+            return desiredBalance;
+        }
+
         final int iterationCountReportInterval = computeIterationCountReportInterval(routingAllocation);
         final long timeWarningInterval = progressLogInterval.millis();
         final long computationStartedTime = threadPool.relativeTimeInMillis();
@@ -368,9 +405,108 @@ public class DesiredBalanceComputer {
         }
 
         long lastConvergedIndex = hasChanges ? previousDesiredBalance.lastConvergedIndex() : desiredBalanceInput.index();
-        return new DesiredBalance(lastConvergedIndex, assignments);
+        final var desiredBalance = new DesiredBalance(lastConvergedIndex, assignments);
+        lastConvergedComputation = hasChanges ? null : new ConvergedComputation(desiredBalance, computationInputs);
+        return desiredBalance;
     }
 
+    /**
+     * The delegate allocator only makes changes if the balance has not converged, so if the previous computation converged and
+     * moving every shard to its previously desired location reproduces exactly the state it converged on then running the delegate
+     * allocator again would not change anything and we can skip it. This is the common case for the many reroutes that happen while
+     * the reconciler is moving shards towards the desired balance. A full computation still happens whenever the metadata, the nodes or
+     * the cluster info change.
+     */
+    private boolean canReuseLastConvergedComputation(
+        DesiredBalance previousDesiredBalance,
+        ComputationInputs computationInputs,
+        RoutingNodes routingNodes
+    ) {
+        final var lastConverged = lastConvergedComputation;
+        return incrementalComputation
+            && lastConverged != null
+            && lastConverged.desiredBalance() == previousDesiredBalance
+            && routingNodes.unassigned().isEmpty()
+            && routingNodes.unassigned().ignored().isEmpty()
+            && lastConverged.inputs().sameAs(computationInputs)
+            && collectShardAssignments(routingNodes).equals(previousDesiredBalance.assignments());
+    }
+
+    /**
+     * Whether the last call to {@link #compute} reused the previously converged balance rather than running the delegate allocator.
+     */
+    boolean lastComputationReused() {
+        return lastComputationReused;
+    }
+
+    /**
+     * The inputs to a computation, other than the routing table, on which the deciders and the delegate allocator base their decisions.
+     */
+    private record ComputationInputs(
+        Metadata metadata,
+        DiscoveryNodes nodes,
+        ClusterBlocks blocks,
+        Map<String, ClusterState.Custom> customs,
+        ClusterInfo clusterInfo,
+        SnapshotShardSizeInfo snapshotShardSizeInfo
+    ) {
+        static ComputationInputs of(RoutingAllocation routingAllocation) {
+            final var clusterState = routingAllocation.getClusterState();
+            return new ComputationInputs(
+                clusterState.metadata(),
+                clusterState.nodes(),
+                clusterState.blocks(),
+                clusterState.customs(),
+                routingAllocation.clusterInfo(),
+                routingAllocation.snapshotShardSizeInfo()
+            );
+        }
+
+        /**
+         * Nodes and blocks are compared by identity since unchanged components are carried over to the next cluster state. The metadata
+         * is compared by content though, since every shard that starts or relocates updates the in-sync allocation IDs of its index.
+         */
+        boolean sameAs(ComputationInputs other) {
+            return nodes == other.nodes
+                && blocks == other.blocks
+                && customs.equals(other.customs)
+                && Objects.equals(clusterInfo, other.clusterInfo)
+                && Objects.equals(snapshotShardSizeInfo, other.snapshotShardSizeInfo)
+                && sameAllocationMetadata(metadata, other.metadata);
+        }
+
+        /**
+         * Compares the parts of the metadata that the deciders and the delegate allocator read. The in-sync allocation IDs, primary
+         * terms and timestamp ranges of indices are updated as shards start, but nothing reads them while computing a balance.
+         */
+        private static boolean sameAllocationMetadata(Metadata previous, Metadata current) {
+            if (previous == current) {
+                return true;
+            }
+            if (previous.size() != current.size()
+                || previous.settings().equals(current.settings()) == false
+                || previous.customs().equals(current.customs()) == false) {
+                return false;
+            }
+            final var previousIndices = previous.indices();
+            for (IndexMetadata currentIndex : current) {
+                final IndexMetadata previousIndex = previousIndices.get(currentIndex.getIndex().getName());
+                if (previousIndex != currentIndex
+                    && (previousIndex == null
+                        || previousIndex.getIndex().equals(currentIndex.getIndex()) == false
+                        || previousIndex.getState() != currentIndex.getState()
+                        || previousIndex.getSettings().equals(currentIndex.getSettings()) == false
+                        || previousIndex.getForecastedWriteLoad().equals(currentIndex.getForecastedWriteLoad()) == false
+                        || previousIndex.getForecastedShardSizeInBytes().equals(currentIndex.getForecastedShardSizeInBytes()) == false)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    private record ConvergedComputation(DesiredBalance desiredBalance, ComputationInputs inputs) {}
+
     private static Map<ShardId, ShardAssignment> collectShardAssignments(RoutingNodes routingNodes) {
         final var entries = routingNodes.getAssignedShards().entrySet();
         assert entries.stream().flatMap(t -> t.getValue().stream()).allMatch(ShardRouting::started) : routingNodes;
@@ -10,6 +10,8 @@
 package org.elasticsearch.cluster.routing.allocation.allocator;
 
 import org.elasticsearch.telemetry.metric.DoubleWithAttributes;
+import org.elasticsearch.telemetry.metric.LongCounter;
+import org.elasticsearch.telemetry.metric.LongHistogram;
 import org.elasticsearch.telemetry.metric.LongWithAttributes;
 import org.elasticsearch.telemetry.metric.MeterRegistry;
 
@@ -22,6 +24,11 @@ public class DesiredBalanceMetrics {
     public static final String TOTAL_SHARDS_METRIC_NAME = "es.allocator.desired_balance.shards.current";
     public static final String UNDESIRED_ALLOCATION_COUNT_METRIC_NAME = "es.allocator.desired_balance.allocations.undesired.current";
     public static final String UNDESIRED_ALLOCATION_RATIO_METRIC_NAME = "es.allocator.desired_balance.allocations.undesired.ratio";
+    public static final String COMPUTATION_DURATION_METRIC_NAME = "es.allocator.desired_balance.computation.duration.histogram";
+    public static final String REUSED_COMPUTATIONS_METRIC_NAME = "es.allocator.desired_balance.computations.reused.total";
+
+    private final LongHistogram computationDuration;
+    private final LongCounter reusedComputations;
 
     private volatile boolean nodeIsMaster = false;
 
@@ -44,7 +51,27 @@ public class DesiredBalanceMetrics {
         this.undesiredAllocations = undesiredAllocations;
     }
 
+    /**
+     * Records the duration of a desired balance computation in milliseconds, and whether it reused the previously converged balance
+     */
+    public void recordComputation(long durationMillis, boolean reusedConvergedBalance) {
+        computationDuration.record(durationMillis);
+        if (reusedConvergedBalance) {
+            reusedComputations.increment();
+        }
+    }
+
     public DesiredBalanceMetrics(MeterRegistry meterRegistry) {
+        computationDuration = meterRegistry.registerLongHistogram(
+            COMPUTATION_DURATION_METRIC_NAME,
+            "Duration of desired balance computations",
+            "ms"
+        );
+        reusedComputations = meterRegistry.registerLongCounter(
+            REUSED_COMPUTATIONS_METRIC_NAME,
+            "Number of desired balance computations which reused the previously converged balance",
+            "{computation}"
+        );
         meterRegistry.registerLongsGauge(
             UNASSIGNED_SHARDS_METRIC_NAME,
             "Current number of unassigned shards",
@@ -124,7 +124,7 @@ public class DesiredBalanceShardsAllocator implements ShardsAllocator {
                 long index = desiredBalanceInput.index();
                 logger.debug("Starting desired balance computation for [{}]", index);
 
-                recordTime(
+                final long computationTime = recordTime(
                     cumulativeComputationTime,
                     () -> setCurrentDesiredBalance(
                         desiredBalanceComputer.compute(
@@ -136,6 +136,7 @@ public class DesiredBalanceShardsAllocator implements ShardsAllocator {
                     )
                 );
                 computationsExecuted.inc();
+                desiredBalanceMetrics.recordComputation(computationTime, desiredBalanceComputer.lastComputationReused());
                 if (isFresh(desiredBalanceInput)) {
                     logger.debug("Desired balance computation for [{}] is completed, scheduling reconciliation", index);
                     computationsConverged.inc();
@@ -393,14 +394,17 @@ public class DesiredBalanceShardsAllocator implements ShardsAllocator {
         queue.complete(currentDesiredBalance.lastConvergedIndex());
     }
 
-    private void recordTime(CounterMetric metric, Runnable action) {
+    private long recordTime(CounterMetric metric, Runnable action) {
         final long started = threadPool.relativeTimeInMillis();
+        final long took;
         try {
             action.run();
         } finally {
             final long finished = threadPool.relativeTimeInMillis();
-            metric.inc(finished - started);
+            took = finished - started;
+            metric.inc(took);
         }
+        return took;
     }
 
     // Visible for testing
@@ -18,6 +18,7 @@ import org.elasticsearch.TransportVersions;
 import org.elasticsearch.common.Strings;
 import org.elasticsearch.common.bytes.BytesArray;
 import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.common.bytes.ReleasableBytesReference;
 import org.elasticsearch.common.geo.GeoPoint;
 import org.elasticsearch.common.io.stream.Writeable.Writer;
 import org.elasticsearch.common.settings.SecureString;
@@ -152,6 +153,14 @@ public abstract class StreamOutput extends OutputStream {
         bytes.writeTo(this);
     }
 
+    /**
+     * Writes a releasable bytes reference, including a length header, in the same format as {@link #writeBytesReference}. Outputs that
+     * assemble a message in memory may retain the bytes and attach them to the message rather than copying them.
+     */
+    public void writeReleasableBytesReference(ReleasableBytesReference bytes) throws IOException {
+        writeBytesReference(bytes);
+    }
+
     /**
      * Writes an optional bytes reference including a length header. Use this if you need to differentiate between null and empty bytes
      * references. Use {@link #writeBytesReference(BytesReference)} and {@link StreamInput#readBytesReference()} if you do not.
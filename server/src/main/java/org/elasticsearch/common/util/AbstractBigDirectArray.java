@@ -0,0 +1,112 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+
+package org.elasticsearch.common.util;
+
+import org.apache.lucene.util.ArrayUtil;
+import org.apache.lucene.util.RamUsageEstimator;
+import org.elasticsearch.common.io.stream.StreamInput;
+import org.elasticsearch.common.io.stream.StreamOutput;
+import org.elasticsearch.common.recycler.Recycler;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Counterpart of {@link AbstractBigByteArray} whose pages are direct {@link ByteBuffer}s obtained from
+ * {@link PageCacheRecycler#directBytePage(boolean)}, so that the values don't live on the Java heap.
+ */
+abstract class AbstractBigDirectArray extends AbstractBigArray {
+
+    protected static final ByteBuffer ZERO_PAGE = ByteBuffer.allocateDirect(PageCacheRecycler.BYTE_PAGE_SIZE).asReadOnlyBuffer();
+
+    protected ByteBuffer[] pages;
+
+    protected AbstractBigDirectArray(int pageSize, BigArrays bigArrays, boolean clearOnResize, long size) {
+        super(pageSize, bigArrays, clearOnResize);
+        this.size = size;
+        pages = new ByteBuffer[numPages(size)];
+        Arrays.fill(pages, ZERO_PAGE);
+    }
+
+    /** Change the size of this array. Content between indexes <code>0</code> and <code>min(size(), newSize)</code> will be preserved. */
+    @Override
+    public void resize(long newSize) {
+        final int numPages = numPages(newSize);
+        if (numPages > pages.length) {
+            pages = Arrays.copyOf(pages, ArrayUtil.oversize(numPages, RamUsageEstimator.NUM_BYTES_OBJECT_REF));
+        }
+        for (int i = numPages - 1; i >= 0 && pages[i] == null; --i) {
+            pages[i] = ZERO_PAGE;
+        }
+        for (int i = numPages; i < pages.length && pages[i] != null; ++i) {
+            assert pages[i] != ZERO_PAGE;
+            pages[i] = null;
+            releasePage(i);
+        }
+        this.size = newSize;
+    }
+
+    protected ByteBuffer getPageForWriting(int pageIndex) {
+        ByteBuffer foundPage = pages[pageIndex];
+        if (foundPage == ZERO_PAGE) {
+            assert recycler != null && recycler.offHeap() : "off-heap arrays require an off-heap page recycler";
+            final Recycler.V<ByteBuffer> v = recycler.directBytePage(clearOnResize);
+            foundPage = registerNewPage(v, pageIndex, PageCacheRecycler.BYTE_PAGE_SIZE);
+            pages[pageIndex] = foundPage;
+        }
+        return foundPage;
+    }
+
+    /**
+     * Bulk copies array to paged array
+     */
+    protected void set(long index, byte[] buf, int offset, int len, int shift) {
+        assert index + len <= size();
+        int pageIndex = pageIndex(index);
+        final int indexInPage = indexInPage(index);
+        if (indexInPage + len <= pageSize()) {
+            getPageForWriting(pageIndex).put(indexInPage << shift, buf, offset << shift, len << shift);
+        } else {
+            int copyLen = pageSize() - indexInPage;
+            getPageForWriting(pageIndex).put(indexInPage << shift, buf, offset << shift, copyLen << shift);
+            do {
+                ++pageIndex;
+                offset += copyLen;
+                len -= copyLen;
+                copyLen = Math.min(len, pageSize());
+                getPageForWriting(pageIndex).put(0, buf, offset << shift, copyLen << shift);
+            } while (len > copyLen);
+        }
+    }
+
+    protected void writePages(StreamOutput out, int bytesPerValue) throws IOException {
+        int remainedBytes = Math.toIntExact(size * bytesPerValue);
+        out.writeVInt(remainedBytes);
+        final byte[] buffer = new byte[Math.min(remainedBytes, PageCacheRecycler.BYTE_PAGE_SIZE)];
+        for (int i = 0; i < pages.length && remainedBytes > 0; i++) {
+            int len = Math.min(remainedBytes, PageCacheRecycler.BYTE_PAGE_SIZE);
+            pages[i].get(0, buffer, 0, len);
+            out.writeBytes(buffer, 0, len);
+            remainedBytes -= len;
+        }
+    }
+
+    protected void readPages(StreamInput in) throws IOException {
+        int remainedBytes = in.readVInt();
+        final byte[] buffer = new byte[Math.min(remainedBytes, PageCacheRecycler.BYTE_PAGE_SIZE)];
+        for (int i = 0; i < pages.length && remainedBytes > 0; i++) {
+            int len = Math.min(remainedBytes, PageCacheRecycler.BYTE_PAGE_SIZE);
+            in.readBytes(buffer, 0, len);
+            getPageForWriting(i).put(0, buffer, 0, len);
+            remainedBytes -= len;
+        }
+    }
+}
@@ -17,7 +17,9 @@ import org.elasticsearch.common.settings.Setting.Property;
 import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.common.unit.ByteSizeValue;
 import org.elasticsearch.common.util.concurrent.EsExecutors;
+import org.elasticsearch.core.Nullable;
 
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 import java.util.Locale;
 
@@ -67,6 +69,16 @@ public class PageCacheRecycler {
         0d,
         Property.NodeScope
     );
+    /**
+     * Whether the pages backing big {@link LongArray}s and {@link DoubleArray}s live outside of the Java heap. Off-heap pages are
+     * recycled like heap pages, so that they only go back to the garbage collector when the recycler is full, and are bounded by
+     * {@code -XX:MaxDirectMemorySize} rather than by the heap.
+     */
+    public static final Setting<Boolean> OFF_HEAP_SETTING = Setting.boolSetting(
+        "cache.recycler.page.off_heap",
+        false,
+        Property.NodeScope
+    );
 
     /** Page size in bytes: 16KB */
     public static final int PAGE_SIZE_IN_BYTES = 1 << 14;
@@ -79,6 +91,8 @@ public class PageCacheRecycler {
 
     private final Recycler<byte[]> bytePage;
     private final Recycler<Object[]> objectPage;
+    @Nullable
+    private final Recycler<ByteBuffer> directBytePage;
 
     public static final PageCacheRecycler NON_RECYCLING_INSTANCE;
 
@@ -136,6 +150,28 @@ public class PageCacheRecycler {
         });
 
         assert PAGE_SIZE_IN_BYTES * (maxBytePageCount + maxObjectPageCount) <= limit;
+
+        if (OFF_HEAP_SETTING.get(settings)) {
+            // off-heap pages don't count against the heap limit, we give them the same budget as heap byte pages
+            directBytePage = build(type, maxBytePageCount, allocatedProcessors, new AbstractRecyclerC<>() {
+                @Override
+                public ByteBuffer newInstance() {
+                    return ByteBuffer.allocateDirect(BYTE_PAGE_SIZE);
+                }
+
+                @Override
+                public void recycle(ByteBuffer value) {
+                    // nothing to do
+                }
+
+                @Override
+                public int pageSize() {
+                    return BYTE_PAGE_SIZE;
+                }
+            });
+        } else {
+            directBytePage = null;
+        }
     }
 
     public Recycler.V<byte[]> bytePage(boolean clear) {
@@ -146,6 +182,25 @@ public class PageCacheRecycler {
         return v;
     }
 
+    /**
+     * Whether big arrays should store their values in off-heap pages obtained from {@link #directBytePage(boolean)}.
+     */
+    public boolean offHeap() {
+        return directBytePage != null;
+    }
+
+    public Recycler.V<ByteBuffer> directBytePage(boolean clear) {
+        assert directBytePage != null : "off-heap pages are disabled";
+        final Recycler.V<ByteBuffer> v = directBytePage.obtain();
+        if (v.isRecycled() && clear) {
+            final ByteBuffer page = v.v();
+            for (int i = 0; i < BYTE_PAGE_SIZE; i += Long.BYTES) {
+                page.putLong(i, 0L);
+            }
+        }
+        return v;
+    }
+
     public Recycler.V<Object[]> objectPage() {
         // object pages are cleared on release anyway
         return objectPage.obtain();
@@ -76,6 +76,8 @@ import org.elasticsearch.env.NodeEnvironment;
 import org.elasticsearch.env.NodeMetadata;
 import org.elasticsearch.index.IndexVersion;
 import org.elasticsearch.index.IndexVersions;
+import org.elasticsearch.telemetry.metric.LongHistogram;
+import org.elasticsearch.telemetry.metric.MeterRegistry;
 import org.elasticsearch.xcontent.NamedXContentRegistry;
 import org.elasticsearch.xcontent.ToXContent;
 import org.elasticsearch.xcontent.XContentBuilder;
@@ -94,6 +96,7 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.attribute.BasicFileAttributes;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -164,6 +167,9 @@ public class PersistedClusterStateService {
 
     public static final String METADATA_DIRECTORY_NAME = MetadataStateFormat.STATE_DIR_NAME;
 
+    public static final String WRITE_DURATION_METRIC_NAME = "es.gateway.persisted_state.write.duration.histogram";
+    public static final String COMMIT_DURATION_METRIC_NAME = "es.gateway.persisted_state.commit.duration.histogram";
+
     public static final Setting<TimeValue> SLOW_WRITE_LOGGING_THRESHOLD = Setting.timeSetting(
         "gateway.slow_write_logging_threshold",
         TimeValue.timeValueSeconds(10),
@@ -186,6 +192,9 @@ public class PersistedClusterStateService {
     private final LongSupplier relativeTimeMillisSupplier;
     private final ByteSizeValue documentPageSize;
 
+    private final LongHistogram writeDurationHistogram;
+    private final LongHistogram commitDurationHistogram;
+
     private volatile TimeValue slowWriteLoggingThreshold;
 
     public PersistedClusterStateService(
@@ -194,7 +203,24 @@ public class PersistedClusterStateService {
         ClusterSettings clusterSettings,
         LongSupplier relativeTimeMillisSupplier
     ) {
-        this(nodeEnvironment.nodeDataPaths(), nodeEnvironment.nodeId(), namedXContentRegistry, clusterSettings, relativeTimeMillisSupplier);
+        this(nodeEnvironment, namedXContentRegistry, clusterSettings, relativeTimeMillisSupplier, MeterRegistry.NOOP);
+    }
+
+    public PersistedClusterStateService(
+        NodeEnvironment nodeEnvironment,
+        NamedXContentRegistry namedXContentRegistry,
+        ClusterSettings clusterSettings,
+        LongSupplier relativeTimeMillisSupplier,
+        MeterRegistry meterRegistry
+    ) {
+        this(
+            nodeEnvironment.nodeDataPaths(),
+            nodeEnvironment.nodeId(),
+            namedXContentRegistry,
+            clusterSettings,
+            relativeTimeMillisSupplier,
+            meterRegistry
+        );
     }
 
     public PersistedClusterStateService(
@@ -203,6 +229,17 @@ public class PersistedClusterStateService {
         NamedXContentRegistry namedXContentRegistry,
         ClusterSettings clusterSettings,
         LongSupplier relativeTimeMillisSupplier
+    ) {
+        this(dataPaths, nodeId, namedXContentRegistry, clusterSettings, relativeTimeMillisSupplier, MeterRegistry.NOOP);
+    }
+
+    public PersistedClusterStateService(
+        Path[] dataPaths,
+        String nodeId,
+        NamedXContentRegistry namedXContentRegistry,
+        ClusterSettings clusterSettings,
+        LongSupplier relativeTimeMillisSupplier,
+        MeterRegistry meterRegistry
     ) {
         this.dataPaths = dataPaths;
         this.nodeId = nodeId;
@@ -212,6 +249,16 @@ public class PersistedClusterStateService {
         this.slowWriteLoggingThreshold = clusterSettings.get(SLOW_WRITE_LOGGING_THRESHOLD);
         clusterSettings.addSettingsUpdateConsumer(SLOW_WRITE_LOGGING_THRESHOLD, this::setSlowWriteLoggingThreshold);
         this.documentPageSize = clusterSettings.get(DOCUMENT_PAGE_SIZE);
+        this.writeDurationHistogram = meterRegistry.registerLongHistogram(
+            WRITE_DURATION_METRIC_NAME,
+            "Duration of writing and committing a cluster state to disk",
+            "ms"
+        );
+        this.commitDurationHistogram = meterRegistry.registerLongHistogram(
+            COMMIT_DURATION_METRIC_NAME,
+            "Duration of committing (and fsyncing) the persisted cluster state",
+            "ms"
+        );
     }
 
     private void setSlowWriteLoggingThreshold(TimeValue slowWriteLoggingThreshold) {
@@ -250,7 +297,9 @@ public class PersistedClusterStateService {
             documentPageSize,
             relativeTimeMillisSupplier,
             () -> slowWriteLoggingThreshold,
-            getAssertOnCommit()
+            getAssertOnCommit(),
+            writeDurationHistogram,
+            commitDurationHistogram
         );
     }
 
@@ -818,14 +867,23 @@ public class PersistedClusterStateService {
             indexWriter.deleteDocuments(new Term(TYPE_FIELD_NAME, GLOBAL_TYPE_NAME));
         }
 
-        void deleteIndexMetadata(String indexUUID) throws IOException {
-            this.logger.trace("removing metadata for [{}]", indexUUID);
-            indexWriter.deleteDocuments(new Term(INDEX_UUID_FIELD_NAME, indexUUID));
+        void deleteIndexMetadata(Collection<String> indexUUIDs) throws IOException {
+            this.logger.trace("removing metadata for {}", indexUUIDs);
+            indexWriter.deleteDocuments(toTerms(INDEX_UUID_FIELD_NAME, indexUUIDs));
+        }
+
+        public void deleteMappingMetadata(Collection<String> mappingHashes) throws IOException {
+            this.logger.trace("removing mapping metadata for {}", mappingHashes);
+            indexWriter.deleteDocuments(toTerms(MAPPING_HASH_FIELD_NAME, mappingHashes));
         }
 
-        public void deleteMappingMetadata(String mappingHash) throws IOException {
-            this.logger.trace("removing mapping metadata for [{}]", mappingHash);
-            indexWriter.deleteDocuments(new Term(MAPPING_HASH_FIELD_NAME, mappingHash));
+        private static Term[] toTerms(String field, Collection<String> values) {
+            final Term[] terms = new Term[values.size()];
+            int i = 0;
+            for (String value : values) {
+                terms[i++] = new Term(field, value);
+            }
+            return terms;
         }
 
         void flush() throws IOException {
@@ -883,6 +941,8 @@ public class PersistedClusterStateService {
         private final byte[] documentBuffer;
         @Nullable // if assertions disabled or we explicitly don't want to assert on commit in a test
         private final CheckedBiConsumer<Path, DirectoryReader, IOException> assertOnCommit;
+        private final LongHistogram writeDurationHistogram;
+        private final LongHistogram commitDurationHistogram;
 
         private Writer(
             List<MetadataIndexWriter> metadataIndexWriters,
@@ -891,7 +951,9 @@ public class PersistedClusterStateService {
             LongSupplier relativeTimeMillisSupplier,
             Supplier<TimeValue> slowWriteLoggingThresholdSupplier,
             @Nullable // if assertions disabled or we explicitly don't want to assert on commit in a test
-            CheckedBiConsumer<Path, DirectoryReader, IOException> assertOnCommit
+            CheckedBiConsumer<Path, DirectoryReader, IOException> assertOnCommit,
+            LongHistogram writeDurationHistogram,
+            LongHistogram commitDurationHistogram
         ) {
             this.metadataIndexWriters = metadataIndexWriters;
             this.nodeId = nodeId;
@@ -899,6 +961,8 @@ public class PersistedClusterStateService {
             this.slowWriteLoggingThresholdSupplier = slowWriteLoggingThresholdSupplier;
             this.documentBuffer = new byte[ByteSizeUnit.BYTES.toIntBytes(documentPageSize.getBytes())];
             this.assertOnCommit = assertOnCommit;
+            this.writeDurationHistogram = writeDurationHistogram;
+            this.commitDurationHistogram = commitDurationHistogram;
         }
 
         private void ensureOpen() {
@@ -946,6 +1010,7 @@ public class PersistedClusterStateService {
                 );
                 fullStateWritten = true;
                 final long durationMillis = relativeTimeMillisSupplier.getAsLong() - startTimeMillis;
+                writeDurationHistogram.record(durationMillis);
                 final TimeValue finalSlowWriteLoggingThreshold = slowWriteLoggingThresholdSupplier.get();
                 if (durationMillis >= finalSlowWriteLoggingThreshold.getMillis()) {
                     logger.warn(
@@ -987,6 +1052,7 @@ public class PersistedClusterStateService {
                     metadata.clusterUUIDCommitted()
                 );
                 final long durationMillis = relativeTimeMillisSupplier.getAsLong() - startTimeMillis;
+                writeDurationHistogram.record(durationMillis);
                 final TimeValue finalSlowWriteLoggingThreshold = slowWriteLoggingThresholdSupplier.get();
                 if (durationMillis >= finalSlowWriteLoggingThreshold.getMillis()) {
                     logger.warn(
@@ -1047,10 +1113,10 @@ public class PersistedClusterStateService {
                 }
             }
 
-            for (final var unusedMappingHash : previousMappingHashes) {
+            if (previousMappingHashes.isEmpty() == false) {
+                numMappingsRemoved = previousMappingHashes.size();
                 for (MetadataIndexWriter metadataIndexWriter : metadataIndexWriters) {
-                    metadataIndexWriter.deleteMappingMetadata(unusedMappingHash);
-                    numMappingsRemoved++;
+                    metadataIndexWriter.deleteMappingMetadata(previousMappingHashes);
                 }
             }
 
@@ -1062,8 +1128,10 @@ public class PersistedClusterStateService {
 
             int numIndicesAdded = 0;
             int numIndicesUpdated = 0;
-            int numIndicesRemoved = 0;
             int numIndicesUnchanged = 0;
+            // collect the indices to write first so that the stale documents of all updated and removed indices are deleted at once
+            final List<IndexMetadata> indicesToWrite = new ArrayList<>();
+            final List<String> indexUUIDsToDelete = new ArrayList<>();
             for (IndexMetadata indexMetadata : metadata.indices().values()) {
                 final Long previousVersion = indexMetadataVersionByUUID.get(indexMetadata.getIndexUUID());
                 if (previousVersion == null || indexMetadata.getVersion() != previousVersion) {
@@ -1077,13 +1145,9 @@ public class PersistedClusterStateService {
                         numIndicesAdded++;
                     } else {
                         numIndicesUpdated++;
+                        indexUUIDsToDelete.add(indexMetadata.getIndexUUID());
                     }
-
-                    for (MetadataIndexWriter metadataIndexWriter : metadataIndexWriters) {
-                        metadataIndexWriter.deleteIndexMetadata(indexMetadata.getIndexUUID());
-                    }
-
-                    addIndexMetadataDocuments(indexMetadata);
+                    indicesToWrite.add(indexMetadata);
                 } else {
                     numIndicesUnchanged++;
                     logger.trace("no action required for index [{}]", indexMetadata.getIndex());
@@ -1091,13 +1155,18 @@ public class PersistedClusterStateService {
                 indexMetadataVersionByUUID.remove(indexMetadata.getIndexUUID());
             }
 
-            for (String removedIndexUUID : indexMetadataVersionByUUID.keySet()) {
+            final int numIndicesRemoved = indexMetadataVersionByUUID.size();
+            indexUUIDsToDelete.addAll(indexMetadataVersionByUUID.keySet());
+            if (indexUUIDsToDelete.isEmpty() == false) {
                 for (MetadataIndexWriter metadataIndexWriter : metadataIndexWriters) {
-                    numIndicesRemoved++;
-                    metadataIndexWriter.deleteIndexMetadata(removedIndexUUID);
+                    metadataIndexWriter.deleteIndexMetadata(indexUUIDsToDelete);
                 }
             }
 
+            for (IndexMetadata indexMetadata : indicesToWrite) {
+                addIndexMetadataDocuments(indexMetadata);
+            }
+
             // Flush, to try and expose a failure (e.g. out of disk space) before committing, because we can handle a failure here more
             // gracefully than one that occurs during the commit process.
             for (MetadataIndexWriter metadataIndexWriter : metadataIndexWriters) {
@@ -1235,8 +1304,10 @@ public class PersistedClusterStateService {
             boolean clusterUUIDCommitted
         ) throws IOException {
             ensureOpen();
+            final long startTimeMillis = relativeTimeMillisSupplier.getAsLong();
             prepareCommit(currentTerm, lastAcceptedVersion, oldestIndexVersion, clusterUUID, clusterUUIDCommitted);
             completeCommit();
+            commitDurationHistogram.record(relativeTimeMillisSupplier.getAsLong() - startTimeMillis);
             assert assertOnCommit();
         }
 
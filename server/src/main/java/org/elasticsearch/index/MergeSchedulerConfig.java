@@ -39,6 +39,12 @@ import org.elasticsearch.common.util.concurrent.EsExecutors;
  *     unluckily suddenly requires a large merge will see that merge aggressively
  *     throttled, while an application doing heavy indexing will see the throttle
  *     move higher to allow merges to keep up with ongoing indexing.
+ *
+ * <li><code>index.merge.scheduler.hnsw_merge_workers</code>:
+ *
+ *     The number of threads that insert vectors into the HNSW graph of a
+ *     <code>dense_vector</code> field while merging. Defaults to <code>1</code>.
+ *     The workers run on the merge thread and the <code>hnsw_merge</code> thread pool.
  * </ul>
  */
 public final class MergeSchedulerConfig {
@@ -64,15 +70,25 @@ public final class MergeSchedulerConfig {
         Property.IndexScope
     );
 
+    public static final Setting<Integer> HNSW_MERGE_WORKERS_SETTING = Setting.intSetting(
+        "index.merge.scheduler.hnsw_merge_workers",
+        1,
+        1,
+        Property.Dynamic,
+        Property.IndexScope
+    );
+
     private volatile boolean autoThrottle;
     private volatile int maxThreadCount;
     private volatile int maxMergeCount;
+    private volatile int hnswMergeWorkers;
 
     MergeSchedulerConfig(IndexSettings indexSettings) {
         int maxThread = indexSettings.getValue(MAX_THREAD_COUNT_SETTING);
         int maxMerge = indexSettings.getValue(MAX_MERGE_COUNT_SETTING);
         setMaxThreadAndMergeCount(maxThread, maxMerge);
         this.autoThrottle = indexSettings.getValue(AUTO_THROTTLE_SETTING);
+        this.hnswMergeWorkers = indexSettings.getValue(HNSW_MERGE_WORKERS_SETTING);
     }
 
     /**
@@ -124,4 +140,15 @@ public final class MergeSchedulerConfig {
     public int getMaxMergeCount() {
         return maxMergeCount;
     }
+
+    /**
+     * Returns the number of threads that insert vectors into HNSW graphs while merging.
+     */
+    public int getHnswMergeWorkers() {
+        return hnswMergeWorkers;
+    }
+
+    void setHnswMergeWorkers(int hnswMergeWorkers) {
+        this.hnswMergeWorkers = hnswMergeWorkers;
+    }
 }
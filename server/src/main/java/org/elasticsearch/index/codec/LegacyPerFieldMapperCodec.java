@@ -16,8 +16,11 @@ import org.apache.lucene.codecs.PostingsFormat;
 import org.apache.lucene.codecs.lucene100.Lucene100Codec;
 import org.elasticsearch.common.lucene.Lucene;
 import org.elasticsearch.common.util.BigArrays;
+import org.elasticsearch.core.Nullable;
 import org.elasticsearch.index.mapper.MapperService;
 
+import java.util.concurrent.ExecutorService;
+
 /**
  * Legacy version of {@link PerFieldMapperCodec}. This codec is preserved to give an escape hatch in case we encounter issues with new
  * changes in {@link PerFieldMapperCodec}.
@@ -27,8 +30,17 @@ public final class LegacyPerFieldMapperCodec extends Lucene100Codec {
     private final PerFieldFormatSupplier formatSupplier;
 
     public LegacyPerFieldMapperCodec(Lucene100Codec.Mode compressionMode, MapperService mapperService, BigArrays bigArrays) {
+        this(compressionMode, mapperService, bigArrays, null);
+    }
+
+    public LegacyPerFieldMapperCodec(
+        Lucene100Codec.Mode compressionMode,
+        MapperService mapperService,
+        BigArrays bigArrays,
+        @Nullable ExecutorService hnswMergeExecutor
+    ) {
         super(compressionMode);
-        this.formatSupplier = new PerFieldFormatSupplier(mapperService, bigArrays);
+        this.formatSupplier = new PerFieldFormatSupplier(mapperService, bigArrays, hnswMergeExecutor);
         // If the below assertion fails, it is a sign that Lucene released a new codec. You must create a copy of the current Elasticsearch
         // codec that delegates to this new Lucene codec, and make PerFieldMapperCodec extend this new Elasticsearch codec.
         assert Codec.forName(Lucene.LATEST_CODEC).getClass() == getClass().getSuperclass()
@@ -15,6 +15,7 @@ import org.apache.lucene.codecs.PostingsFormat;
 import org.apache.lucene.codecs.lucene90.Lucene90DocValuesFormat;
 import org.apache.lucene.codecs.lucene99.Lucene99HnswVectorsFormat;
 import org.elasticsearch.common.util.BigArrays;
+import org.elasticsearch.core.Nullable;
 import org.elasticsearch.index.IndexMode;
 import org.elasticsearch.index.IndexSettings;
 import org.elasticsearch.index.codec.bloomfilter.ES87BloomFilterPostingsFormat;
@@ -25,6 +26,8 @@ import org.elasticsearch.index.mapper.Mapper;
 import org.elasticsearch.index.mapper.MapperService;
 import org.elasticsearch.index.mapper.vectors.DenseVectorFieldMapper;
 
+import java.util.concurrent.ExecutorService;
+
 /**
  * Class that encapsulates the logic of figuring out the most appropriate file format for a given field, across postings, doc values and
  * vectors.
@@ -38,9 +41,20 @@ public class PerFieldFormatSupplier {
 
     private final ES87BloomFilterPostingsFormat bloomFilterPostingsFormat;
     private final MapperService mapperService;
+    private final ExecutorService hnswMergeExecutor;
 
     public PerFieldFormatSupplier(MapperService mapperService, BigArrays bigArrays) {
+        this(mapperService, bigArrays, null);
+    }
+
+    /**
+     * @param hnswMergeExecutor the executor on which HNSW graphs are built with several threads while merging, if the index asks for it
+     *     with {@link org.elasticsearch.index.MergeSchedulerConfig#HNSW_MERGE_WORKERS_SETTING}. Graphs are built on the merge thread
+     *     alone if {@code null}.
+     */
+    public PerFieldFormatSupplier(MapperService mapperService, BigArrays bigArrays, @Nullable ExecutorService hnswMergeExecutor) {
         this.mapperService = mapperService;
+        this.hnswMergeExecutor = hnswMergeExecutor;
         this.bloomFilterPostingsFormat = new ES87BloomFilterPostingsFormat(bigArrays, this::internalGetPostingsFormatForField);
     }
 
@@ -84,7 +98,11 @@ public class PerFieldFormatSupplier {
         if (mapperService != null) {
             Mapper mapper = mapperService.mappingLookup().getMapper(field);
             if (mapper instanceof DenseVectorFieldMapper vectorMapper) {
-                return vectorMapper.getKnnVectorsFormatForField(knnVectorsFormat);
+                int numMergeWorkers = hnswMergeExecutor == null
+                    ? 1
+                    : mapperService.getIndexSettings().getMergeSchedulerConfig().getHnswMergeWorkers();
+                ExecutorService mergeExec = numMergeWorkers > 1 ? hnswMergeExecutor : null;
+                return vectorMapper.getKnnVectorsFormatForField(knnVectorsFormat, numMergeWorkers, mergeExec);
             }
         }
         return knnVectorsFormat;
@@ -15,9 +15,12 @@ import org.apache.lucene.codecs.KnnVectorsFormat;
 import org.apache.lucene.codecs.PostingsFormat;
 import org.elasticsearch.common.lucene.Lucene;
 import org.elasticsearch.common.util.BigArrays;
+import org.elasticsearch.core.Nullable;
 import org.elasticsearch.index.codec.zstd.Zstd814StoredFieldsFormat;
 import org.elasticsearch.index.mapper.MapperService;
 
+import java.util.concurrent.ExecutorService;
+
 /**
  * {@link PerFieldMapperCodec This Lucene codec} provides the default
  * {@link PostingsFormat} and {@link KnnVectorsFormat} for Elasticsearch. It utilizes the
@@ -31,8 +34,17 @@ public final class PerFieldMapperCodec extends Elasticsearch900Codec {
     private final PerFieldFormatSupplier formatSupplier;
 
     public PerFieldMapperCodec(Zstd814StoredFieldsFormat.Mode compressionMode, MapperService mapperService, BigArrays bigArrays) {
+        this(compressionMode, mapperService, bigArrays, null);
+    }
+
+    public PerFieldMapperCodec(
+        Zstd814StoredFieldsFormat.Mode compressionMode,
+        MapperService mapperService,
+        BigArrays bigArrays,
+        @Nullable ExecutorService hnswMergeExecutor
+    ) {
         super(compressionMode);
-        this.formatSupplier = new PerFieldFormatSupplier(mapperService, bigArrays);
+        this.formatSupplier = new PerFieldFormatSupplier(mapperService, bigArrays, hnswMergeExecutor);
         // If the below assertion fails, it is a sign that Lucene released a new codec. You must create a copy of the current Elasticsearch
         // codec that delegates to this new Lucene codec, and make PerFieldMapperCodec extend this new Elasticsearch codec.
         assert Codec.forName(Lucene.LATEST_CODEC).getClass() == delegate.getClass()
@@ -17,11 +17,14 @@ import org.apache.lucene.codecs.lucene99.Lucene99HnswVectorsReader;
 import org.apache.lucene.codecs.lucene99.Lucene99HnswVectorsWriter;
 import org.apache.lucene.index.SegmentReadState;
 import org.apache.lucene.index.SegmentWriteState;
+import org.apache.lucene.search.TaskExecutor;
 
 import java.io.IOException;
+import java.util.concurrent.ExecutorService;
 
 import static org.apache.lucene.codecs.lucene99.Lucene99HnswVectorsFormat.DEFAULT_BEAM_WIDTH;
 import static org.apache.lucene.codecs.lucene99.Lucene99HnswVectorsFormat.DEFAULT_MAX_CONN;
+import static org.apache.lucene.codecs.lucene99.Lucene99HnswVectorsFormat.DEFAULT_NUM_MERGE_WORKER;
 import static org.elasticsearch.index.mapper.vectors.DenseVectorFieldMapper.MAX_DIMS_COUNT;
 
 public final class ES814HnswScalarQuantizedVectorsFormat extends KnnVectorsFormat {
@@ -35,6 +38,10 @@ public final class ES814HnswScalarQuantizedVectorsFormat extends KnnVectorsForma
 
     private final int beamWidth;
 
+    /** The number of threads that insert vectors into the graph while merging */
+    private final int numMergeWorkers;
+    private final TaskExecutor mergeExec;
+
     /** The format for storing, reading, merging vectors on disk */
     private final FlatVectorsFormat flatVectorsFormat;
 
@@ -43,6 +50,24 @@ public final class ES814HnswScalarQuantizedVectorsFormat extends KnnVectorsForma
     }
 
     public ES814HnswScalarQuantizedVectorsFormat(int maxConn, int beamWidth, Float confidenceInterval, int bits, boolean compress) {
+        this(maxConn, beamWidth, confidenceInterval, bits, compress, DEFAULT_NUM_MERGE_WORKER, null);
+    }
+
+    /**
+     * @param numMergeWorkers the number of threads that insert vectors into the graph while merging. If larger than 1, a non-null
+     *     {@link ExecutorService} must be passed as mergeExec
+     * @param mergeExec the {@link ExecutorService} that will be used by ALL vector writers that are generated by this format to do
+     *     the merge
+     */
+    public ES814HnswScalarQuantizedVectorsFormat(
+        int maxConn,
+        int beamWidth,
+        Float confidenceInterval,
+        int bits,
+        boolean compress,
+        int numMergeWorkers,
+        ExecutorService mergeExec
+    ) {
         super(NAME);
         if (maxConn <= 0 || maxConn > MAXIMUM_MAX_CONN) {
             throw new IllegalArgumentException(
@@ -54,14 +79,22 @@ public final class ES814HnswScalarQuantizedVectorsFormat extends KnnVectorsForma
                 "beamWidth must be positive and less than or equal to " + MAXIMUM_BEAM_WIDTH + "; beamWidth=" + beamWidth
             );
         }
+        if (numMergeWorkers == 1 && mergeExec != null) {
+            throw new IllegalArgumentException("No executor service is needed as we'll use single thread to merge");
+        }
+        if (numMergeWorkers > 1 && mergeExec == null) {
+            throw new IllegalArgumentException("No executor service passed in when " + numMergeWorkers + " merge workers are requested");
+        }
         this.maxConn = maxConn;
         this.beamWidth = beamWidth;
+        this.numMergeWorkers = numMergeWorkers;
+        this.mergeExec = mergeExec == null ? null : new TaskExecutor(mergeExec);
         this.flatVectorsFormat = new ES814ScalarQuantizedVectorsFormat(confidenceInterval, bits, compress);
     }
 
     @Override
     public KnnVectorsWriter fieldsWriter(SegmentWriteState state) throws IOException {
-        return new Lucene99HnswVectorsWriter(state, maxConn, beamWidth, flatVectorsFormat.fieldsWriter(state), 1, null);
+        return new Lucene99HnswVectorsWriter(state, maxConn, beamWidth, flatVectorsFormat.fieldsWriter(state), numMergeWorkers, mergeExec);
     }
 
     @Override
@@ -17,9 +17,12 @@ import org.apache.lucene.codecs.lucene99.Lucene99HnswVectorsReader;
 import org.apache.lucene.codecs.lucene99.Lucene99HnswVectorsWriter;
 import org.apache.lucene.index.SegmentReadState;
 import org.apache.lucene.index.SegmentWriteState;
+import org.apache.lucene.search.TaskExecutor;
 
 import java.io.IOException;
+import java.util.concurrent.ExecutorService;
 
+import static org.apache.lucene.codecs.lucene99.Lucene99HnswVectorsFormat.DEFAULT_NUM_MERGE_WORKER;
 import static org.elasticsearch.index.mapper.vectors.DenseVectorFieldMapper.MAX_DIMS_COUNT;
 
 public class ES815HnswBitVectorsFormat extends KnnVectorsFormat {
@@ -31,6 +34,8 @@ public class ES815HnswBitVectorsFormat extends KnnVectorsFormat {
 
     private final int maxConn;
     private final int beamWidth;
+    private final int numMergeWorkers;
+    private final TaskExecutor mergeExec;
 
     private static final FlatVectorsFormat flatVectorsFormat = new ES815BitFlatVectorsFormat();
 
@@ -39,6 +44,16 @@ public class ES815HnswBitVectorsFormat extends KnnVectorsFormat {
     }
 
     public ES815HnswBitVectorsFormat(int maxConn, int beamWidth) {
+        this(maxConn, beamWidth, DEFAULT_NUM_MERGE_WORKER, null);
+    }
+
+    /**
+     * @param numMergeWorkers the number of threads that insert vectors into the graph while merging. If larger than 1, a non-null
+     *     {@link ExecutorService} must be passed as mergeExec
+     * @param mergeExec the {@link ExecutorService} that will be used by ALL vector writers that are generated by this format to do
+     *     the merge
+     */
+    public ES815HnswBitVectorsFormat(int maxConn, int beamWidth, int numMergeWorkers, ExecutorService mergeExec) {
         super(NAME);
         if (maxConn <= 0 || maxConn > MAXIMUM_MAX_CONN) {
             throw new IllegalArgumentException(
@@ -50,13 +65,21 @@ public class ES815HnswBitVectorsFormat extends KnnVectorsFormat {
                 "beamWidth must be positive and less than or equal to " + MAXIMUM_BEAM_WIDTH + "; beamWidth=" + beamWidth
             );
         }
+        if (numMergeWorkers == 1 && mergeExec != null) {
+            throw new IllegalArgumentException("No executor service is needed as we'll use single thread to merge");
+        }
+        if (numMergeWorkers > 1 && mergeExec == null) {
+            throw new IllegalArgumentException("No executor service passed in when " + numMergeWorkers + " merge workers are requested");
+        }
         this.maxConn = maxConn;
         this.beamWidth = beamWidth;
+        this.numMergeWorkers = numMergeWorkers;
+        this.mergeExec = mergeExec == null ? null : new TaskExecutor(mergeExec);
     }
 
     @Override
     public KnnVectorsWriter fieldsWriter(SegmentWriteState state) throws IOException {
-        return new Lucene99HnswVectorsWriter(state, maxConn, beamWidth, flatVectorsFormat.fieldsWriter(state), 1, null);
+        return new Lucene99HnswVectorsWriter(state, maxConn, beamWidth, flatVectorsFormat.fieldsWriter(state), numMergeWorkers, mergeExec);
     }
 
     @Override
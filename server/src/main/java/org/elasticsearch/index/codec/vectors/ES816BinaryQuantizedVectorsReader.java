@@ -21,6 +21,7 @@ package org.elasticsearch.index.codec.vectors;
 
 import org.apache.lucene.codecs.CodecUtil;
 import org.apache.lucene.codecs.hnsw.FlatVectorsReader;
+import org.apache.lucene.codecs.lucene95.HasIndexSlice;
 import org.apache.lucene.codecs.lucene95.OrdToDocDISIReaderConfiguration;
 import org.apache.lucene.index.ByteVectorValues;
 import org.apache.lucene.index.CorruptIndexException;
@@ -356,7 +357,7 @@ public class ES816BinaryQuantizedVectorsReader extends FlatVectorsReader {
     }
 
     /** Binarized vector values holding row and quantized vector values */
-    protected static final class BinarizedVectorValues extends FloatVectorValues {
+    protected static final class BinarizedVectorValues extends FloatVectorValues implements HasIndexSlice {
         private final FloatVectorValues rawVectorValues;
         private final BinarizedByteVectorValues quantizedVectorValues;
 
@@ -405,6 +406,12 @@ public class ES816BinaryQuantizedVectorsReader extends FlatVectorsReader {
             return quantizedVectorValues.scorer(query);
         }
 
+        /** Returns the slice holding the raw vectors, so that they can be rescored where they are mapped. */
+        @Override
+        public IndexInput getSlice() {
+            return rawVectorValues instanceof HasIndexSlice hasIndexSlice ? hasIndexSlice.getSlice() : null;
+        }
+
         protected BinarizedByteVectorValues getQuantizedVectorValues() throws IOException {
             return quantizedVectorValues;
         }
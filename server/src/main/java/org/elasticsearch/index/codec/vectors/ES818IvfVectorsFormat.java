@@ -0,0 +1,103 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+
+package org.elasticsearch.index.codec.vectors;
+
+import org.apache.lucene.codecs.KnnVectorsFormat;
+import org.apache.lucene.codecs.KnnVectorsReader;
+import org.apache.lucene.codecs.KnnVectorsWriter;
+import org.apache.lucene.codecs.hnsw.FlatVectorScorerUtil;
+import org.apache.lucene.codecs.hnsw.FlatVectorsFormat;
+import org.apache.lucene.codecs.lucene99.Lucene99FlatVectorsFormat;
+import org.apache.lucene.index.SegmentReadState;
+import org.apache.lucene.index.SegmentWriteState;
+
+import java.io.IOException;
+
+import static org.elasticsearch.index.mapper.vectors.DenseVectorFieldMapper.MAX_DIMS_COUNT;
+
+/**
+ * An inverted file (IVF) index of binary quantized vectors. The vectors of a segment are partitioned into clusters with k-means, and
+ * each cluster is stored as a posting list of its documents followed by its vectors, binary quantized against the centroid of the
+ * cluster. A search ranks the centroids by their similarity with the query and only scores the vectors of the closest clusters, which
+ * needs much less memory than an HNSW graph, at the cost of scoring more vectors per query.
+ * <p>
+ * The raw vectors are stored next to the quantized ones and are used for exact searches, rescoring and merges.
+ */
+public class ES818IvfVectorsFormat extends KnnVectorsFormat {
+
+    public static final String NAME = "ES818IvfVectorsFormat";
+    public static final String IVF_VECTOR_COMPONENT = "IVF";
+
+    static final int VERSION_START = 0;
+    static final int VERSION_CURRENT = VERSION_START;
+    static final String META_CODEC_NAME = "ES818IvfVectorsFormatMeta";
+    static final String VECTOR_DATA_CODEC_NAME = "ES818IvfVectorsFormatData";
+    static final String META_EXTENSION = "vemi";
+    static final String VECTOR_DATA_EXTENSION = "vei";
+
+    public static final int DEFAULT_VECTORS_PER_CLUSTER = 1000;
+    public static final int MIN_VECTORS_PER_CLUSTER = 64;
+    public static final int MAX_VECTORS_PER_CLUSTER = 1 << 16;
+
+    private static final FlatVectorsFormat rawVectorFormat = new Lucene99FlatVectorsFormat(
+        FlatVectorScorerUtil.getLucene99FlatVectorsScorer()
+    );
+
+    private static final ES816BinaryFlatVectorsScorer scorer = new ES816BinaryFlatVectorsScorer(
+        FlatVectorScorerUtil.getLucene99FlatVectorsScorer()
+    );
+
+    private final int vectorsPerCluster;
+
+    /** Creates a new instance with the default number of vectors per cluster. */
+    public ES818IvfVectorsFormat() {
+        this(DEFAULT_VECTORS_PER_CLUSTER);
+    }
+
+    /**
+     * Creates a new instance.
+     *
+     * @param vectorsPerCluster the average number of vectors per cluster, which decides the number of clusters of a segment
+     */
+    public ES818IvfVectorsFormat(int vectorsPerCluster) {
+        super(NAME);
+        if (vectorsPerCluster < MIN_VECTORS_PER_CLUSTER || vectorsPerCluster > MAX_VECTORS_PER_CLUSTER) {
+            throw new IllegalArgumentException(
+                "vectorsPerCluster must be between "
+                    + MIN_VECTORS_PER_CLUSTER
+                    + " and "
+                    + MAX_VECTORS_PER_CLUSTER
+                    + ", got: "
+                    + vectorsPerCluster
+            );
+        }
+        this.vectorsPerCluster = vectorsPerCluster;
+    }
+
+    @Override
+    public KnnVectorsWriter fieldsWriter(SegmentWriteState state) throws IOException {
+        return new ES818IvfVectorsWriter(state, rawVectorFormat.fieldsWriter(state), vectorsPerCluster);
+    }
+
+    @Override
+    public KnnVectorsReader fieldsReader(SegmentReadState state) throws IOException {
+        return new ES818IvfVectorsReader(state, rawVectorFormat.fieldsReader(state), scorer);
+    }
+
+    @Override
+    public int getMaxDimensions(String fieldName) {
+        return MAX_DIMS_COUNT;
+    }
+
+    @Override
+    public String toString() {
+        return "ES818IvfVectorsFormat(name=" + NAME + ", vectorsPerCluster=" + vectorsPerCluster + ", flatVectorScorer=" + scorer + ")";
+    }
+}
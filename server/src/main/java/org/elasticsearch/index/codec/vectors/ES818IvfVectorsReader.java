@@ -0,0 +1,375 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+
+package org.elasticsearch.index.codec.vectors;
+
+import org.apache.lucene.codecs.CodecUtil;
+import org.apache.lucene.codecs.KnnVectorsReader;
+import org.apache.lucene.codecs.hnsw.FlatVectorsReader;
+import org.apache.lucene.index.ByteVectorValues;
+import org.apache.lucene.index.CorruptIndexException;
+import org.apache.lucene.index.FieldInfo;
+import org.apache.lucene.index.FieldInfos;
+import org.apache.lucene.index.FloatVectorValues;
+import org.apache.lucene.index.IndexFileNames;
+import org.apache.lucene.index.SegmentReadState;
+import org.apache.lucene.index.VectorEncoding;
+import org.apache.lucene.index.VectorSimilarityFunction;
+import org.apache.lucene.search.KnnCollector;
+import org.apache.lucene.store.ChecksumIndexInput;
+import org.apache.lucene.store.IndexInput;
+import org.apache.lucene.util.ArrayUtil;
+import org.apache.lucene.util.Bits;
+import org.apache.lucene.util.IOUtils;
+import org.apache.lucene.util.IntroSorter;
+import org.apache.lucene.util.VectorUtil;
+import org.apache.lucene.util.hnsw.OrdinalTranslatedKnnCollector;
+import org.apache.lucene.util.hnsw.RandomVectorScorer;
+import org.elasticsearch.core.SuppressForbidden;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.apache.lucene.codecs.lucene99.Lucene99HnswVectorsReader.readSimilarityFunction;
+import static org.apache.lucene.codecs.lucene99.Lucene99HnswVectorsReader.readVectorEncoding;
+
+/**
+ * Reads the clusters of an {@link ES818IvfVectorsFormat}. A search ranks the centroids, which stay on disk, by their similarity with the
+ * query and scores the binary quantized vectors of the closest clusters until {@link #VECTORS_PER_CANDIDATE} vectors per candidate that
+ * the collector asks for were scored. The number of candidates of a query therefore decides how many clusters it probes.
+ */
+@SuppressForbidden(reason = "Lucene classes")
+public class ES818IvfVectorsReader extends KnnVectorsReader {
+
+    // quantized vectors score less accurately than raw ones, so many more vectors than candidates need to be scored for a good recall
+    static final int VECTORS_PER_CANDIDATE = 100;
+
+    private final Map<String, FieldEntry> fields = new HashMap<>();
+    private final IndexInput ivfVectorData;
+    private final FlatVectorsReader rawVectorsReader;
+    private final ES816BinaryFlatVectorsScorer vectorScorer;
+
+    ES818IvfVectorsReader(SegmentReadState state, FlatVectorsReader rawVectorsReader, ES816BinaryFlatVectorsScorer vectorScorer)
+        throws IOException {
+        this.rawVectorsReader = rawVectorsReader;
+        this.vectorScorer = vectorScorer;
+        int versionMeta = -1;
+        String metaFileName = IndexFileNames.segmentFileName(
+            state.segmentInfo.name,
+            state.segmentSuffix,
+            ES818IvfVectorsFormat.META_EXTENSION
+        );
+        boolean success = false;
+        try (ChecksumIndexInput meta = state.directory.openChecksumInput(metaFileName)) {
+            Throwable priorE = null;
+            try {
+                versionMeta = CodecUtil.checkIndexHeader(
+                    meta,
+                    ES818IvfVectorsFormat.META_CODEC_NAME,
+                    ES818IvfVectorsFormat.VERSION_START,
+                    ES818IvfVectorsFormat.VERSION_CURRENT,
+                    state.segmentInfo.getId(),
+                    state.segmentSuffix
+                );
+                readFields(meta, state.fieldInfos);
+            } catch (Throwable exception) {
+                priorE = exception;
+            } finally {
+                CodecUtil.checkFooter(meta, priorE);
+            }
+            ivfVectorData = openDataInput(state, versionMeta);
+            success = true;
+        } finally {
+            if (success == false) {
+                IOUtils.closeWhileHandlingException(this);
+            }
+        }
+    }
+
+    private void readFields(ChecksumIndexInput meta, FieldInfos infos) throws IOException {
+        for (int fieldNumber = meta.readInt(); fieldNumber != -1; fieldNumber = meta.readInt()) {
+            FieldInfo info = infos.fieldInfo(fieldNumber);
+            if (info == null) {
+                throw new CorruptIndexException("Invalid field number: " + fieldNumber, meta);
+            }
+            VectorEncoding vectorEncoding = readVectorEncoding(meta);
+            VectorSimilarityFunction similarityFunction = readSimilarityFunction(meta);
+            if (similarityFunction != info.getVectorSimilarityFunction()) {
+                throw new IllegalStateException(
+                    "Inconsistent vector similarity function for field=\""
+                        + info.name
+                        + "\"; "
+                        + similarityFunction
+                        + " != "
+                        + info.getVectorSimilarityFunction()
+                );
+            }
+            FieldEntry fieldEntry = FieldEntry.create(meta, vectorEncoding, similarityFunction);
+            if (info.getVectorDimension() != fieldEntry.dimension) {
+                throw new IllegalStateException(
+                    "Inconsistent vector dimension for field=\""
+                        + info.name
+                        + "\"; "
+                        + info.getVectorDimension()
+                        + " != "
+                        + fieldEntry.dimension
+                );
+            }
+            fields.put(info.name, fieldEntry);
+        }
+    }
+
+    private static IndexInput openDataInput(SegmentReadState state, int versionMeta) throws IOException {
+        String fileName = IndexFileNames.segmentFileName(
+            state.segmentInfo.name,
+            state.segmentSuffix,
+            ES818IvfVectorsFormat.VECTOR_DATA_EXTENSION
+        );
+        IndexInput in = state.directory.openInput(fileName, state.context);
+        boolean success = false;
+        try {
+            int versionVectorData = CodecUtil.checkIndexHeader(
+                in,
+                ES818IvfVectorsFormat.VECTOR_DATA_CODEC_NAME,
+                ES818IvfVectorsFormat.VERSION_START,
+                ES818IvfVectorsFormat.VERSION_CURRENT,
+                state.segmentInfo.getId(),
+                state.segmentSuffix
+            );
+            if (versionMeta != versionVectorData) {
+                throw new CorruptIndexException(
+                    "Format versions mismatch: meta="
+                        + versionMeta
+                        + ", "
+                        + ES818IvfVectorsFormat.VECTOR_DATA_CODEC_NAME
+                        + "="
+                        + versionVectorData,
+                    in
+                );
+            }
+            CodecUtil.retrieveChecksum(in);
+            success = true;
+            return in;
+        } finally {
+            if (success == false) {
+                IOUtils.closeWhileHandlingException(in);
+            }
+        }
+    }
+
+    @Override
+    public void checkIntegrity() throws IOException {
+        rawVectorsReader.checkIntegrity();
+        CodecUtil.checksumEntireFile(ivfVectorData);
+    }
+
+    @Override
+    public FloatVectorValues getFloatVectorValues(String field) throws IOException {
+        return rawVectorsReader.getFloatVectorValues(field);
+    }
+
+    @Override
+    public ByteVectorValues getByteVectorValues(String field) throws IOException {
+        return rawVectorsReader.getByteVectorValues(field);
+    }
+
+    @Override
+    public void search(String field, float[] target, KnnCollector knnCollector, Bits acceptDocs) throws IOException {
+        final FieldEntry fieldEntry = fields.get(field);
+        if (fieldEntry == null || fieldEntry.numClusters() == 0 || knnCollector.k() == 0) {
+            return;
+        }
+        final VectorSimilarityFunction similarityFunction = fieldEntry.similarityFunction;
+        final int dimension = fieldEntry.dimension;
+        float[] query = target;
+        if (similarityFunction == VectorSimilarityFunction.COSINE) {
+            // like the vectors the centroids were trained on
+            query = ArrayUtil.copyOfSubArray(target, 0, target.length);
+            VectorUtil.l2normalize(query);
+        }
+        final IndexInput centroidsInput = ivfVectorData.slice(
+            "centroids",
+            fieldEntry.centroidsOffset,
+            (long) fieldEntry.numClusters() * dimension * Float.BYTES
+        );
+        final float[] centroid = new float[dimension];
+        final float[] centroidScores = new float[fieldEntry.numClusters()];
+        for (int c = 0; c < centroidScores.length; c++) {
+            centroidsInput.readFloats(centroid, 0, dimension);
+            // rank the centroids the way vectors were assigned to them
+            centroidScores[c] = IvfKMeans.score(similarityFunction, query, centroid);
+        }
+        final int[] clusters = rankClusters(centroidScores);
+
+        final BinaryQuantizer quantizer = new BinaryQuantizer(dimension, BQVectorUtils.discretize(dimension, 64), similarityFunction);
+        final int correctionsCount = similarityFunction != VectorSimilarityFunction.EUCLIDEAN ? 3 : 2;
+        final long vectorBytes = BQVectorUtils.discretize(dimension, 64) / 8 + (long) correctionsCount * Float.BYTES;
+        final long minScoredVectors = (long) knnCollector.k() * VECTORS_PER_CANDIDATE;
+        final IndexInput docsInput = ivfVectorData.clone();
+        int[] docs = new int[0];
+        long scoredVectors = 0;
+        for (int i = 0; i < clusters.length && scoredVectors < minScoredVectors; i++) {
+            final int cluster = clusters[i];
+            final int clusterSize = fieldEntry.clusterSizes[cluster];
+            docs = ArrayUtil.growNoCopy(docs, clusterSize);
+            docsInput.seek(fieldEntry.docsOffsets[cluster]);
+            int doc = 0;
+            for (int j = 0; j < clusterSize; j++) {
+                doc += docsInput.readVInt();
+                docs[j] = doc;
+            }
+            centroidsInput.seek((long) cluster * dimension * Float.BYTES);
+            centroidsInput.readFloats(centroid, 0, dimension);
+            final float[] clusterCentroid = centroid.clone();
+            final OffHeapBinarizedVectorValues vectorValues = new OffHeapBinarizedVectorValues.DenseOffHeapVectorValues(
+                dimension,
+                clusterSize,
+                clusterCentroid,
+                VectorUtil.dotProduct(clusterCentroid, clusterCentroid),
+                quantizer,
+                similarityFunction,
+                vectorScorer,
+                ivfVectorData.slice("cluster", fieldEntry.vectorsOffsets[cluster], clusterSize * vectorBytes)
+            );
+            final RandomVectorScorer scorer = vectorScorer.getRandomVectorScorer(similarityFunction, vectorValues, target);
+            for (int ord = 0; ord < clusterSize; ord++) {
+                if (acceptDocs == null || acceptDocs.get(docs[ord])) {
+                    if (knnCollector.earlyTerminated()) {
+                        return;
+                    }
+                    knnCollector.collect(docs[ord], scorer.score(ord));
+                    knnCollector.incVisitedCount(1);
+                    scoredVectors++;
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the clusters sorted by decreasing similarity of their centroid with the query.
+     */
+    static int[] rankClusters(float[] centroidScores) {
+        final int[] clusters = new int[centroidScores.length];
+        for (int c = 0; c < clusters.length; c++) {
+            clusters[c] = c;
+        }
+        new IntroSorter() {
+            float pivot;
+
+            @Override
+            protected void setPivot(int i) {
+                pivot = centroidScores[clusters[i]];
+            }
+
+            @Override
+            protected int comparePivot(int j) {
+                return Float.compare(centroidScores[clusters[j]], pivot);
+            }
+
+            @Override
+            protected int compare(int i, int j) {
+                return Float.compare(centroidScores[clusters[j]], centroidScores[clusters[i]]);
+            }
+
+            @Override
+            protected void swap(int i, int j) {
+                final int tmp = clusters[i];
+                clusters[i] = clusters[j];
+                clusters[j] = tmp;
+            }
+        }.sort(0, clusters.length);
+        return clusters;
+    }
+
+    @Override
+    public void search(String field, byte[] target, KnnCollector knnCollector, Bits acceptDocs) throws IOException {
+        // byte vectors are not clustered, they are all scored
+        final RandomVectorScorer scorer = rawVectorsReader.getRandomVectorScorer(field, target);
+        if (scorer == null) {
+            return;
+        }
+        OrdinalTranslatedKnnCollector collector = new OrdinalTranslatedKnnCollector(knnCollector, scorer::ordToDoc);
+        Bits acceptedOrds = scorer.getAcceptOrds(acceptDocs);
+        for (int i = 0; i < scorer.maxOrd(); i++) {
+            if (acceptedOrds == null || acceptedOrds.get(i)) {
+                collector.collect(i, scorer.score(i));
+                collector.incVisitedCount(1);
+            }
+        }
+    }
+
+    /**
+     * Returns the centroids of the clusters of a field, or an empty list if the field has no clusters in this segment.
+     */
+    List<float[]> getCentroids(String field) throws IOException {
+        final FieldEntry fieldEntry = fields.get(field);
+        if (fieldEntry == null) {
+            return List.of();
+        }
+        final IndexInput centroidsInput = ivfVectorData.clone();
+        centroidsInput.seek(fieldEntry.centroidsOffset);
+        final List<float[]> centroids = new ArrayList<>(fieldEntry.numClusters());
+        for (int c = 0; c < fieldEntry.numClusters(); c++) {
+            final float[] centroid = new float[fieldEntry.dimension];
+            centroidsInput.readFloats(centroid, 0, centroid.length);
+            centroids.add(centroid);
+        }
+        return centroids;
+    }
+
+    @Override
+    public void close() throws IOException {
+        IOUtils.close(ivfVectorData, rawVectorsReader);
+    }
+
+    private record FieldEntry(
+        VectorSimilarityFunction similarityFunction,
+        VectorEncoding vectorEncoding,
+        int dimension,
+        int size,
+        long centroidsOffset,
+        int[] clusterSizes,
+        long[] docsOffsets,
+        long[] vectorsOffsets
+    ) {
+
+        static FieldEntry create(IndexInput input, VectorEncoding vectorEncoding, VectorSimilarityFunction similarityFunction)
+            throws IOException {
+            final int dimension = input.readVInt();
+            final int size = input.readVInt();
+            final int numClusters = input.readVInt();
+            final long centroidsOffset = numClusters > 0 ? input.readVLong() : 0;
+            final int[] clusterSizes = new int[numClusters];
+            final long[] docsOffsets = new long[numClusters];
+            final long[] vectorsOffsets = new long[numClusters];
+            for (int c = 0; c < numClusters; c++) {
+                clusterSizes[c] = input.readVInt();
+                docsOffsets[c] = input.readVLong();
+                vectorsOffsets[c] = input.readVLong();
+            }
+            return new FieldEntry(
+                similarityFunction,
+                vectorEncoding,
+                dimension,
+                size,
+                centroidsOffset,
+                clusterSizes,
+                docsOffsets,
+                vectorsOffsets
+            );
+        }
+
+        int numClusters() {
+            return clusterSizes.length;
+        }
+    }
+}
@@ -0,0 +1,346 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+
+package org.elasticsearch.index.codec.vectors;
+
+import org.apache.lucene.codecs.CodecUtil;
+import org.apache.lucene.codecs.KnnFieldVectorsWriter;
+import org.apache.lucene.codecs.KnnVectorsReader;
+import org.apache.lucene.codecs.KnnVectorsWriter;
+import org.apache.lucene.codecs.hnsw.FlatFieldVectorsWriter;
+import org.apache.lucene.codecs.hnsw.FlatVectorScorerUtil;
+import org.apache.lucene.codecs.hnsw.FlatVectorsWriter;
+import org.apache.lucene.codecs.lucene95.OffHeapFloatVectorValues;
+import org.apache.lucene.codecs.perfield.PerFieldKnnVectorsFormat;
+import org.apache.lucene.index.DocsWithFieldSet;
+import org.apache.lucene.index.FieldInfo;
+import org.apache.lucene.index.FloatVectorValues;
+import org.apache.lucene.index.IndexFileNames;
+import org.apache.lucene.index.KnnVectorValues;
+import org.apache.lucene.index.MergeState;
+import org.apache.lucene.index.SegmentWriteState;
+import org.apache.lucene.index.Sorter;
+import org.apache.lucene.index.VectorEncoding;
+import org.apache.lucene.index.VectorSimilarityFunction;
+import org.apache.lucene.search.DocIdSetIterator;
+import org.apache.lucene.store.IndexInput;
+import org.apache.lucene.store.IndexOutput;
+import org.apache.lucene.util.ArrayUtil;
+import org.apache.lucene.util.IOUtils;
+import org.apache.lucene.util.VectorUtil;
+import org.elasticsearch.core.SuppressForbidden;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.apache.lucene.index.VectorSimilarityFunction.COSINE;
+import static org.apache.lucene.index.VectorSimilarityFunction.EUCLIDEAN;
+import static org.apache.lucene.util.RamUsageEstimator.shallowSizeOfInstance;
+import static org.elasticsearch.index.codec.vectors.ES818IvfVectorsFormat.IVF_VECTOR_COMPONENT;
+
+/**
+ * Writes the clusters of an {@link ES818IvfVectorsFormat}. The raw vectors are written first by the delegate writer. The vectors are
+ * then clustered, and each cluster is written as the delta encoded ids of its documents followed by its binary quantized vectors.
+ * Merges seed k-means with the centroids of the merged segments, so that they refine the existing clusters rather than start over.
+ */
+@SuppressForbidden(reason = "Lucene classes")
+public class ES818IvfVectorsWriter extends KnnVectorsWriter {
+    private static final long SHALLOW_RAM_BYTES_USED = shallowSizeOfInstance(ES818IvfVectorsWriter.class);
+
+    // a fixed seed makes the clusters of a segment reproducible
+    private static final long KMEANS_SEED = 42L;
+
+    private final SegmentWriteState segmentWriteState;
+    private final List<FieldWriter> fields = new ArrayList<>();
+    private final IndexOutput meta, ivfVectorData;
+    private final FlatVectorsWriter rawVectorDelegate;
+    private final int vectorsPerCluster;
+    private boolean finished;
+
+    ES818IvfVectorsWriter(SegmentWriteState state, FlatVectorsWriter rawVectorDelegate, int vectorsPerCluster) throws IOException {
+        this.segmentWriteState = state;
+        this.rawVectorDelegate = rawVectorDelegate;
+        this.vectorsPerCluster = vectorsPerCluster;
+        String metaFileName = IndexFileNames.segmentFileName(
+            state.segmentInfo.name,
+            state.segmentSuffix,
+            ES818IvfVectorsFormat.META_EXTENSION
+        );
+        String ivfVectorDataFileName = IndexFileNames.segmentFileName(
+            state.segmentInfo.name,
+            state.segmentSuffix,
+            ES818IvfVectorsFormat.VECTOR_DATA_EXTENSION
+        );
+        boolean success = false;
+        try {
+            meta = state.directory.createOutput(metaFileName, state.context);
+            ivfVectorData = state.directory.createOutput(ivfVectorDataFileName, state.context);
+            CodecUtil.writeIndexHeader(
+                meta,
+                ES818IvfVectorsFormat.META_CODEC_NAME,
+                ES818IvfVectorsFormat.VERSION_CURRENT,
+                state.segmentInfo.getId(),
+                state.segmentSuffix
+            );
+            CodecUtil.writeIndexHeader(
+                ivfVectorData,
+                ES818IvfVectorsFormat.VECTOR_DATA_CODEC_NAME,
+                ES818IvfVectorsFormat.VERSION_CURRENT,
+                state.segmentInfo.getId(),
+                state.segmentSuffix
+            );
+            success = true;
+        } finally {
+            if (success == false) {
+                IOUtils.closeWhileHandlingException(this);
+            }
+        }
+    }
+
+    @Override
+    public KnnFieldVectorsWriter<?> addField(FieldInfo fieldInfo) throws IOException {
+        FlatFieldVectorsWriter<?> rawVectorDelegate = this.rawVectorDelegate.addField(fieldInfo);
+        if (fieldInfo.getVectorEncoding().equals(VectorEncoding.FLOAT32)) {
+            @SuppressWarnings("unchecked")
+            FlatFieldVectorsWriter<float[]> floatVectorsWriter = (FlatFieldVectorsWriter<float[]>) rawVectorDelegate;
+            fields.add(new FieldWriter(fieldInfo, floatVectorsWriter));
+        }
+        return rawVectorDelegate;
+    }
+
+    @Override
+    public void flush(int maxDoc, Sorter.DocMap sortMap) throws IOException {
+        rawVectorDelegate.flush(maxDoc, sortMap);
+        for (FieldWriter field : fields) {
+            final List<float[]> vectors = field.flatFieldVectorsWriter.getVectors();
+            final List<float[]> sortedVectors;
+            final int[] docs;
+            if (sortMap == null) {
+                sortedVectors = vectors;
+                docs = toArray(field.flatFieldVectorsWriter.getDocsWithFieldSet());
+            } else {
+                final int[] ordMap = new int[vectors.size()]; // new ord to old ord
+                DocsWithFieldSet newDocsWithField = new DocsWithFieldSet();
+                mapOldOrdToNewOrd(field.flatFieldVectorsWriter.getDocsWithFieldSet(), sortMap, null, ordMap, newDocsWithField);
+                sortedVectors = new ArrayList<>(ordMap.length);
+                for (int oldOrd : ordMap) {
+                    sortedVectors.add(vectors.get(oldOrd));
+                }
+                docs = toArray(newDocsWithField);
+            }
+            // after raw vectors are written, normalize vectors for clustering and quantization
+            if (field.fieldInfo.getVectorSimilarityFunction() == COSINE) {
+                for (float[] vector : vectors) {
+                    VectorUtil.l2normalize(vector);
+                }
+            }
+            FloatVectorValues vectorValues = FloatVectorValues.fromFloats(sortedVectors, field.fieldInfo.getVectorDimension());
+            writeField(field.fieldInfo, vectorValues, docs, List.of());
+        }
+    }
+
+    @Override
+    public void mergeOneField(FieldInfo fieldInfo, MergeState mergeState) throws IOException {
+        rawVectorDelegate.mergeOneField(fieldInfo, mergeState);
+        if (fieldInfo.getVectorEncoding().equals(VectorEncoding.FLOAT32) == false) {
+            return;
+        }
+        final List<float[]> seeds = mergedCentroids(mergeState, fieldInfo);
+        // k-means needs random access to the merged vectors, so they are copied to a temporary file first
+        final IndexOutput tempVectorData = segmentWriteState.directory.createTempOutput(
+            ivfVectorData.getName(),
+            "temp",
+            segmentWriteState.context
+        );
+        IndexInput vectorDataInput = null;
+        boolean success = false;
+        try {
+            FloatVectorValues floatVectorValues = KnnVectorsWriter.MergedVectorValues.mergeFloatVectorValues(fieldInfo, mergeState);
+            if (fieldInfo.getVectorSimilarityFunction() == COSINE) {
+                floatVectorValues = new ES816BinaryQuantizedVectorsWriter.NormalizedFloatVectorValues(floatVectorValues);
+            }
+            final ByteBuffer buffer = ByteBuffer.allocate(fieldInfo.getVectorDimension() * Float.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            int[] docs = new int[0];
+            int count = 0;
+            KnnVectorValues.DocIndexIterator iterator = floatVectorValues.iterator();
+            for (int doc = iterator.nextDoc(); doc != DocIdSetIterator.NO_MORE_DOCS; doc = iterator.nextDoc()) {
+                buffer.asFloatBuffer().put(floatVectorValues.vectorValue(iterator.index()));
+                tempVectorData.writeBytes(buffer.array(), buffer.array().length);
+                docs = ArrayUtil.grow(docs, count + 1);
+                docs[count++] = doc;
+            }
+            CodecUtil.writeFooter(tempVectorData);
+            IOUtils.close(tempVectorData);
+            vectorDataInput = segmentWriteState.directory.openInput(tempVectorData.getName(), segmentWriteState.context);
+            CodecUtil.retrieveChecksum(vectorDataInput);
+            FloatVectorValues mergedVectors = new OffHeapFloatVectorValues.DenseOffHeapVectorValues(
+                fieldInfo.getVectorDimension(),
+                count,
+                vectorDataInput,
+                fieldInfo.getVectorDimension() * Float.BYTES,
+                FlatVectorScorerUtil.getLucene99FlatVectorsScorer(),
+                fieldInfo.getVectorSimilarityFunction()
+            );
+            writeField(fieldInfo, mergedVectors, ArrayUtil.copyOfSubArray(docs, 0, count), seeds);
+            success = true;
+        } finally {
+            if (success) {
+                IOUtils.close(vectorDataInput);
+            } else {
+                IOUtils.closeWhileHandlingException(tempVectorData, vectorDataInput);
+            }
+            IOUtils.deleteFilesIgnoringExceptions(segmentWriteState.directory, tempVectorData.getName());
+        }
+    }
+
+    /**
+     * Clusters the vectors of a field and writes the clusters.
+     *
+     * @param vectors the vectors of the field, normalized if the similarity is {@link VectorSimilarityFunction#COSINE}
+     * @param docs the document of each vector, by ordinal
+     * @param seeds the centroids to start clustering from
+     */
+    private void writeField(FieldInfo fieldInfo, FloatVectorValues vectors, int[] docs, List<float[]> seeds) throws IOException {
+        final int size = docs.length;
+        final int numClusters = size == 0 ? 0 : 1 + (size - 1) / vectorsPerCluster;
+        if (segmentWriteState.infoStream.isEnabled(IVF_VECTOR_COMPONENT)) {
+            segmentWriteState.infoStream.message(IVF_VECTOR_COMPONENT, "Vectors' count:" + size + ", clusters' count:" + numClusters);
+        }
+        final VectorSimilarityFunction similarityFunction = fieldInfo.getVectorSimilarityFunction();
+        final float[][] centroids = numClusters == 0
+            ? new float[0][]
+            : IvfKMeans.train(vectors, numClusters, seeds, similarityFunction, KMEANS_SEED);
+
+        // assign each vector to its nearest centroid, the way searches rank centroids, and sort the ordinals by cluster, keeping the
+        // order of the documents in a cluster
+        final IvfKMeans.Assigner assigner = new IvfKMeans.Assigner(centroids, similarityFunction, KMEANS_SEED);
+        final int[] assignments = new int[size];
+        final int[] clusterStarts = new int[numClusters + 1];
+        for (int ord = 0; ord < size; ord++) {
+            assignments[ord] = assigner.nearest(vectors.vectorValue(ord));
+            clusterStarts[assignments[ord] + 1]++;
+        }
+        for (int c = 0; c < numClusters; c++) {
+            clusterStarts[c + 1] += clusterStarts[c];
+        }
+        final int[] ordsByCluster = new int[size];
+        final int[] nextIndex = ArrayUtil.copyOfSubArray(clusterStarts, 0, numClusters);
+        for (int ord = 0; ord < size; ord++) {
+            ordsByCluster[nextIndex[assignments[ord]]++] = ord;
+        }
+
+        final int dimension = fieldInfo.getVectorDimension();
+        final long centroidsOffset = ivfVectorData.alignFilePointer(Float.BYTES);
+        final ByteBuffer centroidBuffer = ByteBuffer.allocate(dimension * Float.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        for (float[] centroid : centroids) {
+            centroidBuffer.asFloatBuffer().put(centroid);
+            ivfVectorData.writeBytes(centroidBuffer.array(), centroidBuffer.array().length);
+        }
+
+        final BinaryQuantizer quantizer = new BinaryQuantizer(dimension, BQVectorUtils.discretize(dimension, 64), similarityFunction);
+        final byte[] binarized = new byte[BQVectorUtils.discretize(dimension, 64) / 8];
+        final int correctionsCount = similarityFunction != EUCLIDEAN ? 3 : 2;
+        final ByteBuffer correctionsBuffer = ByteBuffer.allocate(Float.BYTES * correctionsCount).order(ByteOrder.LITTLE_ENDIAN);
+        final long[] docsOffsets = new long[numClusters];
+        final long[] vectorsOffsets = new long[numClusters];
+        for (int c = 0; c < numClusters; c++) {
+            docsOffsets[c] = ivfVectorData.getFilePointer();
+            int previousDoc = 0;
+            for (int i = clusterStarts[c]; i < clusterStarts[c + 1]; i++) {
+                final int doc = docs[ordsByCluster[i]];
+                ivfVectorData.writeVInt(doc - previousDoc);
+                previousDoc = doc;
+            }
+            vectorsOffsets[c] = ivfVectorData.alignFilePointer(Float.BYTES);
+            for (int i = clusterStarts[c]; i < clusterStarts[c + 1]; i++) {
+                float[] corrections = quantizer.quantizeForIndex(vectors.vectorValue(ordsByCluster[i]), binarized, centroids[c]);
+                ivfVectorData.writeBytes(binarized, binarized.length);
+                for (float correction : corrections) {
+                    correctionsBuffer.putFloat(correction);
+                }
+                ivfVectorData.writeBytes(correctionsBuffer.array(), correctionsBuffer.array().length);
+                correctionsBuffer.rewind();
+            }
+        }
+
+        meta.writeInt(fieldInfo.number);
+        meta.writeInt(fieldInfo.getVectorEncoding().ordinal());
+        meta.writeInt(similarityFunction.ordinal());
+        meta.writeVInt(dimension);
+        meta.writeVInt(size);
+        meta.writeVInt(numClusters);
+        if (numClusters > 0) {
+            meta.writeVLong(centroidsOffset);
+            for (int c = 0; c < numClusters; c++) {
+                meta.writeVInt(clusterStarts[c + 1] - clusterStarts[c]);
+                meta.writeVLong(docsOffsets[c]);
+                meta.writeVLong(vectorsOffsets[c]);
+            }
+        }
+    }
+
+    private static int[] toArray(DocsWithFieldSet docsWithField) throws IOException {
+        final int[] docs = new int[docsWithField.cardinality()];
+        final DocIdSetIterator iterator = docsWithField.iterator();
+        int count = 0;
+        for (int doc = iterator.nextDoc(); doc != DocIdSetIterator.NO_MORE_DOCS; doc = iterator.nextDoc()) {
+            docs[count++] = doc;
+        }
+        return docs;
+    }
+
+    /**
+     * Collects the centroids of the segments being merged, which are good seeds for the clusters of the merged segment.
+     */
+    static List<float[]> mergedCentroids(MergeState mergeState, FieldInfo fieldInfo) throws IOException {
+        final List<float[]> centroids = new ArrayList<>();
+        for (KnnVectorsReader knnVectorsReader : mergeState.knnVectorsReaders) {
+            if (knnVectorsReader instanceof PerFieldKnnVectorsFormat.FieldsReader candidateReader) {
+                knnVectorsReader = candidateReader.getFieldReader(fieldInfo.name);
+            }
+            if (knnVectorsReader instanceof ES818IvfVectorsReader reader) {
+                centroids.addAll(reader.getCentroids(fieldInfo.name));
+            }
+        }
+        return centroids;
+    }
+
+    @Override
+    public void finish() throws IOException {
+        if (finished) {
+            throw new IllegalStateException("already finished");
+        }
+        finished = true;
+        rawVectorDelegate.finish();
+        if (meta != null) {
+            // write end of fields marker
+            meta.writeInt(-1);
+            CodecUtil.writeFooter(meta);
+        }
+        if (ivfVectorData != null) {
+            CodecUtil.writeFooter(ivfVectorData);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        IOUtils.close(meta, ivfVectorData, rawVectorDelegate);
+    }
+
+    @Override
+    public long ramBytesUsed() {
+        // the vectors of the fields are buffered by the delegate
+        return SHALLOW_RAM_BYTES_USED + rawVectorDelegate.ramBytesUsed();
+    }
+
+    private record FieldWriter(FieldInfo fieldInfo, FlatFieldVectorsWriter<float[]> flatFieldVectorsWriter) {}
+}
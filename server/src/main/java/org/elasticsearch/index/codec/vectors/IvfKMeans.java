@@ -0,0 +1,283 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+
+package org.elasticsearch.index.codec.vectors;
+
+import org.apache.lucene.index.FloatVectorValues;
+import org.apache.lucene.index.VectorSimilarityFunction;
+import org.apache.lucene.util.VectorUtil;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Trains the centroids of the clusters of an {@link ES818IvfVectorsFormat} field with k-means. Centroids are trained on a sample of the
+ * vectors, which keeps the cost of training bounded on large segments, and can be seeded with centroids that were trained before, like
+ * the ones of the segments being merged, so that a merge only needs to refine them.
+ * <p>
+ * Vectors are assigned to clusters and searches probe clusters with the same {@link #score}, so that a search first probes the clusters
+ * that its nearest neighbors were assigned to. For the similarities that assume unit vectors, the centroids are normalized after each
+ * iteration (spherical k-means), which makes this score rank them like the similarity does. The cost of assigning a vector grows with
+ * the square root of the number of clusters rather than linearly, see {@link Assigner}.
+ */
+final class IvfKMeans {
+
+    // the number of sampled vectors per cluster, beyond which the quality of the centroids barely improves
+    static final int SAMPLES_PER_CLUSTER = 256;
+    // the sample is copied on heap, so it is bounded by its size in bytes as well: 256MB is ~1M vectors of 64 dimensions
+    static final int MAX_SAMPLES = 1 << 20;
+    static final long MAX_SAMPLE_BYTES = 256L << 20;
+    static final int ITERATIONS = 8;
+    // beyond this many centroids, vectors are assigned through a layer of parent centroids rather than by scoring every centroid
+    static final int MIN_CENTROIDS_FOR_PARENTS = 256;
+    // the number of parents whose children are scored, which trades the cost of an assignment for its accuracy
+    static final int PROBED_PARENTS = 8;
+
+    private IvfKMeans() {}
+
+    /**
+     * Trains the centroids of {@code numClusters} clusters.
+     *
+     * @param vectors the vectors to cluster, normalized if the similarity is {@link VectorSimilarityFunction#COSINE}
+     * @param similarityFunction the similarity of the field, which decides how vectors are assigned to clusters, see {@link #score}
+     * @param numClusters the number of clusters, at most the number of vectors
+     * @param seeds centroids to start from, may be empty
+     */
+    static float[][] train(
+        FloatVectorValues vectors,
+        int numClusters,
+        List<float[]> seeds,
+        VectorSimilarityFunction similarityFunction,
+        long randomSeed
+    ) throws IOException {
+        assert numClusters > 0 && numClusters <= vectors.size();
+        final Random random = new Random(randomSeed);
+        final float[][] sample = sample(vectors, sampleSize(vectors.size(), numClusters, vectors.dimension()), random);
+        final float[][] centroids = new float[numClusters][];
+        // prefer the seeds, and use randomly picked samples as the centroids of the clusters that are left
+        final int numSeeds = Math.min(numClusters, seeds.size());
+        final int[] seedOrds = pick(seeds.size(), numSeeds, random);
+        for (int i = 0; i < numSeeds; i++) {
+            centroids[i] = seeds.get(seedOrds[i]).clone();
+            if (normalizesCentroids(similarityFunction)) {
+                VectorUtil.l2normalize(centroids[i], false);
+            }
+        }
+        final int[] sampleOrds = pick(sample.length, numClusters - numSeeds, random);
+        for (int i = numSeeds; i < numClusters; i++) {
+            centroids[i] = sample[sampleOrds[i - numSeeds]].clone();
+        }
+
+        final int dims = vectors.dimension();
+        final int[] assignments = new int[sample.length];
+        final int[] counts = new int[numClusters];
+        for (int iteration = 0; iteration < ITERATIONS; iteration++) {
+            boolean changed = false;
+            final Assigner assigner = new Assigner(centroids, similarityFunction, random.nextLong());
+            for (int i = 0; i < sample.length; i++) {
+                final int nearest = assigner.nearest(sample[i]);
+                if (iteration == 0 || nearest != assignments[i]) {
+                    changed = true;
+                    assignments[i] = nearest;
+                }
+            }
+            if (changed == false) {
+                break;
+            }
+            Arrays.fill(counts, 0);
+            for (float[] centroid : centroids) {
+                Arrays.fill(centroid, 0);
+            }
+            for (int i = 0; i < sample.length; i++) {
+                final float[] centroid = centroids[assignments[i]];
+                for (int d = 0; d < dims; d++) {
+                    centroid[d] += sample[i][d];
+                }
+                counts[assignments[i]]++;
+            }
+            for (int c = 0; c < numClusters; c++) {
+                if (counts[c] == 0) {
+                    // an empty cluster would never be probed, give it a chance to take over part of a large cluster
+                    System.arraycopy(sample[random.nextInt(sample.length)], 0, centroids[c], 0, dims);
+                } else {
+                    for (int d = 0; d < dims; d++) {
+                        centroids[c][d] /= counts[c];
+                    }
+                    if (normalizesCentroids(similarityFunction)) {
+                        VectorUtil.l2normalize(centroids[c], false);
+                    }
+                }
+            }
+        }
+        return centroids;
+    }
+
+    /**
+     * Returns the number of vectors to train {@code numClusters} centroids on, which grows with the number of clusters up to a bound.
+     */
+    static int sampleSize(int numVectors, int numClusters, int dimension) {
+        final long maxSamples = Math.min(MAX_SAMPLES, MAX_SAMPLE_BYTES / ((long) dimension * Float.BYTES));
+        // every cluster needs a sample to start from
+        final long targetSampleSize = Math.max(numClusters, Math.min(maxSamples, (long) numClusters * SAMPLES_PER_CLUSTER));
+        return (int) Math.min(numVectors, targetSampleSize);
+    }
+
+    /**
+     * Whether the centroids are normalized, which is the case for the similarities that assume unit vectors.
+     */
+    static boolean normalizesCentroids(VectorSimilarityFunction similarityFunction) {
+        return similarityFunction == VectorSimilarityFunction.COSINE || similarityFunction == VectorSimilarityFunction.DOT_PRODUCT;
+    }
+
+    /**
+     * Scores how close a vector is to a centroid, the higher the closer. The vector must be normalized if the centroids are.
+     */
+    static float score(VectorSimilarityFunction similarityFunction, float[] vector, float[] centroid) {
+        return switch (similarityFunction) {
+            // both are unit vectors, so the dot product ranks the centroids like the similarity does
+            case COSINE, DOT_PRODUCT -> VectorUtil.dotProduct(vector, centroid);
+            // the inner product is no distance: a centroid with a large norm would attract most vectors, whatever their direction
+            case EUCLIDEAN, MAXIMUM_INNER_PRODUCT -> -VectorUtil.squareDistance(vector, centroid);
+        };
+    }
+
+    /**
+     * Returns the index of the centroid with the highest {@link #score} for the vector.
+     */
+    static int nearest(float[] vector, float[][] centroids, VectorSimilarityFunction similarityFunction) {
+        int nearest = 0;
+        float maxScore = Float.NEGATIVE_INFINITY;
+        for (int c = 0; c < centroids.length; c++) {
+            final float score = score(similarityFunction, vector, centroids[c]);
+            if (score > maxScore) {
+                maxScore = score;
+                nearest = c;
+            }
+        }
+        return nearest;
+    }
+
+    /**
+     * Assigns vectors to the centroid with the highest {@link #score}. With many centroids, scoring them all for every vector would
+     * make the cost of clustering a segment grow with the square of its size, so the centroids are clustered themselves in about
+     * {@code sqrt(centroids)} parents, and a vector is only scored against the children of the {@link #PROBED_PARENTS} parents it
+     * scores highest with. This may miss the nearest centroid of a vector which lies at the border of several parents, for a nearby
+     * one. Not thread safe.
+     */
+    static final class Assigner {
+        private final float[][] centroids;
+        private final VectorSimilarityFunction similarityFunction;
+        // null if all centroids are scored
+        private final float[][] parents;
+        private final int[][] children;
+        private final float[] parentScores;
+        private final int[] probed;
+
+        Assigner(float[][] centroids, VectorSimilarityFunction similarityFunction, long randomSeed) throws IOException {
+            this.centroids = centroids;
+            this.similarityFunction = similarityFunction;
+            if (centroids.length < MIN_CENTROIDS_FOR_PARENTS) {
+                this.parents = null;
+                this.children = null;
+                this.parentScores = null;
+                this.probed = null;
+                return;
+            }
+            final int numParents = (int) Math.ceil(Math.sqrt(centroids.length));
+            final FloatVectorValues centroidValues = FloatVectorValues.fromFloats(Arrays.asList(centroids), centroids[0].length);
+            this.parents = train(centroidValues, numParents, List.of(), similarityFunction, randomSeed);
+            final int[] parentOfCentroid = new int[centroids.length];
+            final int[] childCounts = new int[numParents];
+            for (int c = 0; c < centroids.length; c++) {
+                parentOfCentroid[c] = IvfKMeans.nearest(centroids[c], parents, similarityFunction);
+                childCounts[parentOfCentroid[c]]++;
+            }
+            this.children = new int[numParents][];
+            for (int p = 0; p < numParents; p++) {
+                children[p] = new int[childCounts[p]];
+            }
+            Arrays.fill(childCounts, 0);
+            for (int c = 0; c < centroids.length; c++) {
+                final int parent = parentOfCentroid[c];
+                children[parent][childCounts[parent]++] = c;
+            }
+            this.parentScores = new float[numParents];
+            this.probed = new int[Math.min(PROBED_PARENTS, numParents)];
+        }
+
+        /**
+         * Returns the index of the centroid that the vector is assigned to.
+         */
+        int nearest(float[] vector) {
+            if (parents == null) {
+                return IvfKMeans.nearest(vector, centroids, similarityFunction);
+            }
+            // keep the indices of the parents with the highest scores, sorted by descending score
+            int numProbed = 0;
+            for (int p = 0; p < parents.length; p++) {
+                final float score = score(similarityFunction, vector, parents[p]);
+                parentScores[p] = score;
+                if (numProbed < probed.length || score > parentScores[probed[numProbed - 1]]) {
+                    int i = numProbed < probed.length ? numProbed++ : numProbed - 1;
+                    while (i > 0 && parentScores[probed[i - 1]] < score) {
+                        probed[i] = probed[i - 1];
+                        i--;
+                    }
+                    probed[i] = p;
+                }
+            }
+            int nearest = -1;
+            float maxScore = Float.NEGATIVE_INFINITY;
+            for (int i = 0; i < numProbed; i++) {
+                for (int c : children[probed[i]]) {
+                    final float score = score(similarityFunction, vector, centroids[c]);
+                    if (nearest == -1 || score > maxScore) {
+                        maxScore = score;
+                        nearest = c;
+                    }
+                }
+            }
+            // the probed parents may all be childless
+            return nearest == -1 ? IvfKMeans.nearest(vector, centroids, similarityFunction) : nearest;
+        }
+    }
+
+    private static float[][] sample(FloatVectorValues vectors, int sampleSize, Random random) throws IOException {
+        final int[] ords = pick(vectors.size(), sampleSize, random);
+        // reading the vectors in the order they are stored is friendlier to vectors that are read from disk
+        Arrays.sort(ords);
+        final float[][] sample = new float[sampleSize][];
+        for (int i = 0; i < sampleSize; i++) {
+            sample[i] = vectors.vectorValue(ords[i]).clone();
+        }
+        return sample;
+    }
+
+    /**
+     * Picks {@code count} distinct random numbers in {@code [0, bound)}, with Floyd's algorithm.
+     */
+    private static int[] pick(int bound, int count, Random random) {
+        assert count <= bound;
+        if (count == bound) {
+            final int[] all = new int[bound];
+            Arrays.setAll(all, i -> i);
+            return all;
+        }
+        final Set<Integer> picked = new HashSet<>();
+        for (int i = bound - count; i < bound; i++) {
+            final int candidate = random.nextInt(i + 1);
+            picked.add(picked.contains(candidate) ? i : candidate);
+        }
+        return picked.stream().mapToInt(Integer::intValue).toArray();
+    }
+}
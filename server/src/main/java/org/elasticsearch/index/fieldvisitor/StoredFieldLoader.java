@@ -135,6 +135,12 @@ public abstract class StoredFieldLoader {
             return sequentialReader(ctx);
         }
         StoredFields storedFields = leafReader.storedFields();
+        if (docs != null && docs.length > 1) {
+            // let the directory read ahead the blocks of all the documents we are about to load, rather than blocking on each in turn
+            for (int doc : docs) {
+                storedFields.prefetch(doc);
+            }
+        }
         return storedFields::document;
     }
 
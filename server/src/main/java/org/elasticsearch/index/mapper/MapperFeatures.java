@@ -14,6 +14,7 @@ import org.elasticsearch.features.NodeFeature;
 import org.elasticsearch.index.IndexSettings;
 import org.elasticsearch.index.mapper.flattened.FlattenedFieldMapper;
 import org.elasticsearch.index.mapper.vectors.DenseVectorFieldMapper;
+import org.elasticsearch.index.mapper.vectors.MultiDenseVectorFieldMapper;
 
 import java.util.Set;
 
@@ -53,7 +54,9 @@ public class MapperFeatures implements FeatureSpecification {
             SourceFieldMapper.SYNTHETIC_SOURCE_COPY_TO_INSIDE_OBJECTS_FIX,
             TimeSeriesRoutingHashFieldMapper.TS_ROUTING_HASH_FIELD_PARSES_BYTES_REF,
             FlattenedFieldMapper.IGNORE_ABOVE_WITH_ARRAYS_SUPPORT,
-            DenseVectorFieldMapper.BBQ_FORMAT
+            DenseVectorFieldMapper.BBQ_FORMAT,
+            DenseVectorFieldMapper.BBQ_IVF_FORMAT,
+            MultiDenseVectorFieldMapper.MULTI_DENSE_VECTOR_FIELD
         );
     }
 
@@ -10,14 +10,15 @@
 package org.elasticsearch.index.mapper;
 
 import org.apache.lucene.index.LeafReader;
-import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.common.io.stream.BytesStreamOutput;
+import org.elasticsearch.core.Streams;
 import org.elasticsearch.core.TimeValue;
 import org.elasticsearch.index.fieldvisitor.LeafStoredFieldLoader;
 import org.elasticsearch.search.lookup.Source;
 import org.elasticsearch.xcontent.XContentBuilder;
+import org.elasticsearch.xcontent.XContentType;
 import org.elasticsearch.xcontent.json.JsonXContent;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -166,6 +167,12 @@ public interface SourceLoader {
             private final SyntheticFieldLoader loader;
             private final SyntheticFieldLoader.DocValuesLoader docValuesLoader;
             private final Map<String, SyntheticFieldLoader.StoredFieldLoader> storedFieldLoaders;
+            /**
+             * Buffer reused by every document loaded from this leaf so that each {@code _source}
+             * doesn't have to grow a fresh buffer from scratch. Sources are copied out of it into
+             * an exactly sized array.
+             */
+            private final BytesStreamOutput buffer = new BytesStreamOutput();
 
             private SyntheticLeaf(SyntheticFieldLoader loader, SyntheticFieldLoader.DocValuesLoader docValuesLoader) {
                 this.loader = loader;
@@ -177,10 +184,11 @@ public interface SourceLoader {
 
             @Override
             public Source source(LeafStoredFieldLoader storedFieldLoader, int docId) throws IOException {
-                try (XContentBuilder b = new XContentBuilder(JsonXContent.jsonXContent, new ByteArrayOutputStream())) {
+                buffer.reset();
+                try (XContentBuilder b = new XContentBuilder(JsonXContent.jsonXContent, Streams.noCloseStream(buffer))) {
                     write(storedFieldLoader, docId, b);
-                    return Source.fromBytes(BytesReference.bytes(b), b.contentType());
                 }
+                return Source.fromBytes(buffer.copyBytes(), XContentType.JSON);
             }
 
             @Override
@@ -48,6 +48,7 @@ import org.elasticsearch.index.codec.vectors.ES815BitFlatVectorFormat;
 import org.elasticsearch.index.codec.vectors.ES815HnswBitVectorsFormat;
 import org.elasticsearch.index.codec.vectors.ES816BinaryQuantizedVectorsFormat;
 import org.elasticsearch.index.codec.vectors.ES816HnswBinaryQuantizedVectorsFormat;
+import org.elasticsearch.index.codec.vectors.ES818IvfVectorsFormat;
 import org.elasticsearch.index.fielddata.FieldDataContext;
 import org.elasticsearch.index.fielddata.IndexFieldData;
 import org.elasticsearch.index.mapper.ArraySourceValueFetcher;
@@ -87,6 +88,7 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.ExecutorService;
 import java.util.function.Function;
 import java.util.function.Supplier;
 import java.util.stream.Stream;
@@ -110,6 +112,7 @@ public class DenseVectorFieldMapper extends FieldMapper {
     public static final NodeFeature INT4_QUANTIZATION = new NodeFeature("mapper.vectors.int4_quantization");
     public static final NodeFeature BIT_VECTORS = new NodeFeature("mapper.vectors.bit_vectors");
     public static final NodeFeature BBQ_FORMAT = new NodeFeature("mapper.vectors.bbq");
+    public static final NodeFeature BBQ_IVF_FORMAT = new NodeFeature("mapper.vectors.bbq_ivf");
 
     public static final IndexVersion MAGNITUDE_STORED_INDEX_VERSION = IndexVersions.V_7_5_0;
     public static final IndexVersion INDEXED_BY_DEFAULT_INDEX_VERSION = IndexVersions.FIRST_DETACHED_INDEX_VERSION;
@@ -1155,7 +1158,7 @@ public class DenseVectorFieldMapper extends FieldMapper {
             this.type = type;
         }
 
-        abstract KnnVectorsFormat getVectorsFormat(ElementType elementType);
+        abstract KnnVectorsFormat getVectorsFormat(ElementType elementType, int numMergeWorkers, ExecutorService mergeExec);
 
         final void validateElementType(ElementType elementType) {
             if (type.supportsElementType(elementType) == false) {
@@ -1387,6 +1390,28 @@ public class DenseVectorFieldMapper extends FieldMapper {
                 return elementType == ElementType.FLOAT;
             }
 
+            @Override
+            public boolean supportsDimension(int dims) {
+                return dims >= BBQ_MIN_DIMS;
+            }
+        },
+        BBQ_IVF("bbq_ivf") {
+            @Override
+            public IndexOptions parseIndexOptions(String fieldName, Map<String, ?> indexOptionsMap) {
+                Object clusterSizeNode = indexOptionsMap.remove("cluster_size");
+                if (clusterSizeNode == null) {
+                    clusterSizeNode = ES818IvfVectorsFormat.DEFAULT_VECTORS_PER_CLUSTER;
+                }
+                int clusterSize = XContentMapValues.nodeIntegerValue(clusterSizeNode);
+                MappingParser.checkNoRemainingFields(fieldName, indexOptionsMap);
+                return new BBQIvfIndexOptions(clusterSize);
+            }
+
+            @Override
+            public boolean supportsElementType(ElementType elementType) {
+                return elementType == ElementType.FLOAT;
+            }
+
             @Override
             public boolean supportsDimension(int dims) {
                 return dims >= BBQ_MIN_DIMS;
@@ -1435,7 +1460,7 @@ public class DenseVectorFieldMapper extends FieldMapper {
         }
 
         @Override
-        KnnVectorsFormat getVectorsFormat(ElementType elementType) {
+        KnnVectorsFormat getVectorsFormat(ElementType elementType, int numMergeWorkers, ExecutorService mergeExec) {
             assert elementType == ElementType.FLOAT;
             return new ES813Int8FlatVectorFormat(confidenceInterval, 7, false);
         }
@@ -1476,7 +1501,7 @@ public class DenseVectorFieldMapper extends FieldMapper {
         }
 
         @Override
-        KnnVectorsFormat getVectorsFormat(ElementType elementType) {
+        KnnVectorsFormat getVectorsFormat(ElementType elementType, int numMergeWorkers, ExecutorService mergeExec) {
             if (elementType.equals(ElementType.BIT)) {
                 return new ES815BitFlatVectorFormat();
             }
@@ -1514,9 +1539,9 @@ public class DenseVectorFieldMapper extends FieldMapper {
         }
 
         @Override
-        public KnnVectorsFormat getVectorsFormat(ElementType elementType) {
+        public KnnVectorsFormat getVectorsFormat(ElementType elementType, int numMergeWorkers, ExecutorService mergeExec) {
             assert elementType == ElementType.FLOAT;
-            return new ES814HnswScalarQuantizedVectorsFormat(m, efConstruction, confidenceInterval, 4, true);
+            return new ES814HnswScalarQuantizedVectorsFormat(m, efConstruction, confidenceInterval, 4, true, numMergeWorkers, mergeExec);
         }
 
         @Override
@@ -1578,7 +1603,7 @@ public class DenseVectorFieldMapper extends FieldMapper {
         }
 
         @Override
-        public KnnVectorsFormat getVectorsFormat(ElementType elementType) {
+        public KnnVectorsFormat getVectorsFormat(ElementType elementType, int numMergeWorkers, ExecutorService mergeExec) {
             assert elementType == ElementType.FLOAT;
             return new ES813Int8FlatVectorFormat(confidenceInterval, 4, true);
         }
@@ -1634,9 +1659,9 @@ public class DenseVectorFieldMapper extends FieldMapper {
         }
 
         @Override
-        public KnnVectorsFormat getVectorsFormat(ElementType elementType) {
+        public KnnVectorsFormat getVectorsFormat(ElementType elementType, int numMergeWorkers, ExecutorService mergeExec) {
             assert elementType == ElementType.FLOAT;
-            return new ES814HnswScalarQuantizedVectorsFormat(m, efConstruction, confidenceInterval, 7, false);
+            return new ES814HnswScalarQuantizedVectorsFormat(m, efConstruction, confidenceInterval, 7, false, numMergeWorkers, mergeExec);
         }
 
         @Override
@@ -1707,11 +1732,11 @@ public class DenseVectorFieldMapper extends FieldMapper {
         }
 
         @Override
-        public KnnVectorsFormat getVectorsFormat(ElementType elementType) {
+        public KnnVectorsFormat getVectorsFormat(ElementType elementType, int numMergeWorkers, ExecutorService mergeExec) {
             if (elementType == ElementType.BIT) {
-                return new ES815HnswBitVectorsFormat(m, efConstruction);
+                return new ES815HnswBitVectorsFormat(m, efConstruction, numMergeWorkers, mergeExec);
             }
-            return new Lucene99HnswVectorsFormat(m, efConstruction, 1, null);
+            return new Lucene99HnswVectorsFormat(m, efConstruction, numMergeWorkers, mergeExec);
         }
 
         @Override
@@ -1767,9 +1792,9 @@ public class DenseVectorFieldMapper extends FieldMapper {
         }
 
         @Override
-        KnnVectorsFormat getVectorsFormat(ElementType elementType) {
+        KnnVectorsFormat getVectorsFormat(ElementType elementType, int numMergeWorkers, ExecutorService mergeExec) {
             assert elementType == ElementType.FLOAT;
-            return new ES816HnswBinaryQuantizedVectorsFormat(m, efConstruction);
+            return new ES816HnswBinaryQuantizedVectorsFormat(m, efConstruction, numMergeWorkers, mergeExec);
         }
 
         @Override
@@ -1815,7 +1840,7 @@ public class DenseVectorFieldMapper extends FieldMapper {
         }
 
         @Override
-        KnnVectorsFormat getVectorsFormat(ElementType elementType) {
+        KnnVectorsFormat getVectorsFormat(ElementType elementType, int numMergeWorkers, ExecutorService mergeExec) {
             assert elementType == ElementType.FLOAT;
             return new ES816BinaryQuantizedVectorsFormat();
         }
@@ -1852,6 +1877,65 @@ public class DenseVectorFieldMapper extends FieldMapper {
         }
     }
 
+    static class BBQIvfIndexOptions extends IndexOptions {
+        private final int clusterSize;
+
+        BBQIvfIndexOptions(int clusterSize) {
+            super(VectorIndexType.BBQ_IVF);
+            if (clusterSize < ES818IvfVectorsFormat.MIN_VECTORS_PER_CLUSTER
+                || clusterSize > ES818IvfVectorsFormat.MAX_VECTORS_PER_CLUSTER) {
+                throw new IllegalArgumentException(
+                    "cluster_size must be between "
+                        + ES818IvfVectorsFormat.MIN_VECTORS_PER_CLUSTER
+                        + " and "
+                        + ES818IvfVectorsFormat.MAX_VECTORS_PER_CLUSTER
+                        + ", got: "
+                        + clusterSize
+                );
+            }
+            this.clusterSize = clusterSize;
+        }
+
+        @Override
+        KnnVectorsFormat getVectorsFormat(ElementType elementType, int numMergeWorkers, ExecutorService mergeExec) {
+            assert elementType == ElementType.FLOAT;
+            return new ES818IvfVectorsFormat(clusterSize);
+        }
+
+        @Override
+        boolean updatableTo(IndexOptions update) {
+            return update.type.equals(this.type);
+        }
+
+        @Override
+        boolean doEquals(IndexOptions other) {
+            BBQIvfIndexOptions that = (BBQIvfIndexOptions) other;
+            return clusterSize == that.clusterSize;
+        }
+
+        @Override
+        int doHashCode() {
+            return Objects.hash(clusterSize);
+        }
+
+        @Override
+        public XContentBuilder toXContent(XContentBuilder builder, Params params) throws IOException {
+            builder.startObject();
+            builder.field("type", type);
+            builder.field("cluster_size", clusterSize);
+            builder.endObject();
+            return builder;
+        }
+
+        @Override
+        public void validateDimension(int dim) {
+            if (type.supportsDimension(dim)) {
+                return;
+            }
+            throw new IllegalArgumentException(type.name + " does not support dimensions fewer than " + BBQ_MIN_DIMS + "; provided=" + dim);
+        }
+    }
+
     public static final TypeParser PARSER = new TypeParser(
         (n, c) -> new Builder(n, c.indexVersionCreated()),
         notInMultiFields(CONTENT_TYPE)
@@ -2262,15 +2346,24 @@ public class DenseVectorFieldMapper extends FieldMapper {
     }
 
     /**
+     * @param numMergeWorkers the number of threads that insert vectors into the HNSW graph while merging
+     * @param mergeExec the executor that runs these threads, {@code null} if and only if {@code numMergeWorkers} is 1
      * @return the custom kNN vectors format that is configured for this field or
      * {@code null} if the default format should be used.
      */
-    public KnnVectorsFormat getKnnVectorsFormatForField(KnnVectorsFormat defaultFormat) {
+    public KnnVectorsFormat getKnnVectorsFormatForField(KnnVectorsFormat defaultFormat, int numMergeWorkers, ExecutorService mergeExec) {
         final KnnVectorsFormat format;
         if (indexOptions == null) {
-            format = fieldType().elementType == ElementType.BIT ? new ES815HnswBitVectorsFormat() : defaultFormat;
+            format = fieldType().elementType == ElementType.BIT
+                ? new ES815HnswBitVectorsFormat(
+                    Lucene99HnswVectorsFormat.DEFAULT_MAX_CONN,
+                    Lucene99HnswVectorsFormat.DEFAULT_BEAM_WIDTH,
+                    numMergeWorkers,
+                    mergeExec
+                )
+                : defaultFormat;
         } else {
-            format = indexOptions.getVectorsFormat(fieldType().elementType);
+            format = indexOptions.getVectorsFormat(fieldType().elementType, numMergeWorkers, mergeExec);
         }
         // It's legal to reuse the same format name as this is the same on-disk format.
         return new KnnVectorsFormat(format.getName()) {
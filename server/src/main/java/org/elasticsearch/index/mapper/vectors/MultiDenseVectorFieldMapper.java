@@ -0,0 +1,271 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+
+package org.elasticsearch.index.mapper.vectors;
+
+import org.apache.lucene.document.BinaryDocValuesField;
+import org.apache.lucene.search.FieldExistsQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.util.BytesRef;
+import org.elasticsearch.common.xcontent.support.XContentMapValues;
+import org.elasticsearch.features.NodeFeature;
+import org.elasticsearch.index.fielddata.FieldDataContext;
+import org.elasticsearch.index.fielddata.IndexFieldData;
+import org.elasticsearch.index.mapper.ArraySourceValueFetcher;
+import org.elasticsearch.index.mapper.DocumentParserContext;
+import org.elasticsearch.index.mapper.FieldMapper;
+import org.elasticsearch.index.mapper.MappedFieldType;
+import org.elasticsearch.index.mapper.MapperBuilderContext;
+import org.elasticsearch.index.mapper.MapperParsingException;
+import org.elasticsearch.index.mapper.SimpleMappedFieldType;
+import org.elasticsearch.index.mapper.TextSearchInfo;
+import org.elasticsearch.index.mapper.ValueFetcher;
+import org.elasticsearch.index.query.SearchExecutionContext;
+import org.elasticsearch.search.DocValueFormat;
+import org.elasticsearch.search.aggregations.support.CoreValuesSourceType;
+import org.elasticsearch.xcontent.XContentBuilder;
+import org.elasticsearch.xcontent.XContentParser.Token;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.time.ZoneId;
+import java.util.Map;
+
+import static org.elasticsearch.index.mapper.vectors.DenseVectorFieldMapper.MAX_DIMS_COUNT;
+
+/**
+ * A {@link FieldMapper} for documents made of several vectors of floats, like the per-token embeddings of late interaction models.
+ * All the vectors of a document are stored one after the other in a single binary doc value, so that scoring a document against
+ * several query vectors, like {@code maxSimDotProduct} does in scripts, reads them in one go rather than through one nested
+ * document per vector. The vectors are not indexed, and are meant to rescore the hits of another query.
+ */
+public class MultiDenseVectorFieldMapper extends FieldMapper {
+
+    public static final String CONTENT_TYPE = "multi_dense_vector";
+    public static final NodeFeature MULTI_DENSE_VECTOR_FIELD = new NodeFeature("mapper.vectors.multi_dense_vector");
+
+    private static MultiDenseVectorFieldMapper toType(FieldMapper in) {
+        return (MultiDenseVectorFieldMapper) in;
+    }
+
+    public static class Builder extends FieldMapper.Builder {
+
+        private final Parameter<Integer> dims = new Parameter<>("dims", false, () -> null, (n, c, o) -> {
+            if (o instanceof Integer == false) {
+                throw new MapperParsingException("Property [dims] on field [" + n + "] must be an integer but got [" + o + "]");
+            }
+            return XContentMapValues.nodeIntegerValue(o);
+        }, m -> toType(m).fieldType().dims, XContentBuilder::field, Object::toString).addValidator(dims -> {
+            if (dims == null) {
+                throw new MapperParsingException("Property [dims] on field [" + leafName() + "] is required");
+            }
+            if (dims < 1 || dims > MAX_DIMS_COUNT) {
+                throw new MapperParsingException(
+                    "The number of dimensions should be in the range [1, " + MAX_DIMS_COUNT + "] but was [" + dims + "]"
+                );
+            }
+        });
+        private final Parameter<Map<String, String>> meta = Parameter.metaParam();
+
+        public Builder(String name) {
+            super(name);
+        }
+
+        @Override
+        protected Parameter<?>[] getParameters() {
+            return new Parameter<?>[] { dims, meta };
+        }
+
+        @Override
+        public MultiDenseVectorFieldMapper build(MapperBuilderContext context) {
+            return new MultiDenseVectorFieldMapper(
+                leafName(),
+                new MultiDenseVectorFieldType(context.buildFullName(leafName()), dims.getValue(), meta.getValue()),
+                builderParams(this, context)
+            );
+        }
+    }
+
+    public static final TypeParser PARSER = new TypeParser((n, c) -> new Builder(n), notInMultiFields(CONTENT_TYPE));
+
+    public static final class MultiDenseVectorFieldType extends SimpleMappedFieldType {
+        private final int dims;
+
+        public MultiDenseVectorFieldType(String name, int dims, Map<String, String> meta) {
+            super(name, false, false, true, TextSearchInfo.NONE, meta);
+            this.dims = dims;
+        }
+
+        public int getVectorDimensions() {
+            return dims;
+        }
+
+        @Override
+        public String typeName() {
+            return CONTENT_TYPE;
+        }
+
+        @Override
+        public ValueFetcher valueFetcher(SearchExecutionContext context, String format) {
+            if (format != null) {
+                throw new IllegalArgumentException("Field [" + name() + "] of type [" + typeName() + "] doesn't support formats.");
+            }
+            return new ArraySourceValueFetcher(name(), context) {
+                @Override
+                protected Object parseSourceValue(Object value) {
+                    return value;
+                }
+            };
+        }
+
+        @Override
+        public DocValueFormat docValueFormat(String format, ZoneId timeZone) {
+            throw new IllegalArgumentException(
+                "Field [" + name() + "] of type [" + typeName() + "] doesn't support docvalue_fields or aggregations"
+            );
+        }
+
+        @Override
+        public boolean isAggregatable() {
+            return false;
+        }
+
+        @Override
+        public IndexFieldData.Builder fielddataBuilder(FieldDataContext fieldDataContext) {
+            return new MultiVectorIndexFieldData.Builder(name(), CoreValuesSourceType.KEYWORD, dims);
+        }
+
+        @Override
+        public Query existsQuery(SearchExecutionContext context) {
+            return new FieldExistsQuery(name());
+        }
+
+        @Override
+        public Query termQuery(Object value, SearchExecutionContext context) {
+            throw new IllegalArgumentException("Field [" + name() + "] of type [" + typeName() + "] doesn't support term queries");
+        }
+    }
+
+    private MultiDenseVectorFieldMapper(String simpleName, MappedFieldType fieldType, BuilderParams builderParams) {
+        super(simpleName, fieldType, builderParams);
+    }
+
+    @Override
+    public MultiDenseVectorFieldType fieldType() {
+        return (MultiDenseVectorFieldType) super.fieldType();
+    }
+
+    @Override
+    public boolean parsesArrayValue() {
+        return true;
+    }
+
+    @Override
+    public void parse(DocumentParserContext context) throws IOException {
+        if (context.doc().getByKey(fieldType().name()) != null) {
+            throw new IllegalArgumentException(
+                "Field ["
+                    + fullPath()
+                    + "] of type ["
+                    + typeName()
+                    + "] doesn't support indexing multiple values for the same field in the same document"
+            );
+        }
+        if (Token.VALUE_NULL == context.parser().currentToken()) {
+            return;
+        }
+        if (context.parser().currentToken() != Token.START_ARRAY) {
+            throw new IllegalArgumentException(notAnArrayOfVectors(context));
+        }
+        final int dims = fieldType().dims;
+        ByteBuffer buffer = ByteBuffer.allocate(dims * Float.BYTES * 4).order(ByteOrder.LITTLE_ENDIAN);
+        int numVectors = 0;
+        for (Token token = context.parser().nextToken(); token != Token.END_ARRAY; token = context.parser().nextToken()) {
+            if (token != Token.START_ARRAY) {
+                throw new IllegalArgumentException(notAnArrayOfVectors(context));
+            }
+            if (buffer.remaining() < dims * Float.BYTES) {
+                buffer = ByteBuffer.allocate(buffer.capacity() * 2).order(ByteOrder.LITTLE_ENDIAN).put(buffer.flip());
+            }
+            int dim = 0;
+            for (token = context.parser().nextToken(); token != Token.END_ARRAY; token = context.parser().nextToken()) {
+                if (dim == dims) {
+                    throw new IllegalArgumentException(dimensionMismatch(context, numVectors));
+                }
+                final float value = context.parser().floatValue(true);
+                if (Float.isFinite(value) == false) {
+                    throw new IllegalArgumentException(
+                        "The ["
+                            + typeName()
+                            + "] field ["
+                            + fullPath()
+                            + "] in doc ["
+                            + context.documentDescription()
+                            + "] has a non finite value ["
+                            + value
+                            + "] in vector ["
+                            + numVectors
+                            + "]"
+                    );
+                }
+                buffer.putFloat(value);
+                dim++;
+            }
+            if (dim != dims) {
+                throw new IllegalArgumentException(dimensionMismatch(context, numVectors));
+            }
+            numVectors++;
+        }
+        if (numVectors == 0) {
+            return;
+        }
+        final BytesRef vectors = new BytesRef(buffer.array(), 0, buffer.position());
+        context.doc().addWithKey(fieldType().name(), new BinaryDocValuesField(fieldType().name(), vectors));
+    }
+
+    private String notAnArrayOfVectors(DocumentParserContext context) {
+        return "The ["
+            + typeName()
+            + "] field ["
+            + fullPath()
+            + "] in doc ["
+            + context.documentDescription()
+            + "] must be an array of vectors";
+    }
+
+    private String dimensionMismatch(DocumentParserContext context, int vector) {
+        return "The ["
+            + typeName()
+            + "] field ["
+            + fullPath()
+            + "] in doc ["
+            + context.documentDescription()
+            + "] has a vector ["
+            + vector
+            + "] of a different number of dimensions than defined in the mapping ["
+            + fieldType().dims
+            + "]";
+    }
+
+    @Override
+    protected void parseCreateField(DocumentParserContext context) {
+        throw new AssertionError("parse is implemented directly");
+    }
+
+    @Override
+    protected String contentType() {
+        return CONTENT_TYPE;
+    }
+
+    @Override
+    public FieldMapper.Builder getMergeBuilder() {
+        return new Builder(leafName()).init(this);
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+
+package org.elasticsearch.index.mapper.vectors;
+
+import org.elasticsearch.index.fielddata.ScriptDocValues;
+import org.elasticsearch.script.field.vectors.MultiDenseVectorDocValuesField;
+
+import java.util.Arrays;
+
+public class MultiDenseVectorScriptDocValues extends ScriptDocValues<float[]> {
+
+    private final int dims;
+    private final MultiDenseVectorDocValuesField field;
+
+    public MultiDenseVectorScriptDocValues(MultiDenseVectorDocValuesField field, int dims) {
+        super(field);
+        this.field = field;
+        this.dims = dims;
+    }
+
+    public int dims() {
+        return dims;
+    }
+
+    /**
+     * Get a copy of the vectors of the document, one after the other, as a single array of {@code size() * dims()} floats. The field
+     * decodes the vectors of all documents into the same array, so scripts can't modify it, nor keep it across documents.
+     */
+    public float[] getVectorValues() {
+        if (field.isEmpty()) {
+            throw new IllegalArgumentException(DenseVectorScriptDocValues.MISSING_VECTOR_FIELD_MESSAGE);
+        }
+        return Arrays.copyOf(field.vectorValues(), field.size() * dims);
+    }
+
+    @Override
+    public float[] get(int index) {
+        if (field.isEmpty()) {
+            throw new IllegalArgumentException(DenseVectorScriptDocValues.MISSING_VECTOR_FIELD_MESSAGE);
+        }
+        return field.getInternal(index);
+    }
+
+    @Override
+    public int size() {
+        return field.size();
+    }
+}
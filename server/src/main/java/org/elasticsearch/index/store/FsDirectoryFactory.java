@@ -23,9 +23,12 @@ import org.apache.lucene.store.SimpleFSLockFactory;
 import org.elasticsearch.common.settings.Setting;
 import org.elasticsearch.common.settings.Setting.Property;
 import org.elasticsearch.core.IOUtils;
+import org.elasticsearch.core.Nullable;
 import org.elasticsearch.index.IndexModule;
 import org.elasticsearch.index.IndexSettings;
 import org.elasticsearch.index.shard.ShardPath;
+import org.elasticsearch.nativeaccess.NativeAccess;
+import org.elasticsearch.nativeaccess.ReadAhead;
 import org.elasticsearch.plugins.IndexStorePlugin;
 
 import java.io.IOException;
@@ -76,7 +79,7 @@ public class FsDirectoryFactory implements IndexStorePlugin.DirectoryFactory {
                 return setPreload(new MMapDirectory(location, lockFactory), preLoadExtensions);
             case SIMPLEFS:
             case NIOFS:
-                return new NIOFSDirectory(location, lockFactory);
+                return new ReadAheadNIOFSDirectory(location, lockFactory);
             default:
                 throw new AssertionError("unexpected built-in store type [" + type + "]");
         }
@@ -109,7 +112,47 @@ public class FsDirectoryFactory implements IndexStorePlugin.DirectoryFactory {
         return unwrap instanceof HybridDirectory;
     }
 
-    static final class HybridDirectory extends NIOFSDirectory {
+    /**
+     * A {@link NIOFSDirectory} whose inputs implement {@link IndexInput#prefetch} by reading ahead into the page cache, if the platform
+     * supports it.
+     */
+    static class ReadAheadNIOFSDirectory extends NIOFSDirectory {
+        @Nullable // if the platform does not support read-ahead
+        private static final ReadAhead READ_AHEAD = NativeAccess.instance().getReadAhead().orElse(null);
+
+        ReadAheadNIOFSDirectory(Path path, LockFactory lockFactory) throws IOException {
+            super(path, lockFactory);
+        }
+
+        @Override
+        public IndexInput openInput(String name, IOContext context) throws IOException {
+            if (READ_AHEAD == null) {
+                return super.openInput(name, context);
+            }
+            ensureOpen();
+            ensureCanRead(name);
+            final Path path = getDirectory().resolve(name);
+            final long length = Files.size(path); // fails like NIOFSDirectory if the file does not exist
+            final ReadAhead.File file = READ_AHEAD.open(path);
+            boolean success = false;
+            try {
+                final IndexInput indexInput = new ReadAheadNIOFSIndexInput(
+                    "ReadAheadNIOFSIndexInput(path=\"" + path + "\")",
+                    file,
+                    length,
+                    context
+                );
+                success = true;
+                return indexInput;
+            } finally {
+                if (success == false) {
+                    IOUtils.closeWhileHandlingException(file);
+                }
+            }
+        }
+    }
+
+    static final class HybridDirectory extends ReadAheadNIOFSDirectory {
         private final MMapDirectory delegate;
 
         HybridDirectory(LockFactory lockFactory, MMapDirectory delegate) throws IOException {
@@ -0,0 +1,135 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+
+package org.elasticsearch.index.store;
+
+import org.apache.lucene.store.BufferedIndexInput;
+import org.apache.lucene.store.IOContext;
+import org.apache.lucene.store.IndexInput;
+import org.elasticsearch.nativeaccess.ReadAhead;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Objects;
+
+/**
+ * An {@link IndexInput} which reads from a file like Lucene's {@code NIOFSIndexInput}, but which also implements {@link #prefetch} by
+ * asking the kernel to read the prefetched ranges into the page cache in the background. Without this, prefetching is a no-op for files
+ * that are not memory-mapped, so callers that know which ranges they are about to read (e.g. the stored fields of all the documents to
+ * fetch) would still block on each read in turn. Reads and read-ahead hints go through the same file descriptor, which is shared by the
+ * input and all its clones and slices.
+ */
+final class ReadAheadNIOFSIndexInput extends BufferedIndexInput {
+
+    /**
+     * The maximum chunk size for reads, see {@code NIOFSIndexInput}.
+     */
+    private static final int CHUNK_SIZE = 16384;
+
+    private final ReadAhead.File file;
+    private final long off;
+    private final long end;
+    private boolean isClone = false;
+
+    ReadAheadNIOFSIndexInput(String resourceDesc, ReadAhead.File file, long length, IOContext context) {
+        super(resourceDesc, context);
+        this.file = file;
+        this.off = 0L;
+        this.end = length;
+    }
+
+    private ReadAheadNIOFSIndexInput(String resourceDesc, ReadAhead.File file, long off, long length, int bufferSize) {
+        super(resourceDesc, bufferSize);
+        this.file = file;
+        this.off = off;
+        this.end = off + length;
+        this.isClone = true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (isClone == false) {
+            file.close();
+        }
+    }
+
+    @Override
+    public ReadAheadNIOFSIndexInput clone() {
+        final ReadAheadNIOFSIndexInput clone = (ReadAheadNIOFSIndexInput) super.clone();
+        clone.isClone = true;
+        return clone;
+    }
+
+    @Override
+    public IndexInput slice(String sliceDescription, long offset, long length) throws IOException {
+        if ((length | offset) < 0 || length > this.length() - offset) {
+            throw new IllegalArgumentException(
+                "slice() "
+                    + sliceDescription
+                    + " out of bounds: offset="
+                    + offset
+                    + ",length="
+                    + length
+                    + ",fileLength="
+                    + this.length()
+                    + ": "
+                    + this
+            );
+        }
+        return new ReadAheadNIOFSIndexInput(getFullSliceDescription(sliceDescription), file, off + offset, length, getBufferSize());
+    }
+
+    @Override
+    public long length() {
+        return end - off;
+    }
+
+    @Override
+    public void prefetch(long offset, long length) throws IOException {
+        Objects.checkFromIndexSize(offset, length, length());
+        file.willNeed(off + offset, length);
+    }
+
+    @Override
+    protected void readInternal(ByteBuffer b) throws IOException {
+        long pos = getFilePointer() + off;
+
+        if (pos + b.remaining() > end) {
+            throw new EOFException("read past EOF: " + this);
+        }
+
+        try {
+            int readLength = b.remaining();
+            while (readLength > 0) {
+                final int toRead = Math.min(CHUNK_SIZE, readLength);
+                b.limit(b.position() + toRead);
+                assert b.remaining() == toRead;
+                final int i = file.read(b, pos);
+                if (i < 0) {
+                    // be defensive here, even though we checked before hand, something could have changed
+                    throw new EOFException("read past EOF: " + this + " buffer: " + b + " chunkLen: " + toRead + " end: " + end);
+                }
+                assert i > 0 : "read with non zero-length bb.remaining() must always read at least one byte";
+                pos += i;
+                readLength -= i;
+            }
+            assert readLength == 0;
+        } catch (IOException ioe) {
+            throw new IOException(ioe.getMessage() + ": " + this, ioe);
+        }
+    }
+
+    @Override
+    protected void seekInternal(long pos) throws IOException {
+        if (pos > length()) {
+            throw new EOFException("read past EOF: pos=" + pos + " vs length=" + length() + ": " + this);
+        }
+    }
+}
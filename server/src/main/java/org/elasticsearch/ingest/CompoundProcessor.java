@@ -10,11 +10,14 @@
 package org.elasticsearch.ingest;
 
 import org.elasticsearch.ElasticsearchException;
+import org.elasticsearch.common.TriConsumer;
 import org.elasticsearch.core.Tuple;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.BiConsumer;
 import java.util.function.LongSupplier;
 import java.util.stream.Collectors;
@@ -39,6 +42,7 @@ public class CompoundProcessor implements Processor {
     private final List<Tuple<Processor, IngestMetric>> processorsWithMetrics;
     private final LongSupplier relativeTimeProvider;
     private final boolean isAsync;
+    private final boolean supportsBatchExecution;
 
     public CompoundProcessor(Processor... processors) {
         this(false, List.of(processors), List.of());
@@ -62,6 +66,7 @@ public class CompoundProcessor implements Processor {
         this.relativeTimeProvider = relativeTimeProvider;
         this.processorsWithMetrics = List.copyOf(processors.stream().map(p -> new Tuple<>(p, new IngestMetric())).toList());
         this.isAsync = flattenProcessors().stream().anyMatch(Processor::isAsync);
+        this.supportsBatchExecution = flattenProcessors().stream().anyMatch(Processor::supportsBatchExecution);
     }
 
     List<Tuple<Processor, IngestMetric>> getProcessorsWithMetrics() {
@@ -123,6 +128,11 @@ public class CompoundProcessor implements Processor {
         return isAsync;
     }
 
+    @Override
+    public boolean supportsBatchExecution() {
+        return supportsBatchExecution;
+    }
+
     @Override
     public IngestDocument execute(IngestDocument document) throws Exception {
         assert isAsync == false; // must not be executed if there are async processors
@@ -220,6 +230,82 @@ public class CompoundProcessor implements Processor {
         }
     }
 
+    @Override
+    public void executeBatch(List<IngestDocument> ingestDocuments, TriConsumer<Integer, IngestDocument, Exception> handler) {
+        final int[] slots = new int[ingestDocuments.size()];
+        for (int i = 0; i < slots.length; i++) {
+            slots[i] = i;
+        }
+        innerExecuteBatch(0, ingestDocuments, slots, handler);
+    }
+
+    /**
+     * Executes the processors one after the other on the whole batch, so that each processor gets all the documents that are still
+     * in the batch at once. Documents leave the batch when they are dropped, rerouted or terminated, or when they fail, in which case
+     * the rest of their execution, including the on failure processors, happens one document at a time like in {@link #innerExecute}.
+     *
+     * @param slots the position of each document in the batch the handler was given for
+     */
+    void innerExecuteBatch(
+        int currentProcessor,
+        List<IngestDocument> ingestDocuments,
+        int[] slots,
+        TriConsumer<Integer, IngestDocument, Exception> handler
+    ) {
+        assert currentProcessor <= processorsWithMetrics.size();
+        final List<IngestDocument> batch = new ArrayList<>(ingestDocuments.size());
+        final int[] batchSlots = new int[ingestDocuments.size()];
+        for (int i = 0; i < ingestDocuments.size(); i++) {
+            final IngestDocument ingestDocument = ingestDocuments.get(i);
+            if (currentProcessor == processorsWithMetrics.size() || ingestDocument.isReroute() || ingestDocument.isTerminate()) {
+                handler.apply(slots[i], ingestDocument, null);
+            } else {
+                batchSlots[batch.size()] = slots[i];
+                batch.add(ingestDocument);
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        } else if (batch.size() == 1) {
+            final int slot = batchSlots[0];
+            innerExecute(currentProcessor, batch.get(0), (result, e) -> handler.apply(slot, result, e));
+            return;
+        }
+
+        final Processor processor = processorsWithMetrics.get(currentProcessor).v1();
+        final IngestMetric metric = processorsWithMetrics.get(currentProcessor).v2();
+        final IngestDocument[] results = new IngestDocument[batch.size()];
+        final AtomicInteger pendingDocuments = new AtomicInteger(batch.size());
+        // the time spent on the batch is split between its documents as they complete, so that it adds up to what the processor took
+        final AtomicLong lastCompletionInNanos = new AtomicLong(relativeTimeProvider.getAsLong());
+        for (int i = 0; i < batch.size(); i++) {
+            metric.preIngest();
+        }
+        processor.executeBatch(batch, (i, result, e) -> {
+            final long nowInNanos = relativeTimeProvider.getAsLong();
+            metric.postIngest(Math.max(0L, nowInNanos - lastCompletionInNanos.getAndAccumulate(nowInNanos, Math::max)));
+            if (e != null) {
+                final int slot = batchSlots[i];
+                executeOnFailureOuter(currentProcessor, batch.get(i), (doc, ex) -> handler.apply(slot, doc, ex), processor, metric, e);
+            } else if (result == null) {
+                handler.apply(batchSlots[i], null, null);
+            } else {
+                results[i] = result;
+            }
+            if (pendingDocuments.decrementAndGet() == 0) {
+                final List<IngestDocument> nextBatch = new ArrayList<>(results.length);
+                final int[] nextSlots = new int[results.length];
+                for (int j = 0; j < results.length; j++) {
+                    if (results[j] != null) {
+                        nextSlots[nextBatch.size()] = batchSlots[j];
+                        nextBatch.add(results[j]);
+                    }
+                }
+                innerExecuteBatch(currentProcessor + 1, nextBatch, nextSlots, handler);
+            }
+        });
+    }
+
     private void executeOnFailureOuter(
         int currentProcessor,
         IngestDocument ingestDocument,
@@ -9,6 +9,7 @@
 
 package org.elasticsearch.ingest;
 
+import org.elasticsearch.common.TriConsumer;
 import org.elasticsearch.common.logging.DeprecationCategory;
 import org.elasticsearch.common.logging.DeprecationLogger;
 import org.elasticsearch.script.DynamicMap;
@@ -27,6 +28,7 @@ import java.util.List;
 import java.util.ListIterator;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.BiConsumer;
 import java.util.function.Function;
 import java.util.function.LongSupplier;
@@ -140,6 +142,44 @@ public class ConditionalProcessor extends AbstractProcessor implements WrappingP
         }
     }
 
+    @Override
+    public void executeBatch(List<IngestDocument> ingestDocuments, TriConsumer<Integer, IngestDocument, Exception> handler) {
+        final List<IngestDocument> matching = new ArrayList<>(ingestDocuments.size());
+        final int[] matchingSlots = new int[ingestDocuments.size()];
+        for (int i = 0; i < ingestDocuments.size(); i++) {
+            final IngestDocument ingestDocument = ingestDocuments.get(i);
+            final boolean matches;
+            try {
+                matches = evaluate(ingestDocument);
+            } catch (Exception e) {
+                handler.apply(i, null, e);
+                continue;
+            }
+            if (matches) {
+                matchingSlots[matching.size()] = i;
+                matching.add(ingestDocument);
+            } else {
+                handler.apply(i, ingestDocument, null);
+            }
+        }
+        if (matching.isEmpty()) {
+            return;
+        }
+
+        final AtomicLong lastCompletionInNanos = new AtomicLong(relativeTimeProvider.getAsLong());
+        for (int i = 0; i < matching.size(); i++) {
+            metric.preIngest();
+        }
+        processor.executeBatch(matching, (i, result, e) -> {
+            final long nowInNanos = relativeTimeProvider.getAsLong();
+            metric.postIngest(Math.max(0L, nowInNanos - lastCompletionInNanos.getAndAccumulate(nowInNanos, Math::max)));
+            if (e != null) {
+                metric.ingestFailed();
+            }
+            handler.apply(matchingSlots[i], result, e);
+        });
+    }
+
     boolean evaluate(IngestDocument ingestDocument) {
         IngestConditionalScript script = precompiledConditionScript;
         if (script == null) {
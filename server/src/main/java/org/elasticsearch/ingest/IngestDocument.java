@@ -10,6 +10,7 @@
 package org.elasticsearch.ingest;
 
 import org.elasticsearch.common.Strings;
+import org.elasticsearch.common.TriConsumer;
 import org.elasticsearch.common.util.CollectionUtils;
 import org.elasticsearch.common.util.Maps;
 import org.elasticsearch.common.util.set.Sets;
@@ -841,19 +842,11 @@ public final class IngestDocument {
         }
 
         if (executedPipelines.size() >= MAX_PIPELINES) {
-            handler.accept(
-                null,
-                new GraphStructureException("Too many nested pipelines. Cannot have more than " + MAX_PIPELINES + " nested pipelines")
-            );
+            handler.accept(null, tooManyPipelinesException());
         } else if (executedPipelines.add(pipeline.getId())) {
             Object previousPipeline = ingestMetadata.put("pipeline", pipeline.getId());
             pipeline.execute(this, (result, e) -> {
-                executedPipelines.remove(pipeline.getId());
-                if (previousPipeline != null) {
-                    ingestMetadata.put("pipeline", previousPipeline);
-                } else {
-                    ingestMetadata.remove("pipeline");
-                }
+                exitPipeline(pipeline, previousPipeline);
                 handler.accept(result, e);
             });
         } else {
@@ -861,6 +854,64 @@ public final class IngestDocument {
         }
     }
 
+    /**
+     * Executes the given pipeline on a batch of documents, with the same checks as {@link #executePipeline(Pipeline, BiConsumer)}
+     * for each of them. The handler is called once for each document, with its position in the batch.
+     *
+     * @param pipeline the pipeline to execute
+     * @param ingestDocuments the documents to execute the pipeline on
+     * @param handler handles the result or failure of each document
+     */
+    public static void executePipelineBatch(
+        Pipeline pipeline,
+        List<IngestDocument> ingestDocuments,
+        TriConsumer<Integer, IngestDocument, Exception> handler
+    ) {
+        // shortcut if the pipeline is empty
+        if (pipeline.getProcessors().isEmpty()) {
+            for (int i = 0; i < ingestDocuments.size(); i++) {
+                handler.apply(i, ingestDocuments.get(i), null);
+            }
+            return;
+        }
+
+        final List<IngestDocument> batch = new ArrayList<>(ingestDocuments.size());
+        final int[] slots = new int[ingestDocuments.size()];
+        final Object[] previousPipelines = new Object[ingestDocuments.size()];
+        for (int i = 0; i < ingestDocuments.size(); i++) {
+            final IngestDocument ingestDocument = ingestDocuments.get(i);
+            if (ingestDocument.executedPipelines.size() >= MAX_PIPELINES) {
+                handler.apply(i, null, tooManyPipelinesException());
+            } else if (ingestDocument.executedPipelines.add(pipeline.getId())) {
+                previousPipelines[batch.size()] = ingestDocument.ingestMetadata.put("pipeline", pipeline.getId());
+                slots[batch.size()] = i;
+                batch.add(ingestDocument);
+            } else {
+                handler.apply(i, null, new GraphStructureException(PIPELINE_CYCLE_ERROR_MESSAGE + pipeline.getId()));
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        pipeline.executeBatch(batch, (i, result, e) -> {
+            batch.get(i).exitPipeline(pipeline, previousPipelines[i]);
+            handler.apply(slots[i], result, e);
+        });
+    }
+
+    private void exitPipeline(Pipeline pipeline, Object previousPipeline) {
+        executedPipelines.remove(pipeline.getId());
+        if (previousPipeline != null) {
+            ingestMetadata.put("pipeline", previousPipeline);
+        } else {
+            ingestMetadata.remove("pipeline");
+        }
+    }
+
+    private static GraphStructureException tooManyPipelinesException() {
+        return new GraphStructureException("Too many nested pipelines. Cannot have more than " + MAX_PIPELINES + " nested pipelines");
+    }
+
     /**
      * @return a pipeline stack; all pipelines that are in execution by this document in reverse order
      */
@@ -81,6 +81,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Locale;
@@ -113,6 +114,9 @@ public class IngestService implements ClusterStateApplier, ReportingService<Inge
 
     public static final NodeFeature PIPELINE_NAME_VALIDATION_WARNINGS = new NodeFeature("ingest.pipeline_name_special_chars_warning");
 
+    // the maximum number of documents of a bulk request that a pipeline executes at once, see PipelineBatches
+    static final int MAX_PIPELINE_BATCH_SIZE = 128;
+
     private static final Logger logger = LogManager.getLogger(IngestService.class);
     private static final DeprecationLogger deprecationLogger = DeprecationLogger.getLogger(IngestService.class);
 
@@ -747,6 +751,7 @@ public class IngestService implements ClusterStateApplier, ReportingService<Inge
             protected void doRun() {
                 final Thread originalThread = Thread.currentThread();
                 try (var refs = new RefCountingRunnable(() -> onCompletion.accept(originalThread, null))) {
+                    final PipelineBatches batches = new PipelineBatches();
                     int i = 0;
                     for (DocWriteRequest<?> actionRequest : actionRequests) {
                         IndexRequest indexRequest = TransportBulkAction.getIndexWriteRequest(actionRequest);
@@ -762,9 +767,9 @@ public class IngestService implements ClusterStateApplier, ReportingService<Inge
                             continue;
                         }
 
-                        // start the stopwatch and acquire a ref to indicate that we're working on this document
-                        final long startTimeInNanos = System.nanoTime();
-                        totalMetrics.preIngest();
+                        // acquire a ref to indicate that we're working on this document, its stopwatch starts when its first pipeline
+                        // executes, which is later if the document waits for a batch
+                        final IngestStopwatch stopwatch = new IngestStopwatch();
                         if (firstPipeline != null) {
                             firstPipeline.getMetrics().preIngestBytes(indexRequest.ramBytesUsed());
                         }
@@ -804,17 +809,25 @@ public class IngestService implements ClusterStateApplier, ReportingService<Inge
                             () -> {
                                 // regardless of success or failure, we always stop the ingest "stopwatch" and release the ref to indicate
                                 // that we're finished with this document
-                                final long ingestTimeInNanos = System.nanoTime() - startTimeInNanos;
-                                totalMetrics.postIngest(ingestTimeInNanos);
+                                stopwatch.stop();
                                 ref.close();
                             }
                         );
 
-                        executePipelines(pipelines, indexRequest, ingestDocument, resolveFailureStore, documentListener);
+                        executePipelines(
+                            pipelines,
+                            indexRequest,
+                            ingestDocument,
+                            resolveFailureStore,
+                            batches,
+                            stopwatch,
+                            documentListener
+                        );
                         assert actionRequest.index() != null;
 
                         i++;
                     }
+                    batches.execute();
                 }
             }
         });
@@ -901,6 +914,8 @@ public class IngestService implements ClusterStateApplier, ReportingService<Inge
         final IndexRequest indexRequest,
         final IngestDocument ingestDocument,
         final Function<String, Boolean> resolveFailureStore,
+        @Nullable final PipelineBatches batches,
+        final IngestStopwatch stopwatch,
         final ActionListener<IngestPipelinesExecutionResult> listener
     ) {
         assert pipelines.hasNext();
@@ -908,6 +923,11 @@ public class IngestService implements ClusterStateApplier, ReportingService<Inge
         final String pipelineId = slot.id();
         final Pipeline pipeline = slot.pipeline();
         final boolean isFinalPipeline = slot.isFinal();
+        final boolean batched = batches != null && pipeline != null && pipeline.supportsBatchExecution();
+        if (batched == false) {
+            // a document that waits for a batch starts executing when the batch runs, any other document starts right away
+            stopwatch.start();
+        }
 
         // reset the reroute flag, at the start of a new pipeline execution this document hasn't been rerouted yet
         ingestDocument.resetReroute();
@@ -938,7 +958,7 @@ public class IngestService implements ClusterStateApplier, ReportingService<Inge
                 throw new IllegalArgumentException("pipeline with id [" + pipelineId + "] does not exist");
             }
             indexRequest.addPipeline(pipelineId);
-            executePipeline(ingestDocument, pipeline, (keep, e) -> {
+            final BiConsumer<Boolean, Exception> handler = (keep, e) -> {
                 assert keep != null;
 
                 if (e != null) {
@@ -1061,14 +1081,19 @@ public class IngestService implements ClusterStateApplier, ReportingService<Inge
                 }
 
                 if (newPipelines.hasNext()) {
-                    executePipelines(newPipelines, indexRequest, ingestDocument, resolveFailureStore, listener);
+                    executePipelines(newPipelines, indexRequest, ingestDocument, resolveFailureStore, null, stopwatch, listener);
                 } else {
                     // update the index request's source and (potentially) cache the timestamp for TSDB
                     updateIndexRequestSource(indexRequest, ingestDocument);
                     cacheRawTimestamp(indexRequest, ingestDocument);
                     listener.onResponse(IngestPipelinesExecutionResult.SUCCESSFUL_RESULT); // document succeeded!
                 }
-            });
+            };
+            if (batched) {
+                batches.add(pipeline, ingestDocument, stopwatch, handler);
+            } else {
+                executePipeline(ingestDocument, pipeline, handler);
+            }
         } catch (Exception e) {
             logger.debug(
                 () -> format("failed to execute pipeline [%s] for document [%s/%s]", pipelineId, indexRequest.index(), indexRequest.id()),
@@ -1095,6 +1120,81 @@ public class IngestService implements ClusterStateApplier, ReportingService<Inge
         });
     }
 
+    /**
+     * The stopwatch of a document for the {@link #totalMetrics}. It starts when the first pipeline of the document executes, which for a
+     * document that waits for a batch is when the batch runs, so that the time spent waiting for the rest of the batch is not counted.
+     */
+    private final class IngestStopwatch {
+
+        private long startTimeInNanos = -1L;
+
+        void start() {
+            if (startTimeInNanos == -1L) {
+                startTimeInNanos = System.nanoTime();
+                totalMetrics.preIngest();
+            }
+        }
+
+        void stop() {
+            // a document may complete without having started, for instance if its pipeline does not exist
+            start();
+            totalMetrics.postIngest(System.nanoTime() - startTimeInNanos);
+        }
+    }
+
+    /**
+     * Collects the documents of a bulk request whose first pipeline supports batch execution, see
+     * {@link Pipeline#supportsBatchExecution()}, so that each of these pipelines runs once on a batch of documents rather than once per
+     * document. A batch runs as soon as it holds {@link #MAX_PIPELINE_BATCH_SIZE} documents, and any remaining batches run once all the
+     * documents of the bulk request were collected. Any pipeline that runs after the first one, like a final pipeline, runs one document
+     * at a time.
+     */
+    private static final class PipelineBatches {
+
+        private final Map<Pipeline, PipelineBatch> batches = new LinkedHashMap<>();
+
+        void add(Pipeline pipeline, IngestDocument ingestDocument, IngestStopwatch stopwatch, BiConsumer<Boolean, Exception> handler) {
+            final PipelineBatch batch = batches.computeIfAbsent(pipeline, PipelineBatch::new);
+            batch.documents.add(ingestDocument);
+            batch.stopwatches.add(stopwatch);
+            batch.handlers.add(handler);
+            if (batch.documents.size() >= MAX_PIPELINE_BATCH_SIZE) {
+                batches.remove(pipeline);
+                batch.execute();
+            }
+        }
+
+        void execute() {
+            for (PipelineBatch batch : batches.values()) {
+                batch.execute();
+            }
+            batches.clear();
+        }
+    }
+
+    private record PipelineBatch(
+        Pipeline pipeline,
+        List<IngestDocument> documents,
+        List<IngestStopwatch> stopwatches,
+        List<BiConsumer<Boolean, Exception>> handlers
+    ) {
+        PipelineBatch(Pipeline pipeline) {
+            this(pipeline, new ArrayList<>(), new ArrayList<>(), new ArrayList<>());
+        }
+
+        void execute() {
+            stopwatches.forEach(IngestStopwatch::start);
+            // same adaptation of the handler shape as in executePipeline
+            IngestDocument.executePipelineBatch(pipeline, documents, (slot, result, e) -> {
+                if (e != null) {
+                    handlers.get(slot).accept(true, e);
+                } else {
+                    handlers.get(slot).accept(result != null, null);
+                }
+            });
+        }
+    }
+
     public IngestStats stats() {
         IngestStats.Builder statsBuilder = new IngestStats.Builder();
         statsBuilder.addTotalMetrics(totalMetrics);
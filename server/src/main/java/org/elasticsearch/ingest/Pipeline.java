@@ -10,12 +10,14 @@
 package org.elasticsearch.ingest;
 
 import org.elasticsearch.ElasticsearchParseException;
+import org.elasticsearch.common.TriConsumer;
 import org.elasticsearch.core.Nullable;
 import org.elasticsearch.script.ScriptService;
 
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.BiConsumer;
 import java.util.function.LongSupplier;
 
@@ -140,6 +142,35 @@ public final class Pipeline {
         });
     }
 
+    /**
+     * Modifies the data of a batch of documents to be indexed based on the processor this pipeline holds, see
+     * {@link Processor#executeBatch}. The handler is called once for each document, with its position in the batch.
+     */
+    public void executeBatch(List<IngestDocument> ingestDocuments, TriConsumer<Integer, IngestDocument, Exception> handler) {
+        // the time spent on the batch is split between its documents as they complete, so that it adds up to what the pipeline took
+        final AtomicLong lastCompletionInNanos = new AtomicLong(relativeTimeProvider.getAsLong());
+        for (int i = 0; i < ingestDocuments.size(); i++) {
+            metrics.preIngest();
+        }
+        compoundProcessor.executeBatch(ingestDocuments, (slot, result, e) -> {
+            final long nowInNanos = relativeTimeProvider.getAsLong();
+            metrics.postIngest(Math.max(0L, nowInNanos - lastCompletionInNanos.getAndAccumulate(nowInNanos, Math::max)));
+            if (e != null) {
+                metrics.ingestFailed();
+            }
+            ingestDocuments.get(slot).resetTerminate();
+            handler.apply(slot, result, e);
+        });
+    }
+
+    /**
+     * Whether this pipeline holds a processor that benefits from executing documents in batches, see
+     * {@link Processor#supportsBatchExecution()}.
+     */
+    public boolean supportsBatchExecution() {
+        return compoundProcessor.supportsBatchExecution();
+    }
+
     /**
      * The unique id of this pipeline
      */
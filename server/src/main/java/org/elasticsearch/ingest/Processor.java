@@ -10,6 +10,7 @@
 package org.elasticsearch.ingest;
 
 import org.elasticsearch.client.internal.Client;
+import org.elasticsearch.common.TriConsumer;
 import org.elasticsearch.common.util.concurrent.ThreadContext;
 import org.elasticsearch.env.Environment;
 import org.elasticsearch.grok.MatcherWatchdog;
@@ -17,6 +18,7 @@ import org.elasticsearch.index.analysis.AnalysisRegistry;
 import org.elasticsearch.script.ScriptService;
 import org.elasticsearch.threadpool.Scheduler;
 
+import java.util.List;
 import java.util.Map;
 import java.util.function.BiConsumer;
 import java.util.function.BiFunction;
@@ -60,6 +62,40 @@ public interface Processor {
         return ingestDocument;
     }
 
+    /**
+     * Introspect and potentially modify a batch of documents. The handler is called once for each document, with the position of the
+     * document in the batch and the result or failure that {@link #execute(IngestDocument, BiConsumer)} would have given for it, so a
+     * failure only ever concerns a single document.
+     *
+     * Expert method: only override this method if a processor implementation can share work between the documents of a batch, like
+     * resolving a lookup once, and then also override {@link #supportsBatchExecution()}.
+     */
+    default void executeBatch(List<IngestDocument> ingestDocuments, TriConsumer<Integer, IngestDocument, Exception> handler) {
+        for (int i = 0; i < ingestDocuments.size(); i++) {
+            final int slot = i;
+            final IngestDocument result;
+            try {
+                if (isAsync()) {
+                    execute(ingestDocuments.get(slot), (document, e) -> handler.apply(slot, document, e));
+                    continue;
+                }
+                result = execute(ingestDocuments.get(slot));
+            } catch (Exception e) {
+                handler.apply(slot, null, e);
+                continue;
+            }
+            handler.apply(slot, result, null);
+        }
+    }
+
+    /**
+     * Whether this processor benefits from {@link #executeBatch(List, TriConsumer)}. During bulk ingestion, pipelines that contain such a
+     * processor execute their processors on a batch of documents at a time instead of on one document at a time.
+     */
+    default boolean supportsBatchExecution() {
+        return false;
+    }
+
     /**
      * Gets the type of a processor
      */
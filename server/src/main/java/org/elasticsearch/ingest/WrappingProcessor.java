@@ -24,4 +24,8 @@ public interface WrappingProcessor extends Processor {
     default boolean isAsync() {
         return getInnerProcessor().isAsync();
     }
+
+    default boolean supportsBatchExecution() {
+        return getInnerProcessor().supportsBatchExecution();
+    }
 }
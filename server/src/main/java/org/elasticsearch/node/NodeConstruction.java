@@ -777,7 +777,14 @@ class NodeConstruction {
             TransportVersion.current(),
             systemIndices.getMappingsVersions()
         );
-        modules.add(loadPersistedClusterStateService(clusterService.getClusterSettings(), threadPool, compatibilityVersions));
+        modules.add(
+            loadPersistedClusterStateService(
+                clusterService.getClusterSettings(),
+                threadPool,
+                compatibilityVersions,
+                telemetryProvider.getMeterRegistry()
+            )
+        );
 
         final MetaStateService metaStateService = new MetaStateService(nodeEnvironment, xContentRegistry);
 
@@ -1506,7 +1513,8 @@ class NodeConstruction {
     private Module loadPersistedClusterStateService(
         ClusterSettings clusterSettings,
         ThreadPool threadPool,
-        CompatibilityVersions compatibilityVersions
+        CompatibilityVersions compatibilityVersions,
+        MeterRegistry meterRegistry
     ) {
         var persistedClusterStateServiceFactories = pluginsService.filterPlugins(ClusterCoordinationPlugin.class)
             .map(ClusterCoordinationPlugin::getPersistedClusterStateServiceFactory)
@@ -1521,7 +1529,8 @@ class NodeConstruction {
                     nodeEnvironment,
                     xContentRegistry,
                     clusterSettings,
-                    threadPool.relativeTimeInMillisSupplier()
+                    threadPool.relativeTimeInMillisSupplier(),
+                    meterRegistry
                 )
             );
 
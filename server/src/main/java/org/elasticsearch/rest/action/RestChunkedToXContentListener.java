@@ -41,12 +41,19 @@ public class RestChunkedToXContentListener<Response extends ChunkedToXContent> e
         channel.sendResponse(
             RestResponse.chunked(
                 getRestStatus(response),
-                ChunkedRestResponseBodyPart.fromXContent(response, params, channel),
+                ChunkedRestResponseBodyPart.fromXContent(chunkedXContentFromResponse(response), params, channel),
                 releasableFromResponse(response)
             )
         );
     }
 
+    /**
+     * @return the chunked x-content to serialize for the given response, which is the response itself unless overridden
+     */
+    protected ChunkedToXContent chunkedXContentFromResponse(Response response) {
+        return response;
+    }
+
     protected Releasable releasableFromResponse(Response response) {
         return null;
     }
@@ -12,16 +12,19 @@ package org.elasticsearch.rest.action.search;
 import org.elasticsearch.ExceptionsHelper;
 import org.elasticsearch.action.ActionRequestValidationException;
 import org.elasticsearch.action.search.SearchRequest;
+import org.elasticsearch.action.search.SearchResponse;
 import org.elasticsearch.action.search.TransportSearchAction;
 import org.elasticsearch.action.support.IndicesOptions;
 import org.elasticsearch.client.internal.node.NodeClient;
 import org.elasticsearch.common.Strings;
 import org.elasticsearch.common.logging.DeprecationLogger;
+import org.elasticsearch.common.xcontent.ChunkedToXContent;
 import org.elasticsearch.core.Booleans;
 import org.elasticsearch.core.Nullable;
 import org.elasticsearch.features.NodeFeature;
 import org.elasticsearch.index.query.QueryBuilder;
 import org.elasticsearch.rest.BaseRestHandler;
+import org.elasticsearch.rest.RestChannel;
 import org.elasticsearch.rest.RestRequest;
 import org.elasticsearch.rest.Scope;
 import org.elasticsearch.rest.ServerlessScope;
@@ -122,10 +125,26 @@ public class RestSearchAction extends BaseRestHandler {
 
         return channel -> {
             RestCancellableNodeClient cancelClient = new RestCancellableNodeClient(client, request.getHttpChannel());
-            cancelClient.execute(TransportSearchAction.TYPE, searchRequest, new RestRefCountedChunkedToXContentListener<>(channel));
+            cancelClient.execute(TransportSearchAction.TYPE, searchRequest, new RestSearchResponseListener(channel));
         };
     }
 
+    /**
+     * Sends the search response as a chunked body, releasing each hit as soon as it has been serialized so that the coordinating node
+     * does not retain every hit until the whole response has been flushed to the client. The REST layer only asks for the next chunk once
+     * the channel is writable again, so a slow client holds on to the unsent hits only.
+     */
+    static final class RestSearchResponseListener extends RestRefCountedChunkedToXContentListener<SearchResponse> {
+        RestSearchResponseListener(RestChannel channel) {
+            super(channel);
+        }
+
+        @Override
+        protected ChunkedToXContent chunkedXContentFromResponse(SearchResponse response) {
+            return response::toXContentChunkedReleasingHits;
+        }
+    }
+
     /**
      * Parses the rest request on top of the SearchRequest, preserving values that are not overridden by the rest request.
      *
@@ -12,8 +12,12 @@ package org.elasticsearch.script;
 import org.elasticsearch.ExceptionsHelper;
 import org.elasticsearch.features.NodeFeature;
 import org.elasticsearch.index.mapper.vectors.DenseVectorFieldMapper;
+import org.elasticsearch.index.mapper.vectors.MultiDenseVectorFieldMapper;
 import org.elasticsearch.script.field.vectors.DenseVector;
 import org.elasticsearch.script.field.vectors.DenseVectorDocValuesField;
+import org.elasticsearch.script.field.vectors.KnnDenseVectorDocValuesField;
+import org.elasticsearch.script.field.vectors.MultiDenseVectorDocValuesField;
+import org.elasticsearch.simdvec.ESVectorUtil;
 
 import java.io.IOException;
 import java.util.HexFormat;
@@ -267,6 +271,13 @@ public class VectorScoreScriptUtils {
 
         public double l2norm() {
             setNextVector();
+            if (field instanceof KnnDenseVectorDocValuesField knnField) {
+                try {
+                    return knnField.l2Norm(queryVector);
+                } catch (IOException e) {
+                    throw ExceptionsHelper.convertToElastic(e);
+                }
+            }
             return field.get().l2Norm(queryVector);
         }
     }
@@ -331,6 +342,13 @@ public class VectorScoreScriptUtils {
 
         public double dotProduct() {
             setNextVector();
+            if (field instanceof KnnDenseVectorDocValuesField knnField) {
+                try {
+                    return knnField.dotProduct(queryVector);
+                } catch (IOException e) {
+                    throw ExceptionsHelper.convertToElastic(e);
+                }
+            }
             return field.get().dotProduct(queryVector);
         }
     }
@@ -429,4 +447,55 @@ public class VectorScoreScriptUtils {
             return function.cosineSimilarity();
         }
     }
+
+    // Calculate the late interaction (MaxSim) score between a query's vectors and documents' multi dense vectors: the sum, for each
+    // query vector, of its highest dot product with the vectors of the document
+    public static final class MaxSimDotProduct {
+
+        private final ScoreScript scoreScript;
+        private final MultiDenseVectorDocValuesField field;
+        private final float[][] queryVectors;
+
+        @SuppressWarnings("unchecked")
+        public MaxSimDotProduct(ScoreScript scoreScript, Object queryVectors, String fieldName) {
+            if (scoreScript.field(fieldName) instanceof MultiDenseVectorDocValuesField multiVectorField) {
+                this.field = multiVectorField;
+            } else {
+                throw new IllegalArgumentException(
+                    "maxSimDotProduct is only supported on fields of type [" + MultiDenseVectorFieldMapper.CONTENT_TYPE + "]"
+                );
+            }
+            if (queryVectors instanceof List<?> == false || ((List<?>) queryVectors).isEmpty()) {
+                throw new IllegalArgumentException("maxSimDotProduct expects a non empty list of query vectors");
+            }
+            List<?> vectors = (List<?>) queryVectors;
+            this.scoreScript = scoreScript;
+            this.queryVectors = new float[vectors.size()][];
+            for (int i = 0; i < vectors.size(); i++) {
+                if (vectors.get(i) instanceof List<?> == false) {
+                    throw new IllegalArgumentException(
+                        "Unsupported input object for query vectors: " + vectors.get(i).getClass().getName()
+                    );
+                }
+                List<Number> queryVector = (List<Number>) vectors.get(i);
+                DenseVector.checkDimensions(field.dims(), queryVector.size());
+                this.queryVectors[i] = new float[queryVector.size()];
+                for (int j = 0; j < queryVector.size(); j++) {
+                    this.queryVectors[i][j] = queryVector.get(j).floatValue();
+                }
+            }
+        }
+
+        public double maxSimDotProduct() {
+            try {
+                field.setNextDocId(scoreScript._getDocId());
+            } catch (IOException e) {
+                throw ExceptionsHelper.convertToElastic(e);
+            }
+            if (field.isEmpty()) {
+                throw new IllegalArgumentException("A document doesn't have a value for a vector field!");
+            }
+            return ESVectorUtil.maxSimDotProduct(queryVectors, field.vectorValues(), field.size());
+        }
+    }
 }
@@ -15,8 +15,11 @@ import org.elasticsearch.core.Nullable;
 import org.elasticsearch.index.mapper.vectors.DenormalizedCosineFloatVectorValues;
 import org.elasticsearch.index.mapper.vectors.DenseVectorFieldMapper.ElementType;
 import org.elasticsearch.index.mapper.vectors.DenseVectorScriptDocValues;
+import org.elasticsearch.simdvec.Float32VectorScorer;
+import org.elasticsearch.simdvec.VectorScorerFactory;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
 
 import static org.apache.lucene.search.DocIdSetIterator.NO_MORE_DOCS;
 
@@ -25,6 +28,10 @@ public class KnnDenseVectorDocValuesField extends DenseVectorDocValuesField {
     protected final KnnVectorValues.DocIndexIterator iterator;
     protected float[] vector;
     protected final int dims;
+    // the ordinal of the vector of the current document, or -1 if it doesn't have one; the vector itself is only read when needed
+    private int ord = -1;
+    private float[] scorerQueryVector;
+    private Float32VectorScorer scorer; // null if the vectors can't be scored where they are mapped
 
     public KnnDenseVectorDocValuesField(@Nullable FloatVectorValues input, String name, int dims) {
         super(name, ElementType.FLOAT);
@@ -38,19 +45,59 @@ public class KnnDenseVectorDocValuesField extends DenseVectorDocValuesField {
         if (input == null) {
             return;
         }
+        vector = null;
         int currentDoc = iterator.docID();
         if (currentDoc == NO_MORE_DOCS || docId < currentDoc) {
-            vector = null;
+            ord = -1;
         } else if (docId == currentDoc) {
-            vector = input.vectorValue(iterator.index());
+            ord = iterator.index();
         } else {
             currentDoc = iterator.advance(docId);
-            if (currentDoc == docId) {
-                vector = input.vectorValue(iterator.index());
-            } else {
-                vector = null;
+            ord = currentDoc == docId ? iterator.index() : -1;
+        }
+    }
+
+    /**
+     * Returns the dot product of the vector of the current document and the given query vector. When the vector values are
+     * memory-mapped, the vector is compared where it is mapped instead of being copied to the heap first.
+     */
+    public double dotProduct(float[] queryVector) throws IOException {
+        Float32VectorScorer scorer = scorer(queryVector);
+        return scorer != null ? scorer.dotProduct(ord) : get().dotProduct(queryVector);
+    }
+
+    /**
+     * Returns the euclidean distance between the vector of the current document and the given query vector. When the vector values
+     * are memory-mapped, the vector is compared where it is mapped instead of being copied to the heap first.
+     */
+    public double l2Norm(float[] queryVector) throws IOException {
+        Float32VectorScorer scorer = scorer(queryVector);
+        return scorer != null ? Math.sqrt(scorer.squareDistance(ord)) : get().l2Norm(queryVector);
+    }
+
+    private Float32VectorScorer scorer(float[] queryVector) {
+        if (isEmpty() || input instanceof DenormalizedCosineFloatVectorValues) {
+            return null;
+        }
+        // only values exposing the slice of their raw vectors can be scored in place, like the ones of the flat, hnsw and bbq formats;
+        // the scalar quantized formats wrap their raw vectors without exposing it, so they are copied on-heap instead
+        // scripts compare all documents to the same query vector
+        if (queryVector != scorerQueryVector) {
+            scorerQueryVector = queryVector;
+            scorer = VectorScorerFactory.instance().flatMap(factory -> factory.getFloat32VectorScorer(input, queryVector)).orElse(null);
+        }
+        return scorer;
+    }
+
+    private float[] vector() {
+        if (vector == null) {
+            try {
+                vector = input.vectorValue(ord);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
             }
         }
+        return vector;
     }
 
     @Override
@@ -59,7 +106,7 @@ public class KnnDenseVectorDocValuesField extends DenseVectorDocValuesField {
     }
 
     public boolean isEmpty() {
-        return vector == null;
+        return ord == -1;
     }
 
     @Override
@@ -69,9 +116,9 @@ public class KnnDenseVectorDocValuesField extends DenseVectorDocValuesField {
         }
 
         if (input instanceof DenormalizedCosineFloatVectorValues normalized) {
-            return new KnnDenseVector(vector, normalized.magnitude());
+            return new KnnDenseVector(vector(), normalized.magnitude());
         }
-        return new KnnDenseVector(vector);
+        return new KnnDenseVector(vector());
     }
 
     @Override
@@ -81,9 +128,9 @@ public class KnnDenseVectorDocValuesField extends DenseVectorDocValuesField {
         }
 
         if (input instanceof DenormalizedCosineFloatVectorValues normalized) {
-            return new KnnDenseVector(vector, normalized.magnitude());
+            return new KnnDenseVector(vector(), normalized.magnitude());
         }
-        return new KnnDenseVector(vector);
+        return new KnnDenseVector(vector());
     }
 
     @Override
@@ -0,0 +1,143 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+
+package org.elasticsearch.script.field.vectors;
+
+import org.apache.lucene.index.BinaryDocValues;
+import org.apache.lucene.util.ArrayUtil;
+import org.apache.lucene.util.BytesRef;
+import org.elasticsearch.index.fielddata.ScriptDocValues;
+import org.elasticsearch.index.mapper.vectors.MultiDenseVectorScriptDocValues;
+import org.elasticsearch.script.field.AbstractScriptFieldFactory;
+import org.elasticsearch.script.field.DocValuesScriptFieldFactory;
+import org.elasticsearch.script.field.Field;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * The vectors of a {@code multi_dense_vector} field. The vectors of the current document are decoded once into a single array where they
+ * follow each other, which is the layout that {@code ESVectorUtil#maxSimDotProduct} scores.
+ */
+public class MultiDenseVectorDocValuesField extends AbstractScriptFieldFactory<float[]>
+    implements
+        Field<float[]>,
+        DocValuesScriptFieldFactory,
+        ScriptDocValues.Supplier<float[]> {
+
+    private final BinaryDocValues input;
+    private final String name;
+    private final int dims;
+    private float[] vectorValues = new float[0];
+    private int count;
+    private boolean decoded;
+    private BytesRef value;
+
+    public MultiDenseVectorDocValuesField(BinaryDocValues input, String name, int dims) {
+        this.input = input;
+        this.name = name;
+        this.dims = dims;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    public int dims() {
+        return dims;
+    }
+
+    @Override
+    public void setNextDocId(int docId) throws IOException {
+        decoded = false;
+        if (input.advanceExact(docId)) {
+            value = input.binaryValue();
+            count = value.length / (dims * Float.BYTES);
+        } else {
+            value = null;
+            count = 0;
+        }
+    }
+
+    @Override
+    public MultiDenseVectorScriptDocValues toScriptDocValues() {
+        return new MultiDenseVectorScriptDocValues(this, dims);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return value == null;
+    }
+
+    /**
+     * The number of vectors of the current document.
+     */
+    @Override
+    public int size() {
+        return count;
+    }
+
+    /**
+     * The vectors of the current document, one after the other. The returned array is reused across documents and may be longer than
+     * {@code size() * dims()}.
+     */
+    public float[] vectorValues() {
+        decodeVectorsIfNecessary();
+        return vectorValues;
+    }
+
+    /**
+     * A copy of the vector at the given index of the current document.
+     */
+    @Override
+    public float[] getInternal(int index) {
+        if (index < 0 || index >= count) {
+            throw new IndexOutOfBoundsException("index [" + index + "] is out of bounds for [" + count + "] vectors");
+        }
+        decodeVectorsIfNecessary();
+        return Arrays.copyOfRange(vectorValues, index * dims, (index + 1) * dims);
+    }
+
+    @Override
+    public Iterator<float[]> iterator() {
+        return new Iterator<>() {
+            private int index = 0;
+
+            @Override
+            public boolean hasNext() {
+                return index < count;
+            }
+
+            @Override
+            public float[] next() {
+                if (hasNext() == false) {
+                    throw new NoSuchElementException();
+                }
+                return getInternal(index++);
+            }
+        };
+    }
+
+    private void decodeVectorsIfNecessary() {
+        if (decoded == false && value != null) {
+            final int length = count * dims;
+            if (vectorValues.length < length) {
+                vectorValues = new float[ArrayUtil.oversize(length, Float.BYTES)];
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(value.bytes, value.offset, value.length).order(ByteOrder.LITTLE_ENDIAN);
+            buffer.asFloatBuffer().get(vectorValues, 0, length);
+            decoded = true;
+        }
+    }
+}
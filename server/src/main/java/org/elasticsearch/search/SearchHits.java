@@ -252,9 +252,11 @@ public final class SearchHits implements Writeable, ChunkedToXContent, RefCounte
 
     private void deallocate() {
         for (int i = 0; i < hits.length; i++) {
-            assert hits[i] != null;
-            hits[i].decRef();
-            hits[i] = null;
+            // hits may already have been released by #toXContentChunkedReleasingHits
+            if (hits[i] != null) {
+                hits[i].decRef();
+                hits[i] = null;
+            }
         }
     }
 
@@ -284,6 +286,37 @@ public final class SearchHits implements Writeable, ChunkedToXContent, RefCounte
     @Override
     public Iterator<? extends ToXContent> toXContentChunked(ToXContent.Params params) {
         assert hasReferences();
+        return toXContentChunked(params, Iterators.forArray(hits));
+    }
+
+    /**
+     * Same as {@link #toXContentChunked} but releases each hit as soon as it has been serialized rather than when these hits are released
+     * as a whole, so that a large response does not retain all of its hits while it is slowly streamed to the client. Only safe to use if
+     * the caller holds the last reference through which the hits are read: a hit is no longer accessible once it has been serialized.
+     */
+    public Iterator<? extends ToXContent> toXContentChunkedReleasingHits(ToXContent.Params params) {
+        assert hasReferences();
+        if (refCounted == ALWAYS_REFERENCED) {
+            // unpooled hits are not released individually and may be shared, so there is nothing to gain here
+            return toXContentChunked(params);
+        }
+        return toXContentChunked(params, Iterators.forRange(0, hits.length, this::serializeAndRelease));
+    }
+
+    private ToXContent serializeAndRelease(int index) {
+        return (builder, params) -> {
+            final SearchHit hit = hits[index];
+            assert hit != null : "hit [" + index + "] already released";
+            hits[index] = null;
+            try {
+                return hit.toXContent(builder, params);
+            } finally {
+                hit.decRef();
+            }
+        };
+    }
+
+    private Iterator<? extends ToXContent> toXContentChunked(ToXContent.Params params, Iterator<? extends ToXContent> hitsIterator) {
         return ChunkedToXContent.builder(params).object(Fields.HITS, ob -> {
             boolean totalHitAsInt = ob.params().paramAsBoolean(RestSearchAction.TOTAL_HITS_AS_INT_PARAM, false);
             if (totalHitAsInt) {
@@ -298,7 +331,7 @@ public final class SearchHits implements Writeable, ChunkedToXContent, RefCounte
             }
 
             ob.field(Fields.MAX_SCORE, Float.isNaN(maxScore) ? null : maxScore);
-            ob.array(Fields.HITS, Iterators.forArray(hits));
+            ob.array(Fields.HITS, hitsIterator);
         });
     }
 
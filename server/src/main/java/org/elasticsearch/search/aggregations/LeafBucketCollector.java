@@ -9,6 +9,7 @@
 
 package org.elasticsearch.search.aggregations;
 
+import org.apache.lucene.search.DocIdStream;
 import org.apache.lucene.search.LeafCollector;
 import org.apache.lucene.search.Scorable;
 import org.elasticsearch.search.aggregations.bucket.terms.LongKeyedBucketOrds;
@@ -74,6 +75,21 @@ public abstract class LeafBucketCollector implements LeafCollector {
      */
     public abstract void collect(int doc, long owningBucketOrd) throws IOException;
 
+    /**
+     * Collect all docs in the {@code stream} in the bucket owned by
+     * {@code owningBucketOrd}.
+     * <p>
+     * Lucene hands out streams for runs of matching docs when it doesn't
+     * need scores. Aggregations that only read doc values can override this
+     * to keep their per-bucket state in locals for the whole stream rather
+     * than loading and storing it for every doc, which also gives the JIT a
+     * tight loop to work with. The default implementation calls
+     * {@link #collect(int, long)} for every doc in the stream.
+     */
+    public void collect(DocIdStream stream, long owningBucketOrd) throws IOException {
+        stream.forEach(doc -> collect(doc, owningBucketOrd));
+    }
+
     /**
      * Does this collector collect anything? If this returns true we can safely
      * just never call {@link #collect}.
@@ -87,6 +103,11 @@ public abstract class LeafBucketCollector implements LeafCollector {
         collect(doc, 0);
     }
 
+    @Override
+    public final void collect(DocIdStream stream) throws IOException {
+        collect(stream, 0);
+    }
+
     @Override
     public void setScorer(Scorable scorer) throws IOException {
         // no-op by default
@@ -13,6 +13,7 @@ import org.apache.logging.log4j.Logger;
 import org.apache.lucene.index.DocValues;
 import org.apache.lucene.index.NumericDocValues;
 import org.apache.lucene.index.SortedNumericDocValues;
+import org.apache.lucene.search.DocIdStream;
 import org.apache.lucene.search.ScoreMode;
 import org.apache.lucene.util.CollectionUtil;
 import org.elasticsearch.common.Rounding;
@@ -315,12 +316,52 @@ class DateHistogramAggregator extends BucketsAggregator implements SizedBucketAg
 
     private LeafBucketCollector getLeafCollector(NumericDocValues values, LeafBucketCollector sub) {
         return new LeafBucketCollectorBase(sub, values) {
+            private boolean hasLast;
+            private long lastRounded;
+            private long lastBucketOrd;
+
             @Override
             public void collect(int doc, long owningBucketOrd) throws IOException {
                 if (values.advanceExact(doc)) {
                     addRoundedValue(preparedRounding.round(values.longValue()), doc, owningBucketOrd, sub);
                 }
             }
+
+            /**
+             * Docs in a stream are close together so they usually round to the same
+             * bucket. Remember the last bucket and only look up the ordinal again
+             * when the rounded value changes.
+             */
+            @Override
+            public void collect(DocIdStream stream, long owningBucketOrd) throws IOException {
+                hasLast = false;
+                stream.forEach(doc -> {
+                    if (false == values.advanceExact(doc)) {
+                        return;
+                    }
+                    final long rounded = preparedRounding.round(values.longValue());
+                    if (hasLast && rounded == lastRounded) {
+                        if (lastBucketOrd >= 0) {
+                            collectExistingBucket(sub, doc, lastBucketOrd);
+                        }
+                        return;
+                    }
+                    hasLast = true;
+                    lastRounded = rounded;
+                    if (hardBounds != null && false == hardBounds.contain(rounded)) {
+                        lastBucketOrd = -1;
+                        return;
+                    }
+                    long bucketOrd = bucketOrds.add(owningBucketOrd, rounded);
+                    if (bucketOrd < 0) { // already seen
+                        bucketOrd = -1 - bucketOrd;
+                        collectExistingBucket(sub, doc, bucketOrd);
+                    } else {
+                        collectBucket(sub, doc, bucketOrd);
+                    }
+                    lastBucketOrd = bucketOrd;
+                });
+            }
         };
     }
 
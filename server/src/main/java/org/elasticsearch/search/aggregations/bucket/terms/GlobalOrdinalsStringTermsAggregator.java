@@ -14,6 +14,10 @@ import org.apache.lucene.index.LeafReader;
 import org.apache.lucene.index.LeafReaderContext;
 import org.apache.lucene.index.SortedDocValues;
 import org.apache.lucene.index.SortedSetDocValues;
+import org.apache.lucene.index.Terms;
+import org.apache.lucene.index.TermsEnum;
+import org.apache.lucene.search.ScoreMode;
+import org.apache.lucene.search.Weight;
 import org.apache.lucene.util.ArrayUtil;
 import org.apache.lucene.util.Bits;
 import org.apache.lucene.util.BytesRef;
@@ -269,9 +273,18 @@ public class GlobalOrdinalsStringTermsAggregator extends AbstractStringTermsAggr
      */
     static class LowCardinality extends GlobalOrdinalsStringTermsAggregator {
 
+        /**
+         * An indexed field whose postings contain exactly the same terms for
+         * each document as the doc values we aggregate, or {@code null} if we
+         * can't count from term frequencies.
+         */
+        @Nullable
+        private final String termFrequenciesField;
+        private Weight topLevelWeight;
         private LongUnaryOperator mapping;
         private LongArray segmentDocCounts;
         protected int segmentsWithoutValues = 0;
+        private int segmentsCountedFromTermFrequencies = 0;
 
         LowCardinality(
             String name,
@@ -288,7 +301,8 @@ public class GlobalOrdinalsStringTermsAggregator extends AbstractStringTermsAggr
             SubAggCollectionMode collectionMode,
             boolean showTermDocCountError,
             Map<String, Object> metadata,
-            boolean excludeDeletedDocs
+            boolean excludeDeletedDocs,
+            @Nullable String termFrequenciesField
         ) throws IOException {
             super(
                 name,
@@ -310,6 +324,8 @@ public class GlobalOrdinalsStringTermsAggregator extends AbstractStringTermsAggr
                 excludeDeletedDocs
             );
             assert factories == null || factories.countAggregators() == 0;
+            assert termFrequenciesField == null || parent == null : "can only count from term frequencies at the top level";
+            this.termFrequenciesField = termFrequenciesField;
             this.segmentDocCounts = context.bigArrays().newLongArray(1, true);
         }
 
@@ -326,6 +342,10 @@ public class GlobalOrdinalsStringTermsAggregator extends AbstractStringTermsAggr
             }
             segmentDocCounts = bigArrays().grow(segmentDocCounts, 1 + segmentOrds.getValueCount());
             assert sub.isNoop();
+            if (tryCountFromTermFrequencies(aggCtx.getLeafReaderContext(), segmentOrds)) {
+                segmentsCountedFromTermFrequencies++;
+                return LeafBucketCollector.NO_OP_COLLECTOR;
+            }
             final SortedDocValues singleValues = DocValues.unwrapSingleton(segmentOrds);
             // Dense mode doesn't support include/exclude so we don't have to check it here.
             if (singleValues != null) {
@@ -360,6 +380,43 @@ public class GlobalOrdinalsStringTermsAggregator extends AbstractStringTermsAggr
             });
         }
 
+        /**
+         * Fill {@link #segmentDocCounts} from the term dictionary of the
+         * indexed field instead of visiting every document when all of the
+         * documents in the segment match the top level query. This makes
+         * repeatedly asking for the top terms of an unchanged segment a scan
+         * over its terms rather than over its documents.
+         */
+        private boolean tryCountFromTermFrequencies(LeafReaderContext ctx, SortedSetDocValues segmentOrds) throws IOException {
+            if (termFrequenciesField == null || false == docCountProvider.alwaysOne()) {
+                return false;
+            }
+            if (topLevelWeight == null) {
+                topLevelWeight = searcher().createWeight(searcher().rewrite(topLevelQuery()), ScoreMode.COMPLETE_NO_SCORES, 1.0f);
+            }
+            // Matching maxDoc documents also means that there aren't any deleted documents
+            if (topLevelWeight.count(ctx) != ctx.reader().maxDoc()) {
+                return false;
+            }
+            Terms indexedTerms = ctx.reader().terms(termFrequenciesField);
+            if (indexedTerms == null) {
+                return false;
+            }
+            TermsEnum indexedTermsEnum = indexedTerms.iterator();
+            TermsEnum docValuesTermsEnum = segmentOrds.termsEnum();
+            long ord = 0;
+            for (BytesRef term = docValuesTermsEnum.next(); term != null; term = docValuesTermsEnum.next()) {
+                if (false == indexedTermsEnum.seekExact(term)) {
+                    // The postings don't line up with the doc values so fall back to collecting
+                    segmentDocCounts.fill(1, ord + 1, 0);
+                    return false;
+                }
+                segmentDocCounts.set(ord + 1, indexedTermsEnum.docFreq());
+                ord++;
+            }
+            return true;
+        }
+
         @Override
         protected void doPostCollection() throws IOException {
             if (mapping != null) {
@@ -372,6 +429,7 @@ public class GlobalOrdinalsStringTermsAggregator extends AbstractStringTermsAggr
         public void collectDebugInfo(BiConsumer<String, Object> add) {
             super.collectDebugInfo(add);
             add.accept("segments_without_values", segmentsWithoutValues);
+            add.accept("segments_counted_from_term_frequencies", segmentsCountedFromTermFrequencies);
         }
 
         @Override
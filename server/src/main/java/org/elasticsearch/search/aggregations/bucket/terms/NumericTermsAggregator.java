@@ -12,6 +12,7 @@ import org.apache.lucene.index.DocValues;
 import org.apache.lucene.index.LeafReaderContext;
 import org.apache.lucene.index.NumericDocValues;
 import org.apache.lucene.index.SortedNumericDocValues;
+import org.apache.lucene.search.DocIdStream;
 import org.apache.lucene.search.ScoreMode;
 import org.apache.lucene.util.NumericUtils;
 import org.elasticsearch.common.util.LongArray;
@@ -114,12 +115,52 @@ public final class NumericTermsAggregator extends TermsAggregator {
 
     private LeafBucketCollector getLeafCollector(NumericDocValues values, LeafBucketCollector sub) {
         return new LeafBucketCollectorBase(sub, values) {
+            private boolean hasLast;
+            private long lastValue;
+            private long lastBucketOrd;
+
             @Override
             public void collect(int doc, long owningBucketOrd) throws IOException {
                 if (values.advanceExact(doc)) {
                     collectValue(values.longValue(), doc, owningBucketOrd, sub);
                 }
             }
+
+            /**
+             * Runs of docs with the same value are common when the index is sorted
+             * on the field, so remember the last bucket and only look up the ordinal
+             * again when the value changes.
+             */
+            @Override
+            public void collect(DocIdStream stream, long owningBucketOrd) throws IOException {
+                hasLast = false;
+                stream.forEach(doc -> {
+                    if (false == values.advanceExact(doc)) {
+                        return;
+                    }
+                    final long val = values.longValue();
+                    if (hasLast && val == lastValue) {
+                        if (lastBucketOrd >= 0) {
+                            collectExistingBucket(sub, doc, lastBucketOrd);
+                        }
+                        return;
+                    }
+                    hasLast = true;
+                    lastValue = val;
+                    if (longFilter != null && false == longFilter.accept(val)) {
+                        lastBucketOrd = -1;
+                        return;
+                    }
+                    long bucketOrdinal = bucketOrds.add(owningBucketOrd, val);
+                    if (bucketOrdinal < 0) { // already seen
+                        bucketOrdinal = -1 - bucketOrdinal;
+                        collectExistingBucket(sub, doc, bucketOrdinal);
+                    } else {
+                        collectBucket(sub, doc, bucketOrdinal);
+                    }
+                    lastBucketOrd = bucketOrdinal;
+                });
+            }
         };
     }
 
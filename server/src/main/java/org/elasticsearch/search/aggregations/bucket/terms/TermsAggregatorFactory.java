@@ -16,6 +16,7 @@ import org.apache.lucene.index.IndexReader;
 import org.apache.lucene.index.SortedSetDocValues;
 import org.apache.lucene.search.IndexSearcher;
 import org.elasticsearch.ElasticsearchStatusException;
+import org.elasticsearch.index.mapper.KeywordFieldMapper;
 import org.elasticsearch.rest.RestStatus;
 import org.elasticsearch.search.DocValueFormat;
 import org.elasticsearch.search.aggregations.Aggregator;
@@ -500,6 +501,23 @@ public class TermsAggregatorFactory extends ValuesSourceAggregatorFactory {
                      *  which directly linked to maxOrd, so we need to limit).
                      */
                     logger.debug("Using low cardinality global ordinals implementation");
+                    /*
+                     * At the top level we can count straight from the term
+                     * frequencies of segments that match all documents as long as
+                     * the field indexes exactly the terms it has in doc values.
+                     * We switch that off together with filter-by-filter because
+                     * both trust the top level query to describe every document
+                     * that gets collected. A script or a missing value changes
+                     * the values at read time so the index no longer describes
+                     * them, even if the missing value is an existing term.
+                     */
+                    String termFrequenciesField = parent == null
+                        && context.enableRewriteToFilterByFilter()
+                        && false == context.isInSortOrderExecutionRequired()
+                        && valuesSourceConfig.alignesWithSearchIndex()
+                        && valuesSourceConfig.fieldType() instanceof KeywordFieldMapper.KeywordFieldType keywordFieldType
+                        && keywordFieldType.isIndexed()
+                        && keywordFieldType.hasDocValues() ? keywordFieldType.name() : null;
                     return new GlobalOrdinalsStringTermsAggregator.LowCardinality(
                         name,
                         factories,
@@ -515,7 +533,8 @@ public class TermsAggregatorFactory extends ValuesSourceAggregatorFactory {
                         subAggCollectMode,
                         showTermDocCountError,
                         metadata,
-                        excludeDeletedDocs
+                        excludeDeletedDocs,
+                        termFrequenciesField
                     );
 
                 }
@@ -10,6 +10,7 @@ package org.elasticsearch.search.aggregations.metrics;
 
 import org.apache.lucene.index.LeafReader;
 import org.apache.lucene.index.PointValues;
+import org.apache.lucene.search.DocIdStream;
 import org.apache.lucene.search.ScoreMode;
 import org.apache.lucene.util.Bits;
 import org.elasticsearch.common.util.DoubleArray;
@@ -83,22 +84,40 @@ class MaxAggregator extends NumericMetricsAggregator.SingleValue {
         final SortedNumericDoubleValues allValues = valuesSource.doubleValues(aggCtx.getLeafReaderContext());
         final NumericDoubleValues values = MultiValueMode.MAX.select(allValues);
         return new LeafBucketCollectorBase(sub, allValues) {
+            private double streamMax;
 
             @Override
             public void collect(int doc, long bucket) throws IOException {
                 if (values.advanceExact(doc)) {
-                    if (bucket >= maxes.size()) {
-                        long from = maxes.size();
-                        maxes = bigArrays().grow(maxes, bucket + 1);
-                        maxes.fill(from, maxes.size(), Double.NEGATIVE_INFINITY);
-                    }
+                    maybeGrow(bucket);
                     maxes.set(bucket, Math.max(maxes.get(bucket), values.doubleValue()));
                 }
             }
 
+            @Override
+            public void collect(DocIdStream stream, long bucket) throws IOException {
+                streamMax = Double.NEGATIVE_INFINITY;
+                stream.forEach(doc -> {
+                    if (values.advanceExact(doc)) {
+                        streamMax = Math.max(streamMax, values.doubleValue());
+                    }
+                });
+                if (streamMax != Double.NEGATIVE_INFINITY) {
+                    maybeGrow(bucket);
+                    maxes.set(bucket, Math.max(maxes.get(bucket), streamMax));
+                }
+            }
         };
     }
 
+    private void maybeGrow(long bucket) {
+        if (bucket >= maxes.size()) {
+            long from = maxes.size();
+            maxes = bigArrays().grow(maxes, bucket + 1);
+            maxes.fill(from, maxes.size(), Double.NEGATIVE_INFINITY);
+        }
+    }
+
     @Override
     public double metric(long owningBucketOrd) {
         if (owningBucketOrd >= maxes.size()) {
@@ -8,6 +8,7 @@
  */
 package org.elasticsearch.search.aggregations.metrics;
 
+import org.apache.lucene.search.DocIdStream;
 import org.elasticsearch.common.util.DoubleArray;
 import org.elasticsearch.core.Releasables;
 import org.elasticsearch.index.fielddata.NumericDoubleValues;
@@ -69,6 +70,8 @@ public class SumAggregator extends NumericMetricsAggregator.SingleDoubleValue {
     protected LeafBucketCollector getLeafCollector(NumericDoubleValues values, final LeafBucketCollector sub) {
         final CompensatedSum kahanSummation = new CompensatedSum(0, 0);
         return new LeafBucketCollectorBase(sub, values) {
+            private boolean streamHasValues;
+
             @Override
             public void collect(int doc, long bucket) throws IOException {
                 if (values.advanceExact(doc)) {
@@ -81,6 +84,27 @@ public class SumAggregator extends NumericMetricsAggregator.SingleDoubleValue {
                     sums.set(bucket, kahanSummation.value());
                 }
             }
+
+            @Override
+            public void collect(DocIdStream stream, long bucket) throws IOException {
+                // Keep summing into the same accumulator for the whole stream and only store the result once
+                streamHasValues = false;
+                stream.forEach(doc -> {
+                    if (values.advanceExact(doc)) {
+                        if (streamHasValues == false) {
+                            streamHasValues = true;
+                            maybeGrow(bucket);
+                            kahanSummation.reset(sums.get(bucket), compensations.get(bucket));
+                        }
+                        kahanSummation.add(values.doubleValue());
+                    }
+                });
+                if (streamHasValues == false) {
+                    return;
+                }
+                compensations.set(bucket, kahanSummation.delta());
+                sums.set(bucket, kahanSummation.value());
+            }
         };
     }
 
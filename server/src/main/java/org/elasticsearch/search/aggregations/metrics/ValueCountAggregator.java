@@ -9,6 +9,7 @@
 package org.elasticsearch.search.aggregations.metrics;
 
 import org.apache.lucene.index.SortedNumericDocValues;
+import org.apache.lucene.search.DocIdStream;
 import org.apache.lucene.search.ScoreMode;
 import org.elasticsearch.common.util.LongArray;
 import org.elasticsearch.core.Releasables;
@@ -57,6 +58,7 @@ public final class ValueCountAggregator extends NumericMetricsAggregator.SingleV
         if (valuesSource instanceof ValuesSource.Numeric) {
             final SortedNumericDocValues values = ((ValuesSource.Numeric) valuesSource).longValues(aggCtx.getLeafReaderContext());
             return new LeafBucketCollectorBase(sub, values) {
+                private long streamCount;
 
                 @Override
                 public void collect(int doc, long bucket) throws IOException {
@@ -65,6 +67,20 @@ public final class ValueCountAggregator extends NumericMetricsAggregator.SingleV
                         counts.increment(bucket, values.docValueCount());
                     }
                 }
+
+                @Override
+                public void collect(DocIdStream stream, long bucket) throws IOException {
+                    streamCount = 0;
+                    stream.forEach(doc -> {
+                        if (values.advanceExact(doc)) {
+                            streamCount += values.docValueCount();
+                        }
+                    });
+                    if (streamCount > 0) {
+                        counts = bigArrays().grow(counts, bucket + 1);
+                        counts.increment(bucket, streamCount);
+                    }
+                }
             };
         }
         if (valuesSource instanceof ValuesSource.Bytes.GeoPoint) {
@@ -23,6 +23,7 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 
 /**
@@ -36,6 +37,7 @@ public final class QueryProfileShardResult implements Writeable, ToXContentObjec
     public static final String QUERY_ARRAY = "query";
 
     public static final String VECTOR_OPERATIONS_COUNT = "vector_operations_count";
+    public static final String KNN_SEARCH_STRATEGIES = "knn_search_strategies";
 
     private final List<ProfileResult> queryProfileResults;
 
@@ -45,17 +47,30 @@ public final class QueryProfileShardResult implements Writeable, ToXContentObjec
 
     private final Long vectorOperationsCount;
 
+    private final Map<String, Long> knnSearchStrategies;
+
     public QueryProfileShardResult(
         List<ProfileResult> queryProfileResults,
         long rewriteTime,
         CollectorResult profileCollector,
         @Nullable Long vectorOperationsCount
+    ) {
+        this(queryProfileResults, rewriteTime, profileCollector, vectorOperationsCount, null);
+    }
+
+    public QueryProfileShardResult(
+        List<ProfileResult> queryProfileResults,
+        long rewriteTime,
+        CollectorResult profileCollector,
+        @Nullable Long vectorOperationsCount,
+        @Nullable Map<String, Long> knnSearchStrategies
     ) {
         assert (profileCollector != null);
         this.queryProfileResults = queryProfileResults;
         this.profileCollector = profileCollector;
         this.rewriteTime = rewriteTime;
         this.vectorOperationsCount = vectorOperationsCount;
+        this.knnSearchStrategies = knnSearchStrategies;
     }
 
     /**
@@ -71,6 +86,11 @@ public final class QueryProfileShardResult implements Writeable, ToXContentObjec
         profileCollector = new CollectorResult(in);
         rewriteTime = in.readLong();
         vectorOperationsCount = (in.getTransportVersion().onOrAfter(TransportVersions.V_8_12_0)) ? in.readOptionalLong() : null;
+        if (in.getTransportVersion().onOrAfter(TransportVersions.KNN_SEARCH_STRATEGY_PROFILE)) {
+            knnSearchStrategies = in.readBoolean() ? in.readImmutableMap(StreamInput::readLong) : null;
+        } else {
+            knnSearchStrategies = null;
+        }
     }
 
     @Override
@@ -84,6 +104,12 @@ public final class QueryProfileShardResult implements Writeable, ToXContentObjec
         if (out.getTransportVersion().onOrAfter(TransportVersions.V_8_12_0)) {
             out.writeOptionalLong(vectorOperationsCount);
         }
+        if (out.getTransportVersion().onOrAfter(TransportVersions.KNN_SEARCH_STRATEGY_PROFILE)) {
+            out.writeBoolean(knnSearchStrategies != null);
+            if (knnSearchStrategies != null) {
+                out.writeMap(knnSearchStrategies, StreamOutput::writeLong);
+            }
+        }
     }
 
     public List<ProfileResult> getQueryResults() {
@@ -98,12 +124,23 @@ public final class QueryProfileShardResult implements Writeable, ToXContentObjec
         return profileCollector;
     }
 
+    /**
+     * The number of segments that a filtered kNN search searched with each strategy, or {@code null} if this is not a kNN search.
+     */
+    @Nullable
+    public Map<String, Long> getKnnSearchStrategies() {
+        return knnSearchStrategies;
+    }
+
     @Override
     public XContentBuilder toXContent(XContentBuilder builder, Params params) throws IOException {
         builder.startObject();
         if (vectorOperationsCount != null) {
             builder.field(VECTOR_OPERATIONS_COUNT, vectorOperationsCount);
         }
+        if (knnSearchStrategies != null && knnSearchStrategies.isEmpty() == false) {
+            builder.field(KNN_SEARCH_STRATEGIES, knnSearchStrategies);
+        }
         builder.startArray(QUERY_ARRAY);
         for (ProfileResult p : queryProfileResults) {
             p.toXContent(builder, params);
@@ -125,12 +162,13 @@ public final class QueryProfileShardResult implements Writeable, ToXContentObjec
         QueryProfileShardResult other = (QueryProfileShardResult) obj;
         return queryProfileResults.equals(other.queryProfileResults)
             && profileCollector.equals(other.profileCollector)
-            && rewriteTime == other.rewriteTime;
+            && rewriteTime == other.rewriteTime
+            && Objects.equals(knnSearchStrategies, other.knnSearchStrategies);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(queryProfileResults, profileCollector, rewriteTime);
+        return Objects.hash(queryProfileResults, profileCollector, rewriteTime, knnSearchStrategies);
     }
 
     @Override
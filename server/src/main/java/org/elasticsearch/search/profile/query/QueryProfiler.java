@@ -13,6 +13,8 @@ import org.apache.lucene.search.Query;
 import org.elasticsearch.search.profile.AbstractProfiler;
 import org.elasticsearch.search.profile.Timer;
 
+import java.util.Map;
+
 import static java.util.Objects.requireNonNull;
 
 /**
@@ -35,6 +37,8 @@ public final class QueryProfiler extends AbstractProfiler<QueryProfileBreakdown,
 
     private long vectorOpsCount;
 
+    private Map<String, Long> knnSearchStrategies;
+
     public QueryProfiler() {
         super(new InternalQueryProfileTree());
     }
@@ -47,6 +51,17 @@ public final class QueryProfiler extends AbstractProfiler<QueryProfileBreakdown,
         return this.vectorOpsCount;
     }
 
+    /**
+     * Set the number of segments that a filtered kNN search searched with each strategy.
+     */
+    public void setKnnSearchStrategies(Map<String, Long> knnSearchStrategies) {
+        this.knnSearchStrategies = knnSearchStrategies;
+    }
+
+    public Map<String, Long> getKnnSearchStrategies() {
+        return this.knnSearchStrategies;
+    }
+
     /** Set the collector result that is associated with this profiler. */
     public void setCollectorResult(CollectorResult collectorResult) {
         if (this.collectorResult != null) {
@@ -9,20 +9,72 @@
 
 package org.elasticsearch.search.vectors;
 
+import org.apache.lucene.index.ByteVectorValues;
+import org.apache.lucene.index.LeafReaderContext;
 import org.apache.lucene.search.KnnByteVectorQuery;
 import org.apache.lucene.search.Query;
 import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.search.knn.KnnCollectorManager;
+import org.apache.lucene.util.BitSet;
+import org.apache.lucene.util.BitSetIterator;
+import org.apache.lucene.util.Bits;
 import org.elasticsearch.search.profile.query.QueryProfiler;
 
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLongArray;
+
 public class ESKnnByteVectorQuery extends KnnByteVectorQuery implements ProfilingQuery {
     private final Integer kParam;
     private long vectorOpsCount;
+    // segments may be searched concurrently
+    private final AtomicLongArray strategyCounts = new AtomicLongArray(KnnSearchStrategy.values().length);
 
     public ESKnnByteVectorQuery(String field, byte[] target, Integer k, int numCands, Query filter) {
         super(field, target, numCands, filter);
         this.kParam = k;
     }
 
+    @Override
+    protected TopDocs approximateSearch(
+        LeafReaderContext context,
+        Bits acceptDocs,
+        int visitedLimit,
+        KnnCollectorManager knnCollectorManager
+    ) throws IOException {
+        // the strategy is only picked for filtered searches, which accept the docs of a bit set
+        if (getFilter() == null || acceptDocs instanceof BitSet == false) {
+            return super.approximateSearch(context, acceptDocs, visitedLimit, knnCollectorManager);
+        }
+        ByteVectorValues vectorValues = context.reader().getByteVectorValues(getField());
+        if (vectorValues == null) {
+            return super.approximateSearch(context, acceptDocs, visitedLimit, knnCollectorManager);
+        }
+        BitSet filterBits = (BitSet) acceptDocs;
+        int filterCost = filterBits.cardinality();
+        KnnSearchStrategy strategy = KnnSearchStrategy.choose(getK(), vectorValues.size(), filterCost);
+        strategyCounts.incrementAndGet(strategy.ordinal());
+        return switch (strategy) {
+            case EXACT -> exactSearch(
+                context,
+                new BitSetIterator(filterBits, filterCost),
+                KnnSearchStrategy.queryTimeout(knnCollectorManager)
+            );
+            case POST_FILTER -> {
+                int postFilterK = KnnSearchStrategy.postFilterK(getK(), vectorValues.size(), filterCost);
+                TopDocs unfiltered = super.approximateSearch(
+                    context,
+                    context.reader().getLiveDocs(),
+                    Integer.MAX_VALUE,
+                    KnnSearchStrategy.postFilterCollectorManager(postFilterK, knnCollectorManager)
+                );
+                TopDocs filtered = KnnSearchStrategy.postFilter(unfiltered, filterBits, getK());
+                // too few of the candidates match the filter, search again with it
+                yield filtered != null ? filtered : super.approximateSearch(context, acceptDocs, visitedLimit, knnCollectorManager);
+            }
+            case FILTERED_GRAPH -> super.approximateSearch(context, acceptDocs, visitedLimit, knnCollectorManager);
+        };
+    }
+
     @Override
     protected TopDocs mergeLeafResults(TopDocs[] perLeafResults) {
         // if k param is set, we get only top k results from each shard
@@ -34,5 +86,6 @@ public class ESKnnByteVectorQuery extends KnnByteVectorQuery implements Profilin
     @Override
     public void profile(QueryProfiler queryProfiler) {
         queryProfiler.setVectorOpsCount(vectorOpsCount);
+        queryProfiler.setKnnSearchStrategies(KnnSearchStrategy.profile(strategyCounts));
     }
 }
@@ -0,0 +1,142 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+
+package org.elasticsearch.search.vectors;
+
+import org.apache.lucene.index.QueryTimeout;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.TimeLimitingKnnCollectorManager;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.search.TopKnnCollector;
+import org.apache.lucene.search.knn.KnnCollectorManager;
+import org.apache.lucene.util.Bits;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * How a filtered kNN search is executed on a segment. The strategy is picked per segment from the number of documents that match the
+ * filter compared to the number of vectors in the segment:
+ * <ul>
+ *     <li>a filter that matches most vectors barely restricts the graph, so the graph is searched without the filter for enough more
+ *     candidates that {@code k} of them are expected to match, and the others are dropped afterwards</li>
+ *     <li>a filter that matches few vectors makes the graph search visit many vectors for each one it accepts, so scoring all the
+ *     matching vectors is cheaper</li>
+ *     <li>the graph is searched with the filter otherwise</li>
+ * </ul>
+ */
+enum KnnSearchStrategy {
+
+    FILTERED_GRAPH("filtered_graph"),
+    EXACT("exact"),
+    POST_FILTER("post_filter");
+
+    // below this share of matching vectors, too many candidates are dropped for post-filtering to be worth it
+    static final double POST_FILTER_MIN_SELECTIVITY = 0.8;
+
+    // the number of standard deviations by which an unfiltered search oversamples the candidates it expects to need
+    static final double POST_FILTER_OVERSAMPLING_STDDEVS = 3;
+
+    // the name under which the number of segments searched with this strategy is reported in the profile
+    private final String profileName;
+
+    KnnSearchStrategy(String profileName) {
+        this.profileName = profileName;
+    }
+
+    /**
+     * Picks the strategy to search a segment.
+     *
+     * @param k the number of nearest neighbors to collect from the segment
+     * @param numVectors the number of vectors of the field in the segment
+     * @param filterCost the number of documents that match the filter in the segment
+     */
+    static KnnSearchStrategy choose(int k, int numVectors, int filterCost) {
+        if (numVectors <= 0) {
+            return FILTERED_GRAPH;
+        }
+        if (filterCost <= k) {
+            return EXACT;
+        }
+        final double selectivity = Math.min(1d, (double) filterCost / numVectors);
+        if (selectivity >= POST_FILTER_MIN_SELECTIVITY) {
+            return POST_FILTER;
+        }
+        // a graph search visits in the order of k * log(n) vectors, and only accepts the share of them that match the filter
+        final double graphCost = k * Math.max(1d, Math.log(numVectors) / Math.log(2)) / selectivity;
+        return filterCost <= graphCost ? EXACT : FILTERED_GRAPH;
+    }
+
+    /**
+     * The number of candidates to collect from an unfiltered graph search so that at least {@code k} of them match the filter in all but
+     * a small share of the searches. If the candidates match the filter independently of each other, the number of matches among
+     * {@code n} candidates is binomial with mean {@code n * s} and variance {@code n * s * (1 - s)} for a selectivity {@code s}, so
+     * {@code k / s} candidates only have {@code k} matches half of the time. The candidates are oversampled by
+     * {@link #POST_FILTER_OVERSAMPLING_STDDEVS} standard deviations of the number of matches, which leaves a share of about 0.1% of the
+     * searches to fall back to a filtered graph search.
+     */
+    static int postFilterK(int k, int numVectors, int filterCost) {
+        final double selectivity = Math.min(1d, (double) filterCost / numVectors);
+        final double margin = POST_FILTER_OVERSAMPLING_STDDEVS * Math.sqrt(k * (1 - selectivity));
+        return (int) Math.min(numVectors, Math.ceil((k + margin) / selectivity));
+    }
+
+    /**
+     * The timeout that the collector manager passed to {@code approximateSearch} enforces, or {@code null} if there is none.
+     */
+    static QueryTimeout queryTimeout(KnnCollectorManager knnCollectorManager) {
+        return knnCollectorManager instanceof TimeLimitingKnnCollectorManager timeLimiting ? timeLimiting.getQueryTimeout() : null;
+    }
+
+    /**
+     * The collector manager of an unfiltered graph search for {@code postFilterK} candidates, which enforces the same timeout as the
+     * collector manager passed to {@code approximateSearch}.
+     */
+    static KnnCollectorManager postFilterCollectorManager(int postFilterK, KnnCollectorManager knnCollectorManager) {
+        return new TimeLimitingKnnCollectorManager(
+            (visitedLimit, context) -> new TopKnnCollector(postFilterK, visitedLimit),
+            queryTimeout(knnCollectorManager)
+        );
+    }
+
+    /**
+     * Drops the hits of an unfiltered search that do not match the filter.
+     *
+     * @return the {@code k} best matching hits, or {@code null} if fewer than {@code k} hits match the filter
+     */
+    static TopDocs postFilter(TopDocs unfiltered, Bits filter, int k) {
+        final ScoreDoc[] accepted = new ScoreDoc[unfiltered.scoreDocs.length];
+        int count = 0;
+        for (ScoreDoc scoreDoc : unfiltered.scoreDocs) {
+            if (filter.get(scoreDoc.doc)) {
+                accepted[count++] = scoreDoc;
+                if (count == k) {
+                    return new TopDocs(unfiltered.totalHits, Arrays.copyOf(accepted, count));
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Builds the profile of the number of segments searched with each strategy, from counts indexed by the strategy ordinals.
+     */
+    static Map<String, Long> profile(AtomicLongArray counts) {
+        final Map<String, Long> profile = new TreeMap<>();
+        for (KnnSearchStrategy strategy : values()) {
+            final long count = counts.get(strategy.ordinal());
+            if (count > 0) {
+                profile.put(strategy.profileName, count);
+            }
+        }
+        return profile;
+    }
+}
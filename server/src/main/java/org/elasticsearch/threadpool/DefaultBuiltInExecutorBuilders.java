@@ -155,6 +155,10 @@ public class DefaultBuiltInExecutorBuilders implements BuiltInExecutorBuilders {
                 EsExecutors.TaskTrackingConfig.DO_NOT_TRACK
             )
         );
+        result.put(
+            ThreadPool.Names.HNSW_MERGE,
+            new ScalingExecutorBuilder(ThreadPool.Names.HNSW_MERGE, 1, halfProc, TimeValue.timeValueMinutes(5), false)
+        );
         result.put(
             ThreadPool.Names.CLUSTER_COORDINATION,
             new FixedExecutorBuilder(settings, ThreadPool.Names.CLUSTER_COORDINATION, 1, -1, EsExecutors.TaskTrackingConfig.DO_NOT_TRACK)
@@ -19,6 +19,8 @@ import org.elasticsearch.common.bytes.BytesReference;
 import org.elasticsearch.core.Booleans;
 import org.elasticsearch.lz4.ESLZ4Compressor;
 import org.elasticsearch.lz4.ESLZ4Decompressor;
+import org.elasticsearch.nativeaccess.NativeAccess;
+import org.elasticsearch.nativeaccess.Zstd;
 
 import java.io.IOException;
 import java.io.OutputStream;
@@ -27,12 +29,15 @@ public class Compression {
 
     public enum Scheme {
         LZ4,
-        DEFLATE;
+        DEFLATE,
+        ZSTD;
 
         static final TransportVersion LZ4_VERSION = TransportVersions.V_7_14_0;
+        static final TransportVersion ZSTD_VERSION = TransportVersions.ZSTD_TRANSPORT_COMPRESSION;
         static final int HEADER_LENGTH = 4;
         private static final byte[] DEFLATE_HEADER = new byte[] { 'D', 'F', 'L', '\0' };
         private static final byte[] LZ4_HEADER = new byte[] { 'L', 'Z', '4', '\0' };
+        private static final byte[] ZSTD_HEADER = new byte[] { 'Z', 'S', 'T', '\0' };
         private static final int LZ4_BLOCK_SIZE;
         private static final boolean USE_FORKED_LZ4;
 
@@ -69,6 +74,15 @@ public class Compression {
             }
         }
 
+        public static boolean isZstd(BytesReference bytes) {
+            byte firstByte = bytes.get(0);
+            if (firstByte != Scheme.ZSTD_HEADER[0]) {
+                return false;
+            } else {
+                return validateHeader(bytes, ZSTD_HEADER);
+            }
+        }
+
         private static boolean validateHeader(BytesReference bytes, byte[] header) {
             for (int i = 1; i < Compression.Scheme.HEADER_LENGTH; ++i) {
                 if (bytes.get(i) != header[i]) {
@@ -96,6 +110,33 @@ public class Compression {
             }
             return new ReuseBuffersLZ4BlockOutputStream(outputStream, LZ4_BLOCK_SIZE, lz4Compressor);
         }
+
+        /**
+         * Whether this node can compress and decompress zstd, which needs native access.
+         */
+        public static boolean isZstdAvailable() {
+            return ZstdHolder.ZSTD != null;
+        }
+
+        /**
+         * The native zstd binding, or an {@link IllegalStateException} if native access is not available on this node.
+         */
+        static Zstd zstd() {
+            if (ZstdHolder.ZSTD == null) {
+                throw new IllegalStateException("cannot use zstd transport compression because native access is not available");
+            }
+            return ZstdHolder.ZSTD;
+        }
+
+        public static OutputStream zstdOutputStream(OutputStream outputStream) throws IOException {
+            outputStream.write(ZSTD_HEADER);
+            return new ZstdBlockOutputStream(outputStream);
+        }
+    }
+
+    // looked up once because the lookup logs a warning every time native access is not available
+    private static final class ZstdHolder {
+        private static final Zstd ZSTD = NativeAccess.instance().getZstd();
     }
 
     public enum Enabled {
@@ -9,11 +9,13 @@
 
 package org.elasticsearch.transport;
 
+import org.apache.lucene.util.BytesRef;
 import org.elasticsearch.common.breaker.CircuitBreaker;
 import org.elasticsearch.common.breaker.CircuitBreakingException;
 import org.elasticsearch.common.bytes.BytesReference;
 import org.elasticsearch.common.bytes.CompositeBytesReference;
 import org.elasticsearch.common.bytes.ReleasableBytesReference;
+import org.elasticsearch.common.recycler.Recycler;
 import org.elasticsearch.core.Releasable;
 import org.elasticsearch.core.Releasables;
 
@@ -31,6 +33,7 @@ public class InboundAggregator implements Releasable {
 
     private ReleasableBytesReference firstContent;
     private ArrayList<ReleasableBytesReference> contentAggregation;
+    private Recycler<BytesRef> deferredDecompressionRecycler;
     private Header currentHeader;
     private Exception aggregationException;
     private boolean canTripBreaker = true;
@@ -75,6 +78,16 @@ public class InboundAggregator implements Releasable {
         currentHeader.setCompressionScheme(compressionScheme);
     }
 
+    /**
+     * Keep the content of the current message compressed, it is decompressed with pages from the given recycler when it is read.
+     */
+    public void deferDecompression(Recycler<BytesRef> recycler) {
+        ensureOpen();
+        assert isAggregating();
+        assert firstContent == null && contentAggregation == null;
+        deferredDecompressionRecycler = recycler;
+    }
+
     public void aggregate(ReleasableBytesReference content) {
         ensureOpen();
         assert isAggregating();
@@ -107,7 +120,12 @@ public class InboundAggregator implements Releasable {
         }
 
         final BreakerControl breakerControl = new BreakerControl(circuitBreaker);
-        final InboundMessage aggregated = new InboundMessage(currentHeader, releasableContent, breakerControl);
+        final InboundMessage aggregated = new InboundMessage(
+            currentHeader,
+            releasableContent,
+            breakerControl,
+            deferredDecompressionRecycler
+        );
         boolean success = false;
         try {
             if (aggregated.getHeader().needsToReadVariableHeader()) {
@@ -119,6 +137,9 @@ public class InboundAggregator implements Releasable {
             if (isShortCircuited() == false) {
                 checkBreaker(aggregated.getHeader(), aggregated.getContentLength(), breakerControl);
             }
+            if (isShortCircuited() == false && aggregated.hasCompressedContent()) {
+                checkDecompressedBreaker(aggregated, breakerControl);
+            }
             if (isShortCircuited()) {
                 aggregated.decRef();
                 success = true;
@@ -174,6 +195,7 @@ public class InboundAggregator implements Releasable {
     private void resetCurrentAggregation() {
         firstContent = null;
         contentAggregation = null;
+        deferredDecompressionRecycler = null;
         currentHeader = null;
         aggregationException = null;
         canTripBreaker = true;
@@ -224,6 +246,33 @@ public class InboundAggregator implements Releasable {
         }
     }
 
+    /**
+     * The breaker only accounted for the compressed bytes of a message whose decompression is deferred, so also account for the pages it
+     * gets decompressed into, as they are filled. These stay reserved for as long as the compressed bytes.
+     */
+    private void checkDecompressedBreaker(final InboundMessage message, final BreakerControl breakerControl) {
+        final Header header = message.getHeader();
+        if (header.isRequest() == false) {
+            return;
+        }
+
+        final Supplier<CircuitBreaker> breaker = circuitBreaker;
+        final boolean canTrip = canTripBreaker;
+        final String label = header.getActionName();
+        try {
+            message.reserveDecompressedBytesWith(bytes -> {
+                if (canTrip) {
+                    breaker.get().addEstimateBytesAndMaybeBreak(bytes, label);
+                } else {
+                    breaker.get().addWithoutBreaking(bytes);
+                }
+                breakerControl.addReservedBytes(bytes);
+            });
+        } catch (CircuitBreakingException e) {
+            shortCircuit(e);
+        }
+    }
+
     private static class BreakerControl implements Releasable {
 
         private static final int CLOSED = -1;
@@ -240,6 +289,21 @@ public class InboundAggregator implements Releasable {
             assert set : "Expected bytesToRelease to be 0, found " + bytesToRelease.get();
         }
 
+        /**
+         * Reserve further bytes, which may happen on another thread after the control was handed over. If it is already closed then
+         * the bytes are released right away.
+         */
+        private void addReservedBytes(int reservedBytes) {
+            int current;
+            do {
+                current = bytesToRelease.get();
+                if (current == CLOSED) {
+                    circuitBreaker.get().addWithoutBreaking(-reservedBytes);
+                    return;
+                }
+            } while (bytesToRelease.compareAndSet(current, current + reservedBytes) == false);
+        }
+
         @Override
         public void close() {
             final int toRelease = bytesToRelease.getAndSet(CLOSED);
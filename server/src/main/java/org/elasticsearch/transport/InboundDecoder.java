@@ -16,7 +16,6 @@ import org.elasticsearch.common.bytes.BytesReference;
 import org.elasticsearch.common.bytes.ReleasableBytesReference;
 import org.elasticsearch.common.io.stream.StreamInput;
 import org.elasticsearch.common.recycler.Recycler;
-import org.elasticsearch.common.unit.ByteSizeUnit;
 import org.elasticsearch.common.unit.ByteSizeValue;
 import org.elasticsearch.core.Releasable;
 import org.elasticsearch.core.Releasables;
@@ -30,27 +29,56 @@ public class InboundDecoder implements Releasable {
     static final Object PING = new Object();
     static final Object END_CONTENT = new Object();
 
+    /**
+     * Fragment announcing that the content of the current message is passed on still compressed with the given scheme, to be
+     * decompressed with pages from the given recycler when the message is read.
+     */
+    record CompressedContent(Compression.Scheme scheme, Recycler<BytesRef> recycler) {}
+
+    /**
+     * The maximum size of the headers of messages, unless a lower one is configured for the channel.
+     */
+    public static final ByteSizeValue DEFAULT_MAX_HEADER_SIZE = ByteSizeValue.ofGb(2);
+
     private final Recycler<BytesRef> recycler;
     private TransportDecompressor decompressor;
     private int totalNetworkSize = -1;
     private int bytesConsumed = 0;
     private boolean isCompressed = false;
+    private boolean deferDecompression = false;
+    private boolean compressedContentAnnounced = false;
     private boolean isClosed = false;
     private final ByteSizeValue maxHeaderSize;
     private final ChannelType channelType;
+    private final long deferredDecompressionThreshold;
 
     public InboundDecoder(Recycler<BytesRef> recycler) {
-        this(recycler, new ByteSizeValue(2, ByteSizeUnit.GB), ChannelType.MIX);
+        this(recycler, DEFAULT_MAX_HEADER_SIZE, ChannelType.MIX);
     }
 
     public InboundDecoder(Recycler<BytesRef> recycler, ChannelType channelType) {
-        this(recycler, new ByteSizeValue(2, ByteSizeUnit.GB), channelType);
+        this(recycler, DEFAULT_MAX_HEADER_SIZE, channelType);
     }
 
     public InboundDecoder(Recycler<BytesRef> recycler, ByteSizeValue maxHeaderSize, ChannelType channelType) {
+        this(recycler, maxHeaderSize, channelType, ByteSizeValue.MINUS_ONE);
+    }
+
+    /**
+     * @param deferredDecompressionThreshold compressed messages of at least this size are not decompressed while decoding, instead
+     *                                       their compressed content is decompressed when the message is read, which may happen on
+     *                                       the executor of its handler rather than the network thread. {@code -1} disables this.
+     */
+    public InboundDecoder(
+        Recycler<BytesRef> recycler,
+        ByteSizeValue maxHeaderSize,
+        ChannelType channelType,
+        ByteSizeValue deferredDecompressionThreshold
+    ) {
         this.recycler = recycler;
         this.maxHeaderSize = maxHeaderSize;
         this.channelType = channelType;
+        this.deferredDecompressionThreshold = deferredDecompressionThreshold.getBytes();
     }
 
     public int decode(ReleasableBytesReference reference, Consumer<Object> fragmentConsumer) throws IOException {
@@ -82,6 +110,7 @@ public class InboundDecoder implements Releasable {
                     bytesConsumed += headerBytesToRead;
                     if (header.isCompressed()) {
                         isCompressed = true;
+                        deferDecompression = deferredDecompressionThreshold >= 0 && totalNetworkSize >= deferredDecompressionThreshold;
                     }
                     fragmentConsumer.accept(header);
 
@@ -92,7 +121,16 @@ public class InboundDecoder implements Releasable {
                 }
             }
         } else {
-            if (isCompressed && decompressor == null) {
+            if (deferDecompression) {
+                if (compressedContentAnnounced == false) {
+                    final Compression.Scheme scheme = TransportDecompressor.readScheme(reference);
+                    if (scheme == null) {
+                        return 0;
+                    }
+                    compressedContentAnnounced = true;
+                    fragmentConsumer.accept(new CompressedContent(scheme, recycler));
+                }
+            } else if (isCompressed && decompressor == null) {
                 // Attempt to initialize decompressor
                 TransportDecompressor decompressor = TransportDecompressor.getDecompressor(recycler, reference);
                 if (decompressor == null) {
@@ -148,6 +186,8 @@ public class InboundDecoder implements Releasable {
             Releasables.closeExpectNoException(decompressor);
         } finally {
             isCompressed = false;
+            deferDecompression = false;
+            compressedContentAnnounced = false;
             decompressor = null;
             totalNetworkSize = -1;
             bytesConsumed = 0;
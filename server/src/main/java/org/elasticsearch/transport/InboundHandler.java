@@ -13,6 +13,7 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.apache.lucene.util.BytesRef;
 import org.elasticsearch.TransportVersion;
+import org.elasticsearch.common.CheckedSupplier;
 import org.elasticsearch.common.ReferenceDocs;
 import org.elasticsearch.common.io.stream.ByteBufferStreamInput;
 import org.elasticsearch.common.io.stream.NamedWriteableAwareStreamInput;
@@ -142,16 +143,20 @@ public class InboundHandler {
     ) throws IOException {
         final var header = message.getHeader();
         if (message.getContentLength() > 0 || header.getVersion().equals(TransportVersion.current()) == false) {
-            final StreamInput streamInput = namedWriteableStream(message.openOrGetStreamInput());
-            assert assertRemoteVersion(streamInput, header.getVersion());
+            if (message.hasCompressedContent() && header.isError() == false) {
+                // decompress when reading the response, which happens on the handler's executor if it forks
+                handleResponse(remoteAddress, () -> openStream(message), responseHandler, message);
+                return;
+            }
+            final StreamInput streamInput = openStream(message);
             if (header.isError()) {
                 handlerResponseError(streamInput, message, responseHandler);
             } else {
-                handleResponse(remoteAddress, streamInput, responseHandler, message);
+                handleResponse(remoteAddress, () -> streamInput, responseHandler, message);
             }
         } else {
             assert header.isError() == false;
-            handleResponse(remoteAddress, EMPTY_STREAM_INPUT, responseHandler, message);
+            handleResponse(remoteAddress, () -> EMPTY_STREAM_INPUT, responseHandler, message);
         }
     }
 
@@ -255,6 +260,10 @@ public class InboundHandler {
             }
 
             assert reg != null;
+            if (message.hasCompressedContent() && reg.getExecutor() != EsExecutors.DIRECT_EXECUTOR_SERVICE) {
+                handleCompressedRequestForking(channel, message, reg, transportChannel);
+                return;
+            }
             final StreamInput stream = namedWriteableStream(message.openOrGetStreamInput());
             assert assertRemoteVersion(stream, header.getVersion());
             final T request;
@@ -331,6 +340,80 @@ public class InboundHandler {
         }
     }
 
+    /**
+     * Decompresses and deserializes a request whose content is still compressed on the executor of its handler instead of on the network
+     * thread. Requests to forking handlers have no ordering guarantees, so this doesn't reorder their handling.
+     */
+    private <T extends TransportRequest> void handleCompressedRequestForking(
+        TcpChannel channel,
+        InboundMessage message,
+        RequestHandlerRegistry<T> reg,
+        TransportChannel transportChannel
+    ) {
+        final Header header = message.getHeader();
+        message.mustIncRef();
+        final Releasable releaseMessage = Releasables.releaseOnce(message::decRef);
+        boolean success = false;
+        try {
+            reg.getExecutor().execute(threadPool.getThreadContext().preserveContextWithTracing(new AbstractRunnable() {
+                @Override
+                protected void doRun() throws IOException {
+                    final T request;
+                    try (releaseMessage) {
+                        final StreamInput stream = openStream(message);
+                        try {
+                            request = reg.newRequest(stream);
+                        } catch (Exception e) {
+                            assert ignoreDeserializationErrors : e;
+                            throw e;
+                        }
+                        boolean deserialized = false;
+                        try {
+                            request.remoteAddress(channel.getRemoteAddress());
+                            request.setRequestId(header.getRequestId());
+                            verifyRequestReadFully(stream, header.getRequestId(), header.getActionName());
+                            deserialized = true;
+                        } finally {
+                            if (deserialized == false) {
+                                request.decRef();
+                            }
+                        }
+                    }
+                    try {
+                        doHandleRequest(reg, request, transportChannel);
+                    } finally {
+                        request.decRef();
+                    }
+                }
+
+                @Override
+                public boolean isForceExecution() {
+                    return reg.isForceExecution();
+                }
+
+                @Override
+                public void onRejection(Exception e) {
+                    sendErrorResponse(reg.getAction(), transportChannel, e);
+                }
+
+                @Override
+                public void onFailure(Exception e) {
+                    sendErrorResponse(reg.getAction(), transportChannel, e);
+                }
+
+                @Override
+                public void onAfter() {
+                    releaseMessage.close();
+                }
+            }));
+            success = true;
+        } finally {
+            if (success == false) {
+                releaseMessage.close();
+            }
+        }
+    }
+
     private void handleHandshakeRequest(TcpChannel channel, InboundMessage message) throws IOException {
         var header = message.getHeader();
         assert header.actionName.equals(TransportHandshaker.HANDSHAKE_ACTION_NAME);
@@ -373,7 +456,7 @@ public class InboundHandler {
 
     private <T extends TransportResponse> void handleResponse(
         InetSocketAddress remoteAddress,
-        final StreamInput stream,
+        final CheckedSupplier<StreamInput, IOException> stream,
         final TransportResponseHandler<T> handler,
         final InboundMessage inboundMessage
     ) {
@@ -403,7 +486,7 @@ public class InboundHandler {
      *
      * @param handler response handler
      * @param remoteAddress remote address that the message was sent from
-     * @param stream bytes stream for reading the message
+     * @param streamSupplier supplies the bytes stream for reading the message
      * @param header message header
      * @param releaseResponseBuffer releasable that will be released once the message has been read from the {@code stream}
      * @param <T> response message type
@@ -411,12 +494,14 @@ public class InboundHandler {
     private <T extends TransportResponse> void doHandleResponse(
         TransportResponseHandler<T> handler,
         InetSocketAddress remoteAddress,
-        final StreamInput stream,
+        final CheckedSupplier<StreamInput, IOException> streamSupplier,
         final Header header,
         Releasable releaseResponseBuffer
     ) {
         final T response;
+        final StreamInput stream;
         try (releaseResponseBuffer) {
+            stream = streamSupplier.get();
             response = handler.read(stream);
             response.remoteAddress(remoteAddress);
         } catch (Exception e) {
@@ -480,6 +565,12 @@ public class InboundHandler {
         }
     }
 
+    private StreamInput openStream(InboundMessage message) throws IOException {
+        final StreamInput stream = namedWriteableStream(message.openOrGetStreamInput());
+        assert assertRemoteVersion(stream, message.getHeader().getVersion());
+        return stream;
+    }
+
     private StreamInput namedWriteableStream(StreamInput delegate) {
         return new NamedWriteableAwareStreamInput(delegate, namedWriteableRegistry);
     }
@@ -9,28 +9,51 @@
 
 package org.elasticsearch.transport;
 
+import org.apache.lucene.util.BytesRef;
 import org.elasticsearch.ElasticsearchException;
 import org.elasticsearch.common.bytes.ReleasableBytesReference;
 import org.elasticsearch.common.io.stream.StreamInput;
+import org.elasticsearch.common.recycler.Recycler;
 import org.elasticsearch.core.AbstractRefCounted;
 import org.elasticsearch.core.IOUtils;
+import org.elasticsearch.core.Nullable;
 import org.elasticsearch.core.Releasable;
 
 import java.io.IOException;
 import java.util.Objects;
+import java.util.function.IntConsumer;
 
 public class InboundMessage extends AbstractRefCounted {
 
     private final Header header;
     private final ReleasableBytesReference content;
+    @Nullable
+    private final Recycler<BytesRef> decompressionRecycler;
+    private ReleasableBytesReference decompressedContent;
+    @Nullable
+    private IntConsumer decompressedBytesReservation;
     private final Exception exception;
     private final boolean isPing;
     private Releasable breakerRelease;
     private StreamInput streamInput;
 
     public InboundMessage(Header header, ReleasableBytesReference content, Releasable breakerRelease) {
+        this(header, content, breakerRelease, null);
+    }
+
+    /**
+     * @param decompressionRecycler if not {@code null} then the content is still compressed, and is decompressed into pages from this
+     *                              recycler when the message is first read
+     */
+    public InboundMessage(
+        Header header,
+        ReleasableBytesReference content,
+        Releasable breakerRelease,
+        @Nullable Recycler<BytesRef> decompressionRecycler
+    ) {
         this.header = header;
         this.content = content;
+        this.decompressionRecycler = decompressionRecycler;
         this.breakerRelease = breakerRelease;
         this.exception = null;
         this.isPing = false;
@@ -39,6 +62,7 @@ public class InboundMessage extends AbstractRefCounted {
     public InboundMessage(Header header, Exception exception) {
         this.header = header;
         this.content = null;
+        this.decompressionRecycler = null;
         this.breakerRelease = null;
         this.exception = exception;
         this.isPing = false;
@@ -47,6 +71,7 @@ public class InboundMessage extends AbstractRefCounted {
     public InboundMessage(Header header, boolean isPing) {
         this.header = header;
         this.content = null;
+        this.decompressionRecycler = null;
         this.breakerRelease = null;
         this.exception = null;
         this.isPing = isPing;
@@ -72,6 +97,27 @@ public class InboundMessage extends AbstractRefCounted {
         return isPing;
     }
 
+    /**
+     * Whether the content of this message is decompressed when it is first read rather than when it was received.
+     */
+    public boolean hasCompressedContent() {
+        return decompressionRecycler != null;
+    }
+
+    /**
+     * Reserve the bytes of the pages the content is decompressed into with the given consumer, which may fail the decompression by
+     * throwing a {@link org.elasticsearch.common.breaker.CircuitBreakingException}. If the content is already decompressed then its
+     * bytes are reserved straight away.
+     */
+    void reserveDecompressedBytesWith(IntConsumer reservation) {
+        assert hasCompressedContent();
+        assert decompressedBytesReservation == null;
+        decompressedBytesReservation = reservation;
+        if (decompressedContent != null) {
+            reservation.accept(decompressedContent.length());
+        }
+    }
+
     public boolean isShortCircuit() {
         return exception != null;
     }
@@ -86,7 +132,16 @@ public class InboundMessage extends AbstractRefCounted {
         assert isPing == false && content != null;
         assert hasReferences();
         if (streamInput == null) {
-            streamInput = content.streamInput();
+            if (decompressionRecycler != null) {
+                decompressedContent = TransportDecompressor.decompress(decompressionRecycler, content, pageLength -> {
+                    if (decompressedBytesReservation != null) {
+                        decompressedBytesReservation.accept(pageLength);
+                    }
+                });
+                streamInput = decompressedContent.streamInput();
+            } else {
+                streamInput = content.streamInput();
+            }
             streamInput.setTransportVersion(header.getVersion());
         }
         return streamInput;
@@ -100,7 +155,7 @@ public class InboundMessage extends AbstractRefCounted {
     @Override
     protected void closeInternal() {
         try {
-            IOUtils.close(streamInput, content, breakerRelease);
+            IOUtils.close(streamInput, decompressedContent, content, breakerRelease);
         } catch (Exception e) {
             assert false : e;
             throw new ElasticsearchException(e);
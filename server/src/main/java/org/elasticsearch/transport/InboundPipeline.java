@@ -114,6 +114,10 @@ public class InboundPipeline implements Releasable {
             } else if (fragment instanceof Compression.Scheme) {
                 assert aggregator.isAggregating();
                 aggregator.updateCompressionScheme((Compression.Scheme) fragment);
+            } else if (fragment instanceof InboundDecoder.CompressedContent compressedContent) {
+                assert aggregator.isAggregating();
+                aggregator.updateCompressionScheme(compressedContent.scheme());
+                aggregator.deferDecompression(compressedContent.recycler());
             } else if (fragment == InboundDecoder.PING) {
                 assert aggregator.isAggregating() == false;
                 messageHandler.accept(channel, PING_MESSAGE);
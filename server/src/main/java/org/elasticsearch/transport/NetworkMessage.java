@@ -55,6 +55,11 @@ public abstract class NetworkMessage {
     }
 
     private static Compression.Scheme adjustedScheme(TransportVersion version, Compression.Scheme compressionScheme) {
+        if (compressionScheme == Compression.Scheme.ZSTD
+            && (version.before(Compression.Scheme.ZSTD_VERSION) || Compression.Scheme.isZstdAvailable() == false)) {
+            // either node cannot use zstd, fall back to the next best scheme the remote node understands
+            compressionScheme = Compression.Scheme.LZ4;
+        }
         return compressionScheme == Compression.Scheme.LZ4 && version.before(Compression.Scheme.LZ4_VERSION) ? null : compressionScheme;
     }
 }
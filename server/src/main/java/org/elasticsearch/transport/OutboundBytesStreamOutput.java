@@ -0,0 +1,80 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+
+package org.elasticsearch.transport;
+
+import org.apache.lucene.util.BytesRef;
+import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.common.bytes.CompositeBytesReference;
+import org.elasticsearch.common.bytes.ReleasableBytesReference;
+import org.elasticsearch.common.io.stream.RecyclerBytesStreamOutput;
+import org.elasticsearch.common.recycler.Recycler;
+import org.elasticsearch.core.Releasables;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A {@link RecyclerBytesStreamOutput} used to serialize outbound transport messages. Instead of copying large
+ * {@link ReleasableBytesReference}s written with {@link #writeReleasableBytesReference} into its pages, it retains them until it is
+ * closed and splices them into {@link #bytes()}, so that the network layer sends them with a gathering write.
+ */
+final class OutboundBytesStreamOutput extends RecyclerBytesStreamOutput {
+
+    private record Attachment(int position, ReleasableBytesReference bytes) {}
+
+    private final int minAttachmentSize;
+    private final List<Attachment> attachments = new ArrayList<>();
+
+    OutboundBytesStreamOutput(Recycler<BytesRef> recycler) {
+        super(recycler);
+        // copying anything smaller than a page is cheaper than adding another component to the message
+        this.minAttachmentSize = recycler.pageSize();
+    }
+
+    @Override
+    public void writeReleasableBytesReference(ReleasableBytesReference bytes) throws IOException {
+        if (bytes.length() < minAttachmentSize) {
+            super.writeReleasableBytesReference(bytes);
+            return;
+        }
+        writeVInt(bytes.length());
+        attachments.add(new Attachment(size(), bytes.retain()));
+    }
+
+    @Override
+    public BytesReference bytes() {
+        final BytesReference written = super.bytes();
+        if (attachments.isEmpty()) {
+            return written;
+        }
+        final BytesReference[] references = new BytesReference[attachments.size() * 2 + 1];
+        int i = 0;
+        int from = 0;
+        for (Attachment attachment : attachments) {
+            assert attachment.position() >= from && attachment.position() <= written.length();
+            references[i++] = written.slice(from, attachment.position() - from);
+            references[i++] = attachment.bytes();
+            from = attachment.position();
+        }
+        references[i] = written.slice(from, written.length() - from);
+        return CompositeBytesReference.of(references);
+    }
+
+    @Override
+    public void close() {
+        try {
+            super.close();
+        } finally {
+            Releasables.close(attachments.stream().map(Attachment::bytes).toList());
+            attachments.clear();
+        }
+    }
+}
@@ -200,7 +200,7 @@ final class OutboundHandler {
         final RecyclerBytesStreamOutput byteStreamOutput;
         boolean bufferSuccess = false;
         try {
-            byteStreamOutput = new RecyclerBytesStreamOutput(recycler);
+            byteStreamOutput = new OutboundBytesStreamOutput(recycler);
             bufferSuccess = true;
         } finally {
             if (bufferSuccess == false) {
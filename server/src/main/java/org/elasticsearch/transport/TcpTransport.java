@@ -155,6 +155,13 @@ public abstract class TcpTransport extends AbstractLifecycleComponent implements
         String nodeName = Node.NODE_NAME_SETTING.get(settings);
 
         this.rstOnClose = TransportSettings.RST_ON_CLOSE.get(settings);
+        if (TransportSettings.TRANSPORT_COMPRESSION_SCHEME.get(settings) == Compression.Scheme.ZSTD
+            && Compression.Scheme.isZstdAvailable() == false) {
+            logger.warn(
+                "[{}] is set to [zstd] but native access is not available, compressing with [lz4] instead",
+                TransportSettings.TRANSPORT_COMPRESSION_SCHEME.getKey()
+            );
+        }
 
         this.recycler = createRecycler(settings, pageCacheRecycler);
         this.outboundHandler = new OutboundHandler(
@@ -248,7 +255,8 @@ public abstract class TcpTransport extends AbstractLifecycleComponent implements
             DiscoveryNode node,
             List<TcpChannel> channels,
             ConnectionProfile connectionProfile,
-            TransportVersion handshakeVersion
+            TransportVersion handshakeVersion,
+            boolean remoteZstdAvailable
         ) {
             this.node = node;
             this.channels = Collections.unmodifiableList(channels);
@@ -262,7 +270,12 @@ public abstract class TcpTransport extends AbstractLifecycleComponent implements
             }
             version = handshakeVersion;
             compress = connectionProfile.getCompressionEnabled();
-            compressionScheme = connectionProfile.getCompressionScheme();
+            if (connectionProfile.getCompressionScheme() == Compression.Scheme.ZSTD && remoteZstdAvailable == false) {
+                // the remote node cannot decompress zstd, which NetworkMessage cannot tell from its transport version
+                compressionScheme = Compression.Scheme.LZ4;
+            } else {
+                compressionScheme = connectionProfile.getCompressionScheme();
+            }
         }
 
         @Override
@@ -947,11 +960,16 @@ public abstract class TcpTransport extends AbstractLifecycleComponent implements
         }
     }
 
+    /**
+     * What the remote node reported in the transport handshake: the transport version to use with it and whether it can decompress zstd.
+     */
+    public record HandshakeResult(TransportVersion transportVersion, boolean zstdAvailable) {}
+
     public void executeHandshake(
         DiscoveryNode node,
         TcpChannel channel,
         ConnectionProfile profile,
-        ActionListener<TransportVersion> listener
+        ActionListener<HandshakeResult> listener
     ) {
         long requestId = responseHandlers.newRequestId();
         handshaker.sendHandshake(requestId, node, channel, profile.getHandshakeTimeout(), listener);
@@ -1113,10 +1131,16 @@ public abstract class TcpTransport extends AbstractLifecycleComponent implements
             if (countDown.countDown()) {
                 final TcpChannel handshakeChannel = channels.get(0);
                 try {
-                    executeHandshake(node, handshakeChannel, connectionProfile, ActionListener.wrap(responseVersion -> {
+                    executeHandshake(node, handshakeChannel, connectionProfile, ActionListener.wrap(handshakeResult -> {
                         final long connectionId = outboundConnectionCount.incrementAndGet();
                         logger.debug("opened transport connection [{}] to [{}] using channels [{}]", connectionId, node, channels);
-                        NodeChannels nodeChannels = new NodeChannels(node, channels, connectionProfile, responseVersion);
+                        NodeChannels nodeChannels = new NodeChannels(
+                            node,
+                            channels,
+                            connectionProfile,
+                            handshakeResult.transportVersion(),
+                            handshakeResult.zstdAvailable()
+                        );
                         long relativeMillisTime = threadPool.relativeTimeInMillis();
                         nodeChannels.channels.forEach(ch -> {
                             // Mark the channel init time
@@ -12,12 +12,17 @@ package org.elasticsearch.transport;
 import org.apache.lucene.util.BytesRef;
 import org.elasticsearch.common.bytes.BytesArray;
 import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.common.bytes.CompositeBytesReference;
 import org.elasticsearch.common.bytes.ReleasableBytesReference;
 import org.elasticsearch.common.recycler.Recycler;
 import org.elasticsearch.core.Releasable;
+import org.elasticsearch.core.Releasables;
 
 import java.io.IOException;
 import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntConsumer;
 
 public abstract class TransportDecompressor implements Releasable {
 
@@ -66,19 +71,83 @@ public abstract class TransportDecompressor implements Releasable {
     }
 
     static TransportDecompressor getDecompressor(Recycler<BytesRef> recycler, BytesReference bytes) {
+        final Compression.Scheme scheme = readScheme(bytes);
+        if (scheme == null) {
+            return null;
+        }
+        return switch (scheme) {
+            case DEFLATE -> new DeflateTransportDecompressor(recycler);
+            case LZ4 -> new Lz4TransportDecompressor(recycler);
+            case ZSTD -> new ZstdTransportDecompressor(recycler);
+        };
+    }
+
+    /**
+     * Reads the compression scheme from the start of compressed message content, or returns {@code null} if there aren't enough bytes.
+     */
+    static Compression.Scheme readScheme(BytesReference bytes) {
         if (bytes.length() < Compression.Scheme.HEADER_LENGTH) {
             return null;
         }
 
         if (Compression.Scheme.isDeflate(bytes)) {
-            return new DeflateTransportDecompressor(recycler);
+            return Compression.Scheme.DEFLATE;
         } else if (Compression.Scheme.isLZ4(bytes)) {
-            return new Lz4TransportDecompressor(recycler);
+            return Compression.Scheme.LZ4;
+        } else if (Compression.Scheme.isZstd(bytes)) {
+            return Compression.Scheme.ZSTD;
         } else {
             throw createIllegalState(bytes);
         }
     }
 
+    /**
+     * Decompresses the complete compressed content of a message at once into pages obtained from the given recycler.
+     */
+    static ReleasableBytesReference decompress(Recycler<BytesRef> recycler, BytesReference compressed) throws IOException {
+        return decompress(recycler, compressed, pageLength -> {});
+    }
+
+    /**
+     * Decompresses the complete compressed content of a message at once into pages obtained from the given recycler, passing the length
+     * of each page to {@code pageConsumer} as soon as it is filled. If the consumer throws then all pages are released.
+     */
+    static ReleasableBytesReference decompress(Recycler<BytesRef> recycler, BytesReference compressed, IntConsumer pageConsumer)
+        throws IOException {
+        final TransportDecompressor decompressor = getDecompressor(recycler, compressed);
+        if (decompressor == null) {
+            throw new IllegalStateException("compressed content of length [" + compressed.length() + "] is too short");
+        }
+        final List<ReleasableBytesReference> pages = new ArrayList<>();
+        boolean success = false;
+        try (decompressor) {
+            int bytesConsumed = 0;
+            while (bytesConsumed < compressed.length()) {
+                final int consumed = decompressor.decompress(compressed.slice(bytesConsumed, compressed.length() - bytesConsumed));
+                if (consumed == 0) {
+                    throw new IllegalStateException("truncated compressed content of length [" + compressed.length() + "]");
+                }
+                bytesConsumed += consumed;
+                ReleasableBytesReference page;
+                while ((page = decompressor.pollDecompressedPage(bytesConsumed == compressed.length())) != null) {
+                    pages.add(page);
+                    pageConsumer.accept(page.length());
+                }
+            }
+            final ReleasableBytesReference[] references = pages.toArray(new ReleasableBytesReference[0]);
+            final ReleasableBytesReference decompressed = new ReleasableBytesReference(
+                CompositeBytesReference.of(references),
+                () -> Releasables.close(references)
+            );
+            success = true;
+            return decompressed;
+        } finally {
+            if (success == false) {
+                Releasables.closeExpectNoException(Releasables.wrap(pages));
+            }
+        }
+    }
+
     protected ReleasableBytesReference pollLastPage() {
         Recycler.V<BytesRef> page = pages.pollFirst();
         BytesArray delegate = new BytesArray(page.v().bytes, page.v().offset, pageOffset);
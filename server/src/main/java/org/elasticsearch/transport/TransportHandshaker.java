@@ -18,6 +18,7 @@ import org.elasticsearch.common.io.stream.BytesStreamOutput;
 import org.elasticsearch.common.io.stream.StreamInput;
 import org.elasticsearch.common.io.stream.StreamOutput;
 import org.elasticsearch.common.metrics.CounterMetric;
+import org.elasticsearch.core.Nullable;
 import org.elasticsearch.core.TimeValue;
 import org.elasticsearch.threadpool.ThreadPool;
 
@@ -41,6 +42,10 @@ final class TransportHandshaker {
      * ignores the body of the request. After the handshake, the OutboundHandler uses the min(local,remote) protocol version for all later
      * messages.
      *
+     * If both nodes are on or after ZSTD_TRANSPORT_COMPRESSION then the response is followed by one more byte, saying whether the
+     * responding node can decompress zstd. The responding node only reads the requesting node's version from the body of the request to
+     * know whether to send this byte.
+     *
      * This version supports two handshake protocols, v6080099 and v7170099, which respectively have the same message structure as the
      * transport protocols of v6.8.0 and v7.17.0. This node only sends v7170099 requests, but it can send a valid response to any v6080099
      * requests that it receives.
@@ -146,7 +151,7 @@ final class TransportHandshaker {
         DiscoveryNode node,
         TcpChannel channel,
         TimeValue timeout,
-        ActionListener<TransportVersion> listener
+        ActionListener<TcpTransport.HandshakeResult> listener
     ) {
         numHandshakes.inc();
         final HandshakeResponseHandler handler = new HandshakeResponseHandler(requestId, listener);
@@ -175,9 +180,10 @@ final class TransportHandshaker {
     }
 
     void handleHandshake(TransportChannel channel, long requestId, StreamInput stream) throws IOException {
+        final HandshakeRequest request;
         try {
             // Must read the handshake request to exhaust the stream
-            new HandshakeRequest(stream);
+            request = new HandshakeRequest(stream);
         } catch (Exception e) {
             assert ignoreDeserializationErrors : e;
             throw e;
@@ -196,7 +202,7 @@ final class TransportHandshaker {
             assert ignoreDeserializationErrors : exception;
             throw exception;
         }
-        channel.sendResponse(new HandshakeResponse(this.version));
+        channel.sendResponse(new HandshakeResponse(this.version, request.version, Compression.Scheme.isZstdAvailable()));
     }
 
     TransportResponseHandler<HandshakeResponse> removeHandlerForHandshake(long requestId) {
@@ -214,10 +220,10 @@ final class TransportHandshaker {
     private class HandshakeResponseHandler implements TransportResponseHandler<HandshakeResponse> {
 
         private final long requestId;
-        private final ActionListener<TransportVersion> listener;
+        private final ActionListener<TcpTransport.HandshakeResult> listener;
         private final AtomicBoolean isDone = new AtomicBoolean(false);
 
-        private HandshakeResponseHandler(long requestId, ActionListener<TransportVersion> listener) {
+        private HandshakeResponseHandler(long requestId, ActionListener<TcpTransport.HandshakeResult> listener) {
             this.requestId = requestId;
             this.listener = listener;
         }
@@ -247,7 +253,7 @@ final class TransportHandshaker {
                         )
                     );
                 } else {
-                    listener.onResponse(responseVersion);
+                    listener.onResponse(new TcpTransport.HandshakeResult(responseVersion, response.zstdAvailable));
                 }
             }
         }
@@ -306,25 +312,40 @@ final class TransportHandshaker {
     static final class HandshakeResponse extends TransportResponse {
 
         private final TransportVersion responseVersion;
+        @Nullable // only known when sending the response, and null if the request came from a node that did not send its version
+        private final TransportVersion requestVersion;
+        private final boolean zstdAvailable;
 
-        HandshakeResponse(TransportVersion responseVersion) {
+        HandshakeResponse(TransportVersion responseVersion, @Nullable TransportVersion requestVersion, boolean zstdAvailable) {
             this.responseVersion = responseVersion;
+            this.requestVersion = requestVersion;
+            this.zstdAvailable = zstdAvailable;
         }
 
         private HandshakeResponse(StreamInput in) throws IOException {
             super(in);
             responseVersion = TransportVersion.readVersion(in);
+            requestVersion = null;
+            // older nodes cannot decompress zstd at all
+            zstdAvailable = responseVersion.onOrAfter(Compression.Scheme.ZSTD_VERSION) && in.readBoolean();
         }
 
         @Override
         public void writeTo(StreamOutput out) throws IOException {
             assert responseVersion != null;
             TransportVersion.writeVersion(responseVersion, out);
+            if (requestVersion != null && requestVersion.onOrAfter(Compression.Scheme.ZSTD_VERSION)) {
+                out.writeBoolean(zstdAvailable);
+            }
         }
 
         TransportVersion getResponseVersion() {
             return responseVersion;
         }
+
+        boolean isZstdAvailable() {
+            return zstdAvailable;
+        }
     }
 
     @FunctionalInterface
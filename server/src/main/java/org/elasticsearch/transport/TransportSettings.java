@@ -78,6 +78,13 @@ public final class TransportSettings {
         Compression.Scheme.LZ4,
         Setting.Property.NodeScope
     );
+    // compressed inbound messages of at least this size are decompressed on the executor of their handler rather than on the network
+    // thread if the handler forks, defaults to disabled (-1)
+    public static final Setting<ByteSizeValue> DEFERRED_DECOMPRESSION_THRESHOLD = Setting.byteSizeSetting(
+        "transport.deferred_decompression_threshold",
+        ByteSizeValue.MINUS_ONE,
+        Setting.Property.NodeScope
+    );
     // the scheduled internal ping interval setting, defaults to disabled (-1)
     public static final Setting<TimeValue> PING_SCHEDULE = timeSetting(
         "transport.ping_schedule",
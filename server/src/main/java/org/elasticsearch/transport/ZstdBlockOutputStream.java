@@ -0,0 +1,163 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+
+package org.elasticsearch.transport;
+
+import org.elasticsearch.nativeaccess.CloseableByteBuffer;
+import org.elasticsearch.nativeaccess.NativeAccess;
+import org.elasticsearch.nativeaccess.Zstd;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * Compresses the bytes written to it in blocks of up to {@link #BLOCK_SIZE} bytes with zstd. Each compressed block is preceded by its
+ * compressed and decompressed length as big-endian ints, see {@link ZstdTransportDecompressor}.
+ */
+class ZstdBlockOutputStream extends OutputStream {
+
+    static final int BLOCK_SIZE = 64 * 1024;
+    static final int BLOCK_HEADER_LENGTH = 2 * Integer.BYTES;
+
+    // favour speed over ratio, transport messages are compressed on the hot path
+    private static final int LEVEL = 1;
+
+    /**
+     * The native buffers of a thread, which are allocated on the first message it compresses and reused for the following ones, like
+     * {@link ReuseBuffersLZ4BlockOutputStream} does with its arrays. They are never released, and live as long as their thread.
+     */
+    private static class BufferBox {
+        private CloseableByteBuffer uncompressed;
+        private CloseableByteBuffer compressed;
+        private boolean owned = false;
+
+        private void markOwnership(Zstd zstd) {
+            assert owned == false;
+            if (uncompressed == null) {
+                final NativeAccess nativeAccess = NativeAccess.instance();
+                final CloseableByteBuffer newUncompressed = nativeAccess.newBuffer(BLOCK_SIZE);
+                boolean success = false;
+                try {
+                    compressed = nativeAccess.newBuffer(zstd.compressBound(BLOCK_SIZE));
+                    success = true;
+                } finally {
+                    if (success == false) {
+                        newUncompressed.close();
+                    }
+                }
+                uncompressed = newUncompressed;
+            }
+            uncompressed.buffer().clear();
+            owned = true;
+        }
+
+        private void release() {
+            owned = false;
+        }
+    }
+
+    private static final ThreadLocal<BufferBox> BUFFER_BOX = ThreadLocal.withInitial(BufferBox::new);
+
+    private final OutputStream out;
+    private final Zstd zstd;
+    private final BufferBox bufferBox;
+    private final CloseableByteBuffer uncompressed;
+    private final CloseableByteBuffer compressed;
+    private final byte[] copyBuffer = new byte[8192];
+    private boolean closed = false;
+
+    ZstdBlockOutputStream(OutputStream out) {
+        this.out = out;
+        this.zstd = Compression.Scheme.zstd();
+        this.bufferBox = BUFFER_BOX.get();
+        bufferBox.markOwnership(zstd);
+        this.uncompressed = bufferBox.uncompressed;
+        this.compressed = bufferBox.compressed;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        ensureOpen();
+        final ByteBuffer buffer = uncompressed.buffer();
+        buffer.put((byte) b);
+        if (buffer.hasRemaining() == false) {
+            flushBlock();
+        }
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        ensureOpen();
+        final ByteBuffer buffer = uncompressed.buffer();
+        while (len > 0) {
+            final int toCopy = Math.min(len, buffer.remaining());
+            buffer.put(b, off, toCopy);
+            off += toCopy;
+            len -= toCopy;
+            if (buffer.hasRemaining() == false) {
+                flushBlock();
+            }
+        }
+    }
+
+    private void flushBlock() throws IOException {
+        final ByteBuffer src = uncompressed.buffer();
+        final int decompressedLength = src.position();
+        if (decompressedLength == 0) {
+            return;
+        }
+        src.flip();
+        final ByteBuffer dst = compressed.buffer();
+        dst.clear();
+        final int compressedLength = zstd.compress(compressed, uncompressed, LEVEL);
+        writeInt(compressedLength);
+        writeInt(decompressedLength);
+        for (int written = 0; written < compressedLength;) {
+            final int numBytes = Math.min(copyBuffer.length, compressedLength - written);
+            dst.get(written, copyBuffer, 0, numBytes);
+            out.write(copyBuffer, 0, numBytes);
+            written += numBytes;
+        }
+        src.clear();
+    }
+
+    private void writeInt(int value) throws IOException {
+        out.write(value >>> 24);
+        out.write(value >>> 16);
+        out.write(value >>> 8);
+        out.write(value);
+    }
+
+    @Override
+    public void flush() throws IOException {
+        ensureOpen();
+        flushBlock();
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed == false) {
+            closed = true;
+            try {
+                flushBlock();
+                out.close();
+            } finally {
+                bufferBox.release();
+            }
+        }
+    }
+
+    private void ensureOpen() throws IOException {
+        if (closed) {
+            throw new IOException("stream is closed");
+        }
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+
+package org.elasticsearch.transport;
+
+import org.apache.lucene.util.BytesRef;
+import org.apache.lucene.util.BytesRefIterator;
+import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.common.recycler.Recycler;
+import org.elasticsearch.core.Releasables;
+import org.elasticsearch.nativeaccess.CloseableByteBuffer;
+import org.elasticsearch.nativeaccess.NativeAccess;
+import org.elasticsearch.nativeaccess.Zstd;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Decompresses the blocks written by {@link ZstdBlockOutputStream}, each of which is preceded by its compressed and decompressed length.
+ */
+public class ZstdTransportDecompressor extends TransportDecompressor {
+
+    private final Zstd zstd;
+    private CloseableByteBuffer compressed;
+    private CloseableByteBuffer decompressed;
+
+    public ZstdTransportDecompressor(Recycler<BytesRef> recycler) {
+        super(recycler);
+        this.zstd = Compression.Scheme.zstd();
+    }
+
+    @Override
+    public Compression.Scheme getScheme() {
+        return Compression.Scheme.ZSTD;
+    }
+
+    @Override
+    public int decompress(BytesReference bytesReference) throws IOException {
+        int bytesConsumed = 0;
+        if (hasSkippedHeader == false) {
+            if (bytesReference.length() < Compression.Scheme.HEADER_LENGTH) {
+                return 0;
+            }
+            hasSkippedHeader = true;
+            int headerLength = Compression.Scheme.HEADER_LENGTH;
+            bytesReference = bytesReference.slice(headerLength, bytesReference.length() - headerLength);
+            bytesConsumed += headerLength;
+        }
+
+        while (bytesReference.length() >= ZstdBlockOutputStream.BLOCK_HEADER_LENGTH) {
+            final int compressedLength = bytesReference.getInt(0);
+            final int decompressedLength = bytesReference.getInt(Integer.BYTES);
+            if (compressedLength <= 0 || decompressedLength <= 0 || decompressedLength > ZstdBlockOutputStream.BLOCK_SIZE) {
+                throw new IOException(
+                    "invalid zstd block with compressed length ["
+                        + compressedLength
+                        + "] and decompressed length ["
+                        + decompressedLength
+                        + "]"
+                );
+            }
+            final int blockLength = ZstdBlockOutputStream.BLOCK_HEADER_LENGTH + compressedLength;
+            if (bytesReference.length() < blockLength) {
+                break;
+            }
+            decompressBlock(bytesReference.slice(ZstdBlockOutputStream.BLOCK_HEADER_LENGTH, compressedLength), decompressedLength);
+            bytesConsumed += blockLength;
+            bytesReference = bytesReference.slice(blockLength, bytesReference.length() - blockLength);
+        }
+        return bytesConsumed;
+    }
+
+    private void decompressBlock(BytesReference block, int decompressedLength) throws IOException {
+        if (compressed == null) {
+            final NativeAccess nativeAccess = NativeAccess.instance();
+            compressed = nativeAccess.newBuffer(zstd.compressBound(ZstdBlockOutputStream.BLOCK_SIZE));
+            decompressed = nativeAccess.newBuffer(ZstdBlockOutputStream.BLOCK_SIZE);
+        }
+        if (block.length() > compressed.buffer().capacity()) {
+            throw new IOException("zstd block of [" + block.length() + "] bytes exceeds the maximum compressed block size");
+        }
+        final ByteBuffer src = compressed.buffer();
+        src.clear();
+        final BytesRefIterator iterator = block.iterator();
+        BytesRef ref;
+        while ((ref = iterator.next()) != null) {
+            src.put(ref.bytes, ref.offset, ref.length);
+        }
+        src.flip();
+
+        final ByteBuffer dst = decompressed.buffer();
+        dst.clear();
+        final int length = zstd.decompress(decompressed, compressed);
+        if (length != decompressedLength) {
+            throw new IOException("expected [" + decompressedLength + "] decompressed bytes but got [" + length + "]");
+        }
+
+        int copied = 0;
+        while (copied < length) {
+            maybeAddNewPage();
+            final BytesRef page = pages.getLast().v();
+            final int toCopy = Math.min(pageLength - pageOffset, length - copied);
+            dst.get(copied, page.bytes, page.offset + pageOffset, toCopy);
+            pageOffset += toCopy;
+            copied += toCopy;
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            super.close();
+        } finally {
+            Releasables.close(compressed == null ? null : compressed::close, decompressed == null ? null : decompressed::close);
+        }
+    }
+}
@@ -91,7 +91,12 @@ public class PublicationTransportHandlerTests extends ESTestCase {
         when(transportService.getConnection(any())).thenReturn(connection);
         when(transportService.getThreadPool()).thenReturn(mock(ThreadPool.class));
 
-        final PublicationTransportHandler handler = new PublicationTransportHandler(transportService, writableRegistry(), pu -> null);
+        final PublicationTransportHandler handler = new PublicationTransportHandler(
+            Settings.EMPTY,
+            transportService,
+            writableRegistry(),
+            pu -> null
+        );
 
         final DiscoveryNode otherNode = DiscoveryNodeUtils.create("otherNode");
         final ClusterState clusterState = CoordinationStateTests.clusterState(
@@ -220,7 +225,12 @@ public class PublicationTransportHandlerTests extends ESTestCase {
                 new ClusterSettings(Settings.EMPTY, ClusterSettings.BUILT_IN_CLUSTER_SETTINGS),
                 Collections.emptySet()
             );
-            final PublicationTransportHandler handler = new PublicationTransportHandler(transportService, writableRegistry(), pu -> null);
+            final PublicationTransportHandler handler = new PublicationTransportHandler(
+                Settings.EMPTY,
+                transportService,
+                writableRegistry(),
+                pu -> null
+            );
             transportService.start();
             transportService.acceptIncomingRequests();
 
@@ -410,6 +420,7 @@ public class PublicationTransportHandlerTests extends ESTestCase {
             transportServicesByNode.put(discoveryNode, transportService);
 
             final var publicationTransportHandler = new PublicationTransportHandler(
+                Settings.EMPTY,
                 transportService,
                 writableRegistry(),
                 publishRequest -> {
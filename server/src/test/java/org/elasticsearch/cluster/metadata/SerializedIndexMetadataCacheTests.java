@@ -0,0 +1,103 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+
+package org.elasticsearch.cluster.metadata;
+
+import org.elasticsearch.common.UUIDs;
+import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.common.io.stream.BytesStreamOutput;
+import org.elasticsearch.index.IndexVersion;
+import org.elasticsearch.test.ESTestCase;
+
+import java.io.IOException;
+
+import static org.hamcrest.Matchers.anyOf;
+import static org.hamcrest.Matchers.equalTo;
+
+public class SerializedIndexMetadataCacheTests extends ESTestCase {
+
+    public void testWritesSameBytesAsUncachedSerialization() throws IOException {
+        final var cache = new SerializedIndexMetadataCache(Long.MAX_VALUE);
+        final int indexCount = between(1, 10);
+        final var builder = Metadata.builder();
+        for (int i = 0; i < indexCount; i++) {
+            builder.put(indexMetadata("index-" + i), false);
+        }
+        var metadata = builder.build();
+
+        assertThat(serialize(metadata, cache), equalTo(serialize(metadata, null)));
+        assertThat(cache.size(), equalTo(indexCount));
+        // serializing again reuses the cached entries
+        assertThat(serialize(metadata, cache), equalTo(serialize(metadata, null)));
+        assertThat(cache.size(), equalTo(indexCount));
+
+        // a changed index is serialized afresh
+        final var changedIndex = metadata.index("index-0");
+        metadata = Metadata.builder(metadata)
+            .put(IndexMetadata.builder(changedIndex).version(changedIndex.getVersion() + 1).numberOfReplicas(1), false)
+            .build();
+        assertThat(serialize(metadata, cache), equalTo(serialize(metadata, null)));
+        assertThat(cache.size(), equalTo(indexCount));
+
+        // and deleted indices are dropped from the cache
+        metadata = Metadata.builder(metadata).remove("index-0").build();
+        cache.retainIndices(metadata);
+        assertThat(cache.size(), equalTo(indexCount - 1));
+        assertThat(serialize(metadata, cache), equalTo(serialize(metadata, null)));
+    }
+
+    public void testBoundsTotalSize() throws IOException {
+        final var metadata = Metadata.builder().put(indexMetadata("index-0"), false).put(indexMetadata("index-1"), false).build();
+        final long index0Size = serializedSize(metadata.index("index-0"));
+        final long index1Size = serializedSize(metadata.index("index-1"));
+
+        // only room for one of the two indices, the other one is still written but not cached
+        final var cache = new SerializedIndexMetadataCache(Math.max(index0Size, index1Size) + Math.min(index0Size, index1Size) - 1);
+        assertThat(serialize(metadata, cache), equalTo(serialize(metadata, null)));
+        assertThat(cache.size(), equalTo(1));
+        assertThat(cache.sizeInBytes(), anyOf(equalTo(index0Size), equalTo(index1Size)));
+        assertThat(serialize(metadata, cache), equalTo(serialize(metadata, null)));
+        assertThat(cache.size(), equalTo(1));
+
+        // dropping the cached entries frees their room
+        final var remaining = Metadata.builder(metadata).remove("index-0").build();
+        cache.retainIndices(Metadata.builder(metadata).removeAllIndices().build());
+        assertThat(cache.size(), equalTo(0));
+        assertThat(cache.sizeInBytes(), equalTo(0L));
+        assertThat(serialize(remaining, cache), equalTo(serialize(remaining, null)));
+        assertThat(cache.size(), equalTo(1));
+        assertThat(cache.sizeInBytes(), equalTo(index1Size));
+
+        // nothing is cached if there is no room at all
+        final var emptyCache = new SerializedIndexMetadataCache(0);
+        assertThat(serialize(metadata, emptyCache), equalTo(serialize(metadata, null)));
+        assertThat(emptyCache.size(), equalTo(0));
+        assertThat(emptyCache.sizeInBytes(), equalTo(0L));
+    }
+
+    private static long serializedSize(IndexMetadata indexMetadata) throws IOException {
+        BytesStreamOutput out = new BytesStreamOutput();
+        indexMetadata.writeTo(out, true);
+        return out.bytes().length();
+    }
+
+    private static IndexMetadata indexMetadata(String name) {
+        final var settings = indexSettings(IndexVersion.current(), between(1, 3), 0).put(
+            IndexMetadata.SETTING_INDEX_UUID,
+            UUIDs.randomBase64UUID()
+        );
+        return IndexMetadata.builder(name).settings(settings).build();
+    }
+
+    private static BytesReference serialize(Metadata metadata, SerializedIndexMetadataCache cache) throws IOException {
+        BytesStreamOutput out = new BytesStreamOutput();
+        metadata.writeTo(out, cache);
+        return out.bytes();
+    }
+}
@@ -36,6 +36,7 @@ import org.elasticsearch.index.IndexVersion;
 import org.elasticsearch.index.shard.ShardId;
 
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.function.Function;
@@ -417,6 +418,61 @@ public class RoutingNodesTests extends ESAllocationTestCase {
         assertTrue(shardsByNode.values().stream().allMatch(Set::isEmpty));
     }
 
+    public void testBuildIncrementallyFromPreviousRoutingNodes() {
+        AllocationService strategy = createAllocationService(
+            Settings.builder()
+                .put("cluster.routing.allocation.node_concurrent_recoveries", 10)
+                .put("cluster.routing.allocation.node_initial_primaries_recoveries", 10)
+                .put(ClusterRebalanceAllocationDecider.CLUSTER_ROUTING_ALLOCATION_ALLOW_REBALANCE_SETTING.getKey(), "always")
+                .put("cluster.routing.allocation.cluster_concurrent_rebalance", -1)
+                .build()
+        );
+
+        final int indexCount = between(6, 10);
+        Metadata.Builder metadataBuilder = Metadata.builder();
+        RoutingTable.Builder routingTableBuilder = RoutingTable.builder(TestShardRoutingRoleStrategies.DEFAULT_ROLE_ONLY);
+        for (int i = 0; i < indexCount; i++) {
+            IndexMetadata indexMetadata = IndexMetadata.builder("test-" + i)
+                .settings(settings(IndexVersion.current()))
+                .numberOfShards(between(1, 3))
+                .numberOfReplicas(1)
+                .build();
+            metadataBuilder.put(indexMetadata, false);
+            routingTableBuilder.addAsNew(indexMetadata);
+        }
+        ClusterState clusterState = ClusterState.builder(ClusterName.DEFAULT)
+            .metadata(metadataBuilder)
+            .routingTable(routingTableBuilder.build())
+            .nodes(DiscoveryNodes.builder().add(newNode("node1")).add(newNode("node2")).add(newNode("node3")))
+            .build();
+        clusterState = strategy.reroute(clusterState, "reroute", ActionListener.noop());
+        clusterState = startInitializingShardsAndReroute(strategy, clusterState);
+
+        final RoutingTable previousRoutingTable = clusterState.routingTable();
+        final RoutingNodes previousRoutingNodes = clusterState.getRoutingNodes();
+
+        // fail a single shard copy so that only its index is rebuilt, and drop another index entirely
+        final ShardRouting failedShard = randomFrom(previousRoutingTable.index("test-0").shard(0).assignedShards());
+        clusterState = strategy.applyFailedShards(
+            clusterState,
+            List.of(new FailedShard(failedShard, "test", null, randomBoolean())),
+            List.of()
+        );
+        final RoutingTable routingTable = RoutingTable.builder(clusterState.routingTable()).remove("test-1").build();
+
+        final RoutingNodes incremental = RoutingNodes.immutable(
+            routingTable,
+            clusterState.nodes(),
+            previousRoutingTable,
+            previousRoutingNodes
+        );
+        final RoutingNodes expected = RoutingNodes.immutable(routingTable, clusterState.nodes());
+        assertThat(incremental, equalTo(expected));
+        assertThat(assertShardStats(incremental), equalTo(true));
+        // the routing nodes the incremental build started from are left untouched
+        assertThat(previousRoutingNodes, equalTo(RoutingNodes.immutable(previousRoutingTable, clusterState.nodes())));
+    }
+
     public void testMoveShardWithDefaultRole() {
         runMoveShardRolesTest(ShardRouting.Role.DEFAULT, ShardRouting.Role.DEFAULT);
     }
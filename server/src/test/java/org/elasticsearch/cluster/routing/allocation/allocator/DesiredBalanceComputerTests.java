@@ -141,6 +141,72 @@ public class DesiredBalanceComputerTests extends ESAllocationTestCase {
         );
     }
 
+    public void testReusesConvergedBalanceWhenInputsAreUnchanged() {
+        var desiredBalanceComputer = createDesiredBalanceComputer();
+        var clusterState = createInitialClusterState(3);
+
+        var desiredBalance1 = desiredBalanceComputer.compute(DesiredBalance.INITIAL, createInput(clusterState), queue(), input -> true);
+        assertFalse(desiredBalanceComputer.lastComputationReused());
+        assertThat(desiredBalanceComputer.iterations.count(), equalTo(1L));
+
+        // the same inputs converge on the same balance, so there is no need to run the delegate allocator again
+        var input2 = createInput(clusterState);
+        var desiredBalance2 = desiredBalanceComputer.compute(desiredBalance1, input2, new LinkedList<>(), input -> true);
+        assertTrue(desiredBalanceComputer.lastComputationReused());
+        assertThat(desiredBalanceComputer.iterations.count(), equalTo(1L));
+        assertThat(desiredBalance2.lastConvergedIndex(), equalTo(input2.index()));
+        assertDesiredAssignments(desiredBalance2, desiredBalance1.assignments());
+
+        // pending moves must always be applied by a full computation
+        var desiredBalance3 = desiredBalanceComputer.compute(desiredBalance2, createInput(clusterState), queue(), input -> true);
+        assertFalse(desiredBalanceComputer.lastComputationReused());
+        assertThat(desiredBalanceComputer.iterations.count(), equalTo(2L));
+        assertDesiredAssignments(desiredBalance3, desiredBalance1.assignments());
+
+        // starting or relocating shards updates the in-sync allocation IDs, which the computation does not read
+        var indexMetadata = clusterState.metadata().index(TEST_INDEX);
+        var startedClusterState = clusterState;
+        var desiredBalance4 = desiredBalance3;
+        for (int shard = 0; shard < indexMetadata.getNumberOfShards(); shard++) {
+            startedClusterState = ClusterState.builder(startedClusterState)
+                .metadata(
+                    Metadata.builder(startedClusterState.metadata())
+                        .put(
+                            IndexMetadata.builder(startedClusterState.metadata().index(TEST_INDEX))
+                                .putInSyncAllocationIds(shard, Set.of(randomAlphaOfLength(10)))
+                        )
+                )
+                .build();
+            var input = createInput(startedClusterState);
+            desiredBalance4 = desiredBalanceComputer.compute(desiredBalance4, input, new LinkedList<>(), ignored -> true);
+            assertTrue(desiredBalanceComputer.lastComputationReused());
+            assertThat(desiredBalanceComputer.iterations.count(), equalTo(2L));
+            assertDesiredAssignments(desiredBalance4, desiredBalance1.assignments());
+        }
+
+        // but any change to the index settings needs a full computation
+        var updatedClusterState = ClusterState.builder(startedClusterState)
+            .metadata(
+                Metadata.builder(startedClusterState.metadata())
+                    .put(
+                        IndexMetadata.builder(startedClusterState.metadata().index(TEST_INDEX))
+                            .settings(
+                                Settings.builder().put(indexMetadata.getSettings()).put("index.routing.allocation.exclude._name", "none")
+                            )
+                    )
+            )
+            .build();
+        var desiredBalance5 = desiredBalanceComputer.compute(
+            desiredBalance4,
+            createInput(updatedClusterState),
+            new LinkedList<>(),
+            input -> true
+        );
+        assertFalse(desiredBalanceComputer.lastComputationReused());
+        assertThat(desiredBalanceComputer.iterations.count(), equalTo(3L));
+        assertDesiredAssignments(desiredBalance5, desiredBalance1.assignments());
+    }
+
     public void testIgnoresOutOfScopePrimaries() {
         var desiredBalanceComputer = createDesiredBalanceComputer();
         var clusterState = mutateAllocationStatuses(createInitialClusterState(3));
@@ -16,6 +16,7 @@ import org.elasticsearch.common.breaker.CircuitBreakingException;
 import org.elasticsearch.common.breaker.PreallocatedCircuitBreakerService;
 import org.elasticsearch.common.io.stream.ByteArrayStreamInput;
 import org.elasticsearch.common.io.stream.BytesStreamOutput;
+import org.elasticsearch.common.io.stream.StreamInput;
 import org.elasticsearch.common.settings.ClusterSettings;
 import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.common.unit.ByteSizeUnit;
@@ -27,6 +28,7 @@ import org.elasticsearch.test.ESTestCase;
 
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -35,7 +37,9 @@ import java.util.function.Function;
 
 import static org.elasticsearch.indices.breaker.HierarchyCircuitBreakerService.REQUEST_CIRCUIT_BREAKER_LIMIT_SETTING;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
 import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.instanceOf;
 import static org.hamcrest.Matchers.lessThan;
 import static org.hamcrest.Matchers.lessThanOrEqualTo;
 
@@ -122,6 +126,83 @@ public class BigArraysTests extends ESTestCase {
         array.close();
     }
 
+    public void testOffHeapArrays() throws Exception {
+        Settings settings = Settings.builder().put(PageCacheRecycler.OFF_HEAP_SETTING.getKey(), true).build();
+        HierarchyCircuitBreakerService hcbs = new HierarchyCircuitBreakerService(
+            CircuitBreakerMetrics.NOOP,
+            Settings.builder().put(HierarchyCircuitBreakerService.USE_REAL_MEMORY_USAGE_SETTING.getKey(), false).build(),
+            Collections.emptyList(),
+            new ClusterSettings(Settings.EMPTY, ClusterSettings.BUILT_IN_CLUSTER_SETTINGS)
+        );
+        CircuitBreaker breaker = hcbs.getBreaker(CircuitBreaker.REQUEST);
+        BigArrays offHeapBigArrays = new BigArrays(new MockPageCacheRecycler(settings), hcbs, CircuitBreaker.REQUEST).withCircuitBreaking();
+        final int totalLen = randomIntBetween(PageCacheRecycler.LONG_PAGE_SIZE, 100_000);
+        LongArray longs = offHeapBigArrays.newLongArray(PageCacheRecycler.LONG_PAGE_SIZE, randomBoolean());
+        DoubleArray doubles = offHeapBigArrays.newDoubleArray(PageCacheRecycler.DOUBLE_PAGE_SIZE, randomBoolean());
+        assertThat(longs, instanceOf(BigDirectLongArray.class));
+        assertThat(doubles, instanceOf(BigDirectDoubleArray.class));
+        long[] longRef = new long[totalLen];
+        double[] doubleRef = new double[totalLen];
+        for (int i = 0; i < totalLen; ++i) {
+            longRef[i] = randomLong();
+            doubleRef[i] = randomDouble();
+            longs = offHeapBigArrays.grow(longs, i + 1);
+            doubles = offHeapBigArrays.grow(doubles, i + 1);
+            longs.set(i, longRef[i]);
+            doubles.set(i, doubleRef[i]);
+        }
+        final int from = randomIntBetween(0, totalLen - 1);
+        final int to = randomIntBetween(from, totalLen);
+        final long longValue = randomLong();
+        final double doubleValue = randomDouble();
+        Arrays.fill(longRef, from, to, longValue);
+        Arrays.fill(doubleRef, from, to, doubleValue);
+        longs.fill(from, to, longValue);
+        doubles.fill(from, to, doubleValue);
+        for (int i = 0; i < totalLen; ++i) {
+            assertEquals(longRef[i], longs.get(i));
+            assertEquals(doubleRef[i], doubles.get(i), 0d);
+        }
+        assertThat(longs, instanceOf(BigDirectLongArray.class));
+        assertThat(doubles, instanceOf(BigDirectDoubleArray.class));
+        assertPagesOffHeap((AbstractBigDirectArray) longs);
+        assertPagesOffHeap((AbstractBigDirectArray) doubles);
+        assertThat(breaker.getUsed(), greaterThanOrEqualTo(2L * totalLen * Long.BYTES));
+        assertEquals(longs.ramBytesUsed() + doubles.ramBytesUsed(), breaker.getUsed());
+
+        BytesStreamOutput out = new BytesStreamOutput();
+        longs.writeTo(out);
+        doubles.writeTo(out);
+        StreamInput in = out.bytes().streamInput();
+        final LongArray longsCopy = offHeapBigArrays.newLongArray(longs.size(), randomBoolean());
+        longsCopy.fillWith(in);
+        final DoubleArray doublesCopy = offHeapBigArrays.newDoubleArray(doubles.size(), randomBoolean());
+        doublesCopy.fillWith(in);
+        for (int i = 0; i < totalLen; ++i) {
+            assertEquals(longRef[i], longsCopy.get(i));
+            assertEquals(doubleRef[i], doublesCopy.get(i), 0d);
+        }
+        assertPagesOffHeap((AbstractBigDirectArray) longsCopy);
+        assertPagesOffHeap((AbstractBigDirectArray) doublesCopy);
+        assertEquals(
+            longs.ramBytesUsed() + doubles.ramBytesUsed() + longsCopy.ramBytesUsed() + doublesCopy.ramBytesUsed(),
+            breaker.getUsed()
+        );
+        Releasables.close(longs, doubles, longsCopy, doublesCopy);
+        assertEquals(0, breaker.getUsed());
+    }
+
+    private static void assertPagesOffHeap(AbstractBigDirectArray array) {
+        int pages = 0;
+        for (ByteBuffer page : array.pages) {
+            if (page != null && page != AbstractBigDirectArray.ZERO_PAGE) {
+                assertTrue("pages of off-heap arrays must be direct buffers", page.isDirect());
+                pages++;
+            }
+        }
+        assertThat(pages, greaterThan(0));
+    }
+
     public void testObjectArrayGrowth() {
         final int totalLen = randomIntBetween(1, 1000000);
         final int startLen = randomIntBetween(1, randomBoolean() ? 1000 : totalLen);
@@ -64,6 +64,9 @@ import org.elasticsearch.index.Index;
 import org.elasticsearch.index.IndexVersion;
 import org.elasticsearch.index.IndexVersions;
 import org.elasticsearch.index.mapper.MapperService;
+import org.elasticsearch.telemetry.InstrumentType;
+import org.elasticsearch.telemetry.Measurement;
+import org.elasticsearch.telemetry.RecordingMeterRegistry;
 import org.elasticsearch.test.CorruptionUtils;
 import org.elasticsearch.test.ESTestCase;
 import org.elasticsearch.test.MockLog;
@@ -104,6 +107,7 @@ import static org.hamcrest.Matchers.allOf;
 import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.endsWith;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.lessThan;
 import static org.hamcrest.Matchers.nullValue;
@@ -1294,6 +1298,44 @@ public class PersistedClusterStateServiceTests extends ESTestCase {
         }
     }
 
+    public void testRecordsWriteAndCommitDurations() throws IOException {
+        final RecordingMeterRegistry meterRegistry = new RecordingMeterRegistry();
+        final AtomicLong currentTime = new AtomicLong();
+        try (NodeEnvironment nodeEnvironment = newNodeEnvironment(createDataPaths())) {
+            final PersistedClusterStateService persistedClusterStateService = new PersistedClusterStateService(
+                nodeEnvironment,
+                xContentRegistry(),
+                new ClusterSettings(Settings.EMPTY, ClusterSettings.BUILT_IN_CLUSTER_SETTINGS),
+                () -> currentTime.addAndGet(10L),
+                meterRegistry
+            );
+            final long term = randomLongBetween(1L, Long.MAX_VALUE - 1);
+            try (Writer writer = persistedClusterStateService.createWriter()) {
+                final ClusterState clusterState = loadPersistedClusterState(persistedClusterStateService);
+                writer.writeFullStateAndCommit(term, clusterState);
+                writer.writeIncrementalTermUpdateAndCommit(
+                    term + 1,
+                    clusterState.version(),
+                    clusterState.metadata().oldestIndexVersion(),
+                    clusterState.metadata().clusterUUID(),
+                    clusterState.metadata().clusterUUIDCommitted()
+                );
+            }
+        }
+
+        final List<Measurement> writeDurations = meterRegistry.getRecorder()
+            .getMeasurements(InstrumentType.LONG_HISTOGRAM, PersistedClusterStateService.WRITE_DURATION_METRIC_NAME);
+        assertThat(writeDurations.size(), equalTo(1));
+        assertThat(writeDurations.get(0).getLong(), greaterThan(0L));
+
+        // a term update only commits, without writing any metadata
+        final List<Measurement> commitDurations = meterRegistry.getRecorder()
+            .getMeasurements(InstrumentType.LONG_HISTOGRAM, PersistedClusterStateService.COMMIT_DURATION_METRIC_NAME);
+        assertThat(commitDurations.size(), equalTo(2));
+        assertThat(commitDurations.get(0).getLong(), greaterThan(0L));
+        assertThat(commitDurations.get(0).getLong(), lessThan(writeDurations.get(0).getLong()));
+    }
+
     public void testFailsIfCorrupt() throws IOException {
         try (NodeEnvironment nodeEnvironment = newNodeEnvironment(createDataPaths())) {
             final PersistedClusterStateService persistedClusterStateService = newPersistedClusterStateService(nodeEnvironment);
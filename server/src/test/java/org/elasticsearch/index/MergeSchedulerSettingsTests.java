@@ -166,4 +166,21 @@ public class MergeSchedulerSettingsTests extends ESTestCase {
         exc = expectThrows(IllegalArgumentException.class, () -> finalSettings.updateIndexMetadata(createMetadata(-1, 3, 8)));
         assertThat(exc.getMessage(), containsString("maxThreadCount (= 4) should be <= maxMergeCount (= 3)"));
     }
+
+    public void testUpdateHnswMergeWorkers() {
+        Settings.Builder builder = indexSettings(IndexVersion.current(), 1, 0);
+        IndexSettings settings = new IndexSettings(newIndexMeta("index", builder.build()), Settings.EMPTY);
+        assertEquals(1, settings.getMergeSchedulerConfig().getHnswMergeWorkers());
+
+        builder.put(MergeSchedulerConfig.HNSW_MERGE_WORKERS_SETTING.getKey(), 4);
+        settings.updateIndexMetadata(newIndexMeta("index", builder.build()));
+        assertEquals(4, settings.getMergeSchedulerConfig().getHnswMergeWorkers());
+
+        builder.put(MergeSchedulerConfig.HNSW_MERGE_WORKERS_SETTING.getKey(), 0);
+        IllegalArgumentException exc = expectThrows(
+            IllegalArgumentException.class,
+            () -> settings.updateIndexMetadata(newIndexMeta("index", builder.build()))
+        );
+        assertThat(exc.getMessage(), containsString("index.merge.scheduler.hnsw_merge_workers"));
+    }
 }
@@ -15,20 +15,27 @@ import org.apache.lucene.codecs.lucene100.Lucene100Codec;
 import org.apache.lucene.document.Document;
 import org.apache.lucene.document.Field;
 import org.apache.lucene.document.KnnFloatVectorField;
+import org.apache.lucene.index.ConcurrentMergeScheduler;
 import org.apache.lucene.index.DirectoryReader;
 import org.apache.lucene.index.FloatVectorValues;
 import org.apache.lucene.index.IndexReader;
 import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
 import org.apache.lucene.index.KnnVectorValues;
 import org.apache.lucene.index.LeafReader;
 import org.apache.lucene.index.StoredFields;
 import org.apache.lucene.index.VectorSimilarityFunction;
+import org.apache.lucene.search.KnnFloatVectorQuery;
+import org.apache.lucene.search.TopDocs;
 import org.apache.lucene.store.Directory;
 import org.apache.lucene.store.MMapDirectory;
 import org.apache.lucene.tests.index.BaseKnnVectorsFormatTestCase;
 import org.elasticsearch.common.logging.LogConfigurator;
 
 import java.nio.file.Path;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 import static org.apache.lucene.search.DocIdSetIterator.NO_MORE_DOCS;
 
@@ -50,6 +57,62 @@ public class ES814HnswScalarQuantizedVectorsFormatTests extends BaseKnnVectorsFo
         };
     }
 
+    public void testMergeWithSeveralWorkers() throws Exception {
+        int numMergeWorkers = randomIntBetween(2, 4);
+        ExecutorService mergeExec = Executors.newFixedThreadPool(numMergeWorkers);
+        try {
+            doTestMergeWithSeveralWorkers(new ES814HnswScalarQuantizedVectorsFormat(16, 100, null, 7, false, numMergeWorkers, mergeExec));
+        } finally {
+            mergeExec.shutdown();
+            assertTrue(mergeExec.awaitTermination(10, TimeUnit.SECONDS));
+        }
+    }
+
+    private void doTestMergeWithSeveralWorkers(KnnVectorsFormat format) throws Exception {
+        Codec codec = new Lucene100Codec() {
+            @Override
+            public KnnVectorsFormat getKnnVectorsFormatForField(String field) {
+                return format;
+            }
+        };
+        String fieldName = "field";
+        int numDocs = randomIntBetween(200, 500);
+        IndexWriterConfig config = newIndexWriterConfig().setCodec(codec).setMergeScheduler(new ConcurrentMergeScheduler());
+        try (Directory dir = newDirectory(); IndexWriter w = new IndexWriter(dir, config)) {
+            for (int i = 0; i < numDocs; i++) {
+                Document doc = new Document();
+                doc.add(new KnnFloatVectorField(fieldName, randomVector(8), VectorSimilarityFunction.EUCLIDEAN));
+                w.addDocument(doc);
+                if (rarely()) {
+                    w.flush();
+                }
+            }
+            w.forceMerge(1);
+            try (IndexReader reader = DirectoryReader.open(w)) {
+                LeafReader r = getOnlyLeafReader(reader);
+                assertEquals(numDocs, r.getFloatVectorValues(fieldName).size());
+                TopDocs topDocs = newSearcher(reader).search(new KnnFloatVectorQuery(fieldName, randomVector(8), 10), 10);
+                assertEquals(10, topDocs.scoreDocs.length);
+            }
+        }
+    }
+
+    public void testMergeExecutorMustMatchMergeWorkers() {
+        expectThrows(
+            IllegalArgumentException.class,
+            () -> new ES814HnswScalarQuantizedVectorsFormat(16, 100, null, 7, false, randomIntBetween(2, 4), null)
+        );
+        ExecutorService mergeExec = Executors.newSingleThreadExecutor();
+        try {
+            expectThrows(
+                IllegalArgumentException.class,
+                () -> new ES814HnswScalarQuantizedVectorsFormat(16, 100, null, 7, false, 1, mergeExec)
+            );
+        } finally {
+            mergeExec.shutdown();
+        }
+    }
+
     // The following test scenarios are similar to their superclass namesakes,
     // but here we ensure that the Directory implementation is a FSDirectory
     // which helps test the native code vector distance implementation
@@ -0,0 +1,268 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+
+package org.elasticsearch.index.codec.vectors;
+
+import org.apache.lucene.codecs.Codec;
+import org.apache.lucene.codecs.FilterCodec;
+import org.apache.lucene.codecs.KnnVectorsFormat;
+import org.apache.lucene.codecs.KnnVectorsReader;
+import org.apache.lucene.codecs.lucene100.Lucene100Codec;
+import org.apache.lucene.codecs.perfield.PerFieldKnnVectorsFormat;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.KnnFloatVectorField;
+import org.apache.lucene.index.CodecReader;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.LeafReader;
+import org.apache.lucene.index.VectorSimilarityFunction;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.tests.index.BaseKnnVectorsFormatTestCase;
+import org.apache.lucene.util.VectorUtil;
+import org.elasticsearch.common.logging.LogConfigurator;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.IntStream;
+
+import static java.lang.String.format;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.oneOf;
+
+public class ES818IvfVectorsFormatTests extends BaseKnnVectorsFormatTestCase {
+
+    static {
+        LogConfigurator.loadLog4jPlugins();
+        LogConfigurator.configureESLogging(); // native access requires logging to be initialized
+    }
+
+    private KnnVectorsFormat format = new ES818IvfVectorsFormat();
+
+    @Override
+    protected Codec getCodec() {
+        return new Lucene100Codec() {
+            @Override
+            public KnnVectorsFormat getKnnVectorsFormatForField(String field) {
+                return format;
+            }
+        };
+    }
+
+    public void testToString() {
+        FilterCodec customCodec = new FilterCodec("foo", Codec.getDefault()) {
+            @Override
+            public KnnVectorsFormat knnVectorsFormat() {
+                return new ES818IvfVectorsFormat(128);
+            }
+        };
+        String expectedPattern = "ES818IvfVectorsFormat(name=ES818IvfVectorsFormat, vectorsPerCluster=128, "
+            + "flatVectorScorer=ES816BinaryFlatVectorsScorer(nonQuantizedDelegate=%s()))";
+        var defaultScorer = format(Locale.ROOT, expectedPattern, "DefaultFlatVectorScorer");
+        var memSegScorer = format(Locale.ROOT, expectedPattern, "Lucene99MemorySegmentFlatVectorsScorer");
+        assertThat(customCodec.knnVectorsFormat().toString(), is(oneOf(defaultScorer, memSegScorer)));
+    }
+
+    public void testInvalidVectorsPerCluster() {
+        expectThrows(IllegalArgumentException.class, () -> new ES818IvfVectorsFormat(ES818IvfVectorsFormat.MIN_VECTORS_PER_CLUSTER - 1));
+        expectThrows(IllegalArgumentException.class, () -> new ES818IvfVectorsFormat(ES818IvfVectorsFormat.MAX_VECTORS_PER_CLUSTER + 1));
+    }
+
+    @Override
+    public void testRandomWithUpdatesAndGraph() {
+        // graph not supported
+    }
+
+    @Override
+    public void testSearchWithVisitedLimit() {
+        // only the vectors of the closest clusters are scored, so searches under the visited limit are not exact
+    }
+
+    public void testClusteredSearch() throws IOException {
+        format = new ES818IvfVectorsFormat(ES818IvfVectorsFormat.MIN_VECTORS_PER_CLUSTER);
+        String fieldName = "field";
+        int numVectors = random().nextInt(2000, 4000);
+        int dims = 128;
+        VectorSimilarityFunction similarityFunction = randomFrom(VectorSimilarityFunction.EUCLIDEAN, VectorSimilarityFunction.COSINE);
+        float[][] vectors = new float[numVectors][];
+        try (Directory dir = newDirectory()) {
+            // a log merge policy keeps the order of the documents when segments are merged
+            IndexWriterConfig iwc = newIndexWriterConfig().setCodec(getCodec()).setMergePolicy(newLogMergePolicy());
+            try (IndexWriter w = new IndexWriter(dir, iwc)) {
+                for (int i = 0; i < numVectors; i++) {
+                    vectors[i] = randomVector(dims);
+                    Document doc = new Document();
+                    doc.add(new KnnFloatVectorField(fieldName, vectors[i], similarityFunction));
+                    w.addDocument(doc);
+                    if (i % 500 == 0) {
+                        w.commit();
+                    }
+                }
+                // merges are seeded with the centroids of the merged segments
+                w.forceMerge(1);
+
+                try (IndexReader reader = DirectoryReader.open(w)) {
+                    LeafReader leafReader = getOnlyLeafReader(reader);
+                    KnnVectorsReader vectorsReader = ((CodecReader) leafReader).getVectorReader();
+                    if (vectorsReader instanceof PerFieldKnnVectorsFormat.FieldsReader fieldsReader) {
+                        vectorsReader = fieldsReader.getFieldReader(fieldName);
+                    }
+                    assertThat(vectorsReader, instanceOf(ES818IvfVectorsReader.class));
+                    List<float[]> centroids = ((ES818IvfVectorsReader) vectorsReader).getCentroids(fieldName);
+                    int expectedClusters = 1 + (numVectors - 1) / ES818IvfVectorsFormat.MIN_VECTORS_PER_CLUSTER;
+                    assertThat(centroids.size(), equalTo(expectedClusters));
+
+                    // doc ids follow the order of indexing
+                    int target = random().nextInt(numVectors);
+                    int k = 10;
+                    TopDocs topDocs = leafReader.searchNearestVectors(fieldName, vectors[target], k, null, Integer.MAX_VALUE);
+                    assertThat(topDocs.scoreDocs.length, equalTo(k));
+                    assertThat(Arrays.stream(topDocs.scoreDocs).map(scoreDoc -> scoreDoc.doc).toList(), hasItem(target));
+                    // only the closest clusters are probed
+                    long visited = topDocs.totalHits.value();
+                    assertThat(visited, greaterThanOrEqualTo((long) k * ES818IvfVectorsReader.VECTORS_PER_CANDIDATE));
+                    assertThat(visited, lessThan((long) numVectors));
+
+                    // more candidates probe more clusters
+                    TopDocs moreCandidates = leafReader.searchNearestVectors(fieldName, vectors[target], 4 * k, null, Integer.MAX_VALUE);
+                    assertThat(moreCandidates.scoreDocs.length, equalTo(4 * k));
+                    assertThat(moreCandidates.totalHits.value(), greaterThanOrEqualTo(visited));
+                }
+            }
+        }
+    }
+
+    public void testRecall() throws IOException {
+        for (VectorSimilarityFunction similarityFunction : VectorSimilarityFunction.values()) {
+            assertRecall(similarityFunction);
+        }
+    }
+
+    /**
+     * Checks that the clusters a search probes hold the nearest neighbors of the query with the similarity of the field, which needs
+     * the vectors to be assigned to clusters the way searches rank them.
+     */
+    private void assertRecall(VectorSimilarityFunction similarityFunction) throws IOException {
+        format = new ES818IvfVectorsFormat(ES818IvfVectorsFormat.MIN_VECTORS_PER_CLUSTER);
+        String fieldName = "field";
+        int numVectors = 3000;
+        int dims = 32;
+        // the vectors are spread around a few topics, so that their nearest neighbors share their topic
+        float[][] topics = new float[30][dims];
+        for (float[] topic : topics) {
+            for (int d = 0; d < dims; d++) {
+                topic[d] = 2 * random().nextFloat() - 1;
+            }
+        }
+        float[][] vectors = new float[numVectors][];
+        try (Directory dir = newDirectory()) {
+            IndexWriterConfig iwc = newIndexWriterConfig().setCodec(getCodec()).setMergePolicy(newLogMergePolicy());
+            try (IndexWriter w = new IndexWriter(dir, iwc)) {
+                for (int i = 0; i < numVectors; i++) {
+                    vectors[i] = nearTopic(topics[random().nextInt(topics.length)], similarityFunction);
+                    Document doc = new Document();
+                    doc.add(new KnnFloatVectorField(fieldName, vectors[i], similarityFunction));
+                    w.addDocument(doc);
+                }
+                w.forceMerge(1);
+
+                try (IndexReader reader = DirectoryReader.open(w)) {
+                    LeafReader leafReader = getOnlyLeafReader(reader);
+                    KnnVectorsReader vectorsReader = ((CodecReader) leafReader).getVectorReader();
+                    if (vectorsReader instanceof PerFieldKnnVectorsFormat.FieldsReader fieldsReader) {
+                        vectorsReader = fieldsReader.getFieldReader(fieldName);
+                    }
+                    float[][] centroids = ((ES818IvfVectorsReader) vectorsReader).getCentroids(fieldName).toArray(new float[0][]);
+                    // the writer assigns each vector to the centroid it scores highest with
+                    int[] assignments = new int[numVectors];
+                    int[] clusterSizes = new int[centroids.length];
+                    for (int i = 0; i < numVectors; i++) {
+                        float[] vector = normalizeIfCosine(vectors[i], similarityFunction);
+                        assignments[i] = IvfKMeans.nearest(vector, centroids, similarityFunction);
+                        clusterSizes[assignments[i]]++;
+                    }
+
+                    int k = 10;
+                    int numQueries = 10;
+                    int found = 0;
+                    for (int q = 0; q < numQueries; q++) {
+                        float[] query = nearTopic(topics[random().nextInt(topics.length)], similarityFunction);
+                        // the clusters that a search for k candidates probes
+                        float[] normalizedQuery = normalizeIfCosine(query, similarityFunction);
+                        float[] centroidScores = new float[centroids.length];
+                        for (int c = 0; c < centroids.length; c++) {
+                            centroidScores[c] = IvfKMeans.score(similarityFunction, normalizedQuery, centroids[c]);
+                        }
+                        boolean[] probed = new boolean[centroids.length];
+                        long scoredVectors = 0;
+                        for (int cluster : ES818IvfVectorsReader.rankClusters(centroidScores)) {
+                            if (scoredVectors >= (long) k * ES818IvfVectorsReader.VECTORS_PER_CANDIDATE) {
+                                break;
+                            }
+                            probed[cluster] = true;
+                            scoredVectors += clusterSizes[cluster];
+                        }
+                        int[] nearest = IntStream.range(0, numVectors)
+                            .boxed()
+                            .sorted(Comparator.comparingDouble(i -> -similarityFunction.compare(query, vectors[i])))
+                            .limit(k)
+                            .mapToInt(Integer::intValue)
+                            .toArray();
+                        for (int i : nearest) {
+                            if (probed[assignments[i]]) {
+                                found++;
+                            }
+                        }
+                        TopDocs topDocs = leafReader.searchNearestVectors(fieldName, query, k, null, Integer.MAX_VALUE);
+                        assertThat(topDocs.scoreDocs.length, equalTo(k));
+                    }
+                    double recall = (double) found / (k * numQueries);
+                    assertThat(similarityFunction + " recall", recall, greaterThanOrEqualTo(0.9));
+                }
+            }
+        }
+    }
+
+    private static float[] nearTopic(float[] topic, VectorSimilarityFunction similarityFunction) {
+        float[] vector = new float[topic.length];
+        // the cosine similarity ignores the norm of the vectors, unlike clustering them as they are would
+        float scale = similarityFunction == VectorSimilarityFunction.COSINE ? 0.5f + 1.5f * random().nextFloat() : 1f;
+        for (int d = 0; d < vector.length; d++) {
+            vector[d] = scale * (topic[d] + 0.1f * (float) random().nextGaussian());
+        }
+        if (similarityFunction == VectorSimilarityFunction.DOT_PRODUCT) {
+            VectorUtil.l2normalize(vector);
+        }
+        return vector;
+    }
+
+    private static float[] normalizeIfCosine(float[] vector, VectorSimilarityFunction similarityFunction) {
+        if (similarityFunction != VectorSimilarityFunction.COSINE) {
+            return vector;
+        }
+        float[] normalized = vector.clone();
+        VectorUtil.l2normalize(normalized);
+        return normalized;
+    }
+
+    public void testRankClusters() {
+        int[] clusters = ES818IvfVectorsReader.rankClusters(new float[] { 0.5f, 0.9f, 0.1f, 0.7f });
+        assertArrayEquals(new int[] { 1, 3, 0, 2 }, clusters);
+    }
+}
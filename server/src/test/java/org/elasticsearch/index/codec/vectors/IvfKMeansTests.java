@@ -0,0 +1,80 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+
+package org.elasticsearch.index.codec.vectors;
+
+import org.apache.lucene.index.VectorSimilarityFunction;
+import org.apache.lucene.util.VectorUtil;
+import org.elasticsearch.test.ESTestCase;
+
+import java.io.IOException;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+
+public class IvfKMeansTests extends ESTestCase {
+
+    public void testAssignerScoresAllCentroidsWhenFew() throws IOException {
+        VectorSimilarityFunction similarityFunction = randomFrom(VectorSimilarityFunction.values());
+        float[][] centroids = randomVectors(between(1, IvfKMeans.MIN_CENTROIDS_FOR_PARENTS - 1), 8, similarityFunction);
+        IvfKMeans.Assigner assigner = new IvfKMeans.Assigner(centroids, similarityFunction, randomLong());
+        for (float[] vector : randomVectors(100, 8, similarityFunction)) {
+            assertThat(assigner.nearest(vector), equalTo(IvfKMeans.nearest(vector, centroids, similarityFunction)));
+        }
+    }
+
+    public void testAssignerThroughParents() throws IOException {
+        VectorSimilarityFunction similarityFunction = randomFrom(VectorSimilarityFunction.values());
+        int dims = 16;
+        float[][] centroids = randomVectors(between(IvfKMeans.MIN_CENTROIDS_FOR_PARENTS, 2000), dims, similarityFunction);
+        IvfKMeans.Assigner assigner = new IvfKMeans.Assigner(centroids, similarityFunction, randomLong());
+        int numVectors = 1000;
+        int exact = 0;
+        for (int i = 0; i < numVectors; i++) {
+            // a vector near one of the centroids, like the vectors of a cluster are
+            float[] vector = centroids[randomInt(centroids.length - 1)].clone();
+            for (int d = 0; d < dims; d++) {
+                vector[d] += 0.05f * (float) random().nextGaussian();
+            }
+            if (IvfKMeans.normalizesCentroids(similarityFunction)) {
+                VectorUtil.l2normalize(vector);
+            }
+            int nearest = assigner.nearest(vector);
+            if (nearest == IvfKMeans.nearest(vector, centroids, similarityFunction)) {
+                exact++;
+            }
+        }
+        assertThat(similarityFunction + " exact assignments", exact, greaterThanOrEqualTo(numVectors * 9 / 10));
+    }
+
+    public void testSampleSize() {
+        // every vector of small segments
+        assertThat(IvfKMeans.sampleSize(1000, 10, 128), equalTo(1000));
+        // a sample per cluster, even when they are many
+        assertThat(IvfKMeans.sampleSize(10_000_000, 1000, 128), equalTo(1000 * IvfKMeans.SAMPLES_PER_CLUSTER));
+        assertThat(IvfKMeans.sampleSize(10_000_000, 100_000, 8), equalTo(IvfKMeans.MAX_SAMPLES));
+        // up to the size of the sample on heap
+        assertThat(IvfKMeans.sampleSize(10_000_000, 10_000, 1024), equalTo((int) (IvfKMeans.MAX_SAMPLE_BYTES / (1024 * Float.BYTES))));
+        // but never less than a vector per cluster
+        assertThat(IvfKMeans.sampleSize(10_000_000, 100_000, 4096), equalTo(100_000));
+    }
+
+    private static float[][] randomVectors(int count, int dims, VectorSimilarityFunction similarityFunction) {
+        float[][] vectors = new float[count][dims];
+        for (float[] vector : vectors) {
+            for (int d = 0; d < dims; d++) {
+                vector[d] = 2 * random().nextFloat() - 1;
+            }
+            if (IvfKMeans.normalizesCentroids(similarityFunction)) {
+                VectorUtil.l2normalize(vector);
+            }
+        }
+        return vectors;
+    }
+}
@@ -1228,7 +1228,7 @@ public class DenseVectorFieldMapperTests extends MapperTestCase {
             containsString("Failed to parse mapping: Mapping definition for [field] has unsupported parameters:  [foo : {}]")
         );
         List<String> floatOnlyQuantizations = new ArrayList<>(
-            Arrays.asList("int4_hnsw", "int8_hnsw", "int8_flat", "int4_flat", "bbq_hnsw", "bbq_flat")
+            Arrays.asList("int4_hnsw", "int8_hnsw", "int8_flat", "int4_flat", "bbq_hnsw", "bbq_flat", "bbq_ivf")
         );
         for (String quantizationKind : floatOnlyQuantizations) {
             e = expectThrows(
@@ -1980,8 +1980,52 @@ public class DenseVectorFieldMapperTests extends MapperTestCase {
         assertEquals(expectedString, knnVectorsFormat.toString());
     }
 
+    public void testKnnBBQIVFVectorsFormat() throws IOException {
+        final int clusterSize = randomIntBetween(64, 10_000);
+        final int dims = randomIntBetween(64, 4096);
+        MapperService mapperService = createMapperService(fieldMapping(b -> {
+            b.field("type", "dense_vector");
+            b.field("dims", dims);
+            b.field("index", true);
+            b.field("similarity", "dot_product");
+            b.startObject("index_options");
+            b.field("type", "bbq_ivf");
+            b.field("cluster_size", clusterSize);
+            b.endObject();
+        }));
+        CodecService codecService = new CodecService(mapperService, BigArrays.NON_RECYCLING_INSTANCE);
+        Codec codec = codecService.codec("default");
+        KnnVectorsFormat knnVectorsFormat;
+        if (CodecService.ZSTD_STORED_FIELDS_FEATURE_FLAG.isEnabled()) {
+            assertThat(codec, instanceOf(PerFieldMapperCodec.class));
+            knnVectorsFormat = ((PerFieldMapperCodec) codec).getKnnVectorsFormatForField("field");
+        } else {
+            if (codec instanceof CodecService.DeduplicateFieldInfosCodec deduplicateFieldInfosCodec) {
+                codec = deduplicateFieldInfosCodec.delegate();
+            }
+            assertThat(codec, instanceOf(LegacyPerFieldMapperCodec.class));
+            knnVectorsFormat = ((LegacyPerFieldMapperCodec) codec).getKnnVectorsFormatForField("field");
+        }
+        String expectedString = "ES818IvfVectorsFormat(name=ES818IvfVectorsFormat, vectorsPerCluster="
+            + clusterSize
+            + ", flatVectorScorer=ES816BinaryFlatVectorsScorer(nonQuantizedDelegate=DefaultFlatVectorScorer()))";
+        assertEquals(expectedString, knnVectorsFormat.toString());
+
+        MapperParsingException e = expectThrows(MapperParsingException.class, () -> createDocumentMapper(fieldMapping(b -> {
+            b.field("type", "dense_vector");
+            b.field("dims", dims);
+            b.field("index", true);
+            b.field("similarity", "dot_product");
+            b.startObject("index_options");
+            b.field("type", "bbq_ivf");
+            b.field("cluster_size", randomIntBetween(1, 63));
+            b.endObject();
+        })));
+        assertThat(e.getMessage(), containsString("cluster_size must be between 64 and 65536"));
+    }
+
     public void testInvalidVectorDimensionsBBQ() {
-        for (String quantizedFlatFormat : new String[] { "bbq_hnsw", "bbq_flat" }) {
+        for (String quantizedFlatFormat : new String[] { "bbq_hnsw", "bbq_flat", "bbq_ivf" }) {
             MapperParsingException e = expectThrows(MapperParsingException.class, () -> createDocumentMapper(fieldMapping(b -> {
                 b.field("type", "dense_vector");
                 b.field("dims", randomIntBetween(1, 63));
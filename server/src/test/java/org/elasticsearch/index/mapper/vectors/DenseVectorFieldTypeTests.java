@@ -64,7 +64,8 @@ public class DenseVectorFieldTypeTests extends FieldTypeTestCase {
             new DenseVectorFieldMapper.Int8FlatIndexOptions(randomFrom((Float) null, 0f, (float) randomDoubleBetween(0.9, 1.0, true))),
             new DenseVectorFieldMapper.Int4FlatIndexOptions(randomFrom((Float) null, 0f, (float) randomDoubleBetween(0.9, 1.0, true))),
             new DenseVectorFieldMapper.BBQHnswIndexOptions(randomIntBetween(1, 100), randomIntBetween(1, 10_000)),
-            new DenseVectorFieldMapper.BBQFlatIndexOptions()
+            new DenseVectorFieldMapper.BBQFlatIndexOptions(),
+            new DenseVectorFieldMapper.BBQIvfIndexOptions(randomIntBetween(64, 10_000))
         );
     }
 
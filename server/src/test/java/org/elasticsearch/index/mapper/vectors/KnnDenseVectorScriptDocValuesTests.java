@@ -9,9 +9,25 @@
 
 package org.elasticsearch.index.mapper.vectors;
 
+import org.apache.lucene.codecs.KnnVectorsFormat;
+import org.apache.lucene.codecs.lucene100.Lucene100Codec;
+import org.apache.lucene.codecs.lucene95.HasIndexSlice;
+import org.apache.lucene.codecs.lucene99.Lucene99HnswVectorsFormat;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.KnnFloatVectorField;
 import org.apache.lucene.index.ByteVectorValues;
+import org.apache.lucene.index.DirectoryReader;
 import org.apache.lucene.index.FloatVectorValues;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.LeafReader;
+import org.apache.lucene.index.VectorSimilarityFunction;
 import org.apache.lucene.search.VectorScorer;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.MMapDirectory;
+import org.apache.lucene.util.VectorUtil;
+import org.elasticsearch.index.codec.vectors.ES814HnswScalarQuantizedVectorsFormat;
+import org.elasticsearch.index.codec.vectors.ES816HnswBinaryQuantizedVectorsFormat;
 import org.elasticsearch.index.mapper.vectors.DenseVectorFieldMapper.ElementType;
 import org.elasticsearch.script.field.vectors.ByteKnnDenseVectorDocValuesField;
 import org.elasticsearch.script.field.vectors.DenseVector;
@@ -22,6 +38,7 @@ import org.elasticsearch.test.ESTestCase;
 import java.io.IOException;
 
 import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.instanceOf;
 
 public class KnnDenseVectorScriptDocValuesTests extends ESTestCase {
 
@@ -192,6 +209,69 @@ public class KnnDenseVectorScriptDocValuesTests extends ESTestCase {
         assertEquals("Cannot iterate over single valued dense_vector field, use get() instead", e.getMessage());
     }
 
+    public void testFloatVectorsOfMappedSegment() throws IOException {
+        int dims = between(1, 64);
+        float[][] vectors = new float[between(1, 200)][];
+        for (int i = 0; i < vectors.length; i++) {
+            // the first document always has a vector, so that the field has vector values
+            vectors[i] = i == 0 || randomBoolean() ? randomVector(dims) : null;
+        }
+        float[] queryVector = randomVector(dims);
+        // the raw vectors of the flat and bbq formats can be scored where they are mapped, the scalar quantized ones are copied on-heap
+        boolean exposesSlice = randomBoolean();
+        KnnVectorsFormat format = exposesSlice
+            ? randomFrom(new Lucene99HnswVectorsFormat(), new ES816HnswBinaryQuantizedVectorsFormat())
+            : new ES814HnswScalarQuantizedVectorsFormat();
+        IndexWriterConfig config = new IndexWriterConfig().setCodec(new Lucene100Codec() {
+            @Override
+            public KnnVectorsFormat getKnnVectorsFormatForField(String field) {
+                return format;
+            }
+        });
+        try (Directory directory = new MMapDirectory(createTempDir())) {
+            try (IndexWriter writer = new IndexWriter(directory, config)) {
+                for (float[] vector : vectors) {
+                    Document doc = new Document();
+                    if (vector != null) {
+                        doc.add(new KnnFloatVectorField("vector", vector, VectorSimilarityFunction.EUCLIDEAN));
+                    }
+                    writer.addDocument(doc);
+                }
+            }
+            try (DirectoryReader reader = DirectoryReader.open(directory)) {
+                LeafReader leafReader = getOnlyLeafReader(reader);
+                FloatVectorValues values = leafReader.getFloatVectorValues("vector");
+                if (exposesSlice) {
+                    assertThat(values, instanceOf(HasIndexSlice.class));
+                }
+                KnnDenseVectorDocValuesField field = new KnnDenseVectorDocValuesField(values, "vector", dims);
+                for (int doc = 0; doc < vectors.length; doc++) {
+                    field.setNextDocId(doc);
+                    if (vectors[doc] == null) {
+                        assertTrue(field.isEmpty());
+                        assertEquals(DenseVector.EMPTY, field.get());
+                        continue;
+                    }
+                    // the vector is read lazily, either before or after the document was scored
+                    if (randomBoolean()) {
+                        assertArrayEquals(vectors[doc], field.get().getVector(), 0f);
+                    }
+                    assertEquals(VectorUtil.dotProduct(vectors[doc], queryVector), field.dotProduct(queryVector), 1e-3);
+                    assertEquals(Math.sqrt(VectorUtil.squareDistance(vectors[doc], queryVector)), field.l2Norm(queryVector), 1e-3);
+                    assertArrayEquals(vectors[doc], field.get().getVector(), 0f);
+                }
+            }
+        }
+    }
+
+    private static float[] randomVector(int dims) {
+        float[] vector = new float[dims];
+        for (int i = 0; i < dims; i++) {
+            vector[i] = randomFloat();
+        }
+        return vector;
+    }
+
     public static ByteVectorValues wrapBytes(float[][] vectors) {
         return new ByteVectorValues() {
             int index = 0;
@@ -0,0 +1,225 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+
+package org.elasticsearch.index.mapper.vectors;
+
+import org.apache.lucene.index.IndexableField;
+import org.apache.lucene.util.BytesRef;
+import org.elasticsearch.index.mapper.DocumentMapper;
+import org.elasticsearch.index.mapper.DocumentParsingException;
+import org.elasticsearch.index.mapper.MappedFieldType;
+import org.elasticsearch.index.mapper.MapperParsingException;
+import org.elasticsearch.index.mapper.MapperService;
+import org.elasticsearch.index.mapper.MapperTestCase;
+import org.elasticsearch.index.mapper.ParsedDocument;
+import org.elasticsearch.index.mapper.SourceToParse;
+import org.elasticsearch.index.mapper.ValueFetcher;
+import org.elasticsearch.index.mapper.vectors.MultiDenseVectorFieldMapper.MultiDenseVectorFieldType;
+import org.elasticsearch.index.query.SearchExecutionContext;
+import org.elasticsearch.search.lookup.Source;
+import org.elasticsearch.search.lookup.SourceProvider;
+import org.elasticsearch.test.ESTestCase;
+import org.elasticsearch.xcontent.XContentBuilder;
+import org.junit.AssumptionViolatedException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.nullValue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class MultiDenseVectorFieldMapperTests extends MapperTestCase {
+
+    private final int dims = between(1, 16);
+
+    @Override
+    protected void minimalMapping(XContentBuilder b) throws IOException {
+        b.field("type", "multi_dense_vector").field("dims", dims);
+    }
+
+    @Override
+    protected Object getSampleValueForDocument() {
+        return randomVectors(dims);
+    }
+
+    @Override
+    protected void registerParameters(ParameterChecker checker) throws IOException {
+        checker.registerConflictCheck(
+            "dims",
+            fieldMapping(b -> b.field("type", "multi_dense_vector").field("dims", dims)),
+            fieldMapping(b -> b.field("type", "multi_dense_vector").field("dims", dims + 8))
+        );
+    }
+
+    @Override
+    protected boolean supportsStoredFields() {
+        return false;
+    }
+
+    @Override
+    protected boolean supportsIgnoreMalformed() {
+        return false;
+    }
+
+    // Like dense vectors, the field has doc values that scripts can read but isn't aggregatable
+    @Override
+    public void testAggregatableConsistency() {}
+
+    @Override
+    protected Object generateRandomInputValue(MappedFieldType ft) {
+        return randomVectors(((MultiDenseVectorFieldType) ft).getVectorDimensions());
+    }
+
+    @Override
+    protected void assertFetchMany(MapperService mapperService, String field, Object value, String format, int count) throws IOException {
+        assumeFalse("Multi dense vectors don't support multiple values in the same field", false);
+    }
+
+    /**
+     * The doc values of multi dense vectors have no string representation, so this only verifies that fetching the field from the
+     * source returns the vectors that were indexed.
+     */
+    @Override
+    protected void assertFetch(MapperService mapperService, String field, Object value, String format) throws IOException {
+        MappedFieldType ft = mapperService.fieldType(field);
+        MappedFieldType.FielddataOperation fdt = MappedFieldType.FielddataOperation.SEARCH;
+        SourceToParse source = source(b -> b.field(ft.name(), value));
+        SearchExecutionContext searchExecutionContext = mock(SearchExecutionContext.class);
+        when(searchExecutionContext.isSourceEnabled()).thenReturn(true);
+        when(searchExecutionContext.sourcePath(field)).thenReturn(Set.of(field));
+        when(searchExecutionContext.getForField(ft, fdt)).thenAnswer(inv -> fieldDataLookup(mapperService).apply(ft, () -> {
+            throw new UnsupportedOperationException();
+        }, fdt));
+        ValueFetcher nativeFetcher = ft.valueFetcher(searchExecutionContext, format);
+        ParsedDocument doc = mapperService.documentMapper().parse(source);
+        withLuceneIndex(mapperService, iw -> iw.addDocuments(doc.docs()), ir -> {
+            Source s = SourceProvider.fromStoredFields().getSource(ir.leaves().get(0), 0);
+            nativeFetcher.setNextReader(ir.leaves().get(0));
+            List<Object> fromNative = nativeFetcher.fetchValues(s, 0, new ArrayList<>());
+            List<?> vectors = (List<?>) value;
+            assertThat("fetching " + value, fromNative, hasSize(vectors.size()));
+            for (int i = 0; i < vectors.size(); i++) {
+                List<?> expected = (List<?>) vectors.get(i);
+                List<?> fetched = (List<?>) fromNative.get(i);
+                assertThat("fetching " + value, fetched, hasSize(expected.size()));
+                for (int d = 0; d < expected.size(); d++) {
+                    assertThat(((Number) fetched.get(d)).floatValue(), equalTo(((Number) expected.get(d)).floatValue()));
+                }
+            }
+        });
+    }
+
+    @Override
+    protected SyntheticSourceSupport syntheticSourceSupport(boolean ignoreMalformed) {
+        throw new AssumptionViolatedException("not supported");
+    }
+
+    @Override
+    protected IngestScriptSupport ingestScriptSupport() {
+        throw new AssumptionViolatedException("not supported");
+    }
+
+    @Override
+    public void testSyntheticSourceKeepArrays() {
+        // The mapper expects to parse an array of vectors, it's not compatible with arrays of values.
+    }
+
+    private static List<List<Float>> randomVectors(int dims) {
+        return randomList(1, 5, () -> randomList(dims, dims, ESTestCase::randomFloat));
+    }
+
+    public void testDefaults() throws IOException {
+        DocumentMapper mapper = createDocumentMapper(fieldMapping(b -> b.field("type", "multi_dense_vector").field("dims", 3)));
+        assertThat(mapper.mappers().getMapper("field"), instanceOf(MultiDenseVectorFieldMapper.class));
+        assertThat(mapper.mappingSource().toString(), containsString("\"field\":{\"type\":\"multi_dense_vector\",\"dims\":3}"));
+
+        ParsedDocument doc = mapper.parse(source(b -> {
+            b.startArray("field");
+            b.startArray().value(1f).value(2f).value(3f).endArray();
+            b.startArray().value(-4f).value(0.5f).value(6f).endArray();
+            b.endArray();
+        }));
+        IndexableField field = doc.rootDoc().getField("field");
+        BytesRef vectors = field.binaryValue();
+        assertThat(vectors.length, equalTo(2 * 3 * Float.BYTES));
+        float[] decoded = new float[6];
+        ByteBuffer.wrap(vectors.bytes, vectors.offset, vectors.length).order(ByteOrder.LITTLE_ENDIAN).asFloatBuffer().get(decoded);
+        assertArrayEquals(new float[] { 1f, 2f, 3f, -4f, 0.5f, 6f }, decoded, 0f);
+    }
+
+    public void testEmptyAndNullValues() throws IOException {
+        DocumentMapper mapper = createDocumentMapper(fieldMapping(b -> b.field("type", "multi_dense_vector").field("dims", 2)));
+        assertThat(mapper.parse(source(b -> b.nullField("field"))).rootDoc().getField("field"), nullValue());
+        assertThat(mapper.parse(source(b -> b.startArray("field").endArray())).rootDoc().getField("field"), nullValue());
+    }
+
+    public void testDimsRequired() {
+        Exception e = expectThrows(
+            MapperParsingException.class,
+            () -> createDocumentMapper(fieldMapping(b -> b.field("type", "multi_dense_vector")))
+        );
+        assertThat(e.getMessage(), containsString("Property [dims] on field [field] is required"));
+
+        e = expectThrows(
+            MapperParsingException.class,
+            () -> createDocumentMapper(fieldMapping(b -> b.field("type", "multi_dense_vector").field("dims", 5000)))
+        );
+        assertThat(e.getMessage(), containsString("The number of dimensions should be in the range [1, 4096] but was [5000]"));
+    }
+
+    public void testInvalidVectors() throws IOException {
+        DocumentMapper mapper = createDocumentMapper(fieldMapping(b -> b.field("type", "multi_dense_vector").field("dims", 2)));
+
+        DocumentParsingException e = expectThrows(DocumentParsingException.class, () -> mapper.parse(source(b -> {
+            b.startArray("field");
+            b.startArray().value(1f).value(2f).endArray();
+            b.startArray().value(3f).endArray();
+            b.endArray();
+        })));
+        assertThat(e.getCause().getMessage(), containsString("has a vector [1] of a different number of dimensions"));
+
+        e = expectThrows(DocumentParsingException.class, () -> mapper.parse(source(b -> {
+            b.startArray("field");
+            b.startArray().value(1f).value(2f).value(3f).endArray();
+            b.endArray();
+        })));
+        assertThat(e.getCause().getMessage(), containsString("has a vector [0] of a different number of dimensions"));
+
+        e = expectThrows(DocumentParsingException.class, () -> mapper.parse(source(b -> b.array("field", 1f, 2f))));
+        assertThat(e.getCause().getMessage(), containsString("must be an array of vectors"));
+
+        e = expectThrows(DocumentParsingException.class, () -> mapper.parse(source(b -> {
+            b.startArray("field");
+            b.startArray().value(1f).value(Float.NaN).endArray();
+            b.endArray();
+        })));
+        assertThat(e.getCause().getMessage(), containsString("has a non finite value [NaN] in vector [0]"));
+    }
+
+    public void testCannotBeUsedInMultiFields() {
+        Exception e = expectThrows(MapperParsingException.class, () -> createMapperService(fieldMapping(b -> {
+            b.field("type", "keyword");
+            b.startObject("fields");
+            b.startObject("vectors");
+            b.field("type", "multi_dense_vector").field("dims", 2);
+            b.endObject();
+            b.endObject();
+        })));
+        assertThat(e.getMessage(), containsString("Field [vectors] of type [multi_dense_vector] can't be used in multifields"));
+    }
+}
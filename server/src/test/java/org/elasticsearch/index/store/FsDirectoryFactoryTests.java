@@ -12,6 +12,8 @@ import org.apache.lucene.store.AlreadyClosedException;
 import org.apache.lucene.store.Directory;
 import org.apache.lucene.store.FilterDirectory;
 import org.apache.lucene.store.IOContext;
+import org.apache.lucene.store.IndexInput;
+import org.apache.lucene.store.IndexOutput;
 import org.apache.lucene.store.MMapDirectory;
 import org.apache.lucene.store.NIOFSDirectory;
 import org.apache.lucene.store.NoLockFactory;
@@ -25,6 +27,7 @@ import org.elasticsearch.index.IndexSettings;
 import org.elasticsearch.index.IndexVersion;
 import org.elasticsearch.index.shard.ShardId;
 import org.elasticsearch.index.shard.ShardPath;
+import org.elasticsearch.nativeaccess.NativeAccess;
 import org.elasticsearch.test.ESTestCase;
 import org.elasticsearch.test.IndexSettingsModule;
 import org.hamcrest.Matchers;
@@ -129,6 +132,38 @@ public class FsDirectoryFactoryTests extends ESTestCase {
         );
     }
 
+    public void testReadAheadNIOFSDirectory() throws IOException {
+        final byte[] bytes = randomByteArrayOfLength(between(1, 1 << 16));
+        try (Directory directory = new FsDirectoryFactory.ReadAheadNIOFSDirectory(createTempDir(), NoLockFactory.INSTANCE)) {
+            try (IndexOutput output = directory.createOutput("foo.fdt", IOContext.DEFAULT)) {
+                output.writeBytes(bytes, bytes.length);
+            }
+            try (IndexInput input = directory.openInput("foo.fdt", IOContext.DEFAULT)) {
+                if (NativeAccess.instance().getReadAhead().isPresent()) {
+                    assertThat(input, Matchers.instanceOf(ReadAheadNIOFSIndexInput.class));
+                }
+                final int sliceOffset = between(0, bytes.length - 1);
+                final int sliceLength = between(1, bytes.length - sliceOffset);
+                final IndexInput slice = input.slice("slice", sliceOffset, sliceLength);
+                final IndexInput clone = randomBoolean() ? slice.clone() : slice;
+                final int prefetchOffset = between(0, sliceLength - 1);
+                clone.prefetch(prefetchOffset, between(1, sliceLength - prefetchOffset));
+                if (input instanceof ReadAheadNIOFSIndexInput) {
+                    expectThrows(IndexOutOfBoundsException.class, () -> clone.prefetch(sliceLength, 1));
+                }
+
+                final byte[] read = new byte[sliceLength];
+                clone.readBytes(read, 0, sliceLength);
+                assertArrayEquals(Arrays.copyOfRange(bytes, sliceOffset, sliceOffset + sliceLength), read);
+
+                input.prefetch(0, bytes.length);
+                final byte[] readAll = new byte[bytes.length];
+                input.readBytes(readAll, 0, bytes.length);
+                assertArrayEquals(bytes, readAll);
+            }
+        }
+    }
+
     public void testStoreDirectory() throws IOException {
         Index index = new Index("foo", "fooUUID");
         final Path tempDir = createTempDir().resolve(index.getUUID()).resolve("0");
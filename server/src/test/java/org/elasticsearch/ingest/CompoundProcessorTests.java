@@ -10,9 +10,12 @@
 package org.elasticsearch.ingest;
 
 import org.elasticsearch.ElasticsearchException;
+import org.elasticsearch.common.TriConsumer;
 import org.elasticsearch.test.ESTestCase;
 import org.junit.Before;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
@@ -595,6 +598,72 @@ public class CompoundProcessorTests extends ESTestCase {
         assertThat(failureProcessor2.getInvokedCounter(), equalTo(1));
     }
 
+    public void testExecuteBatch() {
+        TestProcessor processor1 = new TestProcessor(doc -> {
+            if (doc.hasField("fail")) {
+                throw new RuntimeException("error");
+            }
+            doc.setFieldValue("first", true);
+        });
+        TestProcessor processor2 = new TestProcessor("drop", "drop", null, doc -> doc.hasField("drop") ? null : doc);
+        List<Integer> batchSizes = new ArrayList<>();
+        TestProcessor processor3 = new TestProcessor(doc -> doc.setFieldValue("third", true)) {
+            @Override
+            public boolean supportsBatchExecution() {
+                return true;
+            }
+
+            @Override
+            public void executeBatch(List<IngestDocument> ingestDocuments, TriConsumer<Integer, IngestDocument, Exception> handler) {
+                batchSizes.add(ingestDocuments.size());
+                super.executeBatch(ingestDocuments, handler);
+            }
+        };
+        TestProcessor onFailureProcessor = new TestProcessor(doc -> doc.setFieldValue("on_failure", true));
+        LongSupplier relativeTimeProvider = mock(LongSupplier.class);
+        when(relativeTimeProvider.getAsLong()).thenReturn(0L);
+        CompoundProcessor compoundProcessor = new CompoundProcessor(
+            false,
+            List.of(processor1, processor2, processor3),
+            List.of(onFailureProcessor),
+            relativeTimeProvider
+        );
+        assertThat(compoundProcessor.supportsBatchExecution(), is(true));
+
+        List<IngestDocument> ingestDocuments = List.of(
+            TestIngestDocument.withDefaultVersion(new HashMap<>(Map.of("fail", true))),
+            TestIngestDocument.withDefaultVersion(new HashMap<>()),
+            TestIngestDocument.withDefaultVersion(new HashMap<>(Map.of("drop", true))),
+            TestIngestDocument.withDefaultVersion(new HashMap<>())
+        );
+        IngestDocument[] results = new IngestDocument[ingestDocuments.size()];
+        Exception[] failures = new Exception[ingestDocuments.size()];
+        int[] calls = new int[ingestDocuments.size()];
+        compoundProcessor.executeBatch(ingestDocuments, (slot, result, e) -> {
+            results[slot] = result;
+            failures[slot] = e;
+            calls[slot]++;
+        });
+
+        assertThat(calls, equalTo(new int[] { 1, 1, 1, 1 }));
+        assertThat(failures, equalTo(new Exception[4]));
+        // the failing document only goes through the on failure processors
+        assertThat(results[0].getFieldValue("on_failure", Boolean.class), is(true));
+        assertThat(results[0].hasField("third"), is(false));
+        assertThat(results[2], nullValue());
+        for (int slot : new int[] { 1, 3 }) {
+            assertThat(results[slot].getFieldValue("first", Boolean.class), is(true));
+            assertThat(results[slot].getFieldValue("third", Boolean.class), is(true));
+        }
+        assertThat(batchSizes, equalTo(List.of(2)));
+        assertThat(processor1.getInvokedCounter(), equalTo(4));
+        assertThat(processor2.getInvokedCounter(), equalTo(3));
+        assertThat(processor3.getInvokedCounter(), equalTo(2));
+        assertStats(0, compoundProcessor, 0, 4, 1, 0);
+        assertStats(1, compoundProcessor, 0, 3, 0, 0);
+        assertStats(2, compoundProcessor, 0, 2, 0, 0);
+    }
+
     private TestProcessor getTestProcessor(String tag, boolean isAsync, boolean shouldThrowException) {
         return new TestProcessor(tag, "test-processor", null, ingestDocument -> {
             if (shouldThrowException) throw new RuntimeException("Intentionally failing");
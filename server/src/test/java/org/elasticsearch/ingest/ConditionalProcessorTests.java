@@ -10,6 +10,7 @@
 package org.elasticsearch.ingest;
 
 import org.elasticsearch.action.support.PlainActionFuture;
+import org.elasticsearch.common.TriConsumer;
 import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.script.IngestConditionalScript;
 import org.elasticsearch.script.MockScriptEngine;
@@ -33,6 +34,7 @@ import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 import java.util.function.LongSupplier;
 
+import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.greaterThanOrEqualTo;
 import static org.hamcrest.Matchers.hasKey;
@@ -241,6 +243,119 @@ public class ConditionalProcessorTests extends ESTestCase {
         execProcessor(processor, ingestDoc, (doc, e) -> { assertThat(e.getMessage(), equalTo("runtime problem")); });
     }
 
+    public void testExecuteBatch() {
+        String conditionalField = "field1";
+        String trueValue = "truthy";
+        ScriptService scriptService = new ScriptService(
+            Settings.builder().build(),
+            Map.of(
+                Script.DEFAULT_SCRIPT_LANG,
+                new MockScriptEngine(
+                    Script.DEFAULT_SCRIPT_LANG,
+                    Map.of(scriptName, ctx -> trueValue.equals(ctx.get(conditionalField))),
+                    Map.of()
+                )
+            ),
+            new HashMap<>(ScriptModule.CORE_CONTEXTS),
+            () -> 1L
+        );
+        final List<List<IngestDocument>> innerBatches = new ArrayList<>();
+        ConditionalProcessor processor = new ConditionalProcessor(
+            randomAlphaOfLength(10),
+            "description",
+            new Script(ScriptType.INLINE, Script.DEFAULT_SCRIPT_LANG, scriptName, Map.of()),
+            scriptService,
+            new Processor() {
+                @Override
+                public IngestDocument execute(final IngestDocument ingestDocument) {
+                    if (ingestDocument.hasField("error")) {
+                        throw new RuntimeException("error");
+                    }
+                    ingestDocument.setFieldValue("foo", "bar");
+                    return ingestDocument;
+                }
+
+                @Override
+                public void executeBatch(List<IngestDocument> ingestDocuments, TriConsumer<Integer, IngestDocument, Exception> handler) {
+                    innerBatches.add(List.copyOf(ingestDocuments));
+                    Processor.super.executeBatch(ingestDocuments, handler);
+                }
+
+                @Override
+                public boolean supportsBatchExecution() {
+                    return true;
+                }
+
+                @Override
+                public String getType() {
+                    return null;
+                }
+
+                @Override
+                public String getTag() {
+                    return null;
+                }
+
+                @Override
+                public String getDescription() {
+                    return null;
+                }
+            }
+        );
+        assertTrue(processor.supportsBatchExecution());
+
+        final List<IngestDocument> ingestDocuments = new ArrayList<>();
+        final List<IngestDocument> matching = new ArrayList<>();
+        final List<Boolean> matches = new ArrayList<>();
+        int failing = 0;
+        for (int i = between(1, 20); i > 0; i--) {
+            IngestDocument ingestDocument = RandomDocumentPicks.randomIngestDocument(random(), new HashMap<>());
+            final boolean match = randomBoolean();
+            ingestDocument.setFieldValue(conditionalField, match ? trueValue : "falsy");
+            if (randomBoolean()) {
+                ingestDocument.setFieldValue("error", true);
+                if (match) {
+                    failing++;
+                }
+            }
+            if (match) {
+                matching.add(ingestDocument);
+            }
+            matches.add(match);
+            ingestDocuments.add(ingestDocument);
+        }
+
+        final int[] completions = new int[ingestDocuments.size()];
+        processor.executeBatch(ingestDocuments, (slot, result, e) -> {
+            completions[slot]++;
+            final IngestDocument ingestDocument = ingestDocuments.get(slot);
+            if (matches.get(slot) == false) {
+                // documents that do not match the condition pass through untouched, even those the inner processor would fail
+                assertNull(e);
+                assertSame(ingestDocument, result);
+                assertThat(ingestDocument.getSourceAndMetadata(), not(hasKey("foo")));
+            } else if (ingestDocument.hasField("error")) {
+                assertNull(result);
+                assertThat(e.getMessage(), equalTo("error"));
+            } else {
+                assertNull(e);
+                assertSame(ingestDocument, result);
+                assertThat(ingestDocument.getSourceAndMetadata().get("foo"), is("bar"));
+            }
+        });
+        for (int completion : completions) {
+            assertThat(completion, equalTo(1));
+        }
+
+        // the matching documents reached the inner processor as a single batch
+        if (matching.isEmpty()) {
+            assertThat(innerBatches, empty());
+        } else {
+            assertThat(innerBatches, equalTo(List.of(matching)));
+        }
+        assertStats(processor, matching.size(), failing, 0);
+    }
+
     private static void assertMutatingCtxThrows(Consumer<Map<String, Object>> mutation) throws Exception {
         String scriptName = "conditionalScript";
         PlainActionFuture<Exception> expectedException = new PlainActionFuture<>();
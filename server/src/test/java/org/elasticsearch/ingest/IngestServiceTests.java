@@ -77,6 +77,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
@@ -101,6 +102,7 @@ import static org.elasticsearch.ingest.IngestService.NOOP_PIPELINE_NAME;
 import static org.elasticsearch.ingest.IngestService.hasPipeline;
 import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.Matchers.emptyIterable;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.greaterThanOrEqualTo;
@@ -1792,6 +1794,115 @@ public class IngestServiceTests extends ESTestCase {
         }
     }
 
+    public void testBulkRequestExecutionInBatches() throws Exception {
+        // the sizes of the batches the processor was given, a document executed on its own counts as a batch of one
+        final List<Integer> batchSizes = new ArrayList<>();
+        final Processor processor = new AbstractProcessor(null, null) {
+            @Override
+            public IngestDocument execute(IngestDocument ingestDocument) {
+                batchSizes.add(1);
+                return process(ingestDocument);
+            }
+
+            @Override
+            public void executeBatch(List<IngestDocument> ingestDocuments, TriConsumer<Integer, IngestDocument, Exception> handler) {
+                batchSizes.add(ingestDocuments.size());
+                for (int i = 0; i < ingestDocuments.size(); i++) {
+                    final IngestDocument result;
+                    try {
+                        result = process(ingestDocuments.get(i));
+                    } catch (Exception e) {
+                        handler.apply(i, null, e);
+                        continue;
+                    }
+                    handler.apply(i, result, null);
+                }
+            }
+
+            private IngestDocument process(IngestDocument ingestDocument) {
+                return switch (ingestDocument.getFieldValue("outcome", String.class)) {
+                    case "fail" -> throw new IllegalArgumentException("failed");
+                    case "drop" -> null;
+                    default -> {
+                        ingestDocument.setFieldValue("processed", true);
+                        yield ingestDocument;
+                    }
+                };
+            }
+
+            @Override
+            public boolean supportsBatchExecution() {
+                return true;
+            }
+
+            @Override
+            public String getType() {
+                return "batch";
+            }
+        };
+        IngestService ingestService = createWithProcessors(Map.of("batch", (factories, tag, description, config) -> processor));
+        PutPipelineRequest putRequest = putJsonPipelineRequest("_id", "{\"processors\": [{\"batch\" : {}}]}");
+        ClusterState clusterState = ClusterState.builder(new ClusterName("_name")).build(); // Start empty
+        ClusterState previousClusterState = clusterState;
+        clusterState = executePut(putRequest, clusterState);
+        ingestService.applyClusterState(new ClusterChangedEvent("", clusterState, previousClusterState));
+
+        final int numRequests = between(1, 3 * IngestService.MAX_PIPELINE_BATCH_SIZE);
+        final List<DocWriteRequest<?>> indexRequests = new ArrayList<>(numRequests);
+        final Set<Integer> expectedFailed = new HashSet<>();
+        final Set<Integer> expectedDropped = new HashSet<>();
+        for (int i = 0; i < numRequests; i++) {
+            final String outcome = randomFrom("keep", "fail", "drop");
+            if (outcome.equals("fail")) {
+                expectedFailed.add(i);
+            } else if (outcome.equals("drop")) {
+                expectedDropped.add(i);
+            }
+            indexRequests.add(
+                new IndexRequest("_index").id("_id" + i).source(Map.of("outcome", outcome)).setPipeline("_id").setFinalPipeline("_none")
+            );
+        }
+
+        final boolean redirectFailures = randomBoolean();
+        final Set<Integer> failed = new HashSet<>();
+        final Set<Integer> redirected = new HashSet<>();
+        final Set<Integer> dropped = new HashSet<>();
+        @SuppressWarnings("unchecked")
+        final BiConsumer<Thread, Exception> completionHandler = mock(BiConsumer.class);
+        ingestService.executeBulkRequest(
+            numRequests,
+            indexRequests,
+            dropped::add,
+            (s) -> redirectFailures,
+            (slot, targetIndex, e) -> redirected.add(slot),
+            (slot, e) -> failed.add(slot),
+            completionHandler,
+            EsExecutors.DIRECT_EXECUTOR_SERVICE
+        );
+        verify(completionHandler, times(1)).accept(Thread.currentThread(), null);
+
+        // the documents were executed in as few batches as the maximum batch size allows
+        assertThat(batchSizes.stream().mapToInt(Integer::intValue).sum(), equalTo(numRequests));
+        final int maxBatchSize = IngestService.MAX_PIPELINE_BATCH_SIZE;
+        assertThat(batchSizes.size(), equalTo((numRequests + maxBatchSize - 1) / maxBatchSize));
+        assertTrue(batchSizes.stream().allMatch(size -> size <= maxBatchSize));
+
+        // each document completed on its own
+        assertThat(dropped, equalTo(expectedDropped));
+        assertThat(redirectFailures ? redirected : failed, equalTo(expectedFailed));
+        assertThat(redirectFailures ? failed : redirected, empty());
+        for (int i = 0; i < numRequests; i++) {
+            if (expectedFailed.contains(i) == false && expectedDropped.contains(i) == false) {
+                assertThat(((IndexRequest) indexRequests.get(i)).sourceAsMap().get("processed"), equalTo(true));
+            }
+        }
+
+        final IngestStats ingestStats = ingestService.stats();
+        assertStats(ingestStats.totalStats(), numRequests, expectedFailed.size(), 0);
+        assertStats(getPipeline(ingestStats.pipelineStats(), "_id").stats(), numRequests, expectedFailed.size(), 0);
+        assertProcessorStats(0, ingestStats, "_id", numRequests, expectedFailed.size(), 0);
+    }
+
     public void testIngestAndPipelineStats() throws Exception {
         final Processor processor = mock(Processor.class);
         when(processor.getType()).thenReturn("mock");
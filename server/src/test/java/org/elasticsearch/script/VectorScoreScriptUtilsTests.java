@@ -9,6 +9,8 @@
 
 package org.elasticsearch.script;
 
+import org.apache.lucene.index.BinaryDocValues;
+import org.apache.lucene.util.BytesRef;
 import org.elasticsearch.index.IndexVersion;
 import org.elasticsearch.index.IndexVersions;
 import org.elasticsearch.index.mapper.vectors.BinaryDenseVectorScriptDocValuesTests;
@@ -19,14 +21,18 @@ import org.elasticsearch.script.VectorScoreScriptUtils.DotProduct;
 import org.elasticsearch.script.VectorScoreScriptUtils.Hamming;
 import org.elasticsearch.script.VectorScoreScriptUtils.L1Norm;
 import org.elasticsearch.script.VectorScoreScriptUtils.L2Norm;
+import org.elasticsearch.script.VectorScoreScriptUtils.MaxSimDotProduct;
 import org.elasticsearch.script.field.vectors.BinaryDenseVectorDocValuesField;
 import org.elasticsearch.script.field.vectors.ByteBinaryDenseVectorDocValuesField;
 import org.elasticsearch.script.field.vectors.ByteKnnDenseVectorDocValuesField;
 import org.elasticsearch.script.field.vectors.DenseVectorDocValuesField;
 import org.elasticsearch.script.field.vectors.KnnDenseVectorDocValuesField;
+import org.elasticsearch.script.field.vectors.MultiDenseVectorDocValuesField;
 import org.elasticsearch.test.ESTestCase;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.util.Arrays;
 import java.util.HexFormat;
 import java.util.List;
@@ -492,4 +498,84 @@ public class VectorScoreScriptUtilsTests extends ESTestCase {
             );
         }
     }
+
+    public void testMaxSimDotProduct() throws IOException {
+        String fieldName = "vectors";
+        int dims = 3;
+        float[][] docVectors = new float[][] { { 1f, 0f, 2f }, { -1f, 3f, 0.5f } };
+        ByteBuffer buffer = ByteBuffer.allocate(docVectors.length * dims * Float.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        for (float[] docVector : docVectors) {
+            for (float value : docVector) {
+                buffer.putFloat(value);
+            }
+        }
+        MultiDenseVectorDocValuesField field = new MultiDenseVectorDocValuesField(
+            wrapBinary(new BytesRef(buffer.array())),
+            fieldName,
+            dims
+        );
+        ScoreScript scoreScript = mock(ScoreScript.class);
+        when(scoreScript.field(fieldName)).thenAnswer(mock -> field);
+
+        // the first query vector is closest to the first doc vector, the second one to the second doc vector
+        List<List<Number>> queryVectors = List.of(List.of(2f, 0f, 1f), List.of(0f, 1f, 0f));
+        MaxSimDotProduct maxSim = new MaxSimDotProduct(scoreScript, queryVectors, fieldName);
+        assertEquals(4f + 3f, maxSim.maxSimDotProduct(), 0.001);
+
+        // scripts get a copy of the vectors, which doesn't change the decoded ones
+        float[] expectedVectorValues = new float[] { 1f, 0f, 2f, -1f, 3f, 0.5f };
+        float[] vectorValues = field.toScriptDocValues().getVectorValues();
+        assertArrayEquals(expectedVectorValues, vectorValues, 0f);
+        Arrays.fill(vectorValues, 0f);
+        assertArrayEquals(expectedVectorValues, Arrays.copyOf(field.vectorValues(), expectedVectorValues.length), 0f);
+
+        IllegalArgumentException e = expectThrows(
+            IllegalArgumentException.class,
+            () -> new MaxSimDotProduct(scoreScript, List.of(List.of(1f, 2f)), fieldName)
+        );
+        assertThat(e.getMessage(), containsString("query vector has a different number of dimensions [2] than the document vectors [3]"));
+        e = expectThrows(IllegalArgumentException.class, () -> new MaxSimDotProduct(scoreScript, List.of(), fieldName));
+        assertThat(e.getMessage(), containsString("expects a non empty list of query vectors"));
+
+        when(scoreScript._getDocId()).thenReturn(1);
+        e = expectThrows(IllegalArgumentException.class, maxSim::maxSimDotProduct);
+        assertEquals("A document doesn't have a value for a vector field!", e.getMessage());
+    }
+
+    private static BinaryDocValues wrapBinary(BytesRef value) {
+        return new BinaryDocValues() {
+            int doc = -1;
+
+            @Override
+            public BytesRef binaryValue() {
+                return value;
+            }
+
+            @Override
+            public boolean advanceExact(int target) {
+                doc = target;
+                return target == 0;
+            }
+
+            @Override
+            public int docID() {
+                return doc;
+            }
+
+            @Override
+            public int nextDoc() {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public int advance(int target) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public long cost() {
+                return 1;
+            }
+        };
+    }
 }
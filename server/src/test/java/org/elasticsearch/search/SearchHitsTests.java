@@ -259,6 +259,37 @@ public class SearchHitsTests extends AbstractChunkedSerializingTestCase<SearchHi
             }"""), Strings.toString(builder));
     }
 
+    public void testToXContentReleasingHits() throws IOException {
+        SearchHit[] hits = new SearchHit[] { new SearchHit(1, "id1"), new SearchHit(2, "id2") };
+        SearchHits searchHits = new SearchHits(hits, new TotalHits(1000, TotalHits.Relation.EQUAL_TO), 1.5f);
+        try {
+            XContentBuilder builder = JsonXContent.contentBuilder();
+            builder.startObject();
+            var serialization = searchHits.toXContentChunkedReleasingHits(ToXContent.EMPTY_PARAMS);
+            while (serialization.hasNext()) {
+                serialization.next().toXContent(builder, ToXContent.EMPTY_PARAMS);
+            }
+            builder.endObject();
+            assertEquals(XContentHelper.stripWhitespace("""
+                {
+                  "hits": {
+                    "total": {
+                      "value": 1000,
+                      "relation": "eq"
+                    },
+                    "max_score": 1.5,
+                    "hits": [ { "_id": "id1", "_score": null }, { "_id": "id2", "_score": null } ]
+                  }
+                }"""), Strings.toString(builder));
+            for (SearchHit hit : hits) {
+                assertFalse(hit.hasReferences());
+            }
+            assertTrue(searchHits.hasReferences());
+        } finally {
+            assertTrue(searchHits.decRef());
+        }
+    }
+
     public void testFromXContentWithShards() throws IOException {
         for (boolean withExplanation : new boolean[] { true, false }) {
             final SearchHit[] hits = new SearchHit[] {
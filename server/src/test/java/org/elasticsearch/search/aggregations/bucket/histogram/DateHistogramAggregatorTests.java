@@ -25,6 +25,7 @@ import org.apache.lucene.tests.index.RandomIndexWriter;
 import org.elasticsearch.common.time.DateFormatter;
 import org.elasticsearch.common.time.DateFormatters;
 import org.elasticsearch.core.CheckedConsumer;
+import org.elasticsearch.core.TimeValue;
 import org.elasticsearch.index.mapper.BooleanFieldMapper;
 import org.elasticsearch.index.mapper.CustomTermFreqField;
 import org.elasticsearch.index.mapper.DateFieldMapper;
@@ -48,6 +49,7 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.function.Consumer;
@@ -1134,6 +1136,44 @@ public class DateHistogramAggregatorTests extends DateHistogramAggregatorTestCas
         );
     }
 
+    public void testCollectDocIdStream() throws IOException {
+        long hour = TimeValue.timeValueHours(1).millis();
+        int numDocs = between(1, 1000);
+        // docs are time ordered, so runs of docs in a stream fall into the same bucket, some of which are outside the hard bounds
+        long start = randomLongBetween(0, 1000) * hour;
+        LongBounds hardBounds = randomBoolean() ? null : new LongBounds(start + hour, start + between(2, 10) * hour);
+        Map<Long, Long> expected = new HashMap<>();
+        DateHistogramAggregationBuilder builder = new DateHistogramAggregationBuilder("_name").field(AGGREGABLE_DATE)
+            .fixedInterval(DateHistogramInterval.HOUR);
+        if (hardBounds != null) {
+            builder.hardBounds(hardBounds);
+        }
+        withAggregator(builder, new MatchAllDocsQuery(), iw -> {
+            long timestamp = start;
+            for (int i = 0; i < numDocs; i++) {
+                timestamp += randomLongBetween(0, TimeValue.timeValueMinutes(10).millis());
+                if (randomBoolean()) {
+                    iw.addDocument(List.of(new SortedNumericDocValuesField(AGGREGABLE_DATE, timestamp)));
+                    long rounded = timestamp - timestamp % hour;
+                    if (hardBounds == null || hardBounds.contain(rounded)) {
+                        expected.merge(rounded, 1L, Long::sum);
+                    }
+                } else {
+                    iw.addDocument(List.of());
+                }
+            }
+        }, (indexReader, aggregator) -> {
+            // not searchable, so this is not adapted into a range aggregation
+            assertThat(aggregator, instanceOf(DateHistogramAggregator.class));
+            InternalDateHistogram histogram = collectDocIdStreams(aggregator, indexReader);
+            Map<Long, Long> actual = new HashMap<>();
+            for (InternalDateHistogram.Bucket bucket : histogram.getBuckets()) {
+                actual.put(bucket.key, bucket.getDocCount());
+            }
+            assertThat(actual, equalTo(expected));
+        }, aggregableDateFieldType(false, false));
+    }
+
     private void testSearchCase(
         Query query,
         List<String> dataset,
@@ -17,6 +17,7 @@ import org.apache.lucene.search.MatchNoDocsQuery;
 import org.apache.lucene.search.Query;
 import org.apache.lucene.store.Directory;
 import org.apache.lucene.tests.index.RandomIndexWriter;
+import org.apache.lucene.util.BytesRef;
 import org.elasticsearch.index.mapper.MappedFieldType;
 import org.elasticsearch.index.mapper.NumberFieldMapper;
 import org.elasticsearch.search.aggregations.AggregatorTestCase;
@@ -24,10 +25,15 @@ import org.elasticsearch.search.aggregations.support.ValueType;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
 import java.util.function.Consumer;
 
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.instanceOf;
 
 public class NumericTermsAggregatorTests extends AggregatorTestCase {
     private static final String LONG_FIELD = "long";
@@ -133,6 +139,41 @@ public class NumericTermsAggregatorTests extends AggregatorTestCase {
 
     }
 
+    public void testCollectDocIdStream() throws IOException {
+        int numDocs = between(1, 1000);
+        // values come in runs, like on an index sorted on the field, and one of them may be excluded
+        Long excluded = randomBoolean() ? null : randomLongBetween(0, 20);
+        Map<Long, Long> expected = new HashMap<>();
+        TermsAggregationBuilder builder = new TermsAggregationBuilder("_name").field(LONG_FIELD).size(100);
+        if (excluded != null) {
+            builder.includeExclude(new IncludeExclude(null, null, null, new TreeSet<>(Set.of(new BytesRef(excluded.toString())))));
+        }
+        withAggregator(builder, new MatchAllDocsQuery(), iw -> {
+            long value = randomLongBetween(0, 20);
+            for (int i = 0; i < numDocs; i++) {
+                if (randomInt(9) == 0) {
+                    value = randomLongBetween(0, 20);
+                }
+                if (randomBoolean()) {
+                    iw.addDocument(List.of(new SortedNumericDocValuesField(LONG_FIELD, value)));
+                    if (excluded == null || excluded != value) {
+                        expected.merge(value, 1L, Long::sum);
+                    }
+                } else {
+                    iw.addDocument(List.of());
+                }
+            }
+        }, (indexReader, aggregator) -> {
+            assertThat(aggregator, instanceOf(NumericTermsAggregator.class));
+            LongTerms terms = collectDocIdStreams(aggregator, indexReader);
+            Map<Long, Long> actual = new HashMap<>();
+            for (LongTerms.Bucket bucket : terms.getBuckets()) {
+                actual.put(bucket.getKeyAsNumber().longValue(), bucket.getDocCount());
+            }
+            assertThat(actual, equalTo(expected));
+        }, new NumberFieldMapper.NumberFieldType(LONG_FIELD, NumberFieldMapper.NumberType.LONG));
+    }
+
     private void testSearchCase(
         Query query,
         List<Long> dataset,
@@ -126,6 +126,7 @@ import java.util.Comparator;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
@@ -1611,6 +1612,103 @@ public class TermsAggregatorTests extends AggregatorTestCase {
             m -> m.entry("has_filter", false)
                 .entry("collection_strategy", "dense")
                 .entry("segments_without_values", greaterThanOrEqualTo(0))
+                .entry("segments_counted_from_term_frequencies", 0)
+        );
+    }
+
+    public void testLowCardinalityFromTermFrequencies() throws IOException {
+        randomizeAggregatorImpl = false;
+        int count = between(1100, 2000);
+        int extra = count * between(3, 5);
+        KeywordFieldType strFt = new KeywordFieldType("str", true, true, Collections.emptyMap());
+        AggregationBuilder builder = new TermsAggregationBuilder("str").field("str").order(BucketOrder.key(true));
+        CheckedConsumer<RandomIndexWriter, IOException> buildIndex = iw -> {
+            for (int i = 0; i < count; i++) {
+                BytesRef value = new BytesRef(String.format(Locale.ROOT, "%05d", i));
+                iw.addDocument(List.of(new StringField("str", value, Field.Store.NO), new SortedDocValuesField("str", value)));
+                if (i % 2 == 0) {
+                    iw.addDocument(List.of(new StringField("str", value, Field.Store.NO), new SortedDocValuesField("str", value)));
+                }
+            }
+            for (int i = 0; i < extra; i++) {
+                iw.addDocument(List.of());
+            }
+        };
+        debugTestCase(
+            builder,
+            new MatchAllDocsQuery(),
+            buildIndex,
+            (StringTerms result, Class<? extends Aggregator> impl, Map<String, Map<String, Object>> debug) -> {
+                assertThat(impl, equalTo(GlobalOrdinalsStringTermsAggregator.LowCardinality.class));
+                assertThat(result.getBuckets(), hasSize(10));
+                for (int i = 0; i < 10; i++) {
+                    assertThat(result.getBuckets().get(i).getKeyAsString(), equalTo(String.format(Locale.ROOT, "%05d", i)));
+                    assertThat(result.getBuckets().get(i).getDocCount(), equalTo(i % 2 == 0 ? 2L : 1L));
+                }
+                assertMap(
+                    debug,
+                    matchesMap().entry(
+                        "str",
+                        matchesMap().entry("result_strategy", "terms")
+                            .entry("total_buckets", (long) count)
+                            .entry("segments_with_single_valued_ords", greaterThanOrEqualTo(0))
+                            .entry("segments_with_multi_valued_ords", 0)
+                            .entry("has_filter", false)
+                            .entry("collection_strategy", "dense")
+                            .entry("segments_without_values", greaterThanOrEqualTo(0))
+                            .entry("segments_counted_from_term_frequencies", greaterThan(0))
+                    )
+                );
+            },
+            strFt
+        );
+    }
+
+    public void testLowCardinalityMissingExistingTermNotFromTermFrequencies() throws IOException {
+        randomizeAggregatorImpl = false;
+        int count = between(1100, 2000);
+        int extra = count * between(3, 5);
+        KeywordFieldType strFt = new KeywordFieldType("str", true, true, Collections.emptyMap());
+        AggregationBuilder builder = new TermsAggregationBuilder("str").field("str").missing("00000").order(BucketOrder.key(true));
+        CheckedConsumer<RandomIndexWriter, IOException> buildIndex = iw -> {
+            for (int i = 0; i < count; i++) {
+                BytesRef value = new BytesRef(String.format(Locale.ROOT, "%05d", i));
+                iw.addDocument(List.of(new StringField("str", value, Field.Store.NO), new SortedDocValuesField("str", value)));
+            }
+            for (int i = 0; i < extra; i++) {
+                iw.addDocument(List.of());
+            }
+        };
+        debugTestCase(
+            builder,
+            new MatchAllDocsQuery(),
+            buildIndex,
+            (StringTerms result, Class<? extends Aggregator> impl, Map<String, Map<String, Object>> debug) -> {
+                assertThat(impl, equalTo(GlobalOrdinalsStringTermsAggregator.LowCardinality.class));
+                assertThat(result.getBuckets(), hasSize(10));
+                // the documents without the field count towards the missing term, which the index knows nothing about
+                assertThat(result.getBuckets().get(0).getKeyAsString(), equalTo("00000"));
+                assertThat(result.getBuckets().get(0).getDocCount(), equalTo(1L + extra));
+                for (int i = 1; i < 10; i++) {
+                    assertThat(result.getBuckets().get(i).getKeyAsString(), equalTo(String.format(Locale.ROOT, "%05d", i)));
+                    assertThat(result.getBuckets().get(i).getDocCount(), equalTo(1L));
+                }
+                assertMap(
+                    debug,
+                    matchesMap().entry(
+                        "str",
+                        matchesMap().entry("result_strategy", "terms")
+                            .entry("total_buckets", (long) count)
+                            .entry("segments_with_single_valued_ords", greaterThanOrEqualTo(0))
+                            .entry("segments_with_multi_valued_ords", greaterThanOrEqualTo(0))
+                            .entry("has_filter", false)
+                            .entry("collection_strategy", "dense")
+                            .entry("segments_without_values", greaterThanOrEqualTo(0))
+                            .entry("segments_counted_from_term_frequencies", 0)
+                    )
+                );
+            },
+            strFt
         );
     }
 
@@ -751,6 +751,30 @@ public class MaxAggregatorTests extends AggregatorTestCase {
         directory.close();
     }
 
+    public void testCollectDocIdStream() throws IOException {
+        MappedFieldType fieldType = new NumberFieldMapper.NumberFieldType("value", NumberFieldMapper.NumberType.LONG);
+        int numDocs = between(1, 500);
+        long[] expectedMax = new long[] { Long.MIN_VALUE };
+        withAggregator(new MaxAggregationBuilder("max").field("value"), new MatchAllDocsQuery(), iw -> {
+            for (int i = 0; i < numDocs; i++) {
+                if (randomBoolean()) {
+                    long value = randomLongBetween(-1000, 1000);
+                    iw.addDocument(singleton(new NumericDocValuesField("value", value)));
+                    expectedMax[0] = Math.max(expectedMax[0], value);
+                } else {
+                    iw.addDocument(emptyList());
+                }
+            }
+        }, (indexReader, aggregator) -> {
+            Max max = collectDocIdStreams(aggregator, indexReader);
+            if (expectedMax[0] == Long.MIN_VALUE) {
+                assertEquals(Double.NEGATIVE_INFINITY, max.value(), 0);
+            } else {
+                assertEquals(expectedMax[0], max.value(), 0);
+            }
+        }, fieldType);
+    }
+
     public void testNestedEarlyTermination() throws Exception {
         MappedFieldType multiValuesfieldType = new NumberFieldMapper.NumberFieldType("values", NumberFieldMapper.NumberType.INTEGER);
         MappedFieldType singleValueFieldType = new NumberFieldMapper.NumberFieldType("value", NumberFieldMapper.NumberType.INTEGER);
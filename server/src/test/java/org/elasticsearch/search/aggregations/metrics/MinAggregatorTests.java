@@ -672,4 +672,28 @@ public class MinAggregatorTests extends AggregatorTestCase {
         MinAggregationBuilder aggregationBuilder = new MinAggregationBuilder("min").field("number");
         testCase(buildIndex, verify, new AggTestConfig(aggregationBuilder, fieldType).withQuery(query));
     }
+
+    public void testCollectDocIdStream() throws IOException {
+        MappedFieldType fieldType = new NumberFieldMapper.NumberFieldType("value", NumberFieldMapper.NumberType.LONG);
+        int numDocs = between(1, 500);
+        long[] expectedMin = new long[] { Long.MAX_VALUE };
+        withAggregator(new MinAggregationBuilder("min").field("value"), new MatchAllDocsQuery(), iw -> {
+            for (int i = 0; i < numDocs; i++) {
+                if (randomBoolean()) {
+                    long value = randomLongBetween(-1000, 1000);
+                    iw.addDocument(singleton(new NumericDocValuesField("value", value)));
+                    expectedMin[0] = Math.min(expectedMin[0], value);
+                } else {
+                    iw.addDocument(List.of());
+                }
+            }
+        }, (indexReader, aggregator) -> {
+            Min min = collectDocIdStreams(aggregator, indexReader);
+            if (expectedMin[0] == Long.MAX_VALUE) {
+                assertEquals(Double.POSITIVE_INFINITY, min.value(), 0);
+            } else {
+                assertEquals(expectedMin[0], min.value(), 0);
+            }
+        }, fieldType);
+    }
 }
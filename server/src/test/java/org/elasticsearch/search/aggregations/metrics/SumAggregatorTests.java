@@ -376,4 +376,24 @@ public class SumAggregatorTests extends AggregatorTestCase {
     private static MappedFieldType defaultFieldType(NumberType numberType) {
         return new NumberFieldMapper.NumberFieldType(FIELD_NAME, numberType);
     }
+
+    public void testCollectDocIdStream() throws IOException {
+        MappedFieldType fieldType = new NumberFieldMapper.NumberFieldType(FIELD_NAME, NumberType.LONG);
+        int numDocs = between(1, 500);
+        long[] expectedSum = new long[1];
+        withAggregator(sum("_name").field(FIELD_NAME), new MatchAllDocsQuery(), iw -> {
+            for (int i = 0; i < numDocs; i++) {
+                if (randomBoolean()) {
+                    long value = randomLongBetween(-1000, 1000);
+                    iw.addDocument(singleton(new NumericDocValuesField(FIELD_NAME, value)));
+                    expectedSum[0] += value;
+                } else {
+                    iw.addDocument(List.of());
+                }
+            }
+        }, (indexReader, aggregator) -> {
+            Sum sum = collectDocIdStreams(aggregator, indexReader);
+            assertEquals(expectedSum[0], sum.value(), 0);
+        }, fieldType);
+    }
 }
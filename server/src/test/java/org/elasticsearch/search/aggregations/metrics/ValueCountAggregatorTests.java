@@ -398,4 +398,24 @@ public class ValueCountAggregatorTests extends AggregatorTestCase {
             case RANGE -> new RangeFieldMapper.RangeFieldType(name, RangeType.DOUBLE);
         };
     }
+
+    public void testCollectDocIdStream() throws IOException {
+        MappedFieldType fieldType = new NumberFieldMapper.NumberFieldType(FIELD_NAME, NumberFieldMapper.NumberType.LONG);
+        int numDocs = between(1, 500);
+        long[] expectedCount = new long[1];
+        withAggregator(new ValueCountAggregationBuilder("_name").field(FIELD_NAME), new MatchAllDocsQuery(), iw -> {
+            for (int i = 0; i < numDocs; i++) {
+                Document document = new Document();
+                int numValues = between(0, 3);
+                for (int v = 0; v < numValues; v++) {
+                    document.add(new SortedNumericDocValuesField(FIELD_NAME, randomLongBetween(-1000, 1000)));
+                }
+                iw.addDocument(document);
+                expectedCount[0] += numValues;
+            }
+        }, (indexReader, aggregator) -> {
+            InternalValueCount count = collectDocIdStreams(aggregator, indexReader);
+            assertEquals(expectedCount[0], count.getValue());
+        }, fieldType);
+    }
 }
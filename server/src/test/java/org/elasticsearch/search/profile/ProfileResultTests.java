@@ -13,6 +13,7 @@ import org.elasticsearch.common.Strings;
 import org.elasticsearch.common.io.stream.Writeable.Reader;
 import org.elasticsearch.common.util.Maps;
 import org.elasticsearch.search.SearchResponseUtils;
+import org.elasticsearch.search.profile.query.QueryProfileShardResult;
 import org.elasticsearch.test.AbstractXContentSerializingTestCase;
 import org.elasticsearch.xcontent.ToXContent;
 import org.elasticsearch.xcontent.XContentBuilder;
@@ -28,7 +29,8 @@ import java.util.function.Predicate;
 
 public class ProfileResultTests extends AbstractXContentSerializingTestCase<ProfileResult> {
     public static final Predicate<String> RANDOM_FIELDS_EXCLUDE_FILTER = s -> s.endsWith(ProfileResult.BREAKDOWN.getPreferredName())
-        || s.endsWith(ProfileResult.DEBUG.getPreferredName());
+        || s.endsWith(ProfileResult.DEBUG.getPreferredName())
+        || s.endsWith(QueryProfileShardResult.KNN_SEARCH_STRATEGIES);
 
     public static ProfileResult createTestItem(int depth) {
         String type = randomAlphaOfLengthBetween(5, 10);
@@ -0,0 +1,185 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+
+package org.elasticsearch.search.vectors;
+
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.KnnFloatVectorField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.index.VectorSimilarityFunction;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.search.TotalHits;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.util.FixedBitSet;
+import org.elasticsearch.search.profile.query.QueryProfiler;
+import org.elasticsearch.test.ESTestCase;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.nullValue;
+
+public class KnnSearchStrategyTests extends ESTestCase {
+
+    public void testChoose() {
+        assertThat(KnnSearchStrategy.choose(10, 0, 0), equalTo(KnnSearchStrategy.FILTERED_GRAPH));
+        assertThat(KnnSearchStrategy.choose(10, 1_000_000, 10), equalTo(KnnSearchStrategy.EXACT));
+        // a graph search of 1M vectors is expected to visit about 200k vectors to find 10 matches of a 0.1% filter
+        assertThat(KnnSearchStrategy.choose(10, 1_000_000, 1000), equalTo(KnnSearchStrategy.EXACT));
+        // and about 2k vectors to find 10 matches of a 10% filter
+        assertThat(KnnSearchStrategy.choose(10, 1_000_000, 100_000), equalTo(KnnSearchStrategy.FILTERED_GRAPH));
+        assertThat(KnnSearchStrategy.choose(10, 1_000_000, 500_000), equalTo(KnnSearchStrategy.FILTERED_GRAPH));
+        assertThat(KnnSearchStrategy.choose(10, 1_000_000, 900_000), equalTo(KnnSearchStrategy.POST_FILTER));
+        assertThat(KnnSearchStrategy.choose(10, 1_000_000, 1_000_000), equalTo(KnnSearchStrategy.POST_FILTER));
+    }
+
+    public void testPostFilterK() {
+        assertThat(KnnSearchStrategy.postFilterK(10, 1000, 1000), equalTo(10));
+        // 10 / 0.8 candidates, oversampled by 3 * sqrt(10 * 0.2)
+        assertThat(KnnSearchStrategy.postFilterK(10, 1000, 800), equalTo(18));
+        // more docs than vectors may match the filter
+        assertThat(KnnSearchStrategy.postFilterK(10, 1000, 2000), equalTo(10));
+        assertThat(KnnSearchStrategy.postFilterK(900, 1000, 800), equalTo(1000));
+    }
+
+    public void testPostFilterFallbackRate() {
+        final int numVectors = 100_000;
+        final int numSearches = 10_000;
+        int fallbacks = 0;
+        for (int i = 0; i < numSearches; i++) {
+            final int k = randomIntBetween(1, 100);
+            final int filterCost = randomIntBetween((int) (KnnSearchStrategy.POST_FILTER_MIN_SELECTIVITY * numVectors), numVectors);
+            final double selectivity = (double) filterCost / numVectors;
+            final int postFilterK = KnnSearchStrategy.postFilterK(k, numVectors, filterCost);
+            // the candidates of the unfiltered search, each of which matches the filter with the probability of its selectivity
+            final ScoreDoc[] scoreDocs = new ScoreDoc[postFilterK];
+            final FixedBitSet filter = new FixedBitSet(postFilterK);
+            for (int doc = 0; doc < postFilterK; doc++) {
+                scoreDocs[doc] = new ScoreDoc(doc, postFilterK - doc);
+                if (random().nextDouble() < selectivity) {
+                    filter.set(doc);
+                }
+            }
+            final TopDocs unfiltered = new TopDocs(new TotalHits(postFilterK, TotalHits.Relation.EQUAL_TO), scoreDocs);
+            if (KnnSearchStrategy.postFilter(unfiltered, filter, k) == null) {
+                fallbacks++;
+            }
+        }
+        // k / selectivity candidates would fall back to a filtered graph search up to half of the time
+        assertThat((double) fallbacks / numSearches, lessThan(0.01));
+    }
+
+    public void testPostFilter() {
+        ScoreDoc[] scoreDocs = new ScoreDoc[] { new ScoreDoc(3, 4f), new ScoreDoc(1, 3f), new ScoreDoc(4, 2f), new ScoreDoc(0, 1f) };
+        TopDocs unfiltered = new TopDocs(new TotalHits(10, TotalHits.Relation.EQUAL_TO), scoreDocs);
+        FixedBitSet filter = new FixedBitSet(5);
+        filter.set(1);
+        filter.set(4);
+        filter.set(0);
+
+        TopDocs filtered = KnnSearchStrategy.postFilter(unfiltered, filter, 2);
+        assertThat(filtered.totalHits, equalTo(unfiltered.totalHits));
+        assertThat(Arrays.stream(filtered.scoreDocs).mapToInt(scoreDoc -> scoreDoc.doc).toArray(), equalTo(new int[] { 1, 4 }));
+        assertThat(KnnSearchStrategy.postFilter(unfiltered, filter, 4), nullValue());
+    }
+
+    public void testFilteredSearch() throws IOException {
+        final int numDocs = 1000;
+        final int dims = 4;
+        final float[][] vectors = new float[numDocs][];
+        try (Directory dir = newDirectory()) {
+            try (IndexWriter writer = new IndexWriter(dir, new IndexWriterConfig())) {
+                for (int i = 0; i < numDocs; i++) {
+                    vectors[i] = randomVector(dims);
+                    Document doc = new Document();
+                    doc.add(new KnnFloatVectorField("vector", vectors[i], VectorSimilarityFunction.EUCLIDEAN));
+                    // 2% of the docs are rare, 50% are half and 90% are common
+                    if (i % 50 == 0) {
+                        doc.add(new StringField("tag", "rare", Field.Store.NO));
+                    }
+                    if (i % 2 == 0) {
+                        doc.add(new StringField("tag", "half", Field.Store.NO));
+                    }
+                    if (i % 10 != 0) {
+                        doc.add(new StringField("tag", "common", Field.Store.NO));
+                    }
+                    writer.addDocument(doc);
+                }
+                writer.forceMerge(1);
+            }
+            try (IndexReader reader = DirectoryReader.open(dir)) {
+                // doc ids follow the order of indexing
+                IndexSearcher searcher = new IndexSearcher(reader);
+                float[] queryVector = randomVector(dims);
+                assertFilteredSearch(searcher, queryVector, "rare", KnnSearchStrategy.EXACT);
+                assertFilteredSearch(searcher, queryVector, "half", KnnSearchStrategy.FILTERED_GRAPH);
+                assertFilteredSearch(searcher, queryVector, "common", KnnSearchStrategy.POST_FILTER);
+
+                // the nearest rare docs are found exactly
+                TermQuery filter = new TermQuery(new Term("tag", "rare"));
+                ESKnnFloatVectorQuery query = new ESKnnFloatVectorQuery("vector", queryVector, 5, 10, filter);
+                TopDocs topDocs = searcher.search(query, 5);
+                int[] expected = IntStream.range(0, numDocs)
+                    .filter(i -> i % 50 == 0)
+                    .boxed()
+                    .sorted(Comparator.comparingDouble(i -> -VectorSimilarityFunction.EUCLIDEAN.compare(queryVector, vectors[i])))
+                    .limit(5)
+                    .mapToInt(Integer::intValue)
+                    .toArray();
+                int[] actual = Arrays.stream(topDocs.scoreDocs).mapToInt(scoreDoc -> scoreDoc.doc).toArray();
+                assertThat(actual, equalTo(expected));
+            }
+        }
+    }
+
+    private static void assertFilteredSearch(IndexSearcher searcher, float[] queryVector, String tag, KnnSearchStrategy expected)
+        throws IOException {
+        ESKnnFloatVectorQuery query = new ESKnnFloatVectorQuery("vector", queryVector, 10, 10, new TermQuery(new Term("tag", tag)));
+        TopDocs topDocs = searcher.search(query, 10);
+        assertThat(topDocs.scoreDocs.length, equalTo(10));
+        for (ScoreDoc scoreDoc : topDocs.scoreDocs) {
+            assertTrue(matches(scoreDoc.doc, tag));
+        }
+        QueryProfiler profiler = new QueryProfiler();
+        query.profile(profiler);
+        assertThat(profiler.getKnnSearchStrategies(), equalTo(Map.of(expected.name().toLowerCase(Locale.ROOT), 1L)));
+    }
+
+    private static boolean matches(int doc, String tag) {
+        return switch (tag) {
+            case "rare" -> doc % 50 == 0;
+            case "half" -> doc % 2 == 0;
+            case "common" -> doc % 10 != 0;
+            default -> throw new AssertionError(tag);
+        };
+    }
+
+    private static float[] randomVector(int dims) {
+        float[] vector = new float[dims];
+        for (int i = 0; i < dims; i++) {
+            vector[i] = randomFloat();
+        }
+        return vector;
+    }
+}
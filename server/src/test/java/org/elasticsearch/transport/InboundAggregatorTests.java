@@ -11,25 +11,33 @@ package org.elasticsearch.transport;
 
 import org.elasticsearch.TransportVersion;
 import org.elasticsearch.common.breaker.CircuitBreakingException;
+import org.elasticsearch.common.breaker.NoopCircuitBreaker;
 import org.elasticsearch.common.breaker.TestCircuitBreaker;
 import org.elasticsearch.common.bytes.BytesArray;
 import org.elasticsearch.common.bytes.ReleasableBytesReference;
 import org.elasticsearch.common.io.stream.BytesStreamOutput;
+import org.elasticsearch.common.io.stream.StreamInput;
 import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.util.MockPageCacheRecycler;
 import org.elasticsearch.common.util.concurrent.ThreadContext;
+import org.elasticsearch.core.Streams;
 import org.elasticsearch.core.Tuple;
 import org.elasticsearch.test.ESTestCase;
 import org.junit.Before;
 
 import java.io.IOException;
+import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Predicate;
 
 import static org.elasticsearch.common.bytes.ReleasableBytesReferenceStreamInputTests.wrapAsReleasable;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.instanceOf;
 import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
 
 public class InboundAggregatorTests extends ESTestCase {
 
@@ -194,6 +202,63 @@ public class InboundAggregatorTests extends ESTestCase {
         assertFalse(aggregated3.isShortCircuit());
     }
 
+    public void testCircuitBreakOnDeferredDecompression() throws IOException {
+        final int uncompressedLength = between(1 << 16, 1 << 20);
+        final BytesStreamOutput compressed = new BytesStreamOutput();
+        try (OutputStream lz4 = Compression.Scheme.lz4OutputStream(Streams.noCloseStream(compressed))) {
+            lz4.write(new byte[uncompressedLength]);
+        }
+        // highly compressible content must not get around the breaker by being decompressed after the breaker was checked
+        final boolean fitsInBreaker = randomBoolean();
+        final long limit = compressed.size() + (fitsInBreaker ? uncompressedLength * 2L : uncompressedLength / 2);
+        final AtomicLong used = new AtomicLong();
+        final NoopCircuitBreaker limitedBreaker = new NoopCircuitBreaker("test") {
+            @Override
+            public void addEstimateBytesAndMaybeBreak(long bytes, String label) throws CircuitBreakingException {
+                if (used.addAndGet(bytes) > limit) {
+                    used.addAndGet(-bytes);
+                    throw new CircuitBreakingException("broken", getDurability());
+                }
+            }
+
+            @Override
+            public void addWithoutBreaking(long bytes) {
+                used.addAndGet(bytes);
+            }
+        };
+        final InboundAggregator limitedAggregator = new InboundAggregator(() -> limitedBreaker, action -> true);
+
+        final byte status = TransportStatus.setCompress(TransportStatus.setRequest((byte) 0));
+        Header header = new Header(randomInt(), randomNonNegativeLong(), status, TransportVersion.current());
+        header.headers = new Tuple<>(Collections.emptyMap(), Collections.emptyMap());
+        header.actionName = "action_name";
+        limitedAggregator.headerReceived(header);
+        limitedAggregator.updateCompressionScheme(Compression.Scheme.LZ4);
+        limitedAggregator.deferDecompression(new BytesRefRecycler(new MockPageCacheRecycler(Settings.EMPTY)));
+
+        final ReleasableBytesReference content = wrapAsReleasable(compressed.bytes());
+        limitedAggregator.aggregate(content);
+        content.close();
+
+        final InboundMessage aggregated = limitedAggregator.finishAggregation();
+        assertFalse(aggregated.isShortCircuit());
+        assertTrue(aggregated.hasCompressedContent());
+        assertEquals(compressed.size(), used.get());
+
+        if (fitsInBreaker) {
+            final StreamInput streamInput = aggregated.openOrGetStreamInput();
+            assertEquals(uncompressedLength, streamInput.available());
+            assertThat(used.get(), greaterThanOrEqualTo((long) compressed.size() + uncompressedLength));
+        } else {
+            expectThrows(CircuitBreakingException.class, aggregated::openOrGetStreamInput);
+            assertThat(used.get(), lessThanOrEqualTo(limit));
+        }
+        aggregated.decRef();
+        assertFalse(content.hasReferences());
+        assertEquals(0, used.get());
+        limitedAggregator.close();
+    }
+
     public void testCloseWillCloseContent() {
         long requestId = randomNonNegativeLong();
         Header header = new Header(randomInt(), requestId, TransportStatus.setRequest((byte) 0), TransportVersion.current());
@@ -16,6 +16,7 @@ import org.elasticsearch.common.bytes.ReleasableBytesReference;
 import org.elasticsearch.common.io.stream.BytesStreamOutput;
 import org.elasticsearch.common.io.stream.RecyclerBytesStreamOutput;
 import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.unit.ByteSizeValue;
 import org.elasticsearch.common.util.MockPageCacheRecycler;
 import org.elasticsearch.common.util.concurrent.ThreadContext;
 import org.elasticsearch.test.ESTestCase;
@@ -393,6 +394,60 @@ public class InboundDecoderTests extends ESTestCase {
 
     }
 
+    public void testDeferredDecompressionDecode() throws IOException {
+        long requestId = randomNonNegativeLong();
+        Compression.Scheme scheme = randomFrom(Compression.Scheme.DEFLATE, Compression.Scheme.LZ4);
+        TransportMessage transportMessage = new TestResponse(randomAlphaOfLength(between(100, 10_000)));
+        OutboundMessage message = new OutboundMessage.Response(
+            threadContext,
+            transportMessage,
+            TransportVersion.current(),
+            requestId,
+            false,
+            scheme
+        );
+
+        try (RecyclerBytesStreamOutput os = new RecyclerBytesStreamOutput(recycler)) {
+            final BytesReference totalBytes = message.serialize(os);
+            final BytesStreamOutput out = new BytesStreamOutput();
+            transportMessage.writeTo(out);
+            final BytesReference uncompressedBytes = out.bytes();
+            int totalHeaderSize = TcpHeader.headerSize(TransportVersion.current()) + totalBytes.getInt(
+                TcpHeader.VARIABLE_HEADER_SIZE_POSITION
+            );
+
+            InboundDecoder decoder = new InboundDecoder(
+                recycler,
+                InboundDecoder.DEFAULT_MAX_HEADER_SIZE,
+                ChannelType.MIX,
+                ByteSizeValue.ofBytes(totalBytes.length())
+            );
+            final ArrayList<Object> fragments = new ArrayList<>();
+            final ReleasableBytesReference releasable1 = wrapAsReleasable(totalBytes);
+            int bytesConsumed = decoder.decode(releasable1, fragments::add);
+            assertEquals(totalHeaderSize, bytesConsumed);
+            assertTrue(((Header) fragments.get(0)).isCompressed());
+            fragments.clear();
+
+            final BytesReference bytes2 = totalBytes.slice(bytesConsumed, totalBytes.length() - bytesConsumed);
+            final ReleasableBytesReference releasable2 = wrapAsReleasable(bytes2);
+            int bytesConsumed2 = decoder.decode(releasable2, fragments::add);
+            assertEquals(totalBytes.length() - totalHeaderSize, bytesConsumed2);
+
+            final Object compressedContent = fragments.get(0);
+            final Object content = fragments.get(1);
+            final Object endMarker = fragments.get(2);
+
+            assertEquals(new InboundDecoder.CompressedContent(scheme, recycler), compressedContent);
+            assertEquals(bytes2, content);
+            assertEquals(InboundDecoder.END_CONTENT, endMarker);
+            try (ReleasableBytesReference decompressed = TransportDecompressor.decompress(recycler, (BytesReference) content)) {
+                assertEquals(uncompressedBytes, decompressed);
+            }
+            ((ReleasableBytesReference) content).close();
+        }
+    }
+
     public void testCompressedDecodeHandshakeCompatibility() throws IOException {
         String action = "test-request";
         long requestId = randomNonNegativeLong();
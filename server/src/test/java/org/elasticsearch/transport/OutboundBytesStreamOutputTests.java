@@ -0,0 +1,61 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+
+package org.elasticsearch.transport;
+
+import org.elasticsearch.common.bytes.BytesArray;
+import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.common.bytes.ReleasableBytesReference;
+import org.elasticsearch.common.io.stream.BytesStreamOutput;
+import org.elasticsearch.common.util.PageCacheRecycler;
+import org.elasticsearch.test.ESTestCase;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.hamcrest.Matchers.equalTo;
+
+public class OutboundBytesStreamOutputTests extends ESTestCase {
+
+    private final BytesRefRecycler recycler = new BytesRefRecycler(PageCacheRecycler.NON_RECYCLING_INSTANCE);
+
+    public void testAttachesLargeReleasableBytesByReference() throws IOException {
+        final AtomicBoolean released = new AtomicBoolean();
+        final int length = randomIntBetween(recycler.pageSize(), recycler.pageSize() * 4);
+        final ReleasableBytesReference large = new ReleasableBytesReference(
+            new BytesArray(randomByteArrayOfLength(length)),
+            () -> assertTrue(released.compareAndSet(false, true))
+        );
+        final ReleasableBytesReference small = ReleasableBytesReference.wrap(new BytesArray(randomByteArrayOfLength(between(0, 100))));
+        final String before = randomAlphaOfLength(between(0, 100));
+        final String after = randomAlphaOfLength(between(0, 100));
+
+        final BytesReference expected;
+        try (BytesStreamOutput reference = new BytesStreamOutput()) {
+            reference.writeString(before);
+            reference.writeBytesReference(large);
+            reference.writeBytesReference(small);
+            reference.writeString(after);
+            expected = reference.bytes();
+        }
+
+        try (OutboundBytesStreamOutput out = new OutboundBytesStreamOutput(recycler)) {
+            out.writeString(before);
+            out.writeReleasableBytesReference(large);
+            out.writeReleasableBytesReference(small);
+            out.writeString(after);
+            assertThat(out.size(), equalTo(expected.length() - length));
+            assertThat(out.bytes(), equalTo(expected));
+
+            large.decRef();
+            assertFalse("the stream holds on to the attached bytes", released.get());
+        }
+        assertTrue(released.get());
+    }
+}
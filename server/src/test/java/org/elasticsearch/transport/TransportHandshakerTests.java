@@ -9,6 +9,7 @@
 package org.elasticsearch.transport;
 
 import org.elasticsearch.TransportVersion;
+import org.elasticsearch.TransportVersions;
 import org.elasticsearch.Version;
 import org.elasticsearch.action.support.PlainActionFuture;
 import org.elasticsearch.cluster.node.DiscoveryNode;
@@ -18,6 +19,7 @@ import org.elasticsearch.common.io.stream.StreamInput;
 import org.elasticsearch.core.TimeValue;
 import org.elasticsearch.tasks.TaskId;
 import org.elasticsearch.test.ESTestCase;
+import org.elasticsearch.test.TransportVersionUtils;
 import org.elasticsearch.threadpool.TestThreadPool;
 
 import java.io.IOException;
@@ -60,7 +62,7 @@ public class TransportHandshakerTests extends ESTestCase {
     }
 
     public void testHandshakeRequestAndResponse() throws IOException {
-        PlainActionFuture<TransportVersion> versionFuture = new PlainActionFuture<>();
+        PlainActionFuture<TcpTransport.HandshakeResult> versionFuture = new PlainActionFuture<>();
         long reqId = randomLongBetween(1, 10);
         handshaker.sendHandshake(reqId, node, channel, new TimeValue(30, TimeUnit.SECONDS), versionFuture);
 
@@ -80,7 +82,53 @@ public class TransportHandshakerTests extends ESTestCase {
         handler.handleResponse((TransportHandshaker.HandshakeResponse) responseFuture.actionGet());
 
         assertTrue(versionFuture.isDone());
-        assertEquals(TransportVersion.current(), versionFuture.actionGet());
+        assertEquals(
+            new TcpTransport.HandshakeResult(TransportVersion.current(), Compression.Scheme.isZstdAvailable()),
+            versionFuture.actionGet()
+        );
+    }
+
+    public void testHandshakeResponseReportsZstdAvailability() throws IOException {
+        PlainActionFuture<TcpTransport.HandshakeResult> versionFuture = new PlainActionFuture<>();
+        long reqId = randomLongBetween(1, 10);
+        handshaker.sendHandshake(reqId, node, channel, new TimeValue(30, TimeUnit.SECONDS), versionFuture);
+
+        final boolean zstdAvailable = randomBoolean();
+        TransportHandshaker.HandshakeResponse response = new TransportHandshaker.HandshakeResponse(
+            TransportVersion.current(),
+            TransportVersion.current(),
+            zstdAvailable
+        );
+        BytesStreamOutput bytesStreamOutput = new BytesStreamOutput();
+        response.writeTo(bytesStreamOutput);
+        StreamInput input = bytesStreamOutput.bytes().streamInput();
+
+        TransportResponseHandler<TransportHandshaker.HandshakeResponse> handler = handshaker.removeHandlerForHandshake(reqId);
+        handler.handleResponse(handler.read(input));
+        assertEquals(0, input.available());
+
+        assertTrue(versionFuture.isDone());
+        assertEquals(new TcpTransport.HandshakeResult(TransportVersion.current(), zstdAvailable), versionFuture.actionGet());
+    }
+
+    public void testHandshakeResponseToOlderNodeOmitsZstdAvailability() throws IOException {
+        TransportVersion requestVersion = TransportVersionUtils.randomVersionBetween(
+            random(),
+            TransportVersions.MINIMUM_COMPATIBLE,
+            TransportVersionUtils.getPreviousVersion(Compression.Scheme.ZSTD_VERSION)
+        );
+        TransportHandshaker.HandshakeResponse response = new TransportHandshaker.HandshakeResponse(
+            TransportVersion.current(),
+            randomFrom(requestVersion, null),
+            randomBoolean()
+        );
+        BytesStreamOutput bytesStreamOutput = new BytesStreamOutput();
+        response.writeTo(bytesStreamOutput);
+
+        // older nodes read nothing after the version
+        BytesStreamOutput expected = new BytesStreamOutput();
+        TransportVersion.writeVersion(TransportVersion.current(), expected);
+        assertEquals(expected.bytes(), bytesStreamOutput.bytes());
     }
 
     public void testHandshakeRequestFutureVersionsCompatibility() throws IOException {
@@ -119,7 +167,7 @@ public class TransportHandshakerTests extends ESTestCase {
     }
 
     public void testHandshakeError() throws IOException {
-        PlainActionFuture<TransportVersion> versionFuture = new PlainActionFuture<>();
+        PlainActionFuture<TcpTransport.HandshakeResult> versionFuture = new PlainActionFuture<>();
         long reqId = randomLongBetween(1, 10);
         handshaker.sendHandshake(reqId, node, channel, new TimeValue(30, TimeUnit.SECONDS), versionFuture);
 
@@ -136,7 +184,7 @@ public class TransportHandshakerTests extends ESTestCase {
     }
 
     public void testSendRequestThrowsException() throws IOException {
-        PlainActionFuture<TransportVersion> versionFuture = new PlainActionFuture<>();
+        PlainActionFuture<TcpTransport.HandshakeResult> versionFuture = new PlainActionFuture<>();
         long reqId = randomLongBetween(1, 10);
         doThrow(new IOException("boom")).when(requestSender)
             .sendRequest(node, channel, reqId, TransportHandshaker.REQUEST_HANDSHAKE_VERSION);
@@ -150,7 +198,7 @@ public class TransportHandshakerTests extends ESTestCase {
     }
 
     public void testHandshakeTimeout() throws IOException {
-        PlainActionFuture<TransportVersion> versionFuture = new PlainActionFuture<>();
+        PlainActionFuture<TcpTransport.HandshakeResult> versionFuture = new PlainActionFuture<>();
         long reqId = randomLongBetween(1, 10);
         handshaker.sendHandshake(reqId, node, channel, new TimeValue(100, TimeUnit.MILLISECONDS), versionFuture);
 
@@ -0,0 +1,140 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the "Elastic License
+ * 2.0", the "GNU Affero General Public License v3.0 only", and the "Server Side
+ * Public License v 1"; you may not use this file except in compliance with, at
+ * your election, the "Elastic License 2.0", the "GNU Affero General Public
+ * License v3.0 only", or the "Server Side Public License, v 1".
+ */
+
+package org.elasticsearch.transport;
+
+import org.apache.lucene.util.BytesRef;
+import org.elasticsearch.common.bytes.BytesArray;
+import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.common.bytes.CompositeBytesReference;
+import org.elasticsearch.common.bytes.ReleasableBytesReference;
+import org.elasticsearch.common.io.stream.BytesStreamOutput;
+import org.elasticsearch.common.recycler.Recycler;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.util.MockPageCacheRecycler;
+import org.elasticsearch.core.Releasables;
+import org.elasticsearch.test.ESTestCase;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.Matchers.lessThan;
+
+public class ZstdTransportDecompressorTests extends ESTestCase {
+
+    private final Recycler<BytesRef> recycler = new BytesRefRecycler(new MockPageCacheRecycler(Settings.EMPTY));
+
+    public void testSimpleCompression() throws IOException {
+        try (BytesStreamOutput output = new BytesStreamOutput()) {
+            byte randomByte = randomByte();
+            try (OutputStream zstdStream = Compression.Scheme.zstdOutputStream(org.elasticsearch.core.Streams.noCloseStream(output))) {
+                zstdStream.write(randomByte);
+            }
+
+            BytesReference bytes = output.bytes();
+            assertTrue(Compression.Scheme.isZstd(bytes));
+            assertEquals(Compression.Scheme.ZSTD, TransportDecompressor.readScheme(bytes));
+
+            try (ZstdTransportDecompressor decompressor = new ZstdTransportDecompressor(recycler)) {
+                int bytesConsumed = decompressor.decompress(bytes);
+                assertEquals(bytes.length(), bytesConsumed);
+                ReleasableBytesReference releasableBytesReference = decompressor.pollDecompressedPage(true);
+                assertEquals(1, releasableBytesReference.length());
+                assertEquals(randomByte, releasableBytesReference.get(0));
+                releasableBytesReference.close();
+            }
+        }
+    }
+
+    public void testIncrementalMultiBlockCompression() throws IOException {
+        final byte[] uncompressed = new byte[randomIntBetween(ZstdBlockOutputStream.BLOCK_SIZE, 4 * ZstdBlockOutputStream.BLOCK_SIZE)];
+        for (int i = 0; i < uncompressed.length; i++) {
+            // repetitive content so that it compresses well
+            uncompressed[i] = (byte) ((i / 16) % 8);
+        }
+
+        try (BytesStreamOutput output = new BytesStreamOutput()) {
+            try (OutputStream zstdStream = Compression.Scheme.zstdOutputStream(org.elasticsearch.core.Streams.noCloseStream(output))) {
+                int offset = 0;
+                while (offset < uncompressed.length) {
+                    int length = Math.min(randomIntBetween(1, 10_000), uncompressed.length - offset);
+                    zstdStream.write(uncompressed, offset, length);
+                    offset += length;
+                }
+            }
+
+            BytesReference bytes = output.bytes();
+            assertThat(bytes.length(), lessThan(uncompressed.length / 2));
+
+            final List<ReleasableBytesReference> pages = new ArrayList<>();
+            try (ZstdTransportDecompressor decompressor = new ZstdTransportDecompressor(recycler)) {
+                BytesReference pending = BytesArray.EMPTY;
+                int totalConsumed = 0;
+                int position = 0;
+                while (position < bytes.length()) {
+                    int length = Math.min(randomIntBetween(1, 20_000), bytes.length() - position);
+                    pending = CompositeBytesReference.of(pending, bytes.slice(position, length));
+                    position += length;
+                    int consumed = decompressor.decompress(pending);
+                    totalConsumed += consumed;
+                    pending = pending.slice(consumed, pending.length() - consumed);
+                    ReleasableBytesReference page;
+                    while ((page = decompressor.pollDecompressedPage(false)) != null) {
+                        pages.add(page);
+                    }
+                }
+                assertEquals(bytes.length(), totalConsumed);
+                pages.add(decompressor.pollDecompressedPage(true));
+                assertNull(decompressor.pollDecompressedPage(true));
+            }
+
+            try {
+                BytesReference composite = CompositeBytesReference.of(pages.toArray(new BytesReference[0]));
+                assertEquals(new BytesArray(uncompressed), composite);
+            } finally {
+                Releasables.close(pages);
+            }
+        }
+    }
+
+    public void testConsecutiveMessagesOfThread() throws IOException {
+        // the messages compressed by a thread share its buffers, so no bytes of one may leak into the next one
+        for (int i = 0; i < 3; i++) {
+            final byte[] uncompressed = randomByteArrayOfLength(randomIntBetween(1, 2 * ZstdBlockOutputStream.BLOCK_SIZE));
+            try (BytesStreamOutput output = new BytesStreamOutput()) {
+                try (OutputStream zstdStream = Compression.Scheme.zstdOutputStream(org.elasticsearch.core.Streams.noCloseStream(output))) {
+                    zstdStream.write(uncompressed);
+                }
+
+                BytesReference bytes = output.bytes();
+                final List<ReleasableBytesReference> pages = new ArrayList<>();
+                try (ZstdTransportDecompressor decompressor = new ZstdTransportDecompressor(recycler)) {
+                    int totalConsumed = 0;
+                    while (totalConsumed < bytes.length()) {
+                        totalConsumed += decompressor.decompress(bytes.slice(totalConsumed, bytes.length() - totalConsumed));
+                        ReleasableBytesReference page;
+                        while ((page = decompressor.pollDecompressedPage(false)) != null) {
+                            pages.add(page);
+                        }
+                    }
+                    pages.add(decompressor.pollDecompressedPage(true));
+                }
+
+                try {
+                    BytesReference composite = CompositeBytesReference.of(pages.toArray(new BytesReference[0]));
+                    assertEquals(new BytesArray(uncompressed), composite);
+                } finally {
+                    Releasables.close(pages);
+                }
+            }
+        }
+    }
+}
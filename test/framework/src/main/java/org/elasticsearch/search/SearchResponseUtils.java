@@ -65,6 +65,7 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.TreeMap;
 
 import static java.util.stream.Collectors.toMap;
 import static org.elasticsearch.common.xcontent.XContentParserUtils.ensureExpectedToken;
@@ -537,6 +538,7 @@ public enum SearchResponseUtils {
         List<ProfileResult> queryProfileResults = new ArrayList<>();
         long rewriteTime = 0;
         Long vectorOperationsCount = null;
+        Map<String, Long> knnSearchStrategies = null;
         CollectorResult collector = null;
         while ((token = parser.nextToken()) != XContentParser.Token.END_OBJECT) {
             if (token == XContentParser.Token.FIELD_NAME) {
@@ -561,11 +563,17 @@ public enum SearchResponseUtils {
                 } else {
                     parser.skipChildren();
                 }
+            } else if (token == XContentParser.Token.START_OBJECT) {
+                if (QueryProfileShardResult.KNN_SEARCH_STRATEGIES.equals(currentFieldName)) {
+                    knnSearchStrategies = parser.map(TreeMap::new, XContentParser::longValue);
+                } else {
+                    parser.skipChildren();
+                }
             } else {
                 parser.skipChildren();
             }
         }
-        return new QueryProfileShardResult(queryProfileResults, rewriteTime, collector, vectorOperationsCount);
+        return new QueryProfileShardResult(queryProfileResults, rewriteTime, collector, vectorOperationsCount, knnSearchStrategies);
     }
 
     public static SearchHits parseSearchHits(XContentParser parser) throws IOException {
@@ -32,8 +32,10 @@ import org.apache.lucene.index.SortedDocValues;
 import org.apache.lucene.index.SortedSetDocValues;
 import org.apache.lucene.index.TermsEnum;
 import org.apache.lucene.sandbox.document.HalfFloatPoint;
+import org.apache.lucene.search.CheckedIntConsumer;
 import org.apache.lucene.search.Collector;
 import org.apache.lucene.search.CollectorManager;
+import org.apache.lucene.search.DocIdStream;
 import org.apache.lucene.search.IndexSearcher;
 import org.apache.lucene.search.MatchAllDocsQuery;
 import org.apache.lucene.search.Query;
@@ -928,6 +930,40 @@ public abstract class AggregatorTestCase extends ESTestCase {
         }
     }
 
+    /**
+     * Collects all the docs of the reader into the aggregator with {@link DocIdStream}s, like Lucene hands out runs of matching docs when
+     * it does not need scores, and builds the top level aggregation. Each segment is split into streams of random length, some of them
+     * empty, so that aggregators which keep state across the docs of a stream see streams start and end.
+     */
+    @SuppressWarnings("unchecked")
+    protected static <A extends InternalAggregation> A collectDocIdStreams(Aggregator aggregator, IndexReader indexReader)
+        throws IOException {
+        aggregator.preCollection();
+        for (LeafReaderContext ctx : indexReader.leaves()) {
+            LeafBucketCollector leafCollector = aggregator.getLeafCollector(new AggregationExecutionContext(ctx, null, null, null));
+            int maxDoc = ctx.reader().maxDoc();
+            int from = 0;
+            while (from < maxDoc) {
+                int to = randomBoolean() ? from : from + between(1, maxDoc - from);
+                leafCollector.collect(docIdStream(from, to));
+                from = to;
+            }
+        }
+        aggregator.postCollection();
+        return (A) aggregator.buildTopLevel();
+    }
+
+    private static DocIdStream docIdStream(int from, int to) {
+        return new DocIdStream() {
+            @Override
+            public void forEach(CheckedIntConsumer<IOException> consumer) throws IOException {
+                for (int doc = from; doc < to; doc++) {
+                    consumer.accept(doc);
+                }
+            }
+        };
+    }
+
     private static void verifyMetricNames(
         ValuesSourceAggregationBuilder.MetricsAggregationBuilder<?> aggregationBuilder,
         InternalAggregation agg
@@ -33,6 +33,9 @@ public class BlobCacheMetrics {
     private final DoubleHistogram cachePopulationThroughput;
     private final LongCounter cachePopulationBytes;
     private final LongCounter cachePopulationTime;
+    private final LongCounter readAheadCounter;
+    private final LongCounter readAheadHitCounter;
+    private final LongCounter prefetchCounter;
 
     public enum CachePopulationReason {
         /**
@@ -76,6 +79,21 @@ public class BlobCacheMetrics {
                 "es.blob_cache.population.time.total",
                 "The time spent copying data into the cache",
                 "milliseconds"
+            ),
+            meterRegistry.registerLongCounter(
+                "es.blob_cache.read_ahead.total",
+                "The number of regions fetched ahead of reads after a sequential access pattern was detected",
+                "regions"
+            ),
+            meterRegistry.registerLongCounter(
+                "es.blob_cache.read_ahead_hit.total",
+                "The number of regions fetched ahead of reads that were subsequently read",
+                "regions"
+            ),
+            meterRegistry.registerLongCounter(
+                "es.blob_cache.prefetch.total",
+                "The number of regions fetched in response to an explicit prefetch request",
+                "regions"
             )
         );
     }
@@ -86,7 +104,10 @@ public class BlobCacheMetrics {
         LongHistogram cacheMissLoadTimes,
         DoubleHistogram cachePopulationThroughput,
         LongCounter cachePopulationBytes,
-        LongCounter cachePopulationTime
+        LongCounter cachePopulationTime,
+        LongCounter readAheadCounter,
+        LongCounter readAheadHitCounter,
+        LongCounter prefetchCounter
     ) {
         this.cacheMissCounter = cacheMissCounter;
         this.evictedCountNonZeroFrequency = evictedCountNonZeroFrequency;
@@ -94,6 +115,9 @@ public class BlobCacheMetrics {
         this.cachePopulationThroughput = cachePopulationThroughput;
         this.cachePopulationBytes = cachePopulationBytes;
         this.cachePopulationTime = cachePopulationTime;
+        this.readAheadCounter = readAheadCounter;
+        this.readAheadHitCounter = readAheadHitCounter;
+        this.prefetchCounter = prefetchCounter;
     }
 
     public static BlobCacheMetrics NOOP = new BlobCacheMetrics(TelemetryProvider.NOOP.getMeterRegistry());
@@ -110,6 +134,18 @@ public class BlobCacheMetrics {
         return cacheMissLoadTimes;
     }
 
+    public LongCounter getReadAheadCounter() {
+        return readAheadCounter;
+    }
+
+    public LongCounter getReadAheadHitCounter() {
+        return readAheadHitCounter;
+    }
+
+    public LongCounter getPrefetchCounter() {
+        return prefetchCounter;
+    }
+
     /**
      * Record the various cache population metrics after a chunk is copied to the cache
      *
@@ -0,0 +1,119 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0; you may not use this file except in compliance with the Elastic License
+ * 2.0.
+ */
+
+package org.elasticsearch.blobcache.shared;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A count-min sketch of 4-bit counters that estimates how many times a key was recorded recently. Unlike the frequencies held by the cache
+ * entries, the sketch remembers keys after their region has been evicted, which lets the cache tell a region that keeps coming back apart
+ * from one that is read once by a scan. All counters are halved once the number of recorded keys reaches a sample size proportional to the
+ * number of regions, so that old history ages out. The sketch is updated on every cache access without locking: counters are updated with
+ * compare-and-set, and concurrent updates may only make the estimates a little less accurate.
+ */
+final class RegionFrequencySketch {
+
+    private static final long[] SEEDS = { 0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L };
+    private static final long RESET_MASK = 0x7777777777777777L;
+    static final int MAX_COUNT = 15;
+
+    private final AtomicLongArray table;
+    private final int tableMask;
+    private final int sampleSize;
+    private final AtomicInteger additions = new AtomicInteger();
+
+    RegionFrequencySketch(int numRegions) {
+        // 64 counters per region keeps the rate of keys over-estimated because of collisions low until the counters are halved
+        final int length = Integer.highestOneBit(Math.max(2, 4 * numRegions) - 1) << 1;
+        this.table = new AtomicLongArray(length);
+        this.tableMask = length - 1;
+        this.sampleSize = Math.max(1, numRegions) * 10;
+    }
+
+    /**
+     * @return the estimated number of times the given key was recorded, capped at {@link #MAX_COUNT}
+     */
+    int estimate(Object key) {
+        final int hash = spread(key.hashCode());
+        int estimate = MAX_COUNT;
+        for (int i = 0; i < SEEDS.length; i++) {
+            final int indexHash = indexHash(hash, i);
+            estimate = Math.min(estimate, counter(table.get(indexHash & tableMask), shift(indexHash)));
+        }
+        return estimate;
+    }
+
+    /**
+     * Records an occurrence of the given key.
+     *
+     * @return the estimated number of times the key was recorded, including this one, capped at {@link #MAX_COUNT}
+     */
+    int recordAndEstimate(Object key) {
+        final int hash = spread(key.hashCode());
+        final int[] indices = new int[SEEDS.length];
+        final int[] shifts = new int[SEEDS.length];
+        int estimate = MAX_COUNT;
+        for (int i = 0; i < SEEDS.length; i++) {
+            final int indexHash = indexHash(hash, i);
+            indices[i] = indexHash & tableMask;
+            shifts[i] = shift(indexHash);
+            estimate = Math.min(estimate, counter(table.get(indices[i]), shifts[i]));
+        }
+        if (estimate < MAX_COUNT) {
+            // conservative update: only increment the counters that hold the estimate, the others are already over-estimating
+            for (int i = 0; i < SEEDS.length; i++) {
+                increment(indices[i], shifts[i], estimate);
+            }
+            estimate++;
+        }
+        if (additions.incrementAndGet() == sampleSize) {
+            reset();
+        }
+        return estimate;
+    }
+
+    private void increment(int index, int shift, int expected) {
+        long current = table.get(index);
+        // retry if another counter of the same long changed, give up if this counter moved past the estimate in the meantime
+        while (counter(current, shift) == expected) {
+            final long witness = table.compareAndExchange(index, current, current + (1L << shift));
+            if (witness == current) {
+                return;
+            }
+            current = witness;
+        }
+    }
+
+    private void reset() {
+        for (int i = 0; i < table.length(); i++) {
+            table.getAndUpdate(i, value -> (value >>> 1) & RESET_MASK);
+        }
+        additions.addAndGet(-sampleSize / 2);
+    }
+
+    private static int counter(long value, int shift) {
+        return (int) ((value >>> shift) & 0xFL);
+    }
+
+    // each long holds 16 counters, pick one with bits of the hash that were not used to select the long
+    private static int shift(int indexHash) {
+        return ((indexHash >>> 24) & 15) << 2;
+    }
+
+    private static int spread(int hashCode) {
+        int x = ((hashCode >>> 16) ^ hashCode) * 0x45d9f3b;
+        return (x >>> 16) ^ x;
+    }
+
+    private static int indexHash(int hash, int i) {
+        long h = (hash + SEEDS[i]) * SEEDS[i];
+        h += (h >>> 32);
+        return (int) h;
+    }
+}
@@ -58,6 +58,7 @@ import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.LongAdder;
@@ -260,6 +261,34 @@ public class SharedBlobCacheService<KeyType> implements Releasable {
         Setting.Property.NodeScope
     );
 
+    /**
+     * Whether regions are admitted into the cache based on how often they were recently read. When enabled, a region that was not read
+     * recently enters the cache at frequency 0, from which it is the first to be evicted, so that a one-off scan over a lot of data cycles
+     * through the least frequently used regions instead of decaying and flushing the rest of the cache. Regions that keep being read enter
+     * at frequency 1 like all regions do when this is disabled, and a region at frequency 0 moves up to frequency 1 when it is read again.
+     */
+    public static final Setting<Boolean> SHARED_CACHE_SCAN_RESISTANT_ADMISSION_SETTING = Setting.boolSetting(
+        SHARED_CACHE_SETTINGS_PREFIX + "scan_resistant_admission",
+        false,
+        Setting.Property.NodeScope
+    );
+
+    /**
+     * The number of regions to fetch ahead of a reader that is detected to read the regions of a file sequentially. Read-ahead only uses
+     * free regions, so it never evicts cached data to make room for data that may not be read. Set to {@code 0} to disable read-ahead.
+     */
+    public static final Setting<Integer> SHARED_CACHE_READ_AHEAD_REGIONS_SETTING = Setting.intSetting(
+        SHARED_CACHE_SETTINGS_PREFIX + "read_ahead_regions",
+        2,                            // default
+        0,                            // min
+        Setting.Property.NodeScope
+    );
+
+    /**
+     * The number of consecutive regions that must have been accessed in order before read-ahead kicks in
+     */
+    static final int READ_AHEAD_SEQUENTIAL_REGIONS_THRESHOLD = 3;
+
     // used in tests
     void computeDecay() {
         if (cache instanceof LFUCache lfuCache) {
@@ -282,6 +311,11 @@ public class SharedBlobCacheService<KeyType> implements Releasable {
     private interface Cache<K, T> extends Releasable {
         CacheEntry<T> get(K cacheKey, long fileLength, int region);
 
+        /**
+         * Records that a reader accessed the given region, once per access however many times the reader gets the region while reading it.
+         */
+        void recordAccess(T chunk);
+
         int forceEvict(Predicate<K> cacheKeyPredicate);
     }
 
@@ -307,6 +341,7 @@ public class SharedBlobCacheService<KeyType> implements Releasable {
     private final int regionSize;
     private final int rangeSize;
     private final int recoveryRangeSize;
+    private final int readAheadRegions;
 
     private final int numRegions;
     private final ConcurrentLinkedQueue<SharedBytes.IO> freeRegions = new ConcurrentLinkedQueue<>();
@@ -384,6 +419,7 @@ public class SharedBlobCacheService<KeyType> implements Releasable {
 
         this.rangeSize = BlobCacheUtils.toIntBytes(SHARED_CACHE_RANGE_SIZE_SETTING.get(settings).getBytes());
         this.recoveryRangeSize = BlobCacheUtils.toIntBytes(SHARED_CACHE_RECOVERY_RANGE_SIZE_SETTING.get(settings).getBytes());
+        this.readAheadRegions = SHARED_CACHE_READ_AHEAD_REGIONS_SETTING.get(settings);
 
         this.blobCacheMetrics = blobCacheMetrics;
         this.evictIncrementer = blobCacheMetrics.getEvictedCountNonZeroFrequency()::increment;
@@ -814,6 +850,9 @@ public class SharedBlobCacheService<KeyType> implements Releasable {
         // side effects
         private SharedBytes.IO io = null;
 
+        // set when this region was populated by read-ahead and cleared the first time it is read, to measure read-ahead effectiveness
+        final AtomicBoolean fetchedAhead = new AtomicBoolean();
+
         CacheFileRegion(SharedBlobCacheService<KeyType> blobCacheService, RegionKey<KeyType> regionKey, int regionSize) {
             this.blobCacheService = blobCacheService;
             this.regionKey = regionKey;
@@ -1133,6 +1172,14 @@ public class SharedBlobCacheService<KeyType> implements Releasable {
 
         private CacheEntry<CacheFileRegion<KeyType>> lastAccessedRegion;
 
+        // access pattern tracking for read-ahead, only used by the thread reading from this cache file like lastAccessedRegion
+        private int lastReadRegion = -1;
+        private int sequentialRegions;
+        private int readAheadUpTo = -1;
+        @Nullable
+        private RangeMissingHandler readAheadWriter;
+        private long readAheadWriterStart;
+
         private CacheFile(KeyType cacheKey, long length) {
             this.cacheKey = cacheKey;
             this.length = length;
@@ -1165,6 +1212,7 @@ public class SharedBlobCacheService<KeyType> implements Releasable {
 
             } else {
                 fileRegion = cache.get(cacheKey, length, startRegion);
+                onRegionAccess(fileRegion.chunk);
             }
             final var region = fileRegion.chunk;
             if (region.tracker.checkAvailable(end - getRegionStart(startRegion)) == false) {
@@ -1220,6 +1268,11 @@ public class SharedBlobCacheService<KeyType> implements Releasable {
             }
             final int startRegion = getRegion(rangeToWrite.start());
             final int endRegion = getEndingRegion(rangeToWrite.end());
+            if (readAheadRegions > 0) {
+                // keep the latest writer around, read-ahead uses it to fetch the next regions once sequential reads are detected
+                readAheadWriter = writer;
+                readAheadWriterStart = rangeToWrite.start();
+            }
             if (startRegion == endRegion) {
                 return readSingleRegion(rangeToWrite, rangeToRead, reader, writerInstrumentationDecorator, startRegion);
             }
@@ -1235,6 +1288,7 @@ public class SharedBlobCacheService<KeyType> implements Releasable {
         ) throws InterruptedException, ExecutionException {
             final PlainActionFuture<Integer> readFuture = new PlainActionFuture<>();
             final CacheFileRegion<KeyType> fileRegion = get(cacheKey, length, region);
+            onRegionAccess(fileRegion);
             final long regionStart = getRegionStart(region);
             fileRegion.populateAndRead(
                 mapSubRangeToRegion(rangeToWrite, region),
@@ -1267,6 +1321,7 @@ public class SharedBlobCacheService<KeyType> implements Releasable {
                     ActionListener<Integer> listener = listeners.acquire(i -> bytesRead.updateAndGet(j -> Math.addExact(i, j)));
                     try {
                         final CacheFileRegion<KeyType> fileRegion = get(cacheKey, length, region);
+                        onRegionAccess(fileRegion);
                         final long regionStart = getRegionStart(region);
                         fileRegion.populateAndRead(
                             mapSubRangeToRegion(rangeToWrite, region),
@@ -1286,6 +1341,94 @@ public class SharedBlobCacheService<KeyType> implements Releasable {
             return bytesRead.get();
         }
 
+        /**
+         * Asynchronously fetches the given range of this file into the cache, for instance because a reader knows that it is going to read
+         * it soon. Ranges that are already available or pending are not fetched again, and nothing is fetched if the cache has no free
+         * region and no region that is old enough to be evicted.
+         *
+         * @param range    the range of the file to fetch
+         * @param writer   a writer that handles writing of newly downloaded data to the shared cache, positions passed to the writer are
+         *                 relative to the start of {@code range}
+         * @param listener a listener that is completed with {@code true} if the current thread triggered the fetching of at least part of
+         *                 the range, and with {@code false} otherwise
+         */
+        public void prefetch(final ByteRange range, final RangeMissingHandler writer, final ActionListener<Boolean> listener) {
+            assert assertOffsetsWithinFileLength(range.start(), range.length(), length);
+            if (range.isEmpty()) {
+                listener.onResponse(false);
+                return;
+            }
+            final AtomicBoolean fetched = new AtomicBoolean();
+            try (var listeners = new RefCountingListener(listener.map(unused -> fetched.get()))) {
+                final int endRegion = getEndingRegion(range.end());
+                for (int region = getRegion(range.start()); region <= endRegion; region++) {
+                    maybeFetchRange(cacheKey, region, range, length, writer, ioExecutor, listeners.acquire(regionFetched -> {
+                        if (regionFetched) {
+                            fetched.set(true);
+                            blobCacheMetrics.getPrefetchCounter().increment();
+                        }
+                    }));
+                }
+            }
+        }
+
+        private void onRegionAccess(CacheFileRegion<KeyType> fileRegion) {
+            if (fileRegion.fetchedAhead.get() && fileRegion.fetchedAhead.compareAndSet(true, false)) {
+                blobCacheMetrics.getReadAheadHitCounter().increment();
+            }
+            final int region = fileRegion.regionKey.region;
+            if (region == lastReadRegion) {
+                // the reader is still on the region it last accessed, e.g. populating it after a failed tryRead, this is the same access
+                return;
+            }
+            cache.recordAccess(fileRegion);
+            if (region == lastReadRegion + 1) {
+                sequentialRegions++;
+            } else {
+                sequentialRegions = 1;
+                readAheadUpTo = -1;
+            }
+            lastReadRegion = region;
+            if (readAheadRegions > 0 && sequentialRegions >= READ_AHEAD_SEQUENTIAL_REGIONS_THRESHOLD && readAheadWriter != null) {
+                readAhead(region);
+            }
+        }
+
+        private void readAhead(int currentRegion) {
+            final int lastRegion = Math.min(getEndingRegion(length), currentRegion + readAheadRegions);
+            for (int region = Math.max(currentRegion, readAheadUpTo) + 1; region <= lastRegion; region++) {
+                if (freeRegionCount() < 1) {
+                    // read-ahead is speculative and never evicts cached data
+                    return;
+                }
+                final long regionStart = getRegionStart(region);
+                final ByteRange regionRange = ByteRange.of(0, computeCacheFileRegionSize(length, region));
+                if (regionRange.isEmpty() || regionStart + regionRange.end() - readAheadWriterStart > Integer.MAX_VALUE) {
+                    // the writer works with int positions relative to the range it was created for, that range is too far behind
+                    return;
+                }
+                readAheadUpTo = region;
+                try {
+                    final CacheFileRegion<KeyType> fileRegion = get(cacheKey, length, region);
+                    fileRegion.populate(
+                        regionRange,
+                        writerWithOffset(readAheadWriter, fileRegion, Math.toIntExact(readAheadWriterStart - regionStart)),
+                        ioExecutor,
+                        ActionListener.wrap(fetched -> {
+                            if (fetched) {
+                                fileRegion.fetchedAhead.set(true);
+                                blobCacheMetrics.getReadAheadCounter().increment();
+                            }
+                        }, e -> logger.debug(() -> "failed to read ahead region [" + fileRegion.regionKey + "]", e))
+                    );
+                } catch (Exception e) {
+                    assert e instanceof AlreadyClosedException : e;
+                    logger.debug(Strings.format("failed to read ahead region [%d] of [%s]", region, cacheKey), e);
+                    return;
+                }
+            }
+        }
+
         private RangeMissingHandler writerWithOffset(RangeMissingHandler writer, CacheFileRegion<KeyType> fileRegion, int writeOffset) {
             final RangeMissingHandler adjustedWriter;
             if (writeOffset == 0) {
@@ -1502,15 +1645,16 @@ public class SharedBlobCacheService<KeyType> implements Releasable {
             int freq;
             volatile long lastAccessedEpoch;
 
-            LFUCacheEntry(CacheFileRegion<KeyType> chunk, long lastAccessed) {
+            LFUCacheEntry(CacheFileRegion<KeyType> chunk, long lastAccessed, int freq) {
                 super(chunk);
                 this.lastAccessedEpoch = lastAccessed;
-                // todo: consider whether freq=1 is still right for new entries.
+                // todo: consider whether freq=1 is still right for new entries that pass admission.
                 // it could risk decaying to level 0 right after and thus potentially be evicted
                 // if the freq 1 LRU chain was short.
                 // seems ok for now, since if it were to get evicted soon, the decays done would ensure we have more level 1
                 // entries eventually and thus such an entry would (after some decays) be able to survive in the cache.
-                this.freq = 1;
+                assert freq == 0 || freq == 1 : freq;
+                this.freq = freq;
             }
 
             void touch() {
@@ -1525,6 +1669,11 @@ public class SharedBlobCacheService<KeyType> implements Releasable {
         private final LFUCacheEntry[] freqs;
         private final int maxFreq;
         private final DecayAndNewEpochTask decayAndNewEpochTask;
+        // null unless scan resistant admission is enabled
+        @Nullable
+        private final RegionFrequencySketch admissionSketch;
+        // the number of regions evicted since the last decay, only used with scan resistant admission, guarded by the service's lock
+        private int evictionsSinceDecay;
 
         private final AtomicLong epoch = new AtomicLong();
 
@@ -1533,6 +1682,7 @@ public class SharedBlobCacheService<KeyType> implements Releasable {
             this.maxFreq = SHARED_CACHE_MAX_FREQ_SETTING.get(settings);
             freqs = (LFUCacheEntry[]) Array.newInstance(LFUCacheEntry.class, maxFreq);
             decayAndNewEpochTask = new DecayAndNewEpochTask(threadPool.generic());
+            admissionSketch = SHARED_CACHE_SCAN_RESISTANT_ADMISSION_SETTING.get(settings) ? new RegionFrequencySketch(numRegions) : null;
         }
 
         @Override
@@ -1555,7 +1705,11 @@ public class SharedBlobCacheService<KeyType> implements Releasable {
                 final int effectiveRegionSize = computeCacheFileRegionSize(fileLength, region);
                 entry = keyMapping.computeIfAbsent(
                     regionKey,
-                    key -> new LFUCacheEntry(new CacheFileRegion<KeyType>(SharedBlobCacheService.this, key, effectiveRegionSize), now)
+                    key -> new LFUCacheEntry(
+                        new CacheFileRegion<KeyType>(SharedBlobCacheService.this, key, effectiveRegionSize),
+                        now,
+                        initialFreq(key)
+                    )
                 );
             }
             // checks using volatile, double locking is fine, as long as we assign io last.
@@ -1576,6 +1730,45 @@ public class SharedBlobCacheService<KeyType> implements Releasable {
             return entry;
         }
 
+        /**
+         * New entries start at frequency 1, unless scan resistant admission is enabled and the region was not accessed recently, in which
+         * case they start on probation at frequency 0. Probationary entries are evicted before any other entry, and since frequency 0 is
+         * not empty while they are around, a scan only triggers a decay once per pass over the cache rather than each time the entries at
+         * frequency 0 run out.
+         */
+        private int initialFreq(RegionKey<KeyType> regionKey) {
+            if (admissionSketch == null) {
+                return 1;
+            }
+            return admissionSketch.estimate(regionKey) > 0 ? 1 : 0;
+        }
+
+        /**
+         * With scan resistant admission, counts the access in the sketch and moves an entry on probation at frequency 0 up to frequency 1
+         * once its region was accessed more than once recently, so that it is not evicted before the regions which a scan reads once. The
+         * entries on probation are only admitted from here, the gets that a single read does do not promote them.
+         */
+        @Override
+        public void recordAccess(CacheFileRegion<KeyType> chunk) {
+            if (admissionSketch == null || admissionSketch.recordAndEstimate(chunk.regionKey) <= 1) {
+                return;
+            }
+            final LFUCacheEntry entry = keyMapping.get(chunk.regionKey);
+            if (entry != null && entry.chunk == chunk && entry.freq == 0) {
+                maybeAdmit(entry);
+            }
+        }
+
+        private void maybeAdmit(LFUCacheEntry entry) {
+            synchronized (SharedBlobCacheService.this) {
+                if (entry.freq == 0 && entry.chunk.isEvicted() == false) {
+                    unlink(entry);
+                    entry.freq = 1;
+                    pushEntryToBack(entry);
+                }
+            }
+        }
+
         @Override
         public int forceEvict(Predicate<KeyType> cacheKeyPredicate) {
             final List<LFUCacheEntry> matchingEntries = new ArrayList<>();
@@ -1613,7 +1806,7 @@ public class SharedBlobCacheService<KeyType> implements Releasable {
                 throwAlreadyClosed("no free region found (contender)");
             }
             // new item
-            assert entry.freq == 1;
+            assert entry.freq <= 1;
             assert entry.prev == null;
             assert entry.next == null;
             final SharedBytes.IO freeSlot = freeRegions.poll();
@@ -1725,7 +1918,11 @@ public class SharedBlobCacheService<KeyType> implements Releasable {
 
         private void maybePromote(long epoch, LFUCacheEntry entry) {
             synchronized (SharedBlobCacheService.this) {
-                if (epoch > entry.lastAccessedEpoch && entry.freq < maxFreq - 1 && entry.chunk.isEvicted() == false) {
+                // with scan resistant admission, entries on probation only move up when admitted by recordAccess
+                if (epoch > entry.lastAccessedEpoch
+                    && entry.freq < maxFreq - 1
+                    && (entry.freq > 0 || admissionSketch == null)
+                    && entry.chunk.isEvicted() == false) {
                     unlink(entry);
                     // go 2 up per epoch, allowing us to decay 1 every epoch.
                     entry.freq = Math.min(entry.freq + 2, maxFreq - 1);
@@ -1816,6 +2013,11 @@ public class SharedBlobCacheService<KeyType> implements Releasable {
             if (freqs[0] == null) {
                 // no frequency 0 entries, let us switch epoch and decay so we get some for next time.
                 maybeScheduleDecayAndNewEpoch(currentEpoch);
+            } else if (admissionSketch != null && evictionsSinceDecay >= numRegions) {
+                // probationary entries keep frequency 0 populated, so rather than waiting for it to drain we switch epoch once as many
+                // regions as the cache holds were evicted. Entries can then be promoted again, and a scan decays the others at most once
+                // per pass over the cache.
+                maybeScheduleDecayAndNewEpoch(currentEpoch);
             }
             if (freq0 != null) {
                 return freq0;
@@ -1848,6 +2050,7 @@ public class SharedBlobCacheService<KeyType> implements Releasable {
                                     // grab io, rely on incref'ers also checking evicted field.
                                     entry.chunk.volatileIO(null);
                                     assert regionOwners.remove(ioRef) == entry.chunk;
+                                    evictionsSinceDecay++;
                                     return ioRef;
                                 }
                             } finally {
@@ -1901,6 +2104,7 @@ public class SharedBlobCacheService<KeyType> implements Releasable {
             long end;
             synchronized (SharedBlobCacheService.this) {
                 afterLock = threadPool.rawRelativeTimeInMillis();
+                evictionsSinceDecay = 0;
                 appendLevel1ToLevel0();
                 for (int i = 2; i < maxFreq; i++) {
                     assert freqs[i - 1] == null;
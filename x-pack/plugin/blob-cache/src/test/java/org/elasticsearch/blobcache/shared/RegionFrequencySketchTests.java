@@ -0,0 +1,93 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0; you may not use this file except in compliance with the Elastic License
+ * 2.0.
+ */
+
+package org.elasticsearch.blobcache.shared;
+
+import org.elasticsearch.test.ESTestCase;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.lessThan;
+
+public class RegionFrequencySketchTests extends ESTestCase {
+
+    public void testEstimatesNeverUnderCount() {
+        final var sketch = new RegionFrequencySketch(between(1, 1000));
+        final var key = new Object();
+        final int occurrences = between(1, RegionFrequencySketch.MAX_COUNT);
+        int estimate = 0;
+        for (int i = 0; i < occurrences; i++) {
+            estimate = sketch.recordAndEstimate(key);
+        }
+        assertThat(estimate, greaterThanOrEqualTo(occurrences));
+    }
+
+    public void testEstimateDoesNotRecord() {
+        final var sketch = new RegionFrequencySketch(between(1, 1000));
+        final var key = new Object();
+        assertThat(sketch.estimate(key), equalTo(0));
+        assertThat(sketch.recordAndEstimate(key), equalTo(1));
+        assertThat(sketch.estimate(key), equalTo(1));
+        assertThat(sketch.estimate(key), equalTo(1));
+    }
+
+    public void testConcurrentRecordsNeverUnderCount() {
+        final int numRegions = between(10, 100);
+        final var sketch = new RegionFrequencySketch(numRegions);
+        final int threads = between(2, 8);
+        final Object[] keys = new Object[threads];
+        for (int i = 0; i < threads; i++) {
+            keys[i] = new Object();
+        }
+        // stay below the sample size so that counters are not halved
+        final int occurrences = between(1, Math.min(RegionFrequencySketch.MAX_COUNT, numRegions * 10 / threads - 1));
+        runInParallel(threads, i -> {
+            for (int j = 0; j < occurrences; j++) {
+                sketch.recordAndEstimate(keys[i]);
+            }
+        });
+        for (Object key : keys) {
+            assertThat(sketch.estimate(key), greaterThanOrEqualTo(occurrences));
+        }
+    }
+
+    public void testEstimatesAreCapped() {
+        final var sketch = new RegionFrequencySketch(between(2, 1000));
+        final var key = new Object();
+        for (int i = 0; i < RegionFrequencySketch.MAX_COUNT; i++) {
+            sketch.recordAndEstimate(key);
+        }
+        assertThat(sketch.recordAndEstimate(key), equalTo(RegionFrequencySketch.MAX_COUNT));
+    }
+
+    public void testCountersAreHalvedPeriodically() {
+        final int numRegions = between(1, 100);
+        final var sketch = new RegionFrequencySketch(numRegions);
+        final var key = new Object();
+        for (int i = 0; i < RegionFrequencySketch.MAX_COUNT; i++) {
+            sketch.recordAndEstimate(key);
+        }
+        // the sample size is ten times the number of regions
+        for (int i = 0; i < numRegions * 10; i++) {
+            sketch.recordAndEstimate(i);
+        }
+        assertThat(sketch.recordAndEstimate(key), lessThan(RegionFrequencySketch.MAX_COUNT));
+    }
+
+    public void testFewKeysAreOverEstimated() {
+        final int numRegions = between(100, 1000);
+        final var sketch = new RegionFrequencySketch(numRegions);
+        int overEstimated = 0;
+        // stay below the sample size so that counters are not halved
+        for (int i = 0; i < numRegions * 5; i++) {
+            if (sketch.recordAndEstimate(new Object()) > 1) {
+                overEstimated++;
+            }
+        }
+        assertThat(overEstimated, lessThan(numRegions / 2));
+    }
+}
@@ -25,6 +25,7 @@ import org.elasticsearch.common.unit.ByteSizeUnit;
 import org.elasticsearch.common.unit.ByteSizeValue;
 import org.elasticsearch.common.unit.RatioValue;
 import org.elasticsearch.common.unit.RelativeByteSizeValue;
+import org.elasticsearch.common.util.concurrent.ConcurrentCollections;
 import org.elasticsearch.common.util.concurrent.DeterministicTaskQueue;
 import org.elasticsearch.common.util.concurrent.EsExecutors;
 import org.elasticsearch.common.util.concurrent.StoppableExecutorServiceWrapper;
@@ -34,12 +35,17 @@ import org.elasticsearch.env.Environment;
 import org.elasticsearch.env.NodeEnvironment;
 import org.elasticsearch.env.TestEnvironment;
 import org.elasticsearch.node.NodeRoleSettings;
+import org.elasticsearch.telemetry.InstrumentType;
+import org.elasticsearch.telemetry.Measurement;
+import org.elasticsearch.telemetry.RecordingMeterRegistry;
 import org.elasticsearch.test.ESTestCase;
 import org.elasticsearch.threadpool.TestThreadPool;
 import org.elasticsearch.threadpool.ThreadPool;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -59,10 +65,14 @@ import java.util.stream.IntStream;
 
 import static org.elasticsearch.node.Node.NODE_NAME_SETTING;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
 import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.hasItem;
 import static org.hamcrest.Matchers.instanceOf;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.hamcrest.Matchers.not;
 import static org.hamcrest.Matchers.notNullValue;
 import static org.hamcrest.Matchers.nullValue;
 import static org.hamcrest.Matchers.sameInstance;
@@ -376,6 +386,118 @@ public class SharedBlobCacheServiceTests extends ESTestCase {
         }
     }
 
+    /**
+     * Test that with scan resistant admission a working set survives a scan over more regions than the cache holds, while the epoch keeps
+     * advancing on its own so that the working set can still be promoted. The regions are read through {@link CacheFile} like searches
+     * read them, which gets each region from the cache several times for a single access.
+     */
+    public void testScanResistantAdmission() throws Exception {
+        final boolean scanResistant = randomBoolean();
+        // we have 10 regions
+        Settings settings = Settings.builder()
+            .put(NODE_NAME_SETTING.getKey(), "node")
+            .put(SharedBlobCacheService.SHARED_CACHE_SIZE_SETTING.getKey(), ByteSizeValue.ofBytes(size(1000)).getStringRep())
+            .put(SharedBlobCacheService.SHARED_CACHE_REGION_SIZE_SETTING.getKey(), ByteSizeValue.ofBytes(size(100)).getStringRep())
+            .put(SharedBlobCacheService.SHARED_CACHE_SCAN_RESISTANT_ADMISSION_SETTING.getKey(), scanResistant)
+            .put(SharedBlobCacheService.SHARED_CACHE_READ_AHEAD_REGIONS_SETTING.getKey(), 0)
+            .put("path.home", createTempDir())
+            .build();
+        final DeterministicTaskQueue taskQueue = new DeterministicTaskQueue();
+        try (
+            NodeEnvironment environment = new NodeEnvironment(settings, TestEnvironment.newEnvironment(settings));
+            var cacheService = new SharedBlobCacheService<>(
+                environment,
+                settings,
+                taskQueue.getThreadPool(),
+                EsExecutors.DIRECT_EXECUTOR_SERVICE,
+                BlobCacheMetrics.NOOP
+            )
+        ) {
+            final int hotRegions = 5;
+            final var hotCacheKey = generateCacheKey();
+            final var hotFile = cacheService.getCacheFile(hotCacheKey, size(100) * hotRegions);
+            final List<SharedBlobCacheService.CacheFileRegion<Object>> hot = new ArrayList<>();
+            for (int region = 0; region < hotRegions; region++) {
+                readRegion(cacheService, hotFile, region);
+                final var cacheFileRegion = cacheService.get(hotCacheKey, size(100) * hotRegions, region);
+                // the region was got from the cache several times, but that was a single access
+                assertEquals(scanResistant ? 0 : 1, cacheService.getFreq(cacheFileRegion));
+                hot.add(cacheFileRegion);
+            }
+            // accessing a probationary region again admits it
+            for (int region = 0; region < hotRegions; region++) {
+                readRegion(cacheService, hotFile, region);
+                assertSame(hot.get(region), cacheService.get(hotCacheKey, size(100) * hotRegions, region));
+                assertEquals(1, cacheService.getFreq(hot.get(region)));
+            }
+
+            // the working set keeps being read in between regions that are read once
+            final int coldRegions = 40;
+            final var coldFile = cacheService.getCacheFile(generateCacheKey(), size(100) * coldRegions);
+            for (int region = 0; region < coldRegions; region++) {
+                readRegion(cacheService, coldFile, region);
+                taskQueue.runAllRunnableTasks();
+                for (int hotRegion = 0; hotRegion < hotRegions; hotRegion++) {
+                    readRegion(cacheService, hotFile, hotRegion);
+                    if (scanResistant) {
+                        assertSame(hot.get(hotRegion), cacheService.get(hotCacheKey, size(100) * hotRegions, hotRegion));
+                    }
+                }
+            }
+
+            // then a scan reads many regions once, running decays as they get scheduled
+            final int scanRegions = 30;
+            final var scanCacheKey = generateCacheKey();
+            final var scanFile = cacheService.getCacheFile(scanCacheKey, size(100) * scanRegions);
+            for (int region = 0; region < scanRegions; region++) {
+                readRegion(cacheService, scanFile, region);
+                taskQueue.runAllRunnableTasks();
+            }
+
+            if (scanResistant) {
+                // the regions of the scan stay on probation however many reads it took to go through them
+                assertEquals(0, cacheService.getFreq(cacheService.get(scanCacheKey, size(100) * scanRegions, scanRegions - 1)));
+                // the epoch advanced as the cache turned over, promoting the working set above what the scan decayed
+                assertThat(cacheService.epoch(), greaterThan(1L));
+                for (var cacheFileRegion : hot) {
+                    assertFalse(cacheFileRegion.isEvicted());
+                    assertThat(cacheService.getFreq(cacheFileRegion), greaterThan(0));
+                }
+            } else {
+                assertTrue(hot.stream().anyMatch(SharedBlobCacheService.CacheFileRegion::isEvicted));
+            }
+        }
+    }
+
+    /**
+     * Reads a region of the given file the way a reader with a small buffer does: it tries to read from the cache, populates the region
+     * on a miss and reads the rest of the region from the cache, getting the region from the cache several times.
+     */
+    private static void readRegion(
+        SharedBlobCacheService<Object> cacheService,
+        SharedBlobCacheService<Object>.CacheFile cacheFile,
+        int region
+    ) throws Exception {
+        final long regionStart = cacheService.getRegionStart(region);
+        final long regionEnd = cacheService.getRegionEnd(region);
+        final int reads = 4;
+        final long readLength = (regionEnd - regionStart) / reads;
+        for (int i = 0; i < reads; i++) {
+            final long readStart = regionStart + i * readLength;
+            if (cacheFile.tryRead(ByteBuffer.allocate(Math.toIntExact(readLength)), readStart) == false) {
+                cacheFile.populateAndRead(
+                    ByteRange.of(regionStart, regionEnd),
+                    ByteRange.of(readStart, readStart + readLength),
+                    (channel, channelPos, relativePos, length) -> length,
+                    (channel, channelPos, streamFactory, relativePos, length, progressUpdater, completionListener) -> completeWith(
+                        completionListener,
+                        () -> progressUpdater.accept(length)
+                    )
+                );
+            }
+        }
+    }
+
     /**
      * Test when many objects need to decay, in particular useful to measure how long the decay task takes.
      * For 1M objects (with no assertions) it took 26ms locally.
@@ -1263,6 +1385,147 @@ public class SharedBlobCacheServiceTests extends ESTestCase {
         threadPool.shutdown();
     }
 
+    public void testReadAheadOnSequentialReads() throws Exception {
+        final long regionSize = size(1L);
+        final int readAheadRegions = between(1, 3);
+        Settings settings = Settings.builder()
+            .put(NODE_NAME_SETTING.getKey(), "node")
+            .put(SharedBlobCacheService.SHARED_CACHE_SIZE_SETTING.getKey(), ByteSizeValue.ofBytes(size(20L)).getStringRep())
+            .put(SharedBlobCacheService.SHARED_CACHE_REGION_SIZE_SETTING.getKey(), ByteSizeValue.ofBytes(regionSize).getStringRep())
+            .put(SharedBlobCacheService.SHARED_CACHE_READ_AHEAD_REGIONS_SETTING.getKey(), readAheadRegions)
+            .put("path.home", createTempDir())
+            .build();
+        final var recordingMeterRegistry = new RecordingMeterRegistry();
+        final var threadPool = new TestThreadPool("test");
+        try (
+            NodeEnvironment environment = new NodeEnvironment(settings, TestEnvironment.newEnvironment(settings));
+            var cacheService = new SharedBlobCacheService<>(
+                environment,
+                settings,
+                threadPool,
+                threadPool.executor(ThreadPool.Names.GENERIC),
+                new BlobCacheMetrics(recordingMeterRegistry)
+            )
+        ) {
+            final var cacheKey = generateCacheKey();
+            final long blobLength = regionSize * 10;
+            final var cacheFile = cacheService.getCacheFile(cacheKey, blobLength);
+            final Set<Long> writtenPositions = ConcurrentCollections.newConcurrentSet();
+
+            // read the first regions in order, which should trigger read-ahead once enough consecutive regions have been read
+            final int sequentialRegions = SharedBlobCacheService.READ_AHEAD_SEQUENTIAL_REGIONS_THRESHOLD;
+            for (int region = 0; region < sequentialRegions; region++) {
+                final var range = ByteRange.of(cacheService.getRegionStart(region), cacheService.getRegionEnd(region));
+                final int bytesRead = cacheFile.populateAndRead(
+                    range,
+                    range,
+                    (channel, channelPos, relativePos, length) -> length,
+                    (channel, channelPos, streamFactory, relativePos, length, progressUpdater, completionListener) -> completeWith(
+                        completionListener,
+                        () -> assertTrue(writtenPositions.add(range.start() + relativePos))
+                    )
+                );
+                assertThat(bytesRead, equalTo(Math.toIntExact(regionSize)));
+            }
+
+            final int lastReadAheadRegion = sequentialRegions - 1 + readAheadRegions;
+            assertBusy(() -> {
+                for (int region = 0; region <= lastReadAheadRegion; region++) {
+                    assertThat(writtenPositions, hasItem(cacheService.getRegionStart(region)));
+                }
+                assertThat(
+                    recordingMeterRegistry.getRecorder()
+                        .getMeasurements(InstrumentType.LONG_COUNTER, "es.blob_cache.read_ahead.total")
+                        .stream()
+                        .mapToLong(Measurement::getLong)
+                        .sum(),
+                    equalTo((long) readAheadRegions)
+                );
+            });
+            assertThat(writtenPositions, not(hasItem(cacheService.getRegionStart(lastReadAheadRegion + 1))));
+            assertThat(cacheService.freeRegionCount(), equalTo(20 - sequentialRegions - readAheadRegions));
+
+            // the region fetched ahead is now available without going to the blob store
+            final var buffer = ByteBuffer.allocate(randomIntBetween(1, Math.toIntExact(regionSize)));
+            assertTrue(cacheFile.tryRead(buffer, cacheService.getRegionStart(sequentialRegions)));
+            assertThat(
+                recordingMeterRegistry.getRecorder()
+                    .getMeasurements(InstrumentType.LONG_COUNTER, "es.blob_cache.read_ahead_hit.total")
+                    .stream()
+                    .mapToLong(Measurement::getLong)
+                    .sum(),
+                equalTo(1L)
+            );
+        } finally {
+            threadPool.shutdown();
+        }
+    }
+
+    public void testPrefetch() throws Exception {
+        final long regionSize = size(1L);
+        Settings settings = Settings.builder()
+            .put(NODE_NAME_SETTING.getKey(), "node")
+            .put(SharedBlobCacheService.SHARED_CACHE_SIZE_SETTING.getKey(), ByteSizeValue.ofBytes(size(10L)).getStringRep())
+            .put(SharedBlobCacheService.SHARED_CACHE_REGION_SIZE_SETTING.getKey(), ByteSizeValue.ofBytes(regionSize).getStringRep())
+            .put("path.home", createTempDir())
+            .build();
+        final var recordingMeterRegistry = new RecordingMeterRegistry();
+        final var threadPool = new TestThreadPool("test");
+        try (
+            NodeEnvironment environment = new NodeEnvironment(settings, TestEnvironment.newEnvironment(settings));
+            var cacheService = new SharedBlobCacheService<>(
+                environment,
+                settings,
+                threadPool,
+                threadPool.executor(ThreadPool.Names.GENERIC),
+                new BlobCacheMetrics(recordingMeterRegistry)
+            )
+        ) {
+            final var cacheKey = generateCacheKey();
+            final long blobLength = regionSize * 5;
+            final var cacheFile = cacheService.getCacheFile(cacheKey, blobLength);
+
+            final long start = randomLongBetween(0L, blobLength - 1L);
+            final var range = ByteRange.of(start, randomLongBetween(start + 1L, blobLength));
+            final AtomicLong bytesCopied = new AtomicLong();
+            final RangeMissingHandler writer = (channel, channelPos, streamFactory, relativePos, length, progressUpdater, listener) -> {
+                completeWith(listener, () -> {
+                    assertThat(range.start() + relativePos, greaterThanOrEqualTo(range.start()));
+                    assertThat(range.start() + relativePos + length, lessThanOrEqualTo(range.end()));
+                    bytesCopied.addAndGet(length);
+                });
+            };
+
+            final PlainActionFuture<Boolean> future = new PlainActionFuture<>();
+            cacheFile.prefetch(range, writer, future);
+            assertThat(safeGet(future), is(true));
+            assertThat(bytesCopied.get(), equalTo(range.length()));
+
+            final int regions = cacheService.getEndingRegion(range.end()) - cacheService.getRegion(range.start()) + 1;
+            assertThat(cacheService.freeRegionCount(), equalTo(10 - regions));
+            assertThat(
+                recordingMeterRegistry.getRecorder()
+                    .getMeasurements(InstrumentType.LONG_COUNTER, "es.blob_cache.prefetch.total")
+                    .stream()
+                    .mapToLong(Measurement::getLong)
+                    .sum(),
+                equalTo((long) regions)
+            );
+
+            // prefetched data is read without populating the cache again
+            final var buffer = ByteBuffer.allocate(1);
+            assertTrue(cacheFile.tryRead(buffer, range.start()));
+
+            // prefetching the same range again is a no-op
+            final PlainActionFuture<Boolean> secondFuture = new PlainActionFuture<>();
+            cacheFile.prefetch(range, writer, secondFuture);
+            assertThat(safeGet(secondFuture), is(false));
+            assertThat(bytesCopied.get(), equalTo(range.length()));
+        } finally {
+            threadPool.shutdown();
+        }
+    }
+
     public void testPopulate() throws Exception {
         final long regionSize = size(1L);
         Settings settings = Settings.builder()
@@ -165,7 +165,7 @@ public class GetCcrRestoreFileChunkAction extends ActionType<GetCcrRestoreFileCh
         @Override
         public void writeTo(StreamOutput out) throws IOException {
             out.writeVLong(offset);
-            out.writeBytesReference(chunk);
+            out.writeReleasableBytesReference(chunk);
         }
 
         @Override
@@ -8,6 +8,7 @@ package org.elasticsearch.xpack.enrich;
 
 import org.elasticsearch.action.search.SearchRequest;
 import org.elasticsearch.cluster.routing.Preference;
+import org.elasticsearch.common.TriConsumer;
 import org.elasticsearch.index.query.ConstantScoreQueryBuilder;
 import org.elasticsearch.index.query.QueryBuilder;
 import org.elasticsearch.ingest.AbstractProcessor;
@@ -17,6 +18,7 @@ import org.elasticsearch.search.builder.SearchSourceBuilder;
 import org.elasticsearch.xpack.core.enrich.EnrichPolicy;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.function.BiConsumer;
@@ -61,51 +63,18 @@ public abstract class AbstractEnrichProcessor extends AbstractProcessor {
     public void execute(IngestDocument ingestDocument, BiConsumer<IngestDocument, Exception> handler) {
         try {
             // If a document does not have the enrich key, return the unchanged document
-            String renderedField = ingestDocument.renderTemplate(this.field);
-            final Object value = ingestDocument.getFieldValue(renderedField, Object.class, ignoreMissing);
-            if (value == null) {
+            SearchRequest req = createSearchRequest(ingestDocument);
+            if (req == null) {
                 handler.accept(ingestDocument, null);
                 return;
             }
 
-            QueryBuilder queryBuilder = getQueryBuilder(value);
-            ConstantScoreQueryBuilder constantScore = new ConstantScoreQueryBuilder(queryBuilder);
-            SearchSourceBuilder searchBuilder = new SearchSourceBuilder();
-            searchBuilder.from(0);
-            searchBuilder.size(maxMatches);
-            searchBuilder.trackScores(false);
-            searchBuilder.fetchSource(true);
-            searchBuilder.query(constantScore);
-            SearchRequest req = new SearchRequest();
-            req.indices(EnrichPolicy.getBaseName(getPolicyName()));
-            req.preference(Preference.LOCAL.type());
-            req.source(searchBuilder);
-
             searchRunner.accept(req, (searchHits, e) -> {
                 if (e != null) {
                     handler.accept(null, e);
                     return;
                 }
-
-                // If the index is empty, return the unchanged document
-                // If the enrich key does not exist in the index, throw an error
-                // If no documents match the key, return the unchanged document
-                if (searchHits.size() < 1) {
-                    handler.accept(ingestDocument, null);
-                    return;
-                }
-
-                String renderedTargetField = ingestDocument.renderTemplate(this.targetField);
-                if (overrideEnabled || ingestDocument.hasField(renderedTargetField) == false) {
-                    if (maxMatches == 1) {
-                        Map<?, ?> firstDocument = searchHits.get(0);
-                        ingestDocument.setFieldValue(renderedTargetField, firstDocument);
-                    } else {
-                        List<Map<?, ?>> enrichDocuments = new ArrayList<>(searchHits.size());
-                        enrichDocuments.addAll(searchHits);
-                        ingestDocument.setFieldValue(renderedTargetField, enrichDocuments);
-                    }
-                }
+                enrich(ingestDocument, searchHits);
                 handler.accept(ingestDocument, null);
             });
         } catch (Exception e) {
@@ -113,6 +82,110 @@ public abstract class AbstractEnrichProcessor extends AbstractProcessor {
         }
     }
 
+    /**
+     * Documents of the batch that look up the same enrich key share a single search, and the enrich documents it returns are
+     * fanned back out to each of them. Distinct keys still go through the enrich cache and the coordinator, which combines the
+     * lookups that are in flight into multi search requests.
+     */
+    @Override
+    public void executeBatch(List<IngestDocument> ingestDocuments, TriConsumer<Integer, IngestDocument, Exception> handler) {
+        final Map<SearchRequest, List<Integer>> slotsByRequest = new LinkedHashMap<>();
+        for (int slot = 0; slot < ingestDocuments.size(); slot++) {
+            final IngestDocument ingestDocument = ingestDocuments.get(slot);
+            final SearchRequest req;
+            try {
+                req = createSearchRequest(ingestDocument);
+            } catch (Exception e) {
+                handler.apply(slot, null, e);
+                continue;
+            }
+            if (req == null) {
+                handler.apply(slot, ingestDocument, null);
+            } else {
+                slotsByRequest.computeIfAbsent(req, k -> new ArrayList<>()).add(slot);
+            }
+        }
+        for (Map.Entry<SearchRequest, List<Integer>> entry : slotsByRequest.entrySet()) {
+            final List<Integer> slots = entry.getValue();
+            try {
+                searchRunner.accept(entry.getKey(), (searchHits, e) -> {
+                    for (int i = 0; i < slots.size(); i++) {
+                        final int slot = slots.get(i);
+                        if (e != null) {
+                            handler.apply(slot, null, e);
+                            continue;
+                        }
+                        final IngestDocument ingestDocument = ingestDocuments.get(slot);
+                        try {
+                            // every document but the first gets its own copy, so that later processors can modify them independently
+                            enrich(ingestDocument, i == 0 ? searchHits : EnrichCache.deepCopy(searchHits, false));
+                        } catch (Exception ex) {
+                            handler.apply(slot, null, ex);
+                            continue;
+                        }
+                        handler.apply(slot, ingestDocument, null);
+                    }
+                });
+            } catch (Exception e) {
+                for (int slot : slots) {
+                    handler.apply(slot, null, e);
+                }
+            }
+        }
+    }
+
+    @Override
+    public boolean supportsBatchExecution() {
+        return true;
+    }
+
+    /**
+     * Creates the search request that looks up the enrich key of the document, or returns {@code null} if the document does not have
+     * the enrich key.
+     */
+    private SearchRequest createSearchRequest(IngestDocument ingestDocument) {
+        String renderedField = ingestDocument.renderTemplate(this.field);
+        final Object value = ingestDocument.getFieldValue(renderedField, Object.class, ignoreMissing);
+        if (value == null) {
+            return null;
+        }
+
+        QueryBuilder queryBuilder = getQueryBuilder(value);
+        ConstantScoreQueryBuilder constantScore = new ConstantScoreQueryBuilder(queryBuilder);
+        SearchSourceBuilder searchBuilder = new SearchSourceBuilder();
+        searchBuilder.from(0);
+        searchBuilder.size(maxMatches);
+        searchBuilder.trackScores(false);
+        searchBuilder.fetchSource(true);
+        searchBuilder.query(constantScore);
+        SearchRequest req = new SearchRequest();
+        req.indices(EnrichPolicy.getBaseName(getPolicyName()));
+        req.preference(Preference.LOCAL.type());
+        req.source(searchBuilder);
+        return req;
+    }
+
+    private void enrich(IngestDocument ingestDocument, List<Map<?, ?>> searchHits) {
+        // If the index is empty, return the unchanged document
+        // If the enrich key does not exist in the index, throw an error
+        // If no documents match the key, return the unchanged document
+        if (searchHits.size() < 1) {
+            return;
+        }
+
+        String renderedTargetField = ingestDocument.renderTemplate(this.targetField);
+        if (overrideEnabled || ingestDocument.hasField(renderedTargetField) == false) {
+            if (maxMatches == 1) {
+                Map<?, ?> firstDocument = searchHits.get(0);
+                ingestDocument.setFieldValue(renderedTargetField, firstDocument);
+            } else {
+                List<Map<?, ?>> enrichDocuments = new ArrayList<>(searchHits.size());
+                enrichDocuments.addAll(searchHits);
+                ingestDocument.setFieldValue(renderedTargetField, enrichDocuments);
+            }
+        }
+    }
+
     @Override
     public IngestDocument execute(IngestDocument ingestDocument) throws Exception {
         throw new UnsupportedOperationException("this method should not get executed");
@@ -20,6 +20,7 @@ import org.elasticsearch.ingest.TestTemplateService;
 import org.elasticsearch.script.TemplateScript;
 import org.elasticsearch.test.ESTestCase;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -31,6 +32,7 @@ import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.instanceOf;
 import static org.hamcrest.Matchers.notNullValue;
 import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
 
 public class MatchProcessorTests extends ESTestCase {
 
@@ -376,6 +378,43 @@ public class MatchProcessorTests extends ESTestCase {
         assertThat(entry.get("tld"), equalTo("co"));
     }
 
+    public void testExecuteBatch() {
+        List<SearchRequest> requests = new ArrayList<>();
+        BiConsumer<SearchRequest, BiConsumer<List<Map<?, ?>>, Exception>> search = (request, handler) -> {
+            requests.add(request);
+            TermQueryBuilder termQueryBuilder = (TermQueryBuilder) ((ConstantScoreQueryBuilder) request.source().query()).innerQuery();
+            handler.accept(List.of(Map.of("domain", termQueryBuilder.value(), "tld", "co")), null);
+        };
+        MatchProcessor processor = new MatchProcessor("_tag", null, search, "_name", str("domain"), str("entry"), true, true, "domain", 1);
+        assertThat(processor.supportsBatchExecution(), equalTo(true));
+        List<IngestDocument> ingestDocuments = List.of(
+            TestIngestDocument.withDefaultVersion(new HashMap<>(Map.of("domain", "elastic.co"))),
+            TestIngestDocument.withDefaultVersion(new HashMap<>(Map.of("domain", "elastic.io"))),
+            TestIngestDocument.withDefaultVersion(new HashMap<>()),
+            TestIngestDocument.withDefaultVersion(new HashMap<>(Map.of("domain", "elastic.co")))
+        );
+
+        IngestDocument[] results = new IngestDocument[ingestDocuments.size()];
+        processor.executeBatch(ingestDocuments, (slot, result, e) -> {
+            assertThat(e, nullValue());
+            assertThat(results[slot], nullValue());
+            results[slot] = result;
+        });
+
+        // documents with the same key share a single search
+        assertThat(requests.size(), equalTo(2));
+        for (int i = 0; i < results.length; i++) {
+            assertThat(results[i], sameInstance(ingestDocuments.get(i)));
+        }
+        assertThat(results[0].getFieldValue("entry.domain", String.class), equalTo("elastic.co"));
+        assertThat(results[1].getFieldValue("entry.domain", String.class), equalTo("elastic.io"));
+        assertThat(results[2].hasField("entry"), equalTo(false));
+        assertThat(results[3].getFieldValue("entry.domain", String.class), equalTo("elastic.co"));
+        // the documents sharing a search can still be modified independently
+        results[3].setFieldValue("entry.tld", "io");
+        assertThat(results[0].getFieldValue("entry.tld", String.class), equalTo("co"));
+    }
+
     private static final class MockSearchFunction implements BiConsumer<SearchRequest, BiConsumer<List<Map<?, ?>>, Exception>> {
         private final List<Map<?, ?>> mockResponse;
         private final SetOnce<SearchRequest> capturedRequest;
@@ -247,6 +247,27 @@ public abstract class MetadataCachingIndexInput extends BlobCacheBufferedIndexIn
 
     protected abstract void readWithoutBlobCache(ByteBuffer b) throws Exception;
 
+    @Override
+    public final void prefetch(long offset, long length) throws IOException {
+        if (offset < 0L || length < 0L || offset + length > length()) {
+            throw new IllegalArgumentException(
+                "Invalid prefetch of [" + length + "] bytes at offset [" + offset + "] for a file of length [" + length() + "]"
+            );
+        }
+        if (length > 0L) {
+            doPrefetch(this.offset + offset, length);
+        }
+    }
+
+    /**
+     * Hints that the given range of the file is going to be read soon, so that implementations can start fetching it asynchronously.
+     * Does nothing by default.
+     *
+     * @param position the absolute position in the file to start prefetching from
+     * @param length   the number of bytes to prefetch
+     */
+    protected void doPrefetch(long position, long length) {}
+
     private ByteRange rangeToReadFromBlobCache(long position, int readLength) {
         final long end = position + readLength;
         if (headerBlobCacheByteRange.contains(position, end)) {
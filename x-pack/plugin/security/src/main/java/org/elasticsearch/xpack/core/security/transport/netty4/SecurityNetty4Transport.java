@@ -167,7 +167,12 @@ public class SecurityNetty4Transport extends Netty4Transport {
             return new InboundPipeline(
                 getStatsTracker(),
                 threadPool.relativeTimeInMillisSupplier(),
-                new InboundDecoder(recycler, RemoteClusterPortSettings.MAX_REQUEST_HEADER_SIZE.get(settings), SERVER),
+                new InboundDecoder(
+                    recycler,
+                    RemoteClusterPortSettings.MAX_REQUEST_HEADER_SIZE.get(settings),
+                    SERVER,
+                    TransportSettings.DEFERRED_DECOMPRESSION_THRESHOLD.get(settings)
+                ),
                 new InboundAggregator(getInflightBreaker(), getRequestHandlers()::getHandler, ignoreDeserializationErrors()),
                 this::inboundMessage
             ) {